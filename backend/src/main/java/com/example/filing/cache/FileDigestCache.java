@@ -0,0 +1,75 @@
+package com.example.filing.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文件内容摘要缓存
+ * 以文件路径作为键缓存内容的SHA-256，文件大小或修改时间变化时重新计算。
+ * 上传的文件以UUID命名、保存后不再修改，下载时的强ETag只需计算一次。
+ */
+@Component
+public class FileDigestCache {
+
+    private final int maxEntries;
+
+    /**
+     * 访问顺序的LinkedHashMap，超过条目上限时淘汰最久未使用的条目
+     */
+    private final LinkedHashMap<Path, Entry> entries;
+
+    private record Entry(long size, long lastModified, String sha256) {
+    }
+
+    public FileDigestCache(@Value("${file.download.digest-cache-max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Entry> eldest) {
+                return size() > FileDigestCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 获取文件内容的SHA-256
+     *
+     * @param file         文件路径
+     * @param size         文件大小
+     * @param lastModified 文件修改时间（毫秒）
+     * @return 十六进制的SHA-256
+     * @throws IOException 读取文件失败时抛出
+     */
+    public String sha256Hex(Path file, long size, long lastModified) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.size() == size && entry.lastModified() == lastModified) {
+                return entry.sha256();
+            }
+        }
+
+        // 在锁外计算，大文件不阻塞其他请求
+        String sha256;
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            sha256 = ParsedTemplateCache.sha256Hex(inputStream);
+        }
+        if (maxEntries > 0) {
+            synchronized (this) {
+                entries.put(key, new Entry(size, lastModified, sha256));
+            }
+        }
+        return sha256;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.filing.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Word模板解析结果缓存
+ * 以上传文件内容的SHA-256作为键，缓存解析后的模板内容（JSON字符串），
+ * 同时按条目数和估算的内存占用做LRU淘汰。
+ */
+@Component
+public class ParsedTemplateCache {
+
+    private static final String METRIC_PREFIX = "word.template.cache";
+
+    /**
+     * 每个条目的固定开销估算（键、链表节点等）
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    private final int maxEntries;
+    private final long maxBytes;
+
+    /**
+     * 访问顺序的LinkedHashMap，迭代顺序即LRU顺序
+     */
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+
+    public ParsedTemplateCache(MeterRegistry meterRegistry,
+            @Value("${word.template-cache.max-entries:256}") int maxEntries,
+            @Value("${word.template-cache.max-bytes:67108864}") long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+
+        this.hitCounter = Counter.builder(METRIC_PREFIX + ".requests")
+                .tag("result", "hit")
+                .description("模板解析缓存命中次数")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder(METRIC_PREFIX + ".requests")
+                .tag("result", "miss")
+                .description("模板解析缓存未命中次数")
+                .register(meterRegistry);
+        this.evictionCounter = Counter.builder(METRIC_PREFIX + ".evictions")
+                .description("模板解析缓存淘汰次数")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, ParsedTemplateCache::size)
+                .description("模板解析缓存条目数")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".bytes", this, ParsedTemplateCache::estimatedBytes)
+                .description("模板解析缓存估算占用内存")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 查询缓存
+     *
+     * @param contentHash 文件内容的SHA-256（十六进制）
+     * @return 解析后的模板内容，未命中时返回null
+     */
+    public String get(String contentHash) {
+        String content;
+        synchronized (this) {
+            content = entries.get(contentHash);
+        }
+        if (content != null) {
+            hitCounter.increment();
+        } else {
+            missCounter.increment();
+        }
+        return content;
+    }
+
+    /**
+     * 写入缓存，超出容量时淘汰最久未访问的条目
+     *
+     * @param contentHash     文件内容的SHA-256（十六进制）
+     * @param templateContent 解析后的模板内容
+     */
+    public void put(String contentHash, String templateContent) {
+        long weight = weigh(contentHash, templateContent);
+        if (weight > maxBytes || maxEntries <= 0) {
+            // 单个结果超过缓存容量，不缓存
+            return;
+        }
+
+        int evicted = 0;
+        synchronized (this) {
+            String previous = entries.put(contentHash, templateContent);
+            if (previous != null) {
+                currentBytes -= weigh(contentHash, previous);
+            }
+            currentBytes += weight;
+
+            Iterator<Map.Entry<String, String>> iterator = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || currentBytes > maxBytes) && iterator.hasNext()) {
+                Map.Entry<String, String> eldest = iterator.next();
+                currentBytes -= weigh(eldest.getKey(), eldest.getValue());
+                iterator.remove();
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            evictionCounter.increment(evicted);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long estimatedBytes() {
+        return currentBytes;
+    }
+
+    /**
+     * 计算输入流内容的SHA-256，读取到流末尾但不关闭流
+     *
+     * @param inputStream 输入流
+     * @return 十六进制的SHA-256
+     * @throws IOException 读取失败时抛出
+     */
+    public static String sha256Hex(InputStream inputStream) throws IOException {
+        MessageDigest digest = newSha256Digest();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 创建SHA-256摘要，用于在读取内容的同时计算哈希（如DigestInputStream）
+     *
+     * @return SHA-256摘要
+     */
+    public static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // 所有JRE都必须支持SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static long weigh(String contentHash, String templateContent) {
+        // Java字符串按每字符2字节估算
+        return ENTRY_OVERHEAD_BYTES + 2L * (contentHash.length() + templateContent.length());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.filing.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.filing.security.UserDetailsImpl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 已认证用户缓存
+ * 以登录名作为键，缓存JWT认证和用户标识解析时查询到的有效用户，避免每个请求都查询用户表。
+ * 条目在TTL到期后失效，用户被禁用、修改或删除时由UserServiceImpl主动清除。
+ */
+@Component
+public class PrincipalCache {
+
+    private static final String METRIC_PREFIX = "security.principal.cache";
+
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    /**
+     * 访问顺序的LinkedHashMap，迭代顺序即LRU顺序
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 清除次数，加载期间发生过清除时不写入缓存，避免旧数据覆盖清除结果
+     */
+    private long invalidations;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    private record Entry(UserDetailsImpl principal, long expiresAt) {
+    }
+
+    public PrincipalCache(MeterRegistry meterRegistry,
+            @Value("${security.principal-cache.ttl-ms:60000}") long ttlMillis,
+            @Value("${security.principal-cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+
+        this.hitCounter = Counter.builder(METRIC_PREFIX + ".requests")
+                .tag("result", "hit")
+                .description("认证用户缓存命中次数")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder(METRIC_PREFIX + ".requests")
+                .tag("result", "miss")
+                .description("认证用户缓存未命中次数")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, PrincipalCache::size)
+                .description("认证用户缓存条目数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 查询缓存，未命中或已过期时通过loader加载
+     *
+     * @param loginName 登录名
+     * @param loader    加载有效用户，用户不存在或已禁用时返回null（不缓存）
+     * @return 认证用户，不存在时返回null
+     */
+    public UserDetailsImpl get(String loginName, Function<String, UserDetailsImpl> loader) {
+        long generation;
+        synchronized (this) {
+            Entry entry = entries.get(loginName);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                hitCounter.increment();
+                return entry.principal();
+            }
+            generation = invalidations;
+        }
+        missCounter.increment();
+
+        UserDetailsImpl principal = loader.apply(loginName);
+        if (principal != null) {
+            put(loginName, principal, generation);
+        }
+        return principal;
+    }
+
+    /**
+     * 只查询缓存，不加载，不计入命中率指标（供认证以外的场景使用）
+     *
+     * @param loginName 登录名
+     * @return 未过期的认证用户，未缓存时返回null
+     */
+    public synchronized UserDetailsImpl peek(String loginName) {
+        Entry entry = entries.get(loginName);
+        return entry != null && entry.expiresAt() > System.currentTimeMillis() ? entry.principal() : null;
+    }
+
+    /**
+     * 当前清除代数，在查询数据库前获取，写入缓存时传给{@link #put}
+     *
+     * @return 清除代数
+     */
+    public synchronized long generation() {
+        return invalidations;
+    }
+
+    /**
+     * 写入有效用户，获取generation之后发生过清除时不写入，避免旧数据覆盖清除结果
+     *
+     * @param loginName  登录名
+     * @param principal  有效用户
+     * @param generation 查询数据库前通过{@link #generation()}获取的清除代数
+     */
+    public synchronized void put(String loginName, UserDetailsImpl principal, long generation) {
+        if (ttlMillis <= 0 || maxEntries <= 0 || generation != invalidations) {
+            return;
+        }
+        entries.put(loginName, new Entry(principal, System.currentTimeMillis() + ttlMillis));
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 清除指定用户的缓存
+     *
+     * @param loginName 登录名
+     */
+    public synchronized void invalidate(String loginName) {
+        invalidations++;
+        entries.remove(loginName);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.filing.config;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.filing.service.FileStorageService;
+import com.example.filing.service.impl.ObjectStorageFileStorageService;
+import com.example.filing.storage.ObjectStorageClient;
+import com.example.filing.storage.S3ObjectStorageClient;
+
+/**
+ * 对象存储配置，file.storage.type=s3时启用，替代本地文件存储
+ */
+@Configuration
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "s3")
+public class ObjectStorageConfig {
+
+    @Bean
+    public ObjectStorageClient objectStorageClient(
+            @Value("${file.storage.s3.endpoint}") String endpoint,
+            @Value("${file.storage.s3.region:us-east-1}") String region,
+            @Value("${file.storage.s3.bucket}") String bucket,
+            @Value("${file.storage.s3.access-key}") String accessKey,
+            @Value("${file.storage.s3.secret-key}") String secretKey,
+            @Value("${file.storage.s3.path-style-access:true}") boolean pathStyleAccess) {
+        return new S3ObjectStorageClient(URI.create(endpoint), region, bucket, accessKey, secretKey,
+                pathStyleAccess, Clock.systemUTC());
+    }
+
+    @Bean
+    public FileStorageService fileStorageService(ObjectStorageClient objectStorageClient, Path fileStorageLocation,
+            @Value("${file.storage.s3.cache-dir:}") String cacheDir,
+            @Value("${file.storage.shard-levels:1}") int shardLevels,
+            @Value("${file.storage.s3.part-size:8388608}") int partSize,
+            @Value("${file.storage.s3.cache-max-bytes:1073741824}") long cacheMaxBytes,
+            @Value("${file.storage.s3.presign-expiry-seconds:300}") long presignExpirySeconds) {
+        // 默认缓存到上传目录下的独立子目录，不与本地存储的文件混用
+        Path cacheLocation = cacheDir.isEmpty() ? fileStorageLocation.resolve(".object-cache")
+                : Paths.get(cacheDir).toAbsolutePath().normalize();
+        Duration presignExpiry = presignExpirySeconds > 0 ? Duration.ofSeconds(presignExpirySeconds) : null;
+        return new ObjectStorageFileStorageService(objectStorageClient, cacheLocation, shardLevels, partSize, cacheMaxBytes,
+                presignExpiry);
+    }
+}
@@ -18,6 +18,8 @@ import com.example.filing.security.JwtAuthenticationFilter;
 import com.example.filing.util.Result;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.servlet.DispatcherType;
+
 /**
  * 安全配置类
  */
@@ -41,16 +43,20 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // 事件流等异步请求的后续分派已在首次请求时完成认证
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/", "/index.html", "/static/**", "/favicon.ico").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/api/users/**").hasAnyAuthority("ROLE_ADMIN")
                         .requestMatchers("/api/templateRegistry/**").hasAnyAuthority("ROLE_ADMIN")
-                        .requestMatchers("/api/file/uploadTemplate").hasAnyAuthority("ROLE_ADMIN")
+                        .requestMatchers("/api/file/uploadTemplate", "/api/file/uploadTemplate/stream").hasAnyAuthority("ROLE_ADMIN")
                         .requestMatchers("/api/file/delete/**").hasAnyAuthority("ROLE_ADMIN")
                         .requestMatchers("/api/file/download/**").permitAll()
                         .requestMatchers("/api/userTemplate/**").authenticated()
                         .requestMatchers("/hello").permitAll()
+                        // 监控指标包含线程池、缓存和业务计数，只对管理员开放
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasAnyAuthority("ROLE_ADMIN")
                         .anyRequest().authenticated())
                 .exceptionHandling(ex -> ex
                         .accessDeniedHandler((request, response, accessDeniedException) -> {
@@ -0,0 +1,15 @@
+package com.example.filing.constants;
+
+/**
+ * 多处共用的监控指标名称常量
+ */
+public class MetricNames {
+
+    /**
+     * 用户模板版本冲突次数，按operation标签区分发生冲突的操作
+     */
+    public static final String USER_TEMPLATE_VERSION_CONFLICTS = "user.template.version.conflicts";
+
+    private MetricNames() {
+    }
+}
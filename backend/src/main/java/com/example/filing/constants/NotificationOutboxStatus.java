@@ -0,0 +1,25 @@
+package com.example.filing.constants;
+
+/**
+ * 通知发件箱投递状态常量
+ */
+public class NotificationOutboxStatus {
+
+    /**
+     * 待投递 - 等待后台线程投递或重试
+     */
+    public static final String PENDING = "PENDING";
+
+    /**
+     * 已投递 - 渠道已成功接收通知
+     */
+    public static final String SENT = "SENT";
+
+    /**
+     * 投递失败 - 重试次数已用完，不再投递
+     */
+    public static final String FAILED = "FAILED";
+
+    private NotificationOutboxStatus() {
+    }
+}
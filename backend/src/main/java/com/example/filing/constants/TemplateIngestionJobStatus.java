@@ -0,0 +1,30 @@
+package com.example.filing.constants;
+
+/**
+ * 模板导入任务状态常量
+ */
+public class TemplateIngestionJobStatus {
+
+    /**
+     * 排队中 - 文件已保存，等待工作线程处理
+     */
+    public static final String QUEUED = "QUEUED";
+
+    /**
+     * 处理中 - 正在解析文档并更新模板
+     */
+    public static final String RUNNING = "RUNNING";
+
+    /**
+     * 已完成 - 模板文件路径和内容均已更新
+     */
+    public static final String SUCCEEDED = "SUCCEEDED";
+
+    /**
+     * 失败 - 文档解析或模板更新失败
+     */
+    public static final String FAILED = "FAILED";
+
+    private TemplateIngestionJobStatus() {
+    }
+}
@@ -72,4 +72,33 @@ public class UserTemplateStatus {
                 return true;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 获取状态描述
+     * 
+     * @param status 状态值
+     * @return 状态描述
+     */
+    public static String getDescription(int status) {
+        switch (status) {
+            case PENDING_APPROVAL:
+                return "待审核";
+            case APPLICATION_APPROVED:
+                return "申请通过";
+            case APPLICATION_REJECTED:
+                return "拒绝申请";
+            case PENDING_FILL:
+                return "待填写";
+            case FILLING:
+                return "填写中";
+            case UNDER_REVIEW:
+                return "审核中";
+            case REVIEW_APPROVED:
+                return "审核通过";
+            case RETURNED:
+                return "退回";
+            default:
+                return "未知状态";
+        }
+    }
+}
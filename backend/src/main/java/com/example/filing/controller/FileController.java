@@ -1,11 +1,25 @@
 package com.example.filing.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,23 +30,44 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.filing.cache.FileDigestCache;
+import com.example.filing.dto.response.TemplateUploadResult;
 import com.example.filing.service.FileStorageService;
-import com.example.filing.service.WordDocumentService;
+import com.example.filing.service.TemplateUploadService;
+import com.example.filing.util.FileDownloadUtil;
+import com.example.filing.util.LimitedInputStream;
 import com.example.filing.util.Result;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/api/file")
 public class FileController {
 
     private final FileStorageService fileStorageService;
-    private final WordDocumentService wordDocumentService;
+    private final TemplateUploadService templateUploadService;
+    private final FileDigestCache fileDigestCache;
+
+    /**
+     * 流式上传的大小上限（字节）
+     */
+    @Value("${file.upload.stream-max-bytes:104857600}")
+    private long streamMaxBytes = 104857600;
+
+    public FileController(FileStorageService fileStorageService, TemplateUploadService templateUploadService) {
+        this(fileStorageService, templateUploadService, new FileDigestCache(1000));
+    }
 
     @Autowired
-    public FileController(FileStorageService fileStorageService, WordDocumentService wordDocumentService) {
+    public FileController(FileStorageService fileStorageService, TemplateUploadService templateUploadService,
+            FileDigestCache fileDigestCache) {
         this.fileStorageService = fileStorageService;
-        this.wordDocumentService = wordDocumentService;
+        this.templateUploadService = templateUploadService;
+        this.fileDigestCache = fileDigestCache;
     }
 
     /**
@@ -48,56 +83,149 @@ public class FileController {
             return ResponseEntity.badRequest().body(Result.failed("Please select a file to upload"));
         }
 
-        // 验证文件是否为Word文档
-        if (!wordDocumentService.isValidWordDocument(file)) {
-            return ResponseEntity.badRequest().body(Result.failed("Only Word documents (.docx) are allowed"));
-        }
-
         try {
-            // 保存文件
-            String fileName = fileStorageService.storeFile(file, "templates");
-
-            // 解析Word文档
-            String templateContent = wordDocumentService.parseWordDocument(file);
+            // 保存文件的同时验证并解析Word文档
+            return uploadResponse(templateUploadService.uploadWordTemplate(file, "templates"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Result.failed("Failed to upload file: " + e.getMessage()));
+        }
+    }
 
-            Map<String, String> response = new HashMap<>();
-            response.put("fileName", fileName);
-            response.put("templateContent", templateContent);
+    /**
+     * 以流的方式上传Word模板文件
+     * 请求体即文件内容（application/octet-stream），文件名通过fileName参数传递；
+     * 内容直接写入存储并同时解析，不经过multipart临时文件，适合较大的文档
+     * 
+     * @param fileName 原始文件名
+     * @param request  请求
+     * @return 上传结果
+     */
+    @PostMapping(value = "/uploadTemplate/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Result<Map<String, String>>> uploadTemplateStream(@RequestParam("fileName") String fileName,
+            HttpServletRequest request) {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength == 0) {
+            return ResponseEntity.badRequest().body(Result.failed("Please select a file to upload"));
+        }
+        if (contentLength > streamMaxBytes) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Result.failed(HttpStatus.PAYLOAD_TOO_LARGE.value(), "File exceeds the maximum upload size"));
+        }
 
-            return ResponseEntity.ok(Result.success(response));
+        // 分块传输的请求没有Content-Length，读取时检查大小
+        try (InputStream inputStream = new LimitedInputStream(request.getInputStream(), streamMaxBytes)) {
+            return uploadResponse(templateUploadService.uploadWordTemplate(inputStream, fileName, "templates"));
         } catch (Exception e) {
+            if (LimitedInputStream.isLimitExceeded(e)) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(
+                        Result.failed(HttpStatus.PAYLOAD_TOO_LARGE.value(), "File exceeds the maximum upload size"));
+            }
             return ResponseEntity.badRequest().body(Result.failed("Failed to upload file: " + e.getMessage()));
         }
     }
 
     /**
      * 下载文件
+     * 响应携带基于内容SHA-256的强ETag和Last-Modified，条件请求命中时返回304；
+     * 支持单个字节范围请求（206），文件内容通过sendfile或FileChannel.transferTo发送；
+     * 存储服务提供直接下载地址（对象存储预签名URL）时重定向到该地址
      * 
      * @param fileName     文件名
      * @param subDirectory 子目录
-     * @return 文件资源
+     * @param request      请求
+     * @param response     响应
      */
     @GetMapping("/download/{subDirectory}/{fileName:.+}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName, @PathVariable String subDirectory) {
+    public void downloadFile(@PathVariable String fileName, @PathVariable String subDirectory,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<URI> downloadUrl;
+        try {
+            downloadUrl = fileStorageService.getDownloadUrl(fileName, subDirectory);
+        } catch (RuntimeException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (downloadUrl.isPresent()) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            response.sendRedirect(downloadUrl.get().toString());
+            return;
+        }
+
+        Path file;
         try {
             // 加载文件为资源
             Resource resource = fileStorageService.loadFileAsResource(fileName, subDirectory);
+            if (resource == null || !resource.exists() || !resource.isFile()) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            file = resource.getFile().toPath();
+        } catch (RuntimeException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + fileDigestCache.sha256Hex(file, length, lastModified) + "\"";
+
+        // 每次使用前向服务端确认，内容未变化时只返回304
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        String filename = file.getFileName().toString();
+        response.setContentType(FileDownloadUtil.contentType(filename).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
 
-            // 检查资源是否存在
-            if (!resource.exists()) {
-                throw new RuntimeException("File not found: " + fileName);
+        FileDownloadUtil.ByteRange range = null;
+        if (isRangeApplicable(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            try {
+                range = FileDownloadUtil.parseRange(request.getHeader(HttpHeaders.RANGE), length);
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
             }
+        }
 
-            // 确定内容类型
-            String contentType = "application/octet-stream";
-            String filename = resource.getFilename() != null ? resource.getFilename() : fileName;
+        long start = 0;
+        long count = length;
+        if (range != null) {
+            start = range.start();
+            count = range.length();
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range.start() + "-" + range.end() + "/" + length);
+        }
+        response.setContentLengthLong(count);
+        if (!HttpMethod.HEAD.matches(request.getMethod())) {
+            FileDownloadUtil.transfer(file, start, count, request, response);
+        }
+    }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .body(resource);
-        } catch (Exception e) {
-            throw new RuntimeException("Error downloading file: " + e.getMessage(), e);
+    /**
+     * If-Range与当前ETag（或修改时间）一致时才按范围返回，否则返回完整内容
+     */
+    private static boolean isRangeApplicable(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            long ifRangeTime = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant()
+                    .toEpochMilli();
+            return lastModified / 1000 == ifRangeTime / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
         }
     }
 
@@ -118,4 +246,16 @@ public class FileController {
             return ResponseEntity.badRequest().body(Result.failed("Failed to delete file"));
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<Result<Map<String, String>>> uploadResponse(TemplateUploadResult uploadResult) {
+        if (!uploadResult.isValid()) {
+            return ResponseEntity.badRequest().body(Result.failed("Only Word documents (.docx) are allowed"));
+        }
+
+        Map<String, String> response = new HashMap<>();
+        response.put("fileName", uploadResult.getFileName());
+        response.put("templateContent", uploadResult.getTemplateContent());
+
+        return ResponseEntity.ok(Result.success(response));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.filing.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.filing.dto.response.TemplateBulkImportReport;
+import com.example.filing.dto.response.TemplateIngestionJob;
+import com.example.filing.security.UserDetailsImpl;
+import com.example.filing.service.TemplateBulkImportService;
+import com.example.filing.service.TemplateIngestionService;
+import com.example.filing.util.Result;
+
+/**
+ * 模板导入任务查询与批量导入控制器
+ * 模板文件上传接口见 {@link TemplateRegistryController#uploadTemplateFile}
+ */
+@RestController
+@RequestMapping("/api/templateRegistry/ingestion")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class TemplateIngestionController {
+
+    private final TemplateIngestionService templateIngestionService;
+    private final TemplateBulkImportService templateBulkImportService;
+
+    @Autowired
+    public TemplateIngestionController(TemplateIngestionService templateIngestionService,
+            TemplateBulkImportService templateBulkImportService) {
+        this.templateIngestionService = templateIngestionService;
+        this.templateBulkImportService = templateBulkImportService;
+    }
+
+    /**
+     * 查询导入任务进度或结果
+     *
+     * @param jobId 任务ID
+     * @return 任务信息
+     */
+    @GetMapping(value = "/jobs/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Result<?>> getJob(@PathVariable String jobId) {
+        Result<TemplateIngestionJob> result = templateIngestionService.getJob(jobId);
+        if (result.getCode() != 200) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(result);
+    }
+
+    /**
+     * 批量导入模板：接收多个.docx文件或包含.docx文件的.zip压缩包
+     *
+     * @param files          上传的文件
+     * @param templateType   模板类型（可选）
+     * @param authentication 认证信息
+     * @return 每个文件的导入结果
+     */
+    @PostMapping(value = "/bulkImport", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Result<?>> bulkImport(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "templateType", required = false) String templateType,
+            Authentication authentication) {
+
+        // 获取用户ID（处理可能的类型转换问题）
+        String userId;
+        try {
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            userId = userDetails.getId();
+        } catch (ClassCastException e) {
+            // 处理类型转换异常，使用认证主体的名称作为替代
+            userId = authentication.getName();
+        }
+
+        try {
+            Result<TemplateBulkImportReport> result = templateBulkImportService.importTemplates(files, templateType,
+                    userId);
+            if (result.getCode() != 200) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Result.failed("批量导入失败: " + e.getMessage()));
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,9 +18,13 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.filing.dto.request.TemplateRegistryRequest;
+import com.example.filing.dto.response.TemplateIngestionJob;
+import com.example.filing.dto.response.TemplateUploadResult;
 import com.example.filing.security.UserDetailsImpl;
 import com.example.filing.service.FileStorageService;
+import com.example.filing.service.TemplateIngestionService;
 import com.example.filing.service.TemplateRegistryService;
+import com.example.filing.service.TemplateUploadService;
 import com.example.filing.service.WordDocumentService;
 import com.example.filing.util.Result;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -35,16 +40,22 @@ public class TemplateRegistryController {
     private final TemplateRegistryService templateRegistryService;
     private final FileStorageService fileStorageService;
     private final WordDocumentService wordDocumentService;
+    private final TemplateUploadService templateUploadService;
+    private final TemplateIngestionService templateIngestionService;
     private final ObjectMapper objectMapper;
 
     @Autowired
     public TemplateRegistryController(TemplateRegistryService templateRegistryService,
             FileStorageService fileStorageService,
             WordDocumentService wordDocumentService,
+            TemplateUploadService templateUploadService,
+            TemplateIngestionService templateIngestionService,
             ObjectMapper objectMapper) {
         this.templateRegistryService = templateRegistryService;
         this.fileStorageService = fileStorageService;
         this.wordDocumentService = wordDocumentService;
+        this.templateUploadService = templateUploadService;
+        this.templateIngestionService = templateIngestionService;
         this.objectMapper = objectMapper;
     }
 
@@ -143,28 +154,18 @@ public class TemplateRegistryController {
 
             // 处理文件上传（如果有）
             if (file != null && !file.isEmpty()) {
-                // 验证文件是否为Word文档
-                if (!wordDocumentService.isValidWordDocument(file)) {
-                    return ResponseEntity.badRequest().body(Result.failed("仅允许上传Word文档(.docx)"));
+                // 保存文件的同时验证并解析Word文档
+                TemplateUploadResult uploadResult = templateUploadService.uploadWordTemplate(file, "templates");
+                if (!uploadResult.isValid()) {
+                    return ResponseEntity.badRequest().body(Result.failed(uploadResult.getMessage()));
                 }
 
-                // 保存文件
-                String fileName = fileStorageService.storeFile(file, "templates");
-                String filePath = "templates/" + fileName;
-
                 // 设置文件路径
-                finalRequest.setFilePath(filePath);
+                finalRequest.setFilePath(uploadResult.getFilePath());
 
-                // 尝试解析文档内容
-                try {
-                    String extractedContent = wordDocumentService.parseWordDocument(file);
-                    // 如果请求中没有提供模板内容，则使用解析出的内容
-                    if (finalRequest.getTemplateContent() == null || finalRequest.getTemplateContent().isEmpty()) {
-                        finalRequest.setTemplateContent(extractedContent);
-                    }
-                } catch (Exception e) {
-                    // 解析失败不中断处理，只记录错误
-                    System.err.println("文档解析失败: " + e.getMessage());
+                // 如果请求中没有提供模板内容，则使用解析出的内容
+                if (finalRequest.getTemplateContent() == null || finalRequest.getTemplateContent().isEmpty()) {
+                    finalRequest.setTemplateContent(uploadResult.getTemplateContent());
                 }
             }
 
@@ -218,8 +219,9 @@ public class TemplateRegistryController {
             return ResponseEntity.badRequest().body(Result.failed("请选择文件上传"));
         }
 
-        // 验证文件是否为Word文档
-        if (!wordDocumentService.isValidWordDocument(file)) {
+        // 验证文件扩展名，文档格式在解析时校验（解析结果按文件内容缓存，重复预览不再重新解析）
+        String originalFilename = file.getOriginalFilename();
+        if (originalFilename == null || !originalFilename.toLowerCase().endsWith(".docx")) {
             return ResponseEntity.badRequest().body(Result.failed("仅允许上传Word文档(.docx)"));
         }
 
@@ -257,10 +259,11 @@ public class TemplateRegistryController {
 
     /**
      * 上传模板文件并更新模板内容
+     * 请求线程只保存文件，解析和模板更新由导入任务在后台执行，通过任务ID查询进度和结果
      * 
      * @param file       上传的Word文档文件
      * @param templateId 模板ID
-     * @return 上传结果
+     * @return 已提交的导入任务
      */
     @PostMapping(value = "/uploadTemplateFile", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Result<?>> uploadTemplateFile(
@@ -271,65 +274,15 @@ public class TemplateRegistryController {
             return ResponseEntity.badRequest().body(Result.failed("请选择文件上传"));
         }
 
-        // 验证文件是否为Word文档
-        if (!wordDocumentService.isValidWordDocument(file)) {
-            return ResponseEntity.badRequest().body(Result.failed("仅允许上传Word文档(.docx)"));
-        }
-
         try {
-            // 保存文件
-            String fileName = fileStorageService.storeFile(file, "templates");
-
-            // 解析Word文档
-            String templateContent = wordDocumentService.parseWordDocument(file);
-
-            // 转换为对象以便进行基本验证
-            Map<String, Object> contentMap = objectMapper.readValue(templateContent, Map.class);
-
-            // 基本验证 - 确保有表单字段
-            if (contentMap.containsKey("formFields")) {
-                int fieldCount = ((java.util.List<?>) contentMap.get("formFields")).size();
-                if (fieldCount == 0) {
-                    return ResponseEntity.badRequest().body(Result.failed("未检测到任何表单字段，请检查文档格式"));
-                }
-            } else {
-                return ResponseEntity.badRequest().body(Result.failed("文档结构无效，未包含表单字段定义"));
-            }
-
-            // 更新模板文件路径
-            String filePath = "templates/" + fileName;
-            Result<?> pathUpdateResult = templateRegistryService.updateTemplateFilePath(templateId, filePath);
-            if (pathUpdateResult.getCode() != 200) {
-                return ResponseEntity.badRequest().body(pathUpdateResult);
-            }
-
-            // 更新模板内容
-            Result<?> contentUpdateResult = templateRegistryService.updateTemplateContent(templateId, templateContent);
-            if (contentUpdateResult.getCode() != 200) {
-                return ResponseEntity.badRequest().body(contentUpdateResult);
+            Result<TemplateIngestionJob> result = templateIngestionService.submitUploadJob(file, templateId);
+            if (result.getCode() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
             }
-
-            // 统计信息
-            Map<String, Object> stats = new HashMap<>();
-            if (contentMap.containsKey("formFields")) {
-                stats.put("totalFields", ((java.util.List<?>) contentMap.get("formFields")).size());
-
-                // 按类型统计字段
-                Map<String, Integer> fieldTypeCount = new HashMap<>();
-                for (Object field : (java.util.List<?>) contentMap.get("formFields")) {
-                    Map<?, ?> fieldMap = (Map<?, ?>) field;
-                    String type = (String) fieldMap.get("type");
-                    fieldTypeCount.put(type, fieldTypeCount.getOrDefault(type, 0) + 1);
-                }
-                stats.put("fieldTypeCount", fieldTypeCount);
+            if (result.getCode() != 200) {
+                return ResponseEntity.badRequest().body(result);
             }
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("fileName", fileName);
-            response.put("filePath", filePath);
-            response.put("statistics", stats);
-
-            return ResponseEntity.ok(Result.success("模板文件上传成功，已更新模板内容", response));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Result.failed("文件上传失败: " + e.getMessage()));
         }
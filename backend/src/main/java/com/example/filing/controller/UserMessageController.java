@@ -0,0 +1,93 @@
+package com.example.filing.controller;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.filing.entity.UserMessage;
+import com.example.filing.repository.UserMessageRepository;
+import com.example.filing.security.UserIdentityResolver;
+import com.example.filing.util.Result;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 站内消息控制器
+ */
+@RestController
+@RequestMapping("/api/messages")
+@RequiredArgsConstructor
+public class UserMessageController {
+
+    private final UserMessageRepository userMessageRepository;
+    private final UserIdentityResolver userIdentityResolver;
+
+    /**
+     * 分页获取当前用户的站内消息，最新的在前
+     *
+     * @param current  当前页
+     * @param pageSize 每页大小
+     * @param auth     认证信息
+     * @return 站内消息分页列表
+     */
+    @GetMapping("/page")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Result<Page<UserMessage>>> getMessages(
+            @RequestParam(defaultValue = "1") Integer current,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            Authentication auth) {
+        String userId = userIdentityResolver.resolveUserId(auth.getName());
+        if (userId == null) {
+            return ResponseEntity.badRequest().body(Result.failed("无法识别当前用户"));
+        }
+        Page<UserMessage> page = userMessageRepository.findByUserIdOrderByCreateTimeDesc(userId,
+                PageRequest.of(Math.max(current - 1, 0), Math.min(Math.max(pageSize, 1), 100)));
+        return ResponseEntity.ok(Result.success(page));
+    }
+
+    /**
+     * 获取当前用户的未读消息数
+     *
+     * @param auth 认证信息
+     * @return 未读消息数
+     */
+    @GetMapping("/unreadCount")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Result<Map<String, Long>>> getUnreadCount(Authentication auth) {
+        String userId = userIdentityResolver.resolveUserId(auth.getName());
+        if (userId == null) {
+            return ResponseEntity.badRequest().body(Result.failed("无法识别当前用户"));
+        }
+        return ResponseEntity.ok(Result.success(Map.of("unreadCount",
+                userMessageRepository.countByUserIdAndReadFalse(userId))));
+    }
+
+    /**
+     * 将消息标记为已读
+     *
+     * @param id   消息ID
+     * @param auth 认证信息
+     * @return 操作结果
+     */
+    @PostMapping("/{id}/read")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Result<String>> markRead(@PathVariable String id, Authentication auth) {
+        String userId = userIdentityResolver.resolveUserId(auth.getName());
+        if (userId == null) {
+            return ResponseEntity.badRequest().body(Result.failed("无法识别当前用户"));
+        }
+        userMessageRepository.markRead(id, userId, LocalDateTime.now());
+        return ResponseEntity.ok(Result.success("已读"));
+    }
+}
@@ -1,39 +1,56 @@
 package com.example.filing.controller;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.filing.constants.UserTemplateStatus;
 import com.example.filing.dto.request.ApplyTemplateRequest;
+import com.example.filing.dto.request.BatchReviewRequest;
+import com.example.filing.dto.response.BatchReviewResult;
+import com.example.filing.dto.response.CursorPage;
+import com.example.filing.dto.response.TemplateAssignmentJob;
 import com.example.filing.dto.response.UserTemplateDTO;
+import com.example.filing.dto.response.UserTemplateUpdateResult;
 import com.example.filing.entity.AuditLog;
 import com.example.filing.entity.SysUser;
 import com.example.filing.entity.TemplateRegistry;
 import com.example.filing.entity.UserTemplate;
+import com.example.filing.event.TemplateEventBus;
 import com.example.filing.repository.SysUserRepository;
 import com.example.filing.repository.TemplateRegistryRepository;
 import com.example.filing.repository.UserTemplateRepository;
+import com.example.filing.security.UserDetailsImpl;
+import com.example.filing.service.TemplateAssignmentService;
+import com.example.filing.service.TemplateStatisticsService;
 import com.example.filing.service.UserTemplateService;
 import com.example.filing.util.Result;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -45,9 +62,23 @@ import lombok.RequiredArgsConstructor;
 public class UserTemplateController {
 
     private final UserTemplateService userTemplateService;
+    private final TemplateStatisticsService templateStatisticsService;
     private final UserTemplateRepository userTemplateRepository;
     private final SysUserRepository sysUserRepository;
     private final TemplateRegistryRepository templateRegistryRepository;
+    private final TemplateEventBus templateEventBus;
+    private final TemplateAssignmentService templateAssignmentService;
+
+    @Value("${events.stream-timeout-ms:1800000}")
+    private long eventStreamTimeoutMillis;
+
+    private static final String JSON_PATCH_VALUE = "application/json-patch+json";
+    private static final String MERGE_PATCH_VALUE = "application/merge-patch+json";
+
+    /**
+     * 批量审核单次最多处理的记录数
+     */
+    private static final int MAX_BATCH_REVIEW_SIZE = 1000;
 
     /**
      * 分页获取用户模板列表
@@ -84,15 +115,14 @@ public class UserTemplateController {
                     ", pageNum=" + pageNum + ", pageSize=" + pageSize);
             System.out.println("获取用户模板列表 - 认证信息: loginName=" + loginName + ", isAdmin=" + isAdmin);
 
-            // 通过登录名获取用户ID(UUID)
-            SysUser currentUser = sysUserRepository.findByLoginName(loginName);
-            if (currentUser == null) {
+            // 获取当前用户ID(UUID)
+            String currentUserId = resolveCurrentUserId(auth);
+            if (currentUserId == null) {
                 System.err.println("错误: 找不到登录名为 " + loginName + " 的用户");
                 return ResponseEntity.badRequest()
                         .body(Result.failed("无法识别当前用户"));
             }
 
-            String currentUserId = currentUser.getId();
             System.out.println("当前用户信息: loginName=" + loginName + ", userId=" + currentUserId);
 
             // 处理根据ID查询单条记录的情况
@@ -149,7 +179,7 @@ public class UserTemplateController {
             int page = pageNum > 0 ? pageNum - 1 : 0;
 
             PageRequest pageRequest = PageRequest.of(page, pageSize, Sort.by("createTime").descending());
-            Page<Object[]> queryResult;
+            Page<UserTemplateDTO> queryResult;
 
             // 处理特殊值"current"，用当前登录用户ID替代
             if ("current".equals(userId)) {
@@ -162,7 +192,7 @@ public class UserTemplateController {
                 System.out.println("管理员查询所有用户模板，过滤条件: templateName=" + templateName +
                         ", templateCode=" + templateCode + ", status=" + status);
 
-                // 使用新的联合查询方法，同时获取模板信息
+                // 联合查询模板信息和用户信息，只查询列表字段
                 queryResult = userTemplateRepository.findAllWithTemplateInfoFilters(
                         pageRequest,
                         templateName,
@@ -184,7 +214,7 @@ public class UserTemplateController {
                             .body(Result.failed("无权查看其他用户的模板"));
                 }
 
-                // 使用新的带模板信息的查询方法
+                // 联合查询模板信息和用户信息，只查询列表字段
                 queryResult = userTemplateRepository.findByUserIdWithTemplateInfoFilters(
                         targetUserId,
                         pageRequest,
@@ -217,38 +247,20 @@ public class UserTemplateController {
                     System.out.println("查询到的记录详情:");
                     int printLimit = Math.min(queryResult.getContent().size(), 3); // 最多输出3条避免日志过长
                     for (int i = 0; i < printLimit; i++) {
-                        Object[] result = queryResult.getContent().get(i);
-                        UserTemplate ut = (UserTemplate) result[0];
-                        TemplateRegistry tr = (TemplateRegistry) result[1];
-                        System.out.println("记录 #" + i + ": ID=" + ut.getId() +
-                                ", 用户ID=" + ut.getUserId() +
-                                ", 模板ID=" + ut.getTemplateId() +
-                                ", 模板名称=" + tr.getTemplateName() +
-                                ", 模板编号=" + tr.getTemplateCode() +
-                                ", 状态=" + ut.getStatus() +
-                                ", 创建时间=" + ut.getCreateTime());
+                        UserTemplateDTO item = queryResult.getContent().get(i);
+                        System.out.println("记录 #" + i + ": ID=" + item.getId() +
+                                ", 用户ID=" + item.getUserId() +
+                                ", 模板ID=" + item.getTemplateId() +
+                                ", 模板名称=" + item.getTemplateName() +
+                                ", 模板编号=" + item.getTemplateCode() +
+                                ", 状态=" + item.getStatus() +
+                                ", 创建时间=" + item.getCreateTime());
                     }
                 }
             }
 
-            // 将查询结果转换为DTO
-            List<UserTemplateDTO> dtoList = queryResult.getContent().stream()
-                    .map(result -> {
-                        UserTemplate ut = (UserTemplate) result[0];
-                        TemplateRegistry tr = (TemplateRegistry) result[1];
-                        SysUser su = result.length > 2 ? (SysUser) result[2] : null; // 处理可能没有用户信息的情况
-                        return UserTemplateDTO.fromEntity(ut, tr, su);
-                    })
-                    .collect(Collectors.toList());
-
-            // 创建DTO分页结果
-            Page<UserTemplateDTO> dtoPage = new PageImpl<>(
-                    dtoList,
-                    queryResult.getPageable(),
-                    queryResult.getTotalElements());
-
-            // 使用 Result.success 包装返回结果
-            return ResponseEntity.ok(Result.success(dtoPage));
+            // 列表不包含填写内容，内容通过getTemplateContent接口按需获取
+            return ResponseEntity.ok(Result.success(queryResult));
         } catch (Exception e) {
             System.err.println("获取用户模板列表失败: " + e.getMessage());
             e.printStackTrace();
@@ -257,6 +269,57 @@ public class UserTemplateController {
         }
     }
 
+    /**
+     * 按游标分页获取用户模板列表（按创建时间倒序）
+     * 每页查询开销固定，适合滚动浏览大量记录；总记录数需要时通过withTotal单独统计
+     *
+     * @param userId       用户ID（可选，规则同/page接口）
+     * @param templateName 模板名称（可选，筛选条件）
+     * @param templateCode 模板编号（可选，筛选条件）
+     * @param status       状态值（可选，筛选条件）
+     * @param cursor       上一页返回的nextCursor，不传时查询第一页
+     * @param pageSize     每页大小，最大100
+     * @param withTotal    是否返回总记录数
+     * @return 用户模板列表项
+     */
+    @GetMapping("/cursorPage")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Result<CursorPage<UserTemplateDTO>>> getUserTemplateCursorPage(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String templateName,
+            @RequestParam(required = false) String templateCode,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "20") int pageSize,
+            @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal,
+            Authentication auth) {
+
+        boolean isAdmin = auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        String currentUserId = resolveCurrentUserId(auth);
+        if (currentUserId == null) {
+            return ResponseEntity.badRequest().body(Result.failed("无法识别当前用户"));
+        }
+
+        // 管理员不传userId或userId为'all'时查询所有用户，'current'表示当前用户
+        String targetUserId;
+        if (isAdmin && (userId == null || "all".equals(userId))) {
+            targetUserId = null;
+        } else if (userId == null || "current".equals(userId)) {
+            targetUserId = currentUserId;
+        } else {
+            targetUserId = userId;
+        }
+        if (!isAdmin && !currentUserId.equals(targetUserId)) {
+            return ResponseEntity.badRequest().body(Result.failed("无权查看其他用户的模板"));
+        }
+
+        int size = Math.min(Math.max(pageSize, 1), 100);
+        Result<CursorPage<UserTemplateDTO>> result = userTemplateService.getUserTemplateCursorPage(targetUserId,
+                templateName, templateCode, status, cursor, size, withTotal);
+        return toResponse(result);
+    }
+
     /**
      * 用户申请模板或管理员发送模板
      *
@@ -274,7 +337,7 @@ public class UserTemplateController {
 
         try {
             // 获取当前用户ID和角色
-            String userId = auth.getName();
+            String userId = operatorId(auth);
             boolean isAdmin = auth.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
@@ -318,31 +381,31 @@ public class UserTemplateController {
      *
      * @param id      用户模板关系ID
      * @param status  新状态
+     * @param version 客户端持有的版本号（可选），传入时版本不一致返回409
      * @param remarks 备注信息
      * @param auth    认证信息
      * @return 更新结果
      */
     @PostMapping("/updateTemplateStatus")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Result<String>> updateTemplateStatus(
+    public ResponseEntity<Result<?>> updateTemplateStatus(
             @RequestParam String id,
             @RequestParam Integer status,
+            @RequestParam(required = false) Long version,
             @RequestBody(required = false) String remarks,
             Authentication auth) {
 
         // 从Authentication获取用户ID和角色
-        String userId = auth.getName();
+        String userId = operatorId(auth);
         boolean isAdmin = auth.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
         // 调用服务层方法
-        Result<String> result = userTemplateService.updateTemplateStatus(id, status, remarks, userId, isAdmin);
+        Result<?> result = version != null
+                ? userTemplateService.updateTemplateStatus(id, status, remarks, version, userId, isAdmin)
+                : userTemplateService.updateTemplateStatus(id, status, remarks, userId, isAdmin);
 
-        if (result.getCode() == 200) {
-            return ResponseEntity.ok(result);
-        } else {
-            return ResponseEntity.badRequest().body(result);
-        }
+        return toResponse(result);
     }
 
     /**
@@ -363,7 +426,7 @@ public class UserTemplateController {
             Authentication auth) {
 
         // 从Authentication获取管理员ID
-        String adminId = auth.getName();
+        String adminId = operatorId(auth);
 
         // 验证状态值是否有效
         if (status != UserTemplateStatus.REVIEW_APPROVED && status != UserTemplateStatus.RETURNED) {
@@ -382,6 +445,79 @@ public class UserTemplateController {
         }
     }
 
+    /**
+     * 管理员批量审核
+     * 全部记录一次加载、状态更新按批次执行，返回每条记录的处理结果；部分记录失败不影响其他记录
+     *
+     * @param request 批量审核请求（ID列表、目标状态6-审核通过或7-退回、审核意见）
+     * @param auth    认证信息
+     * @return 每条记录的处理结果
+     */
+    @PostMapping("/batchReview")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Result<BatchReviewResult>> batchReviewTemplates(
+            @RequestBody BatchReviewRequest request,
+            Authentication auth) {
+        Integer status = request.getStatus();
+        if (status == null
+                || (status != UserTemplateStatus.REVIEW_APPROVED && status != UserTemplateStatus.RETURNED)) {
+            return ResponseEntity.badRequest()
+                    .body(Result.validateFailed("无效的审核状态，只能是审核通过(6)或退回(7)"));
+        }
+        if (request.getIds() == null || request.getIds().isEmpty()) {
+            return ResponseEntity.badRequest().body(Result.validateFailed("审核记录不能为空"));
+        }
+        if (request.getIds().size() > MAX_BATCH_REVIEW_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Result.validateFailed("单次最多审核" + MAX_BATCH_REVIEW_SIZE + "条记录"));
+        }
+
+        return toResponse(userTemplateService.batchReviewTemplates(request.getIds(), status, request.getRemarks(),
+                operatorId(auth)));
+    }
+
+    /**
+     * 管理员向大批用户发送模板（异步）
+     * 立即返回任务ID，接收人批量解析、关系分块插入并逐块提交，通过任务查询接口获取进度
+     *
+     * @param templateId 模板ID
+     * @param request    请求体（接收人ID或登录名列表）
+     * @param auth       认证信息
+     * @return 已提交的任务；任务队列已满时返回503
+     */
+    @PostMapping("/assign")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Result<TemplateAssignmentJob>> assignTemplate(
+            @RequestParam String templateId,
+            @RequestBody ApplyTemplateRequest request,
+            Authentication auth) {
+        Result<TemplateAssignmentJob> result = templateAssignmentService.submitAssignment(templateId,
+                request.getUserIds(), operatorId(auth));
+        if (result.getCode() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result);
+        }
+        if (result.getCode() != 200) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+    }
+
+    /**
+     * 查询模板批量发送任务的进度或结果
+     *
+     * @param jobId 任务ID
+     * @return 任务信息
+     */
+    @GetMapping("/assign/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Result<TemplateAssignmentJob>> getAssignmentJob(@PathVariable String jobId) {
+        Result<TemplateAssignmentJob> result = templateAssignmentService.getJob(jobId);
+        if (result.getCode() != 200) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * 用户提交表单内容进行审核
      *
@@ -403,16 +539,13 @@ public class UserTemplateController {
             // 从Authentication获取用户登录名
             String loginName = auth.getName();
 
-            // 通过登录名查找用户实体以获取UUID
-            SysUser user = sysUserRepository.findByLoginName(loginName);
-            if (user == null) {
+            // 获取用户ID(UUID)
+            String userUUID = resolveCurrentUserId(auth);
+            if (userUUID == null) {
                 System.err.println("错误: 找不到登录名为 " + loginName + " 的用户");
                 return ResponseEntity.badRequest()
                         .body(Result.failed("无法识别当前用户"));
             }
-
-            // 获取用户ID(UUID)
-            String userUUID = user.getId();
             System.out.println("提交审核 - 用户信息: loginName=" + loginName + ", userId=" + userUUID);
 
             // 验证模板是否存在且状态是否允许提交
@@ -448,10 +581,9 @@ public class UserTemplateController {
             }
 
             // 调用服务层方法，将状态设为审核中(5)
-            // 注意: 此处传递loginName而非UUID，因为服务层会再次进行转换
-            System.out.println("提交审核 - 调用服务层: id=" + id + ", loginName=" + loginName);
+            System.out.println("提交审核 - 调用服务层: id=" + id + ", userId=" + userUUID);
             Result<String> result = userTemplateService.updateTemplateStatus(
-                    id, UserTemplateStatus.UNDER_REVIEW, "用户提交审核", loginName, false);
+                    id, UserTemplateStatus.UNDER_REVIEW, "用户提交审核", userUUID, false);
 
             System.out.println("提交审核 - 服务层返回: code=" + result.getCode() + ", message=" + result.getMessage());
 
@@ -489,14 +621,16 @@ public class UserTemplateController {
      * 保存模板内容
      *
      * @param id      用户模板关系ID
+     * @param version 客户端持有的版本号（可选），传入时版本不一致返回409
      * @param content 内容JSON
      * @param auth    认证信息
      * @return 保存结果
      */
     @PostMapping("/saveTemplateContent")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Result<String>> saveTemplateContent(
+    public ResponseEntity<Result<?>> saveTemplateContent(
             @RequestParam String id,
+            @RequestParam(required = false) Long version,
             @RequestBody String content,
             Authentication auth) {
 
@@ -512,13 +646,77 @@ public class UserTemplateController {
         System.out.println("保存模板内容 - 内容长度: " + contentLength + ", 内容预览: " + contentPreview);
 
         // 调用服务
-        String userId = auth.getName();
-        Result<String> result = userTemplateService.saveTemplateContent(id, content, userId);
+        String userId = operatorId(auth);
+        Result<?> result = version != null
+                ? userTemplateService.saveTemplateContent(id, content, version, userId)
+                : userTemplateService.saveTemplateContent(id, content, userId);
 
         System.out.println("保存模板内容 - 处理结果: code=" + result.getCode() + ", message=" + result.getMessage());
 
+        return toResponse(result);
+    }
+
+    /**
+     * 增量保存模板内容
+     * 请求体为JSON Patch（Content-Type: application/json-patch+json）
+     * 或JSON Merge Patch（Content-Type: application/merge-patch+json），只传输变化的部分
+     *
+     * @param id          用户模板关系ID
+     * @param version     客户端持有的内容版本号
+     * @param contentType 请求体类型
+     * @param patch       补丁JSON
+     * @param auth        认证信息
+     * @return 保存结果，包含最新版本号；版本不一致时返回409
+     */
+    @PatchMapping(value = "/templateContent", consumes = { JSON_PATCH_VALUE, MERGE_PATCH_VALUE })
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Result<UserTemplateUpdateResult>> patchTemplateContent(
+            @RequestParam String id,
+            @RequestParam Long version,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestBody String patch,
+            Authentication auth) {
+
+        boolean mergePatch = MediaType.parseMediaType(contentType)
+                .isCompatibleWith(MediaType.parseMediaType(MERGE_PATCH_VALUE));
+        Result<UserTemplateUpdateResult> result = userTemplateService.patchTemplateContent(
+                id, patch, mergePatch, version, operatorId(auth));
+
+        return toResponse(result);
+    }
+
+    /**
+     * 获取当前用户ID，认证主体中已携带用户ID时不查询数据库
+     *
+     * @param auth 认证信息
+     * @return 用户ID，用户不存在时返回null
+     */
+    private String resolveCurrentUserId(Authentication auth) {
+        if (auth.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+        SysUser user = sysUserRepository.findByLoginName(auth.getName());
+        return user != null ? user.getId() : null;
+    }
+
+    /**
+     * 传给服务层的操作人标识，优先使用用户ID，服务层无需再按登录名查询用户
+     *
+     * @param auth 认证信息
+     * @return 用户ID或登录名
+     */
+    private static String operatorId(Authentication auth) {
+        return auth.getPrincipal() instanceof UserDetailsImpl userDetails ? userDetails.getId() : auth.getName();
+    }
+
+    /**
+     * 按结果码转换响应：成功返回200，版本冲突返回409，其他失败返回400
+     */
+    private static <R extends Result<?>> ResponseEntity<R> toResponse(R result) {
         if (result.getCode() == 200) {
             return ResponseEntity.ok(result);
+        } else if (result.getCode() == HttpStatus.CONFLICT.value()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
         } else {
             return ResponseEntity.badRequest().body(result);
         }
@@ -545,16 +743,13 @@ public class UserTemplateController {
             }
 
             UserTemplate userTemplate = userTemplateOpt.get();
-            String loginName = auth.getName();
-
-            // 检查auth.getName()是否是loginName，如果是则查找对应的用户ID
-            SysUser user = sysUserRepository.findByLoginName(loginName);
-            if (user == null) {
+            String currentUserId = resolveCurrentUserId(auth);
+            if (currentUserId == null) {
                 return ResponseEntity.badRequest().body(Result.failed("无法识别当前用户"));
             }
 
             // 比较用户ID
-            if (!userTemplate.getUserId().equals(user.getId())) {
+            if (!userTemplate.getUserId().equals(currentUserId)) {
                 return ResponseEntity.badRequest().body(Result.failed("无权查看他人的模板审核历史"));
             }
         }
@@ -570,80 +765,40 @@ public class UserTemplateController {
 
     /**
      * 获取模板统计信息
+     * 统计数据由内存计数器提供，不查询数据库；可按用户或按模板查看
      * 
-     * @param auth 认证信息
+     * @param userId     只统计该用户的模板（可选，"current"表示当前用户，普通用户只能查看自己）
+     * @param templateId 只统计该模板的分配情况（可选，仅管理员）
+     * @param auth       认证信息
      * @return 统计信息
      */
     @GetMapping("/statistics")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Result<Map<String, Object>>> getTemplateStatistics(Authentication auth) {
+    public ResponseEntity<Result<Map<String, Object>>> getTemplateStatistics(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String templateId,
+            Authentication auth) {
         try {
-            // 获取当前用户ID和角色
-            String currentUserId = auth.getName();
             boolean isAdmin = auth.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
-            System.out.println("开始获取统计数据: userId=" + currentUserId + ", isAdmin=" + isAdmin);
-
-            // 统计数据
-            Map<String, Object> statistics = new HashMap<>();
-
-            try {
-                // 获取总模板数
-                long totalTemplates = templateRegistryRepository.countByDeletedFalse();
-                statistics.put("totalTemplates", totalTemplates);
-                System.out.println("总模板数: " + totalTemplates);
-            } catch (Exception e) {
-                System.err.println("获取总模板数失败: " + e.getMessage());
-                e.printStackTrace();
-                statistics.put("totalTemplates", 0);
-            }
-
-            try {
-                // 获取待处理申请数量（仅状态为0-待审核的记录）
-                long pendingApproval = userTemplateRepository.countByStatus(UserTemplateStatus.PENDING_APPROVAL);
-                statistics.put("pendingCount", pendingApproval);
-                System.out.println("待批准申请数量: " + pendingApproval);
-            } catch (Exception e) {
-                System.err.println("获取待处理申请数量失败: " + e.getMessage());
-                e.printStackTrace();
-                statistics.put("pendingCount", 0);
-            }
-
-            try {
-                // 获取进行中的任务数量（状态为5-审核中的记录数）
-                long underReview = userTemplateRepository.countByStatus(UserTemplateStatus.UNDER_REVIEW);
-                statistics.put("inProgressCount", underReview);
-                System.out.println("审核中的任务数量: " + underReview);
-            } catch (Exception e) {
-                System.err.println("获取审核中任务数量失败: " + e.getMessage());
-                e.printStackTrace();
-                statistics.put("inProgressCount", 0);
+            if (userId != null && templateId != null) {
+                return ResponseEntity.badRequest().body(Result.validateFailed("userId和templateId不能同时指定"));
             }
-
-            try {
-                // 获取已完成备案数量（状态为6-审核通过的记录数）
-                long approvedCount = userTemplateRepository.countByStatus(UserTemplateStatus.REVIEW_APPROVED);
-                statistics.put("approvedCount", approvedCount);
-                System.out.println("已完成备案数量: " + approvedCount);
-            } catch (Exception e) {
-                System.err.println("获取已完成备案数量失败: " + e.getMessage());
-                e.printStackTrace();
-                statistics.put("approvedCount", 0);
+            if (userId != null) {
+                String currentUserId = resolveCurrentUserId(auth);
+                if ("current".equals(userId)) {
+                    userId = currentUserId;
+                }
+                if (!isAdmin && (currentUserId == null || !currentUserId.equals(userId))) {
+                    return ResponseEntity.badRequest().body(Result.failed("无权查看其他用户的统计数据"));
+                }
             }
-
-            try {
-                // 获取任务总数
-                long totalTasks = userTemplateRepository.count();
-                statistics.put("totalTasks", totalTasks);
-                System.out.println("任务总数: " + totalTasks);
-            } catch (Exception e) {
-                System.err.println("获取任务总数失败: " + e.getMessage());
-                e.printStackTrace();
-                statistics.put("totalTasks", 0);
+            if (templateId != null && !isAdmin) {
+                return ResponseEntity.badRequest().body(Result.failed("无权查看模板的统计数据"));
             }
 
-            System.out.println("统计数据获取完成: " + statistics);
+            Map<String, Object> statistics = templateStatisticsService.getStatistics(userId, templateId);
             return ResponseEntity.ok(Result.success(statistics));
         } catch (Exception e) {
             System.err.println("获取统计数据失败: " + e.getMessage());
@@ -653,6 +808,56 @@ public class UserTemplateController {
         }
     }
 
+    /**
+     * 订阅模板状态变更事件（Server-Sent Events）
+     * 普通用户接收自己模板的状态变更，管理员接收全部变更（包括新提交的申请），
+     * 客户端据此更新列表和统计数字，无需轮询page和statistics接口。
+     * 事件类型：status-change（状态变更）、resync（有事件因缓冲区已满被丢弃，需重新拉取）、heartbeat（心跳）。
+     * 连接超时后客户端重新订阅即可。
+     *
+     * @param auth     认证信息
+     * @param response HTTP响应
+     * @return 事件流
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SseEmitter> subscribeEvents(Authentication auth, HttpServletResponse response) {
+        String currentUserId = resolveCurrentUserId(auth);
+        if (currentUserId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        boolean isAdmin = auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        SseEmitter emitter = new SseEmitter(eventStreamTimeoutMillis);
+        TemplateEventBus.Subscription subscription = templateEventBus.subscribe(currentUserId, isAdmin,
+                new TemplateEventBus.EventSink() {
+                    @Override
+                    public void send(String name, String id, Object data) throws IOException {
+                        SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(data);
+                        if (id != null) {
+                            event.id(id);
+                        }
+                        emitter.send(event);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        // 发送超时的客户端断开连接，由客户端重连后重新同步
+                        emitter.complete();
+                    }
+                });
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        // 禁止反向代理缓冲事件流
+        response.setHeader("X-Accel-Buffering", "no");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(emitter);
+    }
+
     /**
      * 调试用：列出所有用户模板记录
      * 
@@ -714,14 +919,13 @@ public class UserTemplateController {
             }
 
             // 普通用户需要验证是否有权限访问此模板
-            // 通过登录名获取用户ID
-            SysUser currentUser = sysUserRepository.findByLoginName(loginName);
-            if (currentUser == null) {
+            // 获取当前用户ID
+            String currentUserId = resolveCurrentUserId(auth);
+            if (currentUserId == null) {
                 System.err.println("错误: 找不到登录名为 " + loginName + " 的用户");
                 return ResponseEntity.badRequest().body(Result.failed("无法识别当前用户"));
             }
 
-            String currentUserId = currentUser.getId();
             System.out.println("当前用户信息: loginName=" + loginName + ", userId=" + currentUserId);
 
             // 检查用户是否有使用此模板的权限（是否存在用户模板关系）
@@ -0,0 +1,31 @@
+package com.example.filing.dto.request;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量审核请求DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReviewRequest {
+
+    /**
+     * 用户模板关系ID列表
+     */
+    private List<String> ids;
+
+    /**
+     * 目标状态(6-审核通过,7-退回)
+     */
+    private Integer status;
+
+    /**
+     * 审核意见/备注信息
+     */
+    private String remarks;
+}
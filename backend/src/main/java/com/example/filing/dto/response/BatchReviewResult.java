@@ -0,0 +1,73 @@
+package com.example.filing.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量审核结果，按请求顺序列出每条记录的处理结果
+ */
+@Data
+public class BatchReviewResult {
+
+    /**
+     * 成功条数
+     */
+    private int succeeded;
+
+    /**
+     * 失败条数
+     */
+    private int failed;
+
+    /**
+     * 每条记录的处理结果
+     */
+    private List<Item> items = new ArrayList<>();
+
+    /**
+     * 单条记录的处理结果
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        /**
+         * 用户模板关系ID
+         */
+        private String id;
+
+        /**
+         * 是否成功
+         */
+        private boolean success;
+
+        /**
+         * 失败原因，成功时为空
+         */
+        private String message;
+
+        /**
+         * 处理后的状态（失败时为服务端当前状态）
+         */
+        private Integer status;
+
+        /**
+         * 处理后的版本号（失败时为服务端当前版本）
+         */
+        private Long version;
+    }
+
+    public void addSuccess(String id, Integer status, Long version) {
+        items.add(new Item(id, true, null, status, version));
+        succeeded++;
+    }
+
+    public void addFailure(String id, String message, Integer status, Long version) {
+        items.add(new Item(id, false, message, status, version));
+        failed++;
+    }
+}
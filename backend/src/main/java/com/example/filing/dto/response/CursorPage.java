@@ -0,0 +1,33 @@
+package com.example.filing.dto.response;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * 游标分页结果
+ *
+ * @param <T> 列表项类型
+ */
+@Data
+public class CursorPage<T> {
+    /**
+     * 当前页数据
+     */
+    private List<T> items;
+
+    /**
+     * 下一页游标，没有更多数据时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有更多数据
+     */
+    private boolean hasMore;
+
+    /**
+     * 符合条件的总记录数，仅在请求时统计，否则为null
+     */
+    private Long total;
+}
@@ -0,0 +1,68 @@
+package com.example.filing.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.example.filing.constants.TemplateIngestionJobStatus;
+
+import lombok.Data;
+
+/**
+ * 模板批量发送任务，由工作线程更新、轮询接口读取
+ */
+@Data
+public class TemplateAssignmentJob {
+    private String jobId;
+    private String templateId;
+
+    /**
+     * 任务状态，取值见{@link TemplateIngestionJobStatus}
+     */
+    private volatile String status;
+
+    /**
+     * 请求中的接收人数（去重后）
+     */
+    private volatile int totalRecipients;
+
+    /**
+     * 已处理的接收人数（包括跳过和不存在的用户）
+     */
+    private volatile int processed;
+
+    /**
+     * 新创建的关系数
+     */
+    private volatile int created;
+
+    /**
+     * 已持有该模板而跳过的用户数
+     */
+    private volatile int skipped;
+
+    /**
+     * 不存在的用户，最多保留前若干个
+     */
+    private final List<String> unknownUsers = new CopyOnWriteArrayList<>();
+
+    private volatile int unknownUserCount;
+
+    /**
+     * 处理进度（0-100）
+     */
+    private volatile int progress;
+
+    /**
+     * 当前阶段说明或失败原因
+     */
+    private volatile String message;
+
+    private LocalDateTime createTime;
+    private volatile LocalDateTime finishTime;
+
+    public boolean isFinished() {
+        return TemplateIngestionJobStatus.SUCCEEDED.equals(status)
+                || TemplateIngestionJobStatus.FAILED.equals(status);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.filing.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * 模板批量导入结果报告
+ */
+@Data
+public class TemplateBulkImportReport {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private long elapsedMillis;
+    private List<Item> items = new ArrayList<>();
+
+    /**
+     * 单个文件的导入结果
+     */
+    @Data
+    public static class Item {
+        /**
+         * 上传的文件名（压缩包内的文件为条目路径）
+         */
+        private String originalFilename;
+        private boolean success;
+        private String message;
+        private String templateId;
+        private String templateCode;
+        private String filePath;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.filing.dto.response;
+
+import java.time.LocalDateTime;
+
+import com.example.filing.constants.TemplateIngestionJobStatus;
+
+import lombok.Data;
+
+/**
+ * 模板导入任务，由工作线程更新、轮询接口读取
+ */
+@Data
+public class TemplateIngestionJob {
+    private String jobId;
+    private String templateId;
+    private String originalFilename;
+    private String fileName;
+    private String filePath;
+
+    /**
+     * 任务状态，取值见{@link TemplateIngestionJobStatus}
+     */
+    private volatile String status;
+
+    /**
+     * 处理进度（0-100）
+     */
+    private volatile int progress;
+
+    /**
+     * 当前阶段说明或失败原因
+     */
+    private volatile String message;
+
+    private LocalDateTime createTime;
+    private volatile LocalDateTime finishTime;
+
+    public boolean isFinished() {
+        return TemplateIngestionJobStatus.SUCCEEDED.equals(status)
+                || TemplateIngestionJobStatus.FAILED.equals(status);
+    }
+}
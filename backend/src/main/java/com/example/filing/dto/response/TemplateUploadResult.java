@@ -0,0 +1,41 @@
+package com.example.filing.dto.response;
+
+import lombok.Data;
+
+/**
+ * Word模板上传结果，包含文件校验、保存和解析的结果
+ */
+@Data
+public class TemplateUploadResult {
+    /**
+     * 是否为有效的Word文档
+     */
+    private boolean valid;
+
+    /**
+     * 校验失败时的提示信息
+     */
+    private String message;
+
+    /**
+     * 保存的文件名
+     */
+    private String fileName;
+
+    /**
+     * 相对于存储根目录的文件路径
+     */
+    private String filePath;
+
+    /**
+     * 解析后的模板内容（JSON格式）
+     */
+    private String templateContent;
+
+    public static TemplateUploadResult invalid(String message) {
+        TemplateUploadResult result = new TemplateUploadResult();
+        result.setValid(false);
+        result.setMessage(message);
+        return result;
+    }
+}
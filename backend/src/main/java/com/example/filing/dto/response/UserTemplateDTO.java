@@ -7,17 +7,20 @@ import com.example.filing.entity.TemplateRegistry;
 import com.example.filing.entity.UserTemplate;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * 用户模板关系DTO，包含模板的基本信息
  */
 @Data
+@NoArgsConstructor
 public class UserTemplateDTO {
     private String id;
     private String userId;
     private String templateId;
     private String content;
     private Integer status;
+    private Long version;
     private String remarks;
     private LocalDateTime createTime;
     private LocalDateTime updateTime;
@@ -34,6 +37,28 @@ public class UserTemplateDTO {
     // 状态描述
     private String statusDesc;
 
+    /**
+     * 列表查询投影构造函数（JPQL构造表达式使用），不包含填写内容
+     */
+    public UserTemplateDTO(String id, String userId, String templateId, Integer status, Long version,
+            String remarks, LocalDateTime createTime, LocalDateTime updateTime, String templateCode,
+            String templateName, String templateDescription, String templateType, String userName) {
+        this.id = id;
+        this.userId = userId;
+        this.templateId = templateId;
+        this.status = status;
+        this.version = version;
+        this.remarks = remarks;
+        this.createTime = createTime;
+        this.updateTime = updateTime;
+        this.templateCode = templateCode;
+        this.templateName = templateName;
+        this.templateDescription = templateDescription;
+        this.templateType = templateType;
+        this.userName = userName;
+        this.statusDesc = getStatusDescription(status);
+    }
+
     /**
      * 从UserTemplate实体转换为DTO
      * 
@@ -50,6 +75,7 @@ public class UserTemplateDTO {
         dto.setTemplateId(userTemplate.getTemplateId());
         dto.setContent(userTemplate.getContent());
         dto.setStatus(userTemplate.getStatus());
+        dto.setVersion(userTemplate.getVersion());
         dto.setRemarks(userTemplate.getRemarks());
         dto.setCreateTime(userTemplate.getCreateTime());
         dto.setUpdateTime(userTemplate.getUpdateTime());
@@ -0,0 +1,29 @@
+package com.example.filing.dto.response;
+
+import lombok.Data;
+
+/**
+ * 用户模板更新结果（内容保存、状态变更），版本冲突时为服务端的当前状态
+ */
+@Data
+public class UserTemplateUpdateResult {
+    /**
+     * 用户模板关系ID
+     */
+    private String id;
+
+    /**
+     * 当前版本号（版本冲突时为服务端的最新版本）
+     */
+    private Long version;
+
+    /**
+     * 是否发生变化（未变化时不写入数据库）
+     */
+    private boolean changed;
+
+    /**
+     * 当前模板状态
+     */
+    private Integer status;
+}
@@ -0,0 +1,101 @@
+package com.example.filing.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import com.example.filing.constants.NotificationOutboxStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * 通知发件箱实体类
+ * 每条记录对应一个渠道的一次通知，与状态变更在同一事务中写入
+ */
+@Data
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(generator = "uuid")
+    @GenericGenerator(name = "uuid", strategy = "uuid2")
+    private String id;
+
+    /**
+     * 投递渠道（如in-app、email）
+     */
+    @Column(name = "channel", nullable = false)
+    private String channel;
+
+    /**
+     * 接收用户ID
+     */
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    /**
+     * 用户模板关系ID
+     */
+    @Column(name = "user_template_id", nullable = false)
+    private String userTemplateId;
+
+    /**
+     * 模板ID
+     */
+    @Column(name = "template_id", nullable = false)
+    private String templateId;
+
+    /**
+     * 旧状态，新建关系时为空
+     */
+    @Column(name = "old_status")
+    private Integer oldStatus;
+
+    /**
+     * 新状态
+     */
+    @Column(name = "new_status", nullable = false)
+    private Integer newStatus;
+
+    /**
+     * 投递状态，见NotificationOutboxStatus
+     */
+    @Column(name = "status", nullable = false)
+    private String status = NotificationOutboxStatus.PENDING;
+
+    /**
+     * 已投递次数
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * 下次投递时间，被领取后为领取租约的到期时间
+     */
+    @Column(name = "next_attempt_time", nullable = false)
+    private LocalDateTime nextAttemptTime;
+
+    /**
+     * 领取批次标识，多个节点同时投递时用于区分各自领取的记录
+     */
+    @Column(name = "claim_token")
+    private String claimToken;
+
+    /**
+     * 最近一次投递失败原因
+     */
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "create_time", nullable = false)
+    private LocalDateTime createTime = LocalDateTime.now();
+
+    @Column(name = "sent_time")
+    private LocalDateTime sentTime;
+}
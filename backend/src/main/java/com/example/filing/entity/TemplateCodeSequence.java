@@ -0,0 +1,37 @@
+package com.example.filing.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * 模板备案编号序列实体（每天一行）
+ */
+@Data
+@Entity
+@Table(name = "template_code_sequence")
+public class TemplateCodeSequence {
+
+    /**
+     * 日期（yyyyMMdd）
+     */
+    @Id
+    @Column(name = "seq_date", length = 8)
+    private String seqDate;
+
+    /**
+     * 下一个可分配的序号
+     */
+    @Column(name = "next_value", nullable = false)
+    private Integer nextValue;
+
+    /**
+     * 更新时间
+     */
+    @Column(name = "update_time")
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,58 @@
+package com.example.filing.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * 站内消息实体类
+ * ID与产生该消息的通知发件箱记录相同，重复投递时不会产生重复消息
+ */
+@Data
+@Entity
+@Table(name = "user_message")
+public class UserMessage {
+
+    @Id
+    private String id;
+
+    /**
+     * 接收用户ID
+     */
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    /**
+     * 标题
+     */
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    /**
+     * 内容
+     */
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String content;
+
+    /**
+     * 关联的用户模板关系ID
+     */
+    @Column(name = "related_id")
+    private String relatedId;
+
+    /**
+     * 是否已读
+     */
+    @Column(name = "is_read", nullable = false)
+    private boolean read;
+
+    @Column(name = "create_time", nullable = false)
+    private LocalDateTime createTime = LocalDateTime.now();
+
+    @Column(name = "read_time")
+    private LocalDateTime readTime;
+}
@@ -11,11 +11,14 @@ import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "user_template")
+@Table(name = "user_template", uniqueConstraints = @UniqueConstraint(name = "uk_user_template", columnNames = {
+        "user_id", "template_id" }))
 public class UserTemplate {
 
     @Id
@@ -35,6 +38,13 @@ public class UserTemplate {
     @Column(name = "status")
     private Integer status = 0;
 
+    /**
+     * 版本号（乐观锁），每次更新加1
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+
     @Column(name = "remarks")
     private String remarks;
 
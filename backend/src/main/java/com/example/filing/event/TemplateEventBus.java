@@ -0,0 +1,392 @@
+package com.example.filing.event;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 模板状态事件总线（进程内）
+ * 普通用户订阅自己模板的状态变更，管理员订阅全部变更（包括新提交的申请和审核）。
+ * 每个订阅者有独立的有界缓冲区，由发送线程池逐个发送，慢速客户端不会阻塞发布方；
+ * 缓冲区满时丢弃最早的事件，并在下一次发送前通知客户端重新拉取数据。
+ * 单次发送超过期限的订阅被强制取消，卡住的发送线程由线程池临时补充，不影响其他订阅者。
+ */
+@Component
+@Slf4j
+public class TemplateEventBus {
+
+    public static final String STATUS_EVENT = "status-change";
+    public static final String RESYNC_EVENT = "resync";
+    public static final String HEARTBEAT_EVENT = "heartbeat";
+
+    private static final String METRIC_PREFIX = "template.events";
+
+    /**
+     * 为卡住的发送临时补充的线程数上限，卡住的发送最终会因连接写超时结束并归还
+     */
+    private static final int MAX_COMPENSATION_THREADS = 64;
+
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+    private static final long STALLED = Long.MAX_VALUE;
+
+    private final int bufferSize;
+    private final int dispatchThreads;
+    private final long heartbeatIntervalMillis;
+    private final long sendTimeoutMillis;
+
+    private final Map<String, Set<Subscription>> userSubscriptions = new ConcurrentHashMap<>();
+    private final Set<Subscription> adminSubscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Counter droppedCounter;
+    private final Counter stalledCounter;
+    private final AtomicInteger compensationThreads = new AtomicInteger();
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 事件发送目标，由传输层（如SSE）实现
+     */
+    @FunctionalInterface
+    public interface EventSink {
+
+        /**
+         * 发送一条事件，发送失败时抛出异常，订阅随即取消
+         *
+         * @param name 事件名称
+         * @param id   事件序号，心跳和重新同步通知为null
+         * @param data 事件数据
+         */
+        void send(String name, String id, Object data) throws IOException;
+
+        /**
+         * 订阅因发送超时被取消，卡住的发送返回后在发送线程中调用，传输层可借此关闭连接
+         */
+        default void cancel() {
+        }
+    }
+
+    private record Message(String name, String id, Object data) {
+    }
+
+    public TemplateEventBus(MeterRegistry meterRegistry,
+            @Value("${events.buffer-size:256}") int bufferSize,
+            @Value("${events.dispatch-threads:4}") int dispatchThreads,
+            @Value("${events.heartbeat-interval-ms:30000}") long heartbeatIntervalMillis,
+            @Value("${events.send-timeout-ms:5000}") long sendTimeoutMillis) {
+        this.bufferSize = bufferSize;
+        this.dispatchThreads = dispatchThreads;
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+
+        this.droppedCounter = Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("订阅者缓冲区已满而丢弃的事件数")
+                .register(meterRegistry);
+        this.stalledCounter = Counter.builder(METRIC_PREFIX + ".stalled")
+                .description("单次发送超过期限而被取消的订阅数")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".subscribers", this, TemplateEventBus::subscriberCount)
+                .description("当前事件订阅数")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("template-events-"));
+        // 心跳和发送超时检查使用独立线程，发送线程全部卡住时仍能执行
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("template-events-watchdog-"));
+        if (heartbeatIntervalMillis > 0) {
+            // 定时心跳，防止代理断开空闲连接，并及时发现已断开的客户端
+            scheduler.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatIntervalMillis, heartbeatIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        if (sendTimeoutMillis > 0) {
+            long checkInterval = Math.max(sendTimeoutMillis / 2, 10);
+            scheduler.scheduleWithFixedDelay(this::cancelStalledSubscriptions, checkInterval, checkInterval,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 订阅状态变更事件
+     *
+     * @param userId 订阅用户ID
+     * @param admin  是否管理员，管理员接收全部事件
+     * @param sink   事件发送目标
+     * @return 订阅，连接关闭时调用close取消
+     */
+    public Subscription subscribe(String userId, boolean admin, EventSink sink) {
+        Subscription subscription = new Subscription(userId, admin, sink);
+        if (admin) {
+            adminSubscriptions.add(subscription);
+        } else {
+            // 在compute中加入，避免与取消订阅时移除空集合并发
+            userSubscriptions.compute(userId, (key, subscriptions) -> {
+                Set<Subscription> result = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+                result.add(subscription);
+                return result;
+            });
+        }
+        // 建立连接后立即发送一次心跳，使响应头尽快下发到客户端
+        enqueue(subscription, new Message(HEARTBEAT_EVENT, null, System.currentTimeMillis()));
+        return subscription;
+    }
+
+    /**
+     * 发布状态变更事件，存在事务时在提交后发布，回滚的变更不会推送
+     *
+     * @param event 状态变更事件
+     */
+    public void publish(TemplateStatusEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    public int subscriberCount() {
+        int count = adminSubscriptions.size();
+        for (Set<Subscription> subscriptions : userSubscriptions.values()) {
+            count += subscriptions.size();
+        }
+        return count;
+    }
+
+    private void dispatch(TemplateStatusEvent event) {
+        Message message = new Message(STATUS_EVENT, String.valueOf(sequence.incrementAndGet()), event);
+        Set<Subscription> owners = userSubscriptions.get(event.userId());
+        if (owners != null) {
+            for (Subscription subscription : owners) {
+                enqueue(subscription, message);
+            }
+        }
+        for (Subscription subscription : adminSubscriptions) {
+            enqueue(subscription, message);
+        }
+    }
+
+    private void sendHeartbeats() {
+        Message heartbeat = new Message(HEARTBEAT_EVENT, null, System.currentTimeMillis());
+        for (Subscription subscription : adminSubscriptions) {
+            heartbeatIfIdle(subscription, heartbeat);
+        }
+        for (Set<Subscription> subscriptions : userSubscriptions.values()) {
+            for (Subscription subscription : subscriptions) {
+                heartbeatIfIdle(subscription, heartbeat);
+            }
+        }
+    }
+
+    /**
+     * 取消单次发送超过期限的订阅，中断卡住的发送线程，并临时补充一个发送线程
+     */
+    private void cancelStalledSubscriptions() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        for (Subscription subscription : adminSubscriptions) {
+            cancelIfStalled(subscription, now, timeoutNanos);
+        }
+        for (Set<Subscription> subscriptions : userSubscriptions.values()) {
+            for (Subscription subscription : subscriptions) {
+                cancelIfStalled(subscription, now, timeoutNanos);
+            }
+        }
+    }
+
+    private void cancelIfStalled(Subscription subscription, long now, long timeoutNanos) {
+        synchronized (subscription) {
+            long started = subscription.sendStarted.get();
+            if (started == NOT_SENDING || started == STALLED || now - started < timeoutNanos
+                    || !subscription.sendStarted.compareAndSet(started, STALLED)) {
+                return;
+            }
+            log.debug("事件发送超时，取消订阅: userId={}", subscription.userId);
+            stalledCounter.increment();
+            subscription.close();
+            subscription.sender.interrupt();
+        }
+        adjustCompensation(1);
+    }
+
+    /**
+     * 调整为卡住的发送补充的线程数，扩容时先调大最大线程数，缩容时先调小核心线程数
+     */
+    private void adjustCompensation(int delta) {
+        synchronized (compensationThreads) {
+            int size = dispatchThreads + Math.min(compensationThreads.addAndGet(delta), MAX_COMPENSATION_THREADS);
+            if (executor == null || executor.isShutdown()) {
+                return;
+            }
+            if (size > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(size);
+                executor.setCorePoolSize(size);
+            } else {
+                executor.setCorePoolSize(size);
+                executor.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private void heartbeatIfIdle(Subscription subscription, Message heartbeat) {
+        if (subscription.queue.isEmpty()) {
+            enqueue(subscription, heartbeat);
+        }
+    }
+
+    private void enqueue(Subscription subscription, Message message) {
+        if (subscription.closed) {
+            return;
+        }
+        while (!subscription.queue.offer(message)) {
+            // 缓冲区已满，丢弃最早的事件
+            Message dropped = subscription.queue.poll();
+            if (dropped != null && !HEARTBEAT_EVENT.equals(dropped.name())) {
+                subscription.dropped.incrementAndGet();
+                droppedCounter.increment();
+            }
+        }
+        scheduleDrain(subscription);
+    }
+
+    private void scheduleDrain(Subscription subscription) {
+        if (executor != null && subscription.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscription));
+        }
+    }
+
+    /**
+     * 依次发送订阅者缓冲区中的事件，同一订阅同一时间只有一个线程发送
+     */
+    private void drain(Subscription subscription) {
+        try {
+            while (!subscription.closed) {
+                long dropped = subscription.dropped.getAndSet(0);
+                if (dropped > 0) {
+                    send(subscription, RESYNC_EVENT, null, dropped);
+                }
+                Message message = subscription.queue.poll();
+                if (message == null) {
+                    break;
+                }
+                send(subscription, message.name(), message.id(), message.data());
+            }
+        } catch (Exception e) {
+            log.debug("事件发送失败，取消订阅: userId={}, {}", subscription.userId, e.getMessage());
+            subscription.close();
+            return;
+        } finally {
+            subscription.draining.set(false);
+        }
+        // 发送结束前可能有新事件入队
+        if (!subscription.closed && (!subscription.queue.isEmpty() || subscription.dropped.get() > 0)) {
+            scheduleDrain(subscription);
+        }
+    }
+
+    /**
+     * 发送一条事件，记录发送开始时间供超时检查
+     */
+    private void send(Subscription subscription, String name, String id, Object data) throws IOException {
+        long started = System.nanoTime();
+        subscription.sender = Thread.currentThread();
+        subscription.sendStarted.set(started);
+        try {
+            subscription.sink.send(name, id, data);
+        } finally {
+            boolean stalled;
+            synchronized (subscription) {
+                stalled = !subscription.sendStarted.compareAndSet(started, NOT_SENDING);
+            }
+            if (stalled) {
+                // 已被判定超时：清除中断标记，归还补充的线程，通知传输层结束连接
+                Thread.interrupted();
+                adjustCompensation(-1);
+                subscription.sink.cancel();
+            }
+        }
+    }
+
+    /**
+     * 一个订阅连接
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final String userId;
+        private final boolean admin;
+        private final EventSink sink;
+        private final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        /**
+         * 当前发送的开始时间（System.nanoTime），未在发送时为NOT_SENDING，超时后为STALLED
+         */
+        private final AtomicLong sendStarted = new AtomicLong(NOT_SENDING);
+        private volatile Thread sender;
+        private volatile boolean closed;
+
+        private Subscription(String userId, boolean admin, EventSink sink) {
+            this.userId = userId;
+            this.admin = admin;
+            this.sink = sink;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+            if (admin) {
+                adminSubscriptions.remove(this);
+            } else {
+                userSubscriptions.computeIfPresent(userId, (key, subscriptions) -> {
+                    subscriptions.remove(this);
+                    return subscriptions.isEmpty() ? null : subscriptions;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.filing.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户模板状态变更事件
+ * 客户端可根据新旧状态直接调整本地列表和统计数字，无需重新轮询。
+ *
+ * @param userTemplateId 用户模板关系ID
+ * @param userId         模板所属用户ID
+ * @param templateId     模板ID
+ * @param oldStatus      旧状态，新建关系时为null
+ * @param newStatus      新状态
+ * @param operatorId     操作人ID
+ * @param occurredAt     变更时间
+ */
+public record TemplateStatusEvent(
+        String userTemplateId,
+        String userId,
+        String templateId,
+        Integer oldStatus,
+        int newStatus,
+        String operatorId,
+        LocalDateTime occurredAt) {
+}
@@ -2,6 +2,8 @@ package com.example.filing.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -11,13 +13,22 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
+import com.example.filing.constants.MetricNames;
 import com.example.filing.util.Result;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
         private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+                this.meterRegistry = meterRegistry;
+        }
+
         @ExceptionHandler(UsernameNotFoundException.class)
         public ResponseEntity<Result<String>> handleUsernameNotFoundException(
                         UsernameNotFoundException ex, WebRequest request) {
@@ -42,6 +53,18 @@ public class GlobalExceptionHandler {
                                 .body(Result.failed(HttpStatus.INTERNAL_SERVER_ERROR.value(), ex.getMessage()));
         }
 
+        @ExceptionHandler(OptimisticLockingFailureException.class)
+        public ResponseEntity<Result<String>> handleOptimisticLockingFailureException(
+                        OptimisticLockingFailureException ex, WebRequest request) {
+                // 提交时检测到并发修改（读取之后被其他请求更新），事务已回滚
+                logger.warn("乐观锁冲突: {}", ex.getMessage());
+                meterRegistry.ifAvailable(registry -> registry
+                                .counter(MetricNames.USER_TEMPLATE_VERSION_CONFLICTS, "operation", "commit")
+                                .increment());
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                                .body(Result.failed(HttpStatus.CONFLICT.value(), "数据已被其他操作修改，请刷新后重试"));
+        }
+
         @ExceptionHandler(AccessDeniedException.class)
         public ResponseEntity<Result<String>> handleAccessDeniedException(
                         AccessDeniedException ex, WebRequest request) {
@@ -0,0 +1,90 @@
+package com.example.filing.notification;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 邮件渠道
+ * 将邮件以RFC 5322格式写入本地投递目录（pickup目录），由本机的SMTP中继（或开发环境的邮件收集工具）取走发送，
+ * 投递线程不依赖外部邮件服务器的可用性和延迟。
+ * 文件名即通知ID，重复投递时覆盖同一封邮件。
+ */
+@Component
+public class EmailNotificationChannel implements NotificationChannel {
+
+    public static final String NAME = "email";
+
+    private final Path pickupDirectory;
+    private final String fromAddress;
+    private final String addressPattern;
+
+    public EmailNotificationChannel(
+            @Value("${notification.email.pickup-dir:./logs/mail-pickup}") String pickupDirectory,
+            @Value("${notification.email.from:noreply@localhost}") String fromAddress,
+            @Value("${notification.email.address-pattern:{loginName}@localhost}") String addressPattern) {
+        this.pickupDirectory = Paths.get(pickupDirectory).toAbsolutePath().normalize();
+        this.fromAddress = fromAddress;
+        this.addressPattern = addressPattern;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void send(Notification notification) throws IOException {
+        Files.createDirectories(pickupDirectory);
+        Path target = pickupDirectory.resolve(notification.id() + ".eml");
+        // 先写临时文件再改名，中继程序不会读到写了一半的邮件
+        Path temp = Files.createTempFile(pickupDirectory, notification.id(), ".tmp");
+        try {
+            Files.writeString(temp, format(notification), StandardCharsets.US_ASCII);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 收件地址，由地址模板中的{loginName}替换得到
+     */
+    String recipientAddress(Notification notification) {
+        return addressPattern.replace("{loginName}", notification.loginName());
+    }
+
+    private String format(Notification notification) {
+        String recipient = recipientAddress(notification);
+        String to = notification.userName() != null
+                ? encodeHeader(notification.userName()) + " <" + recipient + ">"
+                : recipient;
+        return "From: " + fromAddress + "\r\n"
+                + "To: " + to + "\r\n"
+                + "Subject: " + encodeHeader(notification.title()) + "\r\n"
+                + "Date: " + ZonedDateTime.now().format(DateTimeFormatter.RFC_1123_DATE_TIME) + "\r\n"
+                + "Message-ID: <" + notification.id() + "@filing>\r\n"
+                + "MIME-Version: 1.0\r\n"
+                + "Content-Type: text/plain; charset=UTF-8\r\n"
+                + "Content-Transfer-Encoding: base64\r\n"
+                + "\r\n"
+                + Base64.getMimeEncoder().encodeToString(notification.content().getBytes(StandardCharsets.UTF_8))
+                + "\r\n";
+    }
+
+    /**
+     * 按RFC 2047编码非ASCII的邮件头
+     */
+    private static String encodeHeader(String value) {
+        return "=?UTF-8?B?" + Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8)) + "?=";
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.filing.notification;
+
+import org.springframework.stereotype.Component;
+
+import com.example.filing.entity.UserMessage;
+import com.example.filing.repository.UserMessageRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 站内消息渠道
+ * 消息ID即通知ID，重复投递时不会产生重复消息
+ */
+@Component
+@RequiredArgsConstructor
+public class InAppMessageChannel implements NotificationChannel {
+
+    public static final String NAME = "in-app";
+
+    private final UserMessageRepository userMessageRepository;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void send(Notification notification) {
+        if (userMessageRepository.existsById(notification.id())) {
+            return;
+        }
+        UserMessage message = new UserMessage();
+        message.setId(notification.id());
+        message.setUserId(notification.userId());
+        message.setTitle(notification.title());
+        message.setContent(notification.content());
+        message.setRelatedId(notification.userTemplateId());
+        userMessageRepository.save(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.filing.notification;
+
+/**
+ * 待投递的通知
+ *
+ * @param id             通知ID（发件箱记录ID），渠道可据此去重
+ * @param userId         接收用户ID
+ * @param loginName      接收用户登录名
+ * @param userName       接收用户姓名
+ * @param userTemplateId 关联的用户模板关系ID
+ * @param title          标题
+ * @param content        内容
+ */
+public record Notification(
+        String id,
+        String userId,
+        String loginName,
+        String userName,
+        String userTemplateId,
+        String title,
+        String content) {
+}
@@ -0,0 +1,23 @@
+package com.example.filing.notification;
+
+/**
+ * 通知投递渠道
+ * 同一通知可能因重试被投递多次，实现应按通知ID保证幂等
+ */
+public interface NotificationChannel {
+
+    /**
+     * 渠道名称，与配置项notification.channels中的名称对应
+     *
+     * @return 渠道名称
+     */
+    String getName();
+
+    /**
+     * 投递通知，失败时抛出异常，由发件箱稍后重试
+     *
+     * @param notification 通知
+     * @throws Exception 投递失败
+     */
+    void send(Notification notification) throws Exception;
+}
@@ -0,0 +1,62 @@
+package com.example.filing.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.filing.entity.NotificationOutbox;
+
+/**
+ * 通知发件箱仓库接口
+ */
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, String> {
+
+        /**
+         * 查询到期待投递的记录ID，按到期时间先后排序
+         *
+         * @param status   投递状态
+         * @param now      当前时间
+         * @param pageable 批次大小
+         * @return 记录ID列表
+         */
+        @Query("SELECT o.id FROM NotificationOutbox o WHERE o.status = :status AND o.nextAttemptTime <= :now " +
+                        "ORDER BY o.nextAttemptTime")
+        List<String> findDueIds(@Param("status") String status, @Param("now") LocalDateTime now,
+                        Pageable pageable);
+
+        /**
+         * 领取到期记录：写入领取标识并把下次投递时间推迟到租约到期，
+         * 已被其他节点领取（下次投递时间已推迟）的记录不会被重复领取
+         *
+         * @param ids        候选记录ID
+         * @param status     投递状态
+         * @param now        当前时间
+         * @param claimToken 领取标识
+         * @param leaseUntil 租约到期时间，投递线程中断时记录在此之后重新可领取
+         * @return 领取到的记录数
+         */
+        @Transactional
+        @Modifying(clearAutomatically = true)
+        @Query("UPDATE NotificationOutbox o SET o.claimToken = :claimToken, o.nextAttemptTime = :leaseUntil " +
+                        "WHERE o.id IN :ids AND o.status = :status AND o.nextAttemptTime <= :now")
+        int claim(@Param("ids") Collection<String> ids, @Param("status") String status,
+                        @Param("now") LocalDateTime now, @Param("claimToken") String claimToken,
+                        @Param("leaseUntil") LocalDateTime leaseUntil);
+
+        /**
+         * 根据领取标识查询记录
+         *
+         * @param claimToken 领取标识
+         * @return 本批次领取到的记录
+         */
+        List<NotificationOutbox> findByClaimToken(String claimToken);
+}
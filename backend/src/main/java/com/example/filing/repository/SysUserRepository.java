@@ -1,7 +1,12 @@
 package com.example.filing.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.filing.entity.SysUser;
@@ -9,4 +14,22 @@ import com.example.filing.entity.SysUser;
 @Repository
 public interface SysUserRepository extends JpaRepository<SysUser, String>, JpaSpecificationExecutor<SysUser> {
     SysUser findByLoginName(String loginName);
-}
\ No newline at end of file
+
+    /**
+     * 按登录名批量查询用户ID
+     *
+     * @param loginNames 登录名列表
+     * @return [登录名, 用户ID]列表，不存在的登录名不返回
+     */
+    @Query("SELECT u.loginName, u.id FROM SysUser u WHERE u.loginName IN :loginNames")
+    List<Object[]> findIdsByLoginNameIn(@Param("loginNames") Collection<String> loginNames);
+
+    /**
+     * 查询存在的用户ID
+     *
+     * @param ids 用户ID列表
+     * @return 其中存在的用户ID
+     */
+    @Query("SELECT u.id FROM SysUser u WHERE u.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,43 @@
+package com.example.filing.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.filing.entity.TemplateCodeSequence;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * 模板备案编号序列数据访问层
+ */
+@Repository
+public interface TemplateCodeSequenceRepository extends JpaRepository<TemplateCodeSequence, String> {
+
+        /**
+         * 加行锁（SELECT ... FOR UPDATE）查询指定日期的序列
+         * 
+         * @param seqDate 日期（yyyyMMdd）
+         * @return 序列（可选）
+         */
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT s FROM TemplateCodeSequence s WHERE s.seqDate = :seqDate")
+        Optional<TemplateCodeSequence> findForUpdate(@Param("seqDate") String seqDate);
+
+        /**
+         * 插入序列行（直接INSERT，并发插入同一日期时由主键冲突保证只有一个成功）
+         * 
+         * @param seqDate   日期（yyyyMMdd）
+         * @param nextValue 下一个可分配的序号
+         * @return 插入行数
+         */
+        @Modifying
+        @Query(value = "INSERT INTO template_code_sequence (seq_date, next_value, update_time) "
+                        + "VALUES (:seqDate, :nextValue, CURRENT_TIMESTAMP)", nativeQuery = true)
+        int insertSequence(@Param("seqDate") String seqDate, @Param("nextValue") int nextValue);
+}
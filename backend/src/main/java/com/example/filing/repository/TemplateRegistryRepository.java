@@ -1,5 +1,6 @@
 package com.example.filing.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
@@ -50,4 +51,13 @@ public interface TemplateRegistryRepository extends JpaRepository<TemplateRegist
          * @return 模板实体（可选）
          */
         Optional<TemplateRegistry> findByTemplateCode(String templateCode);
-}
\ No newline at end of file
+
+        /**
+         * 查询指定前缀的模板编号（包含已删除的模板，只查询编号列）
+         * 
+         * @param prefixPattern 编号前缀匹配模式，如 TPL20241224%
+         * @return 模板编号列表
+         */
+        @Query(value = "SELECT template_code FROM template_registry WHERE template_code LIKE :prefixPattern", nativeQuery = true)
+        List<String> findTemplateCodesLike(@Param("prefixPattern") String prefixPattern);
+}
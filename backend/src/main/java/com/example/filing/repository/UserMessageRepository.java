@@ -0,0 +1,53 @@
+package com.example.filing.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.filing.entity.UserMessage;
+
+/**
+ * 站内消息仓库接口
+ */
+@Repository
+public interface UserMessageRepository extends JpaRepository<UserMessage, String> {
+
+        /**
+         * 分页查询用户的站内消息，最新的在前
+         *
+         * @param userId   用户ID
+         * @param pageable 分页信息
+         * @return 分页的站内消息
+         */
+        Page<UserMessage> findByUserIdOrderByCreateTimeDesc(String userId, Pageable pageable);
+
+        /**
+         * 统计用户的未读消息数
+         *
+         * @param userId 用户ID
+         * @return 未读消息数
+         */
+        long countByUserIdAndReadFalse(String userId);
+
+        /**
+         * 将用户的一条消息标记为已读
+         *
+         * @param id       消息ID
+         * @param userId   用户ID，只能标记自己的消息
+         * @param readTime 阅读时间
+         * @return 更新的行数，0表示消息不存在、不属于该用户或已读
+         */
+        @Transactional
+        @Modifying
+        @Query("UPDATE UserMessage m SET m.read = true, m.readTime = :readTime " +
+                        "WHERE m.id = :id AND m.userId = :userId AND m.read = false")
+        int markRead(@Param("id") String id, @Param("userId") String userId,
+                        @Param("readTime") LocalDateTime readTime);
+}
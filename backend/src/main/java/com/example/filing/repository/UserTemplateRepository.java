@@ -1,17 +1,52 @@
 package com.example.filing.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.filing.dto.response.UserTemplateDTO;
 import com.example.filing.entity.UserTemplate;
 
 @Repository
 public interface UserTemplateRepository extends JpaRepository<UserTemplate, String> {
 
+        /**
+         * 列表查询字段（构造UserTemplateDTO），不包含content和template_content大字段
+         */
+        String LIST_ITEM_COLUMNS = "new com.example.filing.dto.response.UserTemplateDTO(" +
+                        "ut.id, ut.userId, ut.templateId, ut.status, ut.version, ut.remarks, " +
+                        "ut.createTime, ut.updateTime, tr.templateCode, tr.templateName, " +
+                        "tr.templateDescription, tr.templateType, su.userName) ";
+
+        /**
+         * 列表查询条件（管理员查询所有用户）
+         */
+        String LIST_FROM_ALL_USERS = "FROM UserTemplate ut " +
+                        "JOIN TemplateRegistry tr ON ut.templateId = tr.id " +
+                        "JOIN SysUser su ON ut.userId = su.id " +
+                        "WHERE (:templateName IS NULL OR tr.templateName LIKE CONCAT('%', :templateName, '%')) " +
+                        "AND (:templateCode IS NULL OR tr.templateCode LIKE CONCAT('%', :templateCode, '%')) " +
+                        "AND (:status IS NULL OR ut.status = :status)";
+
+        /**
+         * 列表查询条件（查询指定用户）
+         */
+        String LIST_FROM_BY_USER = "FROM UserTemplate ut " +
+                        "JOIN TemplateRegistry tr ON ut.templateId = tr.id " +
+                        "JOIN SysUser su ON ut.userId = su.id " +
+                        "WHERE ut.userId = :userId " +
+                        "AND (:templateName IS NULL OR tr.templateName LIKE CONCAT('%', :templateName, '%')) " +
+                        "AND (:templateCode IS NULL OR tr.templateCode LIKE CONCAT('%', :templateCode, '%')) " +
+                        "AND (:status IS NULL OR ut.status = :status)";
+
         /**
          * 根据用户ID分页查询用户模板列表
          *
@@ -22,7 +57,7 @@ public interface UserTemplateRepository extends JpaRepository<UserTemplate, Stri
         Page<UserTemplate> findByUserId(String userId, Pageable pageable);
 
         /**
-         * 根据用户ID和模板ID查询用户模板
+         * 根据用户ID和模板ID查询用户模板（唯一索引保证最多一条）
          *
          * @param userId     用户ID
          * @param templateId 模板ID
@@ -38,6 +73,22 @@ public interface UserTemplateRepository extends JpaRepository<UserTemplate, Stri
          */
         long countByStatus(int status);
 
+        /**
+         * 按用户和状态分组统计数量
+         * 
+         * @return [用户ID, 状态, 数量]
+         */
+        @Query("SELECT ut.userId, ut.status, COUNT(ut) FROM UserTemplate ut GROUP BY ut.userId, ut.status")
+        List<Object[]> countGroupByUserIdAndStatus();
+
+        /**
+         * 按模板和状态分组统计数量
+         * 
+         * @return [模板ID, 状态, 数量]
+         */
+        @Query("SELECT ut.templateId, ut.status, COUNT(ut) FROM UserTemplate ut GROUP BY ut.templateId, ut.status")
+        List<Object[]> countGroupByTemplateIdAndStatus();
+
         /**
          * 统计所有记录数
          * 
@@ -89,20 +140,17 @@ public interface UserTemplateRepository extends JpaRepository<UserTemplate, Stri
 
         /**
          * 根据参数过滤条件查询所有用户模板（管理员用），同时返回模板信息和用户信息
+         * 只查询列表字段，不加载填写内容和模板内容
          * 
          * @param pageable     分页参数
          * @param templateName 模板名称（可选）
          * @param templateCode 模板编号（可选）
          * @param status       状态（可选）
-         * @return 包含UserTemplate、TemplateRegistry和SysUser字段的结果集
+         * @return 用户模板列表项分页数据
          */
-        @Query("SELECT ut, tr, su FROM UserTemplate ut " +
-                        "JOIN TemplateRegistry tr ON ut.templateId = tr.id " +
-                        "JOIN SysUser su ON ut.userId = su.id " +
-                        "WHERE (:templateName IS NULL OR tr.templateName LIKE CONCAT('%', :templateName, '%')) " +
-                        "AND (:templateCode IS NULL OR tr.templateCode LIKE CONCAT('%', :templateCode, '%')) " +
-                        "AND (:status IS NULL OR ut.status = :status)")
-        Page<Object[]> findAllWithTemplateInfoFilters(
+        @Query(value = "SELECT " + LIST_ITEM_COLUMNS + LIST_FROM_ALL_USERS,
+                        countQuery = "SELECT COUNT(ut) " + LIST_FROM_ALL_USERS)
+        Page<UserTemplateDTO> findAllWithTemplateInfoFilters(
                         Pageable pageable,
                         @Param("templateName") String templateName,
                         @Param("templateCode") String templateCode,
@@ -110,28 +158,92 @@ public interface UserTemplateRepository extends JpaRepository<UserTemplate, Stri
 
         /**
          * 根据用户ID及其他参数过滤条件查询用户模板，同时返回模板信息和用户信息
+         * 只查询列表字段，不加载填写内容和模板内容
          * 
          * @param userId       用户ID
          * @param pageable     分页参数
          * @param templateName 模板名称（可选）
          * @param templateCode 模板编号（可选）
          * @param status       状态（可选）
-         * @return 包含UserTemplate、TemplateRegistry和SysUser字段的结果集
+         * @return 用户模板列表项分页数据
          */
-        @Query("SELECT ut, tr, su FROM UserTemplate ut " +
-                        "JOIN TemplateRegistry tr ON ut.templateId = tr.id " +
-                        "JOIN SysUser su ON ut.userId = su.id " +
-                        "WHERE ut.userId = :userId " +
-                        "AND (:templateName IS NULL OR tr.templateName LIKE CONCAT('%', :templateName, '%')) " +
-                        "AND (:templateCode IS NULL OR tr.templateCode LIKE CONCAT('%', :templateCode, '%')) " +
-                        "AND (:status IS NULL OR ut.status = :status)")
-        Page<Object[]> findByUserIdWithTemplateInfoFilters(
+        @Query(value = "SELECT " + LIST_ITEM_COLUMNS + LIST_FROM_BY_USER,
+                        countQuery = "SELECT COUNT(ut) " + LIST_FROM_BY_USER)
+        Page<UserTemplateDTO> findByUserIdWithTemplateInfoFilters(
                         @Param("userId") String userId,
                         Pageable pageable,
                         @Param("templateName") String templateName,
                         @Param("templateCode") String templateCode,
                         @Param("status") Integer status);
 
+        /**
+         * 游标分页条件：位于游标(createTime, id)之后，按创建时间和ID倒序
+         */
+        String KEYSET_AFTER_CURSOR = " AND ut.createTime <= :cursorTime " +
+                        "AND (ut.createTime < :cursorTime OR ut.id < :cursorId) " +
+                        "ORDER BY ut.createTime DESC, ut.id DESC";
+
+        /**
+         * 按游标查询所有用户模板（管理员用），只查询列表字段
+         * 
+         * @param cursorTime   游标创建时间
+         * @param cursorId     游标ID
+         * @param templateName 模板名称（可选）
+         * @param templateCode 模板编号（可选）
+         * @param status       状态（可选）
+         * @param pageable     只用于限制返回条数，页码固定为0
+         * @return 游标之后的用户模板列表项
+         */
+        @Query("SELECT " + LIST_ITEM_COLUMNS + LIST_FROM_ALL_USERS + KEYSET_AFTER_CURSOR)
+        List<UserTemplateDTO> findAllWithTemplateInfoAfter(
+                        @Param("cursorTime") LocalDateTime cursorTime,
+                        @Param("cursorId") String cursorId,
+                        @Param("templateName") String templateName,
+                        @Param("templateCode") String templateCode,
+                        @Param("status") Integer status,
+                        Pageable pageable);
+
+        /**
+         * 按游标查询指定用户的用户模板，只查询列表字段
+         * 
+         * @param userId       用户ID
+         * @param cursorTime   游标创建时间
+         * @param cursorId     游标ID
+         * @param templateName 模板名称（可选）
+         * @param templateCode 模板编号（可选）
+         * @param status       状态（可选）
+         * @param pageable     只用于限制返回条数，页码固定为0
+         * @return 游标之后的用户模板列表项
+         */
+        @Query("SELECT " + LIST_ITEM_COLUMNS + LIST_FROM_BY_USER + KEYSET_AFTER_CURSOR)
+        List<UserTemplateDTO> findByUserIdWithTemplateInfoAfter(
+                        @Param("userId") String userId,
+                        @Param("cursorTime") LocalDateTime cursorTime,
+                        @Param("cursorId") String cursorId,
+                        @Param("templateName") String templateName,
+                        @Param("templateCode") String templateCode,
+                        @Param("status") Integer status,
+                        Pageable pageable);
+
+        /**
+         * 统计符合过滤条件的所有用户模板数量
+         */
+        @Query("SELECT COUNT(ut) " + LIST_FROM_ALL_USERS)
+        long countAllWithTemplateInfoFilters(
+                        @Param("templateName") String templateName,
+                        @Param("templateCode") String templateCode,
+                        @Param("status") Integer status);
+
+        /**
+         * 统计符合过滤条件的指定用户模板数量
+         */
+        @Query("SELECT COUNT(ut) " + LIST_FROM_BY_USER)
+        long countByUserIdWithTemplateInfoFilters(
+                        @Param("userId") String userId,
+                        @Param("templateName") String templateName,
+                        @Param("templateCode") String templateCode,
+                        @Param("status") Integer status);
+
         /**
          * 检查用户是否有访问指定模板的权限
          * 
@@ -140,4 +252,36 @@ public interface UserTemplateRepository extends JpaRepository<UserTemplate, Stri
          * @return 是否存在用户模板关系
          */
         boolean existsByUserIdAndTemplateId(String userId, String templateId);
-}
\ No newline at end of file
+
+        /**
+         * 版本号匹配时更新内容和状态，并将版本号加1
+         *
+         * @param id         用户模板关系ID
+         * @param content    新内容
+         * @param status     新状态
+         * @param version    期望的当前版本号
+         * @param updateTime 更新时间
+         * @return 更新的行数，0表示版本不匹配
+         */
+        @Modifying(clearAutomatically = true)
+        @Query("UPDATE UserTemplate ut SET ut.content = :content, ut.status = :status, " +
+                        "ut.version = ut.version + 1, ut.updateTime = :updateTime " +
+                        "WHERE ut.id = :id AND ut.version = :version")
+        int updateContentIfVersionMatches(
+                        @Param("id") String id,
+                        @Param("content") String content,
+                        @Param("status") Integer status,
+                        @Param("version") Long version,
+                        @Param("updateTime") LocalDateTime updateTime);
+
+        /**
+         * 查询已分配该模板的用户，使用(user_id, template_id)唯一索引
+         *
+         * @param templateId 模板ID
+         * @param userIds    候选用户ID
+         * @return 其中已存在该模板关系的用户ID
+         */
+        @Query("SELECT ut.userId FROM UserTemplate ut WHERE ut.templateId = :templateId AND ut.userId IN :userIds")
+        List<String> findAssignedUserIds(@Param("templateId") String templateId,
+                        @Param("userIds") Collection<String> userIds);
+}
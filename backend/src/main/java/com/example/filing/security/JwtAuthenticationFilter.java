@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.filing.cache.PrincipalCache;
 import com.example.filing.entity.SysUser;
 import com.example.filing.repository.SysUserRepository;
 import com.example.filing.util.JwtTokenUtil;
@@ -30,6 +31,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private SysUserRepository userRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -37,19 +41,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
 
             if (StringUtils.hasText(jwt) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                String username = jwtTokenUtil.extractUsername(jwt);
-                Integer role = jwtTokenUtil.extractRole(jwt);
+                // 一次验证得到全部声明，同一令牌的后续请求命中缓存
+                JwtTokenUtil.TokenClaims claims = jwtTokenUtil.parseToken(jwt);
+                String username = claims.username();
+                Integer role = claims.role();
 
                 if (StringUtils.hasText(username)) {
-                    SysUser user = userRepository.findByLoginName(username);
-                    if (user != null && user.getStatus() == 1) {
+                    // 主体中携带用户ID，后续处理无需再按登录名查询用户
+                    UserDetailsImpl principal = principalCache.get(username, this::loadActiveUser);
+                    if (principal != null) {
                         String roleStr = switch (role) {
                             case 1 -> "ROLE_ADMIN";
                             default -> "ROLE_USER";
                         };
 
                         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                                username, null, Collections.singleton(new SimpleGrantedAuthority(roleStr)));
+                                principal, null, Collections.singleton(new SimpleGrantedAuthority(roleStr)));
 
                         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -63,6 +70,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetailsImpl loadActiveUser(String loginName) {
+        SysUser user = userRepository.findByLoginName(loginName);
+        return user != null && user.getStatus() == 1 ? UserDetailsImpl.build(user) : null;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
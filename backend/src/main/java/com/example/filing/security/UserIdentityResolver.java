@@ -0,0 +1,165 @@
+package com.example.filing.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.example.filing.cache.PrincipalCache;
+import com.example.filing.entity.SysUser;
+import com.example.filing.repository.SysUserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 用户标识解析器
+ * 将登录名或用户ID统一解析为用户ID(UUID)，依次使用：当前认证主体、本次请求内已解析的结果、
+ * 认证用户缓存，最后才查询数据库。按登录名查询到的有效用户写入认证用户缓存；
+ * 查询缓存不计入认证缓存的命中率指标。
+ */
+@Component
+@RequiredArgsConstructor
+public class UserIdentityResolver {
+
+    /**
+     * 用户ID(UUID)格式
+     */
+    private static final Pattern UUID_PATTERN = Pattern
+            .compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    /**
+     * 请求属性名：本次请求内登录名到用户ID的映射
+     */
+    private static final String REQUEST_ATTRIBUTE = UserIdentityResolver.class.getName() + ".resolved";
+
+    /**
+     * 批量解析时每条IN查询的登录名个数上限
+     */
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    private final SysUserRepository sysUserRepository;
+    private final PrincipalCache principalCache;
+
+    /**
+     * 判断是否为用户ID(UUID)格式
+     *
+     * @param value 用户ID或登录名
+     * @return 是否为UUID格式
+     */
+    public static boolean isUserId(String value) {
+        return value != null && UUID_PATTERN.matcher(value).matches();
+    }
+
+    /**
+     * 解析用户ID
+     *
+     * @param userIdOrLoginName 用户ID或登录名
+     * @return 用户ID，按登录名找不到用户时返回null
+     */
+    public String resolveUserId(String userIdOrLoginName) {
+        if (userIdOrLoginName == null || isUserId(userIdOrLoginName)) {
+            return userIdOrLoginName;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl principal
+                && userIdOrLoginName.equals(principal.getLoginName())) {
+            return principal.getId();
+        }
+
+        Map<String, String> resolved = requestScopedResults();
+        String userId = resolved != null ? resolved.get(userIdOrLoginName) : null;
+        if (userId != null) {
+            return userId;
+        }
+
+        UserDetailsImpl cached = principalCache.peek(userIdOrLoginName);
+        if (cached != null) {
+            userId = cached.getId();
+        } else {
+            long generation = principalCache.generation();
+            SysUser user = sysUserRepository.findByLoginName(userIdOrLoginName);
+            if (user == null) {
+                return null;
+            }
+            userId = user.getId();
+            // 有效用户写入认证用户缓存，后续认证和解析不再查询数据库
+            if (user.getStatus() == 1) {
+                principalCache.put(userIdOrLoginName, UserDetailsImpl.build(user), generation);
+            }
+        }
+
+        if (resolved != null) {
+            resolved.put(userIdOrLoginName, userId);
+        }
+        return userId;
+    }
+
+    /**
+     * 批量解析用户ID，未命中缓存的登录名按批次用IN查询一次性解析
+     *
+     * @param userIdsOrLoginNames 用户ID或登录名列表
+     * @return 输入值到用户ID的映射，按登录名找不到的用户不在其中
+     */
+    public Map<String, String> resolveUserIds(Collection<String> userIdsOrLoginNames) {
+        Map<String, String> result = new LinkedHashMap<>();
+        List<String> unresolved = new ArrayList<>();
+        Map<String, String> resolved = requestScopedResults();
+        for (String value : new LinkedHashSet<>(userIdsOrLoginNames)) {
+            if (value == null) {
+                continue;
+            }
+            if (isUserId(value)) {
+                result.put(value, value);
+                continue;
+            }
+            String userId = resolved != null ? resolved.get(value) : null;
+            if (userId == null) {
+                UserDetailsImpl cached = principalCache.peek(value);
+                userId = cached != null ? cached.getId() : null;
+            }
+            if (userId != null) {
+                result.put(value, userId);
+            } else {
+                unresolved.add(value);
+            }
+        }
+
+        for (int from = 0; from < unresolved.size(); from += LOOKUP_BATCH_SIZE) {
+            List<String> batch = unresolved.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, unresolved.size()));
+            for (Object[] row : sysUserRepository.findIdsByLoginNameIn(batch)) {
+                result.put((String) row[0], (String) row[1]);
+                if (resolved != null) {
+                    resolved.put((String) row[0], (String) row[1]);
+                }
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> requestScopedResults() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            // 非请求线程（后台任务、单元测试）不做请求内缓存
+            return null;
+        }
+        Map<String, String> resolved = (Map<String, String>) attributes.getAttribute(REQUEST_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (resolved == null) {
+            resolved = new HashMap<>();
+            attributes.setAttribute(REQUEST_ATTRIBUTE, resolved, RequestAttributes.SCOPE_REQUEST);
+        }
+        return resolved;
+    }
+}
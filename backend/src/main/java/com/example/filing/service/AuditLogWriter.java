@@ -0,0 +1,22 @@
+package com.example.filing.service;
+
+import com.example.filing.entity.AuditLog;
+
+/**
+ * 审核日志写入器接口
+ */
+public interface AuditLogWriter {
+
+    /**
+     * 写入审核日志
+     * 存在活动事务时在事务提交后才写入，事务回滚时不写入
+     * 
+     * @param auditLog 审核日志
+     */
+    void write(AuditLog auditLog);
+
+    /**
+     * 将已接收的审核日志立即写入数据库
+     */
+    void flush();
+}
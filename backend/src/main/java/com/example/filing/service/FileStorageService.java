@@ -1,6 +1,10 @@
 package com.example.filing.service;
 
+import java.io.InputStream;
+import java.net.URI;
 import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
@@ -16,6 +20,19 @@ public interface FileStorageService {
      */
     String storeFile(MultipartFile file, String subDirectory);
 
+    /**
+     * 保存输入流，同时将写入的内容交给读取方处理（只读取一次输入流）
+     * 读取方未读完的内容会继续写入文件；读取方抛出异常时删除已写入的文件
+     * 
+     * @param inputStream      输入流（由调用方负责关闭）
+     * @param originalFilename 原始文件名，用于保留扩展名
+     * @param subDirectory     子目录
+     * @param streamReader     读取方，接收与写入内容相同的输入流，可为null
+     * @return 保存的文件名
+     */
+    String storeFile(InputStream inputStream, String originalFilename, String subDirectory,
+            Consumer<InputStream> streamReader);
+
     /**
      * 加载文件为资源
      * 
@@ -42,4 +59,15 @@ public interface FileStorageService {
      * @return 是否删除成功
      */
     boolean deleteFile(String fileName, String subDirectory);
+
+    /**
+     * 获取文件的直接下载地址（如对象存储的预签名URL）
+     * 
+     * @param fileName     文件名
+     * @param subDirectory 子目录
+     * @return 下载地址，不支持直接下载时返回空，由应用读取文件后发送
+     */
+    default Optional<URI> getDownloadUrl(String fileName, String subDirectory) {
+        return Optional.empty();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.filing.service;
+
+import com.example.filing.entity.UserTemplate;
+
+/**
+ * 通知服务接口
+ */
+public interface NotificationService {
+
+    /**
+     * 记录模板状态变更通知
+     * 通知写入发件箱，与状态变更在同一事务中提交，由后台线程投递到各渠道
+     *
+     * @param userTemplate 用户模板关系
+     * @param oldStatus    旧状态，新建关系时为null
+     * @param newStatus    新状态
+     * @param operatorId   操作人ID，用户自己的操作不通知
+     */
+    void notifyStatusChange(UserTemplate userTemplate, Integer oldStatus, int newStatus, String operatorId);
+
+    /**
+     * 投递一批到期的通知
+     *
+     * @return 本批次处理的通知数
+     */
+    int dispatchPending();
+}
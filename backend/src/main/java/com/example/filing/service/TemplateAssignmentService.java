@@ -0,0 +1,32 @@
+package com.example.filing.service;
+
+import java.util.List;
+
+import com.example.filing.dto.response.TemplateAssignmentJob;
+import com.example.filing.util.Result;
+
+/**
+ * 模板批量发送服务接口
+ */
+public interface TemplateAssignmentService {
+
+    /**
+     * 提交模板批量发送任务
+     * 接收人在工作线程中批量解析（登录名一次IN查询），关系按分块插入并逐块提交，
+     * 已持有该模板的用户跳过，不存在的用户记录在任务结果中
+     *
+     * @param templateId 模板ID
+     * @param userIds    接收人ID或登录名列表
+     * @param operatorId 操作人（管理员）ID
+     * @return 已提交的任务；任务队列已满时返回503错误码
+     */
+    Result<TemplateAssignmentJob> submitAssignment(String templateId, List<String> userIds, String operatorId);
+
+    /**
+     * 查询批量发送任务
+     *
+     * @param jobId 任务ID
+     * @return 任务信息
+     */
+    Result<TemplateAssignmentJob> getJob(String jobId);
+}
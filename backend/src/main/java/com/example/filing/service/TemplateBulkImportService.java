@@ -0,0 +1,25 @@
+package com.example.filing.service;
+
+import java.util.List;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.filing.dto.response.TemplateBulkImportReport;
+import com.example.filing.util.Result;
+
+/**
+ * 模板批量导入服务接口
+ */
+public interface TemplateBulkImportService {
+
+    /**
+     * 批量导入Word模板
+     * 支持多个.docx文件，也支持包含.docx文件的.zip压缩包；文档并行解析，模板记录批量插入
+     * 
+     * @param files        上传的文件（.docx或.zip）
+     * @param templateType 模板类型，可为空
+     * @param userId       操作用户ID
+     * @return 每个文件的导入结果
+     */
+    Result<TemplateBulkImportReport> importTemplates(List<MultipartFile> files, String templateType, String userId);
+}
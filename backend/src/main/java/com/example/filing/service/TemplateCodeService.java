@@ -0,0 +1,25 @@
+package com.example.filing.service;
+
+import java.util.List;
+
+/**
+ * 模板备案编号分配服务接口
+ * 编号格式：TPL + 年月日 + 4位序号，例如：TPL202412240001
+ */
+public interface TemplateCodeService {
+
+    /**
+     * 分配一个备案编号
+     * 
+     * @return 备案编号
+     */
+    String nextTemplateCode();
+
+    /**
+     * 一次分配多个连续的备案编号
+     * 
+     * @param count 需要分配的数量
+     * @return 备案编号列表
+     */
+    List<String> nextTemplateCodes(int count);
+}
@@ -0,0 +1,30 @@
+package com.example.filing.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.filing.dto.response.TemplateIngestionJob;
+import com.example.filing.util.Result;
+
+/**
+ * 模板异步导入服务接口
+ */
+public interface TemplateIngestionService {
+
+    /**
+     * 提交模板文件导入任务
+     * 文件在调用线程中保存，文档解析以及模板文件路径、内容的更新在工作线程池中执行
+     * 
+     * @param file       上传的Word文档文件
+     * @param templateId 模板ID
+     * @return 已提交的任务；任务队列已满时返回503错误码
+     */
+    Result<TemplateIngestionJob> submitUploadJob(MultipartFile file, String templateId);
+
+    /**
+     * 查询导入任务
+     * 
+     * @param jobId 任务ID
+     * @return 任务信息
+     */
+    Result<TemplateIngestionJob> getJob(String jobId);
+}
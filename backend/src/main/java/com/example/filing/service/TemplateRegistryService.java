@@ -1,5 +1,7 @@
 package com.example.filing.service;
 
+import java.util.List;
+
 import com.example.filing.dto.request.TemplateRegistryRequest;
 import com.example.filing.entity.TemplateRegistry;
 import com.example.filing.util.Result;
@@ -31,6 +33,15 @@ public interface TemplateRegistryService {
      */
     Result<TemplateRegistry> saveTemplateRegistry(TemplateRegistryRequest request, String userId);
 
+    /**
+     * 批量创建模板（批量插入，未提供备案编号的模板按顺序自动生成）
+     * 
+     * @param requests 模板请求列表
+     * @param userId   操作用户ID
+     * @return 创建的模板，顺序与请求一致
+     */
+    Result<List<TemplateRegistry>> saveTemplateRegistries(List<TemplateRegistryRequest> requests, String userId);
+
     /**
      * 根据ID获取模板详情
      * 
@@ -64,4 +75,14 @@ public interface TemplateRegistryService {
      * @return 更新结果
      */
     Result<String> updateTemplateContent(String id, String templateContent);
+
+    /**
+     * 在同一事务中更新模板文件路径和模板内容
+     * 
+     * @param id              模板ID
+     * @param filePath        文件路径
+     * @param templateContent 模板内容（JSON格式）
+     * @return 更新结果
+     */
+    Result<String> updateTemplateFile(String id, String filePath, String templateContent);
 }
\ No newline at end of file
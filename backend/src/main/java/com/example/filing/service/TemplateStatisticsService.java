@@ -0,0 +1,43 @@
+package com.example.filing.service;
+
+import java.util.Map;
+
+/**
+ * 模板统计服务接口
+ * 在内存中维护各状态的用户模板数量（全局、按用户、按模板），查询时不访问数据库，
+ * 并定期与数据库对账。
+ */
+public interface TemplateStatisticsService {
+
+    /**
+     * 记录用户模板状态变更
+     * 存在活动事务时在事务提交后才计入，事务回滚时不计入
+     *
+     * @param userId     用户ID
+     * @param templateId 模板ID
+     * @param oldStatus  原状态，新建时为null
+     * @param newStatus  新状态
+     */
+    void recordStatusChange(String userId, String templateId, Integer oldStatus, int newStatus);
+
+    /**
+     * 记录模板数量变化（新建为正数，删除为负数）
+     *
+     * @param delta 变化量
+     */
+    void recordTemplateCountChange(long delta);
+
+    /**
+     * 获取统计数据
+     *
+     * @param userId     只统计该用户的用户模板（可选）
+     * @param templateId 只统计该模板的用户模板（可选，不能与userId同时指定）
+     * @return 统计数据
+     */
+    Map<String, Object> getStatistics(String userId, String templateId);
+
+    /**
+     * 按数据库重新计算全部计数
+     */
+    void reconcile();
+}
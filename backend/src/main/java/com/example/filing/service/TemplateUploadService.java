@@ -0,0 +1,32 @@
+package com.example.filing.service;
+
+import java.io.InputStream;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.filing.dto.response.TemplateUploadResult;
+
+public interface TemplateUploadService {
+
+    /**
+     * 上传Word模板：只读取一次上传流，在写入磁盘的同时完成格式校验和内容解析
+     * 文档无法解析时不保留已写入的文件
+     * 
+     * @param file         上传的文件
+     * @param subDirectory 子目录
+     * @return 上传结果，valid为false表示不是有效的Word文档
+     */
+    TemplateUploadResult uploadWordTemplate(MultipartFile file, String subDirectory);
+
+    /**
+     * 以流的方式上传Word模板：内容直接从输入流（如请求体）写入存储，不经过multipart临时文件
+     * 写入的同时计算内容摘要并完成解析，整个文件只写一次磁盘、内存占用与文件大小无关
+     * （不论word.parser.engine如何配置，此处都使用流式解析引擎）
+     * 
+     * @param inputStream      文档内容（由调用方负责关闭）
+     * @param originalFilename 原始文件名
+     * @param subDirectory     子目录
+     * @return 上传结果，valid为false表示不是有效的Word文档
+     */
+    TemplateUploadResult uploadWordTemplate(InputStream inputStream, String originalFilename, String subDirectory);
+}
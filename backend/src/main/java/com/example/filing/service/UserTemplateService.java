@@ -4,6 +4,10 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 
+import com.example.filing.dto.response.BatchReviewResult;
+import com.example.filing.dto.response.CursorPage;
+import com.example.filing.dto.response.UserTemplateDTO;
+import com.example.filing.dto.response.UserTemplateUpdateResult;
 import com.example.filing.entity.AuditLog;
 import com.example.filing.entity.UserTemplate;
 import com.example.filing.util.Result;
@@ -23,8 +27,24 @@ public interface UserTemplateService {
      */
     Result<Page<UserTemplate>> getUserTemplateList(String userId, Integer current, Integer pageSize);
 
+    /**
+     * 按游标分页查询用户模板列表（按创建时间倒序），不使用偏移量，翻页开销与页码无关
+     *
+     * @param userId       用户ID，为null时查询所有用户
+     * @param templateName 模板名称（可选）
+     * @param templateCode 模板编号（可选）
+     * @param status       状态（可选）
+     * @param cursor       上一页返回的游标，为空时查询第一页
+     * @param pageSize     每页大小
+     * @param withTotal    是否统计总记录数
+     * @return 用户模板列表项
+     */
+    Result<CursorPage<UserTemplateDTO>> getUserTemplateCursorPage(String userId, String templateName,
+            String templateCode, Integer status, String cursor, int pageSize, boolean withTotal);
+
     /**
      * 用户申请模板或管理员发送模板
+     * 已持有该模板的用户跳过，重复提交不会产生重复关系
      * 
      * @param templateId 模板ID
      * @param userIds    用户ID列表
@@ -46,6 +66,47 @@ public interface UserTemplateService {
      */
     Result<String> updateTemplateStatus(String id, Integer status, String remarks, String userId, boolean isAdmin);
 
+    /**
+     * 按版本号条件更新模板状态
+     * 当前版本与期望版本不一致时不做修改，返回409及服务端当前版本
+     *
+     * @param id              用户模板关系ID
+     * @param status          新状态值
+     * @param remarks         备注信息
+     * @param expectedVersion 客户端持有的版本号，为null时不校验
+     * @param userId          操作用户ID
+     * @param isAdmin         是否是管理员
+     * @return 更新结果，包含最新版本号
+     */
+    Result<UserTemplateUpdateResult> updateTemplateStatus(String id, Integer status, String remarks,
+            Long expectedVersion, String userId, boolean isAdmin);
+
+    /**
+     * 管理员批量审核
+     * 一次查询加载全部记录，逐条校验状态转换，状态更新按JDBC批次执行；
+     * 单条记录失败（不存在、状态不允许、并发修改）不影响其他记录
+     *
+     * @param ids     用户模板关系ID列表
+     * @param status  目标状态
+     * @param remarks 审核意见
+     * @param adminId 管理员ID
+     * @return 每条记录的处理结果
+     */
+    Result<BatchReviewResult> batchReviewTemplates(List<String> ids, int status, String remarks, String adminId);
+
+    /**
+     * 管理员向一批用户发送模板（批量发送的一个分块，独立事务提交）
+     * 已持有该模板的用户跳过，关系记录按JDBC批次插入
+     *
+     * @param templateId   模板ID
+     * @param userIds      用户ID列表（UUID，调用方已校验存在）
+     * @param operatorId   操作人ID
+     * @param operatorName 操作人姓名
+     * @return 新创建的关系数
+     */
+    Result<Integer> assignTemplateChunk(String templateId, List<String> userIds, String operatorId,
+            String operatorName);
+
     /**
      * 获取模板内容
      * 
@@ -64,6 +125,33 @@ public interface UserTemplateService {
      */
     Result<String> saveTemplateContent(String id, String content, String userId);
 
+    /**
+     * 按版本号条件保存模板内容
+     * 当前版本与期望版本不一致时不做修改，返回409及服务端当前版本
+     *
+     * @param id              用户模板关系ID
+     * @param content         内容JSON
+     * @param expectedVersion 客户端持有的版本号，为null时不校验
+     * @param userId          用户ID
+     * @return 保存结果，包含最新版本号
+     */
+    Result<UserTemplateUpdateResult> saveTemplateContent(String id, String content, Long expectedVersion,
+            String userId);
+
+    /**
+     * 增量保存模板内容
+     * 补丁基于客户端持有的版本号应用，版本不一致时拒绝；内容未变化时不写入数据库
+     *
+     * @param id              用户模板关系ID
+     * @param patch           补丁JSON
+     * @param mergePatch      true为JSON Merge Patch（RFC 7386），false为JSON Patch（RFC 6902）
+     * @param expectedVersion 客户端持有的版本号
+     * @param userId          用户ID
+     * @return 保存结果，包含最新版本号
+     */
+    Result<UserTemplateUpdateResult> patchTemplateContent(String id, String patch, boolean mergePatch,
+            Long expectedVersion, String userId);
+
     /**
      * 获取模板审核历史
      *
@@ -22,6 +22,34 @@ public interface WordDocumentService {
      */
     String parseWordDocument(InputStream inputStream);
 
+    /**
+     * 解析Word文档内容，已知文件内容哈希时优先使用解析结果缓存
+     * 命中缓存时不读取输入流；未命中时解析并写入缓存
+     * 
+     * @param inputStream Word文档输入流
+     * @param contentHash 文件内容的SHA-256（十六进制）
+     * @return 解析后的结构化数据（JSON格式）
+     */
+    String parseWordDocument(InputStream inputStream, String contentHash);
+
+    /**
+     * 解析Word文档内容，解析的同时计算内容哈希（只读取一次输入流，解析后读完剩余内容），
+     * 解析结果按哈希写入缓存，之后以相同内容调用{@link #parseWordDocument(InputStream, String)}可直接命中
+     * 
+     * @param inputStream Word文档输入流（不关闭）
+     * @return 解析后的结构化数据（JSON格式）
+     */
+    String parseAndCacheWordDocument(InputStream inputStream);
+
+    /**
+     * 与{@link #parseAndCacheWordDocument(InputStream)}相同，但不论word.parser.engine如何配置都使用流式（StAX）解析，
+     * 内存占用与文档大小无关，供流式上传使用
+     * 
+     * @param inputStream Word文档输入流（不关闭）
+     * @return 解析后的结构化数据（JSON格式）
+     */
+    String parseAndCacheWordDocumentStreaming(InputStream inputStream);
+
     /**
      * 验证文件是否为有效的Word文档
      * 
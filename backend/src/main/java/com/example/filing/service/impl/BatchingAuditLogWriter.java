@@ -0,0 +1,533 @@
+package com.example.filing.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.filing.entity.AuditLog;
+import com.example.filing.service.AuditLogWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 批量异步审核日志写入器
+ * 审核日志先追加到本地缓冲文件（spool）：事务内产生的日志在业务事务提交前写入，提交后放入内存队列，
+ * 事务回滚时在缓冲文件中记录回滚标记；事务外产生的日志直接写入缓冲文件并放入内存队列。
+ * 后台线程定时或在队列达到阈值时通过JDBC批量插入数据库，请求线程不等待数据库写入。
+ * 写入数据库成功后删除对应的缓冲文件；进程崩溃或数据库不可用时遗留的缓冲文件在下次刷新（含启动时）重放，
+ * 重放时跳过已回滚的记录并按ID去重。缓冲文件不可用时，事务内的日志在提交前直接插入数据库，
+ * 写入失败的记录保留在内存队列中重试，保证日志不丢失也不重复。
+ */
+@Service
+@Slf4j
+public class BatchingAuditLogWriter implements AuditLogWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO audit_log (id, entity_type, entity_id, operation_type, "
+            + "old_status, new_status, details, operator_id, operator_name, is_admin, operation_time) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ACTIVE_SPOOL_FILE = "audit-active.spool";
+    private static final String PENDING_SPOOL_PREFIX = "audit-pending-";
+    private static final String SPOOL_SUFFIX = ".spool";
+    /**
+     * 缓冲文件中的回滚标记行前缀，后接已回滚事务的审核日志ID
+     */
+    private static final String ROLLBACK_MARKER = "#rollback ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean async;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Path spoolDirectory;
+
+    /**
+     * 保护内存队列和当前缓冲文件
+     */
+    private final Object bufferLock = new Object();
+    private List<AuditLog> buffer = new ArrayList<>();
+    private BufferedWriter spoolWriter;
+    /**
+     * 内存队列中的记录是否都已写入当前缓冲文件
+     */
+    private boolean bufferSpooled = true;
+    /**
+     * 已写入缓冲文件、尚未完成提交或回滚的事务数；不为0时不切换缓冲文件，保证回滚标记与记录在同一文件中
+     */
+    private int inFlightTransactions;
+
+    /**
+     * 保证同一时刻只有一个刷新过程
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong spoolSequence = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    public BatchingAuditLogWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            @Value("${audit.writer.async:true}") boolean async,
+            @Value("${audit.writer.batch-size:200}") int batchSize,
+            @Value("${audit.writer.flush-interval-ms:1000}") long flushIntervalMillis,
+            @Value("${audit.writer.spool-dir:./logs/audit-spool}") String spoolDirectory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.async = async;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.spoolDirectory = Paths.get(spoolDirectory).toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!async) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(spoolDirectory);
+            // 上次运行未写入数据库的缓冲文件转为待重放文件
+            Path activeSpool = spoolDirectory.resolve(ACTIVE_SPOOL_FILE);
+            if (Files.exists(activeSpool)) {
+                Files.move(activeSpool, nextPendingSpool(), StandardCopyOption.ATOMIC_MOVE);
+            }
+            spoolWriter = openActiveSpool();
+        } catch (IOException e) {
+            // 缓冲文件不可用时仍可写入数据库，只是失去崩溃保护
+            log.error("无法初始化审核日志缓冲目录: {}", spoolDirectory, e);
+        }
+
+        // 重放上次运行遗留的缓冲文件，之后定时刷新
+        flushQuietly();
+        scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("audit-log-writer-"));
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void write(AuditLog auditLog) {
+        if (auditLog.getId() == null) {
+            auditLog.setId(UUID.randomUUID().toString());
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // 随业务事务提交前写入缓冲文件，提交后才交给后台线程写入数据库
+            transactionalLogs().add(auditLog);
+        } else {
+            enqueue(auditLog);
+        }
+    }
+
+    /**
+     * 当前事务内待写入的审核日志，首次写入时注册事务回调
+     */
+    @SuppressWarnings("unchecked")
+    private List<AuditLog> transactionalLogs() {
+        List<AuditLog> auditLogs = (List<AuditLog>) TransactionSynchronizationManager.getResource(this);
+        if (auditLogs != null) {
+            return auditLogs;
+        }
+
+        List<AuditLog> pending = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, pending);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            /**
+             * 是否已尝试写入缓冲文件（需要在事务结束时完成）
+             */
+            private boolean inFlight;
+            /**
+             * 是否全部写入了缓冲文件，否则已在事务内直接插入数据库
+             */
+            private boolean spooled;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                if (async) {
+                    synchronized (bufferLock) {
+                        if (spoolWriter != null) {
+                            inFlight = true;
+                            inFlightTransactions++;
+                            spooled = true;
+                            for (AuditLog auditLog : pending) {
+                                spooled &= appendToSpool(auditLog);
+                            }
+                        }
+                    }
+                }
+                if (!spooled) {
+                    // 缓冲文件不可用时在事务内插入，失败时业务事务回滚，不会出现有业务变更而无审核日志的情况
+                    insertBatch(pending);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BatchingAuditLogWriter.this);
+                if (inFlight) {
+                    completeTransaction(pending, status == STATUS_COMMITTED, spooled);
+                }
+            }
+        });
+        return pending;
+    }
+
+    /**
+     * 事务结束：提交且已写入缓冲文件的日志放入内存队列，回滚的日志在缓冲文件中记录回滚标记
+     */
+    private void completeTransaction(List<AuditLog> auditLogs, boolean committed, boolean spooled) {
+        int size;
+        synchronized (bufferLock) {
+            inFlightTransactions--;
+            if (!committed) {
+                for (AuditLog auditLog : auditLogs) {
+                    appendLine(ROLLBACK_MARKER + auditLog.getId());
+                }
+                return;
+            }
+            if (!spooled) {
+                // 已在事务内插入数据库，缓冲文件中的部分记录重放时按ID去重
+                return;
+            }
+            buffer.addAll(auditLogs);
+            size = buffer.size();
+        }
+        requestFlushIfFull(size);
+    }
+
+    private void enqueue(AuditLog auditLog) {
+        if (!async) {
+            // 同步模式下写入失败直接抛出，由调用方感知
+            insertBatch(List.of(auditLog));
+            return;
+        }
+
+        int size;
+        synchronized (bufferLock) {
+            bufferSpooled &= appendToSpool(auditLog);
+            buffer.add(auditLog);
+            size = buffer.size();
+        }
+        requestFlushIfFull(size);
+    }
+
+    /**
+     * 达到批量阈值时提前刷新，不等待定时任务
+     */
+    private void requestFlushIfFull(int size) {
+        if (size >= batchSize && flushRequested.compareAndSet(false, true) && scheduler != null) {
+            scheduler.execute(this::flushQuietly);
+        }
+    }
+
+    @Override
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+
+            List<AuditLog> batch;
+            boolean spooled;
+            Path pendingSpool = null;
+            synchronized (bufferLock) {
+                batch = buffer;
+                spooled = bufferSpooled;
+                buffer = new ArrayList<>();
+                bufferSpooled = true;
+                if (!batch.isEmpty()) {
+                    // 有事务尚未结束时不切换缓冲文件，本批写入失败时放回内存队列重试
+                    pendingSpool = inFlightTransactions == 0 ? rotateSpool() : null;
+                    spooled &= pendingSpool != null;
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                try {
+                    insertBatch(batch);
+                } catch (DataAccessException e) {
+                    if (spooled) {
+                        // 保留缓冲文件，数据库恢复后重放
+                        log.warn("审核日志批量写入失败，{} 条记录保留在缓冲文件中", batch.size(), e);
+                    } else {
+                        // 部分记录未写入待重放的缓冲文件，整批放回内存队列重试
+                        deleteQuietly(pendingSpool);
+                        requeue(batch);
+                        log.warn("审核日志批量写入失败，{} 条记录保留在内存队列中重试", batch.size(), e);
+                    }
+                    return;
+                }
+                deleteQuietly(pendingSpool);
+            }
+
+            replayPendingSpools();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 将写入失败的记录放回内存队列头部，并尝试重新写入缓冲文件
+     */
+    private void requeue(List<AuditLog> batch) {
+        synchronized (bufferLock) {
+            List<AuditLog> merged = new ArrayList<>(batch.size() + buffer.size());
+            for (AuditLog auditLog : batch) {
+                bufferSpooled &= appendToSpool(auditLog);
+                merged.add(auditLog);
+            }
+            merged.addAll(buffer);
+            buffer = merged;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("审核日志刷新失败", e);
+        }
+    }
+
+    private void insertBatch(List<AuditLog> auditLogs) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, auditLogs, batchSize, (ps, auditLog) -> {
+            ps.setString(1, auditLog.getId());
+            ps.setString(2, auditLog.getEntityType());
+            ps.setString(3, auditLog.getEntityId());
+            ps.setString(4, auditLog.getOperationType());
+            ps.setObject(5, auditLog.getOldStatus());
+            ps.setObject(6, auditLog.getNewStatus());
+            ps.setString(7, auditLog.getDetails());
+            ps.setString(8, auditLog.getOperatorId());
+            ps.setString(9, auditLog.getOperatorName());
+            ps.setBoolean(10, auditLog.isAdmin());
+            ps.setTimestamp(11, Timestamp.valueOf(auditLog.getOperationTime()));
+        });
+    }
+
+    /**
+     * 重放遗留的缓冲文件，已存在于数据库中的记录（写入成功但未来得及删除文件）会被跳过
+     */
+    private void replayPendingSpools() {
+        if (!async || !Files.isDirectory(spoolDirectory)) {
+            return;
+        }
+
+        List<Path> pendingSpools;
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            pendingSpools = files
+                    .filter(file -> file.getFileName().toString().startsWith(PENDING_SPOOL_PREFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.error("无法读取审核日志缓冲目录: {}", spoolDirectory, e);
+            return;
+        }
+
+        for (Path pendingSpool : pendingSpools) {
+            try {
+                // 同一记录可能因重新入队被写入缓冲文件多次，按ID去重
+                List<AuditLog> auditLogs = readSpool(pendingSpool).stream()
+                        .collect(Collectors.toMap(AuditLog::getId, auditLog -> auditLog, (first, second) -> first,
+                                LinkedHashMap::new))
+                        .values().stream().toList();
+                Set<String> existingIds = findExistingIds(auditLogs);
+                List<AuditLog> missing = auditLogs.stream()
+                        .filter(auditLog -> !existingIds.contains(auditLog.getId()))
+                        .toList();
+                if (!missing.isEmpty()) {
+                    insertBatch(missing);
+                    log.info("从缓冲文件 {} 重放 {} 条审核日志", pendingSpool.getFileName(), missing.size());
+                }
+                deleteQuietly(pendingSpool);
+            } catch (IOException | DataAccessException e) {
+                log.warn("重放审核日志缓冲文件失败: {}", pendingSpool, e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 读取缓冲文件中的审核日志，跳过带回滚标记的记录
+     */
+    private List<AuditLog> readSpool(Path spool) throws IOException {
+        List<AuditLog> auditLogs = new ArrayList<>();
+        Set<String> rolledBack = new HashSet<>();
+        for (String line : Files.readAllLines(spool, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (line.startsWith(ROLLBACK_MARKER)) {
+                rolledBack.add(line.substring(ROLLBACK_MARKER.length()).trim());
+                continue;
+            }
+            try {
+                auditLogs.add(objectMapper.readValue(line, AuditLog.class));
+            } catch (IOException e) {
+                // 崩溃时最后一行可能不完整
+                log.warn("跳过无法解析的审核日志缓冲记录: {}", spool.getFileName());
+            }
+        }
+        auditLogs.removeIf(auditLog -> rolledBack.contains(auditLog.getId()));
+        return auditLogs;
+    }
+
+    private Set<String> findExistingIds(List<AuditLog> auditLogs) {
+        Set<String> existingIds = new HashSet<>();
+        for (int from = 0; from < auditLogs.size(); from += batchSize) {
+            List<AuditLog> chunk = auditLogs.subList(from, Math.min(from + batchSize, auditLogs.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            existingIds.addAll(jdbcTemplate.queryForList("SELECT id FROM audit_log WHERE id IN (" + placeholders + ")",
+                    String.class, chunk.stream().map(AuditLog::getId).toArray()));
+        }
+        return existingIds;
+    }
+
+    /**
+     * 追加到当前缓冲文件（调用方持有bufferLock）
+     * 每条记录写入后刷新到操作系统，进程崩溃时不会丢失
+     *
+     * @return 是否已写入缓冲文件
+     */
+    private boolean appendToSpool(AuditLog auditLog) {
+        try {
+            return appendLine(objectMapper.writeValueAsString(auditLog));
+        } catch (IOException e) {
+            log.error("写入审核日志缓冲文件失败", e);
+            return false;
+        }
+    }
+
+    /**
+     * 追加一行到当前缓冲文件（调用方持有bufferLock）
+     *
+     * @return 是否已写入缓冲文件
+     */
+    private boolean appendLine(String line) {
+        if (spoolWriter == null) {
+            return false;
+        }
+        try {
+            spoolWriter.write(line);
+            spoolWriter.newLine();
+            spoolWriter.flush();
+            return true;
+        } catch (IOException e) {
+            log.error("写入审核日志缓冲文件失败", e);
+            return false;
+        }
+    }
+
+    /**
+     * 将当前缓冲文件转为待确认文件并开启新的缓冲文件（调用方持有bufferLock）
+     *
+     * @return 待确认文件，缓冲文件不可用时返回null
+     */
+    private Path rotateSpool() {
+        if (spoolWriter == null) {
+            return null;
+        }
+        try {
+            spoolWriter.close();
+            Path pendingSpool = nextPendingSpool();
+            Files.move(spoolDirectory.resolve(ACTIVE_SPOOL_FILE), pendingSpool, StandardCopyOption.ATOMIC_MOVE);
+            spoolWriter = openActiveSpool();
+            return pendingSpool;
+        } catch (IOException e) {
+            log.error("切换审核日志缓冲文件失败", e);
+            try {
+                spoolWriter = openActiveSpool();
+            } catch (IOException ex) {
+                spoolWriter = null;
+            }
+            return null;
+        }
+    }
+
+    private BufferedWriter openActiveSpool() throws IOException {
+        return Files.newBufferedWriter(spoolDirectory.resolve(ACTIVE_SPOOL_FILE), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private Path nextPendingSpool() {
+        // 文件名按时间和序号排序，重放时保持写入顺序
+        return spoolDirectory.resolve(String.format("%s%d-%06d%s", PENDING_SPOOL_PREFIX,
+                System.currentTimeMillis(), spoolSequence.incrementAndGet(), SPOOL_SUFFIX));
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除审核日志缓冲文件失败: {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // 停止前写入剩余的日志
+        flushQuietly();
+        synchronized (bufferLock) {
+            try {
+                if (spoolWriter != null) {
+                    spoolWriter.close();
+                    spoolWriter = null;
+                }
+                if (!buffer.isEmpty() && !bufferSpooled) {
+                    log.error("停止时仍有 {} 条审核日志未能写入数据库或缓冲文件", buffer.size());
+                }
+                Path activeSpool = spoolDirectory.resolve(ACTIVE_SPOOL_FILE);
+                if (buffer.isEmpty() && Files.exists(activeSpool) && Files.size(activeSpool) == 0) {
+                    Files.delete(activeSpool);
+                }
+            } catch (IOException e) {
+                log.warn("关闭审核日志缓冲文件失败", e);
+            }
+        }
+    }
+}
@@ -1,60 +1,162 @@
 package com.example.filing.service.impl;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.TeeInputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.filing.service.FileStorageService;
+import com.example.filing.storage.ContentAddressedBlobStore;
+import com.example.filing.storage.StorageLayout;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * 本地文件存储服务实现类
+ * 上传内容在写入时同时计算SHA-256，写完后按内容去重保存（见{@link ContentAddressedBlobStore}），
+ * 无引用的文件块由后台线程定期回收；文件按{@link StorageLayout}分片保存，目录只在首次使用时创建
+ */
 @Service
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "local", matchIfMissing = true)
+@Slf4j
 public class FileStorageServiceImpl implements FileStorageService {
 
     private final Path fileStorageLocation;
 
+    /**
+     * 无引用文件块的回收间隔（毫秒），0表示不回收
+     */
+    @Value("${file.storage.gc-interval-ms:3600000}")
+    private long gcIntervalMillis;
+
+    /**
+     * 回收宽限期（分钟），宽限期内的文件块即使无引用也不回收
+     */
+    @Value("${file.storage.gc-grace-minutes:60}")
+    private long gcGraceMinutes = 60;
+
+    /**
+     * 文件分片层数，0表示直接保存在子目录下（直接构造、未经Spring注入时为0）
+     */
+    @Value("${file.storage.shard-levels:1}")
+    private int shardLevels;
+
+    private volatile ContentAddressedBlobStore blobStore;
+    private volatile StorageLayout layout;
+    private ScheduledExecutorService scheduler;
+
     @Autowired
     public FileStorageServiceImpl(Path fileStorageLocation) {
         this.fileStorageLocation = fileStorageLocation;
     }
 
-    @Override
-    public String storeFile(MultipartFile file, String subDirectory) {
-        // 检查文件名
-        String fileName = StringUtils.cleanPath(file.getOriginalFilename());
+    @PostConstruct
+    public void start() {
+        if (gcIntervalMillis <= 0 || !blobStore().isDeduplicating()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("file-storage-gc-"));
+        scheduler.scheduleWithFixedDelay(this::collectGarbage, gcIntervalMillis, gcIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
 
-        // 检查文件名是否包含无效字符
-        if (fileName.contains("..")) {
-            throw new RuntimeException("Filename contains invalid path sequence " + fileName);
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
         }
+    }
 
-        // 生成唯一文件名，保留原始扩展名
-        String fileExtension = "";
-        if (fileName.contains(".")) {
-            fileExtension = fileName.substring(fileName.lastIndexOf("."));
+    @Override
+    public String storeFile(MultipartFile file, String subDirectory) {
+        try (InputStream inputStream = file.getInputStream()) {
+            return storeFile(inputStream, file.getOriginalFilename(), subDirectory, null);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + file.getOriginalFilename() + ". Please try again!",
+                    ex);
         }
-        String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
+    }
 
-        // 创建子目录
-        Path targetLocation = createSubDirectoryIfNotExists(subDirectory);
+    @Override
+    public String storeFile(InputStream inputStream, String originalFilename, String subDirectory,
+            Consumer<InputStream> streamReader) {
+        String fileName = StringUtils.cleanPath(originalFilename != null ? originalFilename : "");
+        String uniqueFileName = generateUniqueFileName(fileName);
 
-        try {
-            // 复制文件到目标位置
-            Path filePath = targetLocation.resolve(uniqueFileName);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        Path filePath = newFilePath(subDirectory, uniqueFileName);
 
-            return uniqueFileName;
+        // 先写入临时文件，写入的同时计算内容摘要，无需再读一遍文件
+        Path tempFile = blobStore().newTempFile();
+        MessageDigest digest = newSha256Digest();
+        boolean stored = false;
+        try {
+            try (OutputStream out = new BufferedOutputStream(
+                    new DigestOutputStream(Files.newOutputStream(tempFile), digest));
+                    TeeInputStream tee = new TeeInputStream(inputStream, out, false)) {
+                // 读取方读取的每个字节同时写入目标文件，屏蔽读取方对流的关闭
+                // 外层缓冲流承接读取方的mark/reset，避免回退重读的字节被重复写入文件
+                if (streamReader != null) {
+                    streamReader.accept(CloseShieldInputStream.wrap(new BufferedInputStream(tee)));
+                }
+                // 读取方可能没有读到流末尾（如只读取了部分压缩包条目），将剩余内容写入文件
+                IOUtils.consume(tee);
+            }
+            blobStore().commit(tempFile, HexFormat.of().formatHex(digest.digest()), filePath);
+            stored = true;
         } catch (IOException ex) {
             throw new RuntimeException("Could not store file " + fileName + ". Please try again!", ex);
+        } finally {
+            if (!stored) {
+                deleteQuietly(tempFile);
+                deleteQuietly(filePath);
+            }
+        }
+
+        return uniqueFileName;
+    }
+
+    /**
+     * 回收无引用的文件块
+     *
+     * @return 回收结果
+     */
+    public ContentAddressedBlobStore.GcResult collectGarbage() {
+        try {
+            return blobStore().collectGarbage(Duration.ofMinutes(gcGraceMinutes));
+        } catch (RuntimeException e) {
+            log.warn("文件块垃圾回收失败", e);
+            return new ContentAddressedBlobStore.GcResult(0, 0);
         }
     }
 
@@ -76,8 +178,7 @@ public class FileStorageServiceImpl implements FileStorageService {
 
     @Override
     public Path getFilePath(String fileName, String subDirectory) {
-        Path targetLocation = createSubDirectoryIfNotExists(subDirectory);
-        return targetLocation.resolve(fileName);
+        return layout().locate(subDirectory, fileName);
     }
 
     @Override
@@ -90,16 +191,73 @@ public class FileStorageServiceImpl implements FileStorageService {
         }
     }
 
-    private Path createSubDirectoryIfNotExists(String subDirectory) {
-        Path targetLocation = this.fileStorageLocation;
-        if (subDirectory != null && !subDirectory.isEmpty()) {
-            targetLocation = Paths.get(this.fileStorageLocation.toString(), subDirectory);
-            try {
-                Files.createDirectories(targetLocation);
-            } catch (IOException ex) {
-                throw new RuntimeException("Could not create directory " + subDirectory, ex);
+    /**
+     * 生成唯一文件名，保留原始扩展名
+     */
+    private String generateUniqueFileName(String fileName) {
+        // 检查文件名是否包含无效字符
+        if (fileName.contains("..")) {
+            throw new RuntimeException("Filename contains invalid path sequence " + fileName);
+        }
+
+        String fileExtension = "";
+        if (fileName.contains(".")) {
+            fileExtension = fileName.substring(fileName.lastIndexOf("."));
+        }
+        return UUID.randomUUID().toString() + fileExtension;
+    }
+
+    /**
+     * 文件块存储在首次使用时创建，创建时检测存储目录是否支持硬链接
+     */
+    private ContentAddressedBlobStore blobStore() {
+        ContentAddressedBlobStore store = blobStore;
+        if (store == null) {
+            synchronized (this) {
+                if (blobStore == null) {
+                    blobStore = new ContentAddressedBlobStore(fileStorageLocation);
+                }
+                store = blobStore;
             }
         }
-        return targetLocation;
+        return store;
+    }
+
+    private StorageLayout layout() {
+        StorageLayout current = layout;
+        if (current == null) {
+            synchronized (this) {
+                if (layout == null) {
+                    layout = new StorageLayout(fileStorageLocation, shardLevels);
+                }
+                current = layout;
+            }
+        }
+        return current;
+    }
+
+    private static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // 所有JRE都必须支持SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void deleteQuietly(Path filePath) {
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException ex) {
+            // 清理失败不影响原始异常的抛出
+        }
+    }
+
+    private Path newFilePath(String subDirectory, String fileName) {
+        try {
+            return layout().newFilePath(subDirectory, fileName);
+        } catch (UncheckedIOException ex) {
+            throw new RuntimeException("Could not create directory " + subDirectory, ex.getCause());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,321 @@
+package com.example.filing.service.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.io.output.TeeOutputStream;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.filing.service.FileStorageService;
+import com.example.filing.storage.MultipartUploadOutputStream;
+import com.example.filing.storage.ObjectStorageClient;
+import com.example.filing.storage.StorageLayout;
+import com.example.filing.util.FileDownloadUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 对象存储文件服务实现类（file.storage.type=s3）
+ * 上传内容按分块流式上传到S3兼容对象存储，同时写入本地缓存目录；
+ * 读取时优先使用本地缓存，未命中时从对象存储下载（read-through），缓存按最近使用淘汰。
+ * 下载接口直接返回预签名地址，由客户端从对象存储下载。
+ */
+@Slf4j
+public class ObjectStorageFileStorageService implements FileStorageService {
+
+    private static final String CACHE_TEMP_PREFIX = ".cache-";
+
+    private final ObjectStorageClient client;
+    private final Path cacheLocation;
+    private final StorageLayout cacheLayout;
+    private final int partSize;
+    private final long cacheMaxBytes;
+    private final Duration presignExpiry;
+
+    /**
+     * 缓存文件及大小，访问顺序的LinkedHashMap，迭代顺序即LRU顺序
+     */
+    private final LinkedHashMap<Path, Long> cachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    /**
+     * @param client        对象存储客户端
+     * @param cacheLocation 本地缓存目录
+     * @param shardLevels   本地缓存的分片层数
+     * @param partSize      分块上传的分块大小
+     * @param cacheMaxBytes 本地缓存的最大字节数
+     * @param presignExpiry 预签名下载地址有效期，为null时不使用预签名下载
+     */
+    public ObjectStorageFileStorageService(ObjectStorageClient client, Path cacheLocation, int shardLevels,
+            int partSize, long cacheMaxBytes, Duration presignExpiry) {
+        this.client = client;
+        this.cacheLocation = cacheLocation;
+        this.cacheLayout = new StorageLayout(cacheLocation, shardLevels);
+        this.partSize = partSize;
+        this.cacheMaxBytes = cacheMaxBytes;
+        this.presignExpiry = presignExpiry;
+        loadExistingCache();
+    }
+
+    @Override
+    public String storeFile(MultipartFile file, String subDirectory) {
+        try (InputStream inputStream = file.getInputStream()) {
+            return storeFile(inputStream, file.getOriginalFilename(), subDirectory, null);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + file.getOriginalFilename() + ". Please try again!",
+                    ex);
+        }
+    }
+
+    @Override
+    public String storeFile(InputStream inputStream, String originalFilename, String subDirectory,
+            Consumer<InputStream> streamReader) {
+        String fileName = StringUtils.cleanPath(originalFilename != null ? originalFilename : "");
+        String uniqueFileName = generateUniqueFileName(fileName);
+        String key = objectKey(uniqueFileName, subDirectory);
+        Path cachePath = cachePath(uniqueFileName, subDirectory);
+
+        // 上传的同时写入本地缓存，刚上传的文件（如模板解析）无需再下载
+        MultipartUploadOutputStream upload = new MultipartUploadOutputStream(client, key,
+                FileDownloadUtil.contentType(uniqueFileName).toString(), partSize);
+        Path tempFile = null;
+        boolean stored = false;
+        try {
+            tempFile = newCacheTempFile(cachePath);
+            try (OutputStream cacheOut = new BufferedOutputStream(Files.newOutputStream(tempFile));
+                    TeeInputStream tee = new TeeInputStream(inputStream, new TeeOutputStream(upload, cacheOut),
+                            false)) {
+                if (streamReader != null) {
+                    streamReader.accept(CloseShieldInputStream.wrap(new BufferedInputStream(tee)));
+                }
+                IOUtils.consume(tee);
+            }
+            // 上传最后一个分块并完成上传
+            upload.close();
+            stored = true;
+            addToCache(tempFile, cachePath);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + fileName + ". Please try again!", ex);
+        } finally {
+            if (!stored) {
+                upload.abort();
+            }
+            if (tempFile != null) {
+                deleteQuietly(tempFile);
+            }
+        }
+        return uniqueFileName;
+    }
+
+    @Override
+    public Resource loadFileAsResource(String fileName, String subDirectory) {
+        try {
+            Path filePath = getFilePath(fileName, subDirectory);
+            Resource resource = new UrlResource(filePath.toUri());
+
+            if (resource.exists()) {
+                return resource;
+            } else {
+                throw new RuntimeException("File not found " + fileName);
+            }
+        } catch (MalformedURLException ex) {
+            throw new RuntimeException("File not found " + fileName, ex);
+        }
+    }
+
+    /**
+     * 返回本地缓存中的文件路径，未缓存时先从对象存储下载；对象不存在时返回的路径不存在
+     */
+    @Override
+    public Path getFilePath(String fileName, String subDirectory) {
+        Path cachePath = cachePath(fileName, subDirectory);
+        synchronized (cachedFiles) {
+            if (cachedFiles.get(cachePath) != null && Files.exists(cachePath)) {
+                return cachePath;
+            }
+        }
+
+        Path tempFile = null;
+        try {
+            tempFile = newCacheTempFile(cachePath);
+            try (InputStream in = client.getObject(objectKey(fileName, subDirectory))) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            addToCache(tempFile, cachePath);
+        } catch (NoSuchFileException ex) {
+            // 与本地存储一致，由调用方判断文件是否存在
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not load file " + fileName, ex);
+        } finally {
+            if (tempFile != null) {
+                deleteQuietly(tempFile);
+            }
+        }
+        return cachePath;
+    }
+
+    @Override
+    public boolean deleteFile(String fileName, String subDirectory) {
+        Path cachePath = cachePath(fileName, subDirectory);
+        try {
+            removeFromCache(cachePath);
+            return client.deleteObject(objectKey(fileName, subDirectory));
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not delete file " + fileName, ex);
+        }
+    }
+
+    @Override
+    public Optional<URI> getDownloadUrl(String fileName, String subDirectory) {
+        if (presignExpiry == null) {
+            return Optional.empty();
+        }
+        validateFileName(fileName);
+        return Optional.of(client.presignGetObject(objectKey(fileName, subDirectory), presignExpiry, fileName));
+    }
+
+    /**
+     * 本地缓存的总字节数
+     */
+    public long cachedBytes() {
+        synchronized (cachedFiles) {
+            return cachedBytes;
+        }
+    }
+
+    /**
+     * 将下载或上传完成的临时文件移入缓存，超出容量时淘汰最久未使用的文件
+     */
+    private void addToCache(Path tempFile, Path cachePath) throws IOException {
+        long size = Files.size(tempFile);
+        synchronized (cachedFiles) {
+            Files.move(tempFile, cachePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Long previous = cachedFiles.put(cachePath, size);
+            cachedBytes += size - (previous != null ? previous : 0);
+            evict();
+        }
+    }
+
+    private void removeFromCache(Path cachePath) throws IOException {
+        synchronized (cachedFiles) {
+            Long size = cachedFiles.remove(cachePath);
+            if (size != null) {
+                cachedBytes -= size;
+            }
+            Files.deleteIfExists(cachePath);
+        }
+    }
+
+    /**
+     * 淘汰缓存文件，刚加入的文件即使超出容量也保留
+     */
+    private void evict() {
+        Iterator<Map.Entry<Path, Long>> iterator = cachedFiles.entrySet().iterator();
+        while (cachedBytes > cacheMaxBytes && cachedFiles.size() > 1 && iterator.hasNext()) {
+            Map.Entry<Path, Long> eldest = iterator.next();
+            iterator.remove();
+            cachedBytes -= eldest.getValue();
+            // 已被打开的文件在Linux上删除后仍可继续读取
+            deleteQuietly(eldest.getKey());
+        }
+    }
+
+    /**
+     * 启动时登记缓存目录中已有的文件，按修改时间排列LRU顺序
+     */
+    private void loadExistingCache() {
+        if (!Files.isDirectory(cacheLocation)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(cacheLocation)) {
+            List<Path> existing = files.filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().startsWith(CACHE_TEMP_PREFIX))
+                    .sorted(Comparator.comparingLong(path -> path.toFile().lastModified()))
+                    .toList();
+            synchronized (cachedFiles) {
+                for (Path path : existing) {
+                    long size = Files.size(path);
+                    cachedFiles.put(path, size);
+                    cachedBytes += size;
+                }
+                evict();
+            }
+        } catch (IOException ex) {
+            log.warn("加载本地文件缓存失败: {}", cacheLocation, ex);
+        }
+    }
+
+    private Path newCacheTempFile(Path cachePath) {
+        return cachePath.resolveSibling(CACHE_TEMP_PREFIX + UUID.randomUUID());
+    }
+
+    private String objectKey(String fileName, String subDirectory) {
+        validateFileName(fileName);
+        return subDirectory != null && !subDirectory.isEmpty() ? subDirectory + "/" + fileName : fileName;
+    }
+
+    /**
+     * 缓存文件路径，所在目录已创建
+     */
+    private Path cachePath(String fileName, String subDirectory) {
+        validateFileName(fileName);
+        try {
+            return cacheLayout.newFilePath(subDirectory, fileName);
+        } catch (UncheckedIOException ex) {
+            throw new RuntimeException("Could not create cache directory " + subDirectory, ex.getCause());
+        }
+    }
+
+    /**
+     * 生成唯一文件名，保留原始扩展名
+     */
+    private String generateUniqueFileName(String fileName) {
+        validateFileName(fileName);
+        String fileExtension = "";
+        if (fileName.contains(".")) {
+            fileExtension = fileName.substring(fileName.lastIndexOf("."));
+        }
+        return UUID.randomUUID().toString() + fileExtension;
+    }
+
+    private static void validateFileName(String fileName) {
+        // 检查文件名是否包含无效字符
+        if (fileName.contains("..")) {
+            throw new RuntimeException("Filename contains invalid path sequence " + fileName);
+        }
+    }
+
+    private static void deleteQuietly(Path filePath) {
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException ex) {
+            // 清理失败不影响原始异常的抛出
+        }
+    }
+}
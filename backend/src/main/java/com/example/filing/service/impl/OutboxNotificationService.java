@@ -0,0 +1,284 @@
+package com.example.filing.service.impl;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.filing.constants.NotificationOutboxStatus;
+import com.example.filing.constants.UserTemplateStatus;
+import com.example.filing.entity.NotificationOutbox;
+import com.example.filing.entity.SysUser;
+import com.example.filing.entity.TemplateRegistry;
+import com.example.filing.entity.UserTemplate;
+import com.example.filing.notification.Notification;
+import com.example.filing.notification.NotificationChannel;
+import com.example.filing.repository.NotificationOutboxRepository;
+import com.example.filing.repository.SysUserRepository;
+import com.example.filing.repository.TemplateRegistryRepository;
+import com.example.filing.service.NotificationService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 基于发件箱的通知服务
+ * 状态变更时只在当前事务中插入发件箱记录（每个渠道一条），审核接口的耗时不受通知投递影响；
+ * 后台线程定时按批次领取到期记录并投递，失败时按指数退避重试，重试次数用完后标记为失败。
+ * 领取时写入批次标识并推迟下次投递时间作为租约，多节点部署时同一记录不会被同时投递。
+ */
+@Service
+@Slf4j
+public class OutboxNotificationService implements NotificationService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final SysUserRepository sysUserRepository;
+    private final TemplateRegistryRepository templateRegistryRepository;
+    private final Map<String, NotificationChannel> channels;
+    private final int batchSize;
+    private final long dispatchIntervalMillis;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long retryMaxBackoffMillis;
+    private final long leaseMillis;
+
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+
+    public OutboxNotificationService(NotificationOutboxRepository outboxRepository,
+            SysUserRepository sysUserRepository,
+            TemplateRegistryRepository templateRegistryRepository,
+            List<NotificationChannel> availableChannels,
+            @Value("${notification.channels:in-app}") List<String> enabledChannels,
+            @Value("${notification.batch-size:100}") int batchSize,
+            @Value("${notification.dispatch-interval-ms:5000}") long dispatchIntervalMillis,
+            @Value("${notification.max-attempts:8}") int maxAttempts,
+            @Value("${notification.retry-backoff-ms:5000}") long retryBackoffMillis,
+            @Value("${notification.retry-max-backoff-ms:600000}") long retryMaxBackoffMillis,
+            @Value("${notification.lease-ms:120000}") long leaseMillis) {
+        this.outboxRepository = outboxRepository;
+        this.sysUserRepository = sysUserRepository;
+        this.templateRegistryRepository = templateRegistryRepository;
+        this.batchSize = batchSize;
+        this.dispatchIntervalMillis = dispatchIntervalMillis;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.retryMaxBackoffMillis = retryMaxBackoffMillis;
+        this.leaseMillis = leaseMillis;
+
+        Map<String, NotificationChannel> byName = availableChannels.stream()
+                .collect(Collectors.toMap(NotificationChannel::getName, Function.identity()));
+        this.channels = new LinkedHashMap<>();
+        for (String name : enabledChannels) {
+            String channelName = name.trim();
+            if (channelName.isEmpty()) {
+                continue;
+            }
+            NotificationChannel channel = byName.get(channelName);
+            if (channel == null) {
+                throw new IllegalStateException("未知的通知渠道: " + channelName);
+            }
+            channels.put(channelName, channel);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (dispatchIntervalMillis <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("notification-outbox-"));
+        scheduler.scheduleWithFixedDelay(this::dispatchQuietly, dispatchIntervalMillis, dispatchIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public void notifyStatusChange(UserTemplate userTemplate, Integer oldStatus, int newStatus, String operatorId) {
+        // 只通知模板所属用户由他人（管理员）做出的变更
+        if (channels.isEmpty() || userTemplate.getUserId().equals(operatorId)) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> entries = new ArrayList<>();
+        for (String channel : channels.keySet()) {
+            NotificationOutbox entry = new NotificationOutbox();
+            entry.setChannel(channel);
+            entry.setUserId(userTemplate.getUserId());
+            entry.setUserTemplateId(userTemplate.getId());
+            entry.setTemplateId(userTemplate.getTemplateId());
+            entry.setOldStatus(oldStatus);
+            entry.setNewStatus(newStatus);
+            entry.setNextAttemptTime(now);
+            entry.setCreateTime(now);
+            entries.add(entry);
+        }
+        outboxRepository.saveAll(entries);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 事务提交后尽快投递，不必等到下一次定时
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestDispatch();
+                }
+            });
+        } else {
+            requestDispatch();
+        }
+    }
+
+    @Override
+    public int dispatchPending() {
+        dispatchRequested.set(false);
+        LocalDateTime now = LocalDateTime.now();
+        List<String> dueIds = outboxRepository.findDueIds(NotificationOutboxStatus.PENDING, now,
+                PageRequest.of(0, batchSize));
+        if (dueIds.isEmpty()) {
+            return 0;
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        int claimed = outboxRepository.claim(dueIds, NotificationOutboxStatus.PENDING, now, claimToken,
+                now.plus(leaseMillis, ChronoUnit.MILLIS));
+        if (claimed == 0) {
+            return 0;
+        }
+
+        List<NotificationOutbox> entries = outboxRepository.findByClaimToken(claimToken);
+        Map<String, SysUser> users = loadUsers(entries);
+        Map<String, String> templateNames = loadTemplateNames(entries);
+        for (NotificationOutbox entry : entries) {
+            deliver(entry, users.get(entry.getUserId()), templateNames.get(entry.getTemplateId()));
+        }
+        outboxRepository.saveAll(entries);
+
+        // 本批次已满时可能还有到期记录，继续投递
+        if (dueIds.size() >= batchSize) {
+            requestDispatch();
+        }
+        return entries.size();
+    }
+
+    private void deliver(NotificationOutbox entry, SysUser user, String templateName) {
+        entry.setClaimToken(null);
+        entry.setAttempts(entry.getAttempts() + 1);
+        NotificationChannel channel = channels.get(entry.getChannel());
+        try {
+            if (channel == null) {
+                throw new IllegalStateException("通知渠道未启用: " + entry.getChannel());
+            }
+            if (user == null) {
+                throw new IllegalStateException("接收用户不存在: " + entry.getUserId());
+            }
+            channel.send(buildNotification(entry, user, templateName));
+            entry.setStatus(NotificationOutboxStatus.SENT);
+            entry.setSentTime(LocalDateTime.now());
+            entry.setLastError(null);
+        } catch (Exception e) {
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            entry.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (entry.getAttempts() >= maxAttempts) {
+                entry.setStatus(NotificationOutboxStatus.FAILED);
+                log.error("通知投递失败，不再重试: id={}, channel={}, attempts={}", entry.getId(), entry.getChannel(),
+                        entry.getAttempts(), e);
+            } else {
+                entry.setNextAttemptTime(LocalDateTime.now().plus(backoffMillis(entry.getAttempts()), ChronoUnit.MILLIS));
+                log.warn("通知投递失败，稍后重试: id={}, channel={}, attempts={}, error={}", entry.getId(),
+                        entry.getChannel(), entry.getAttempts(), error);
+            }
+        }
+    }
+
+    /**
+     * 第n次失败后的重试间隔：retryBackoffMillis * 2^(n-1)，不超过retryMaxBackoffMillis
+     */
+    long backoffMillis(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        return Math.min(retryBackoffMillis << shift, retryMaxBackoffMillis);
+    }
+
+    private Notification buildNotification(NotificationOutbox entry, SysUser user, String templateName) {
+        String name = templateName != null ? templateName : "模板";
+        String newStatus = UserTemplateStatus.getDescription(entry.getNewStatus());
+        String title = "【" + name + "】" + newStatus;
+
+        StringBuilder content = new StringBuilder();
+        content.append("您好，").append(user.getUserName()).append("：\n");
+        if (entry.getOldStatus() == null) {
+            content.append("管理员向您发送了模板【").append(name).append("】，当前状态为【").append(newStatus).append("】。");
+        } else {
+            content.append("您的模板【").append(name).append("】状态已从【")
+                    .append(UserTemplateStatus.getDescription(entry.getOldStatus()))
+                    .append("】变更为【").append(newStatus).append("】。");
+        }
+        if (entry.getNewStatus() == UserTemplateStatus.RETURNED) {
+            content.append("请修改后重新提交。");
+        } else if (entry.getNewStatus() == UserTemplateStatus.PENDING_FILL) {
+            content.append("请及时填写。");
+        }
+
+        return new Notification(entry.getId(), user.getId(), user.getLoginName(), user.getUserName(),
+                entry.getUserTemplateId(), title, content.toString());
+    }
+
+    private Map<String, SysUser> loadUsers(List<NotificationOutbox> entries) {
+        Set<String> userIds = new HashSet<>();
+        for (NotificationOutbox entry : entries) {
+            userIds.add(entry.getUserId());
+        }
+        return sysUserRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(SysUser::getId, Function.identity()));
+    }
+
+    private Map<String, String> loadTemplateNames(List<NotificationOutbox> entries) {
+        Set<String> templateIds = new HashSet<>();
+        for (NotificationOutbox entry : entries) {
+            templateIds.add(entry.getTemplateId());
+        }
+        return templateRegistryRepository.findAllById(templateIds).stream()
+                .collect(Collectors.toMap(TemplateRegistry::getId, TemplateRegistry::getTemplateName));
+    }
+
+    private void requestDispatch() {
+        if (scheduler != null && dispatchRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::dispatchQuietly);
+        }
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatchPending();
+        } catch (RuntimeException e) {
+            log.error("通知投递失败", e);
+        }
+    }
+}
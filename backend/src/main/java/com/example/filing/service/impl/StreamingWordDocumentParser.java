@@ -0,0 +1,344 @@
+package com.example.filing.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * 基于StAX的Word文档流式解析器
+ * 直接从OOXML压缩包中流式读取word/document.xml，不构建XWPFDocument DOM，
+ * 输出的sections结构与DOM解析方式保持一致（heading_N / paragraph_N / table_N）。
+ * 注意：脚注引用不会像DOM方式那样展开为脚注正文。
+ */
+public class StreamingWordDocumentParser {
+
+    /**
+     * WordprocessingML命名空间
+     */
+    private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    /**
+     * 主文档部件在压缩包中的路径
+     */
+    private static final String DOCUMENT_PART = "word/document.xml";
+
+    private final XMLInputFactory xmlInputFactory;
+
+    public StreamingWordDocumentParser() {
+        this.xmlInputFactory = XMLInputFactory.newFactory();
+        // 禁用DTD和外部实体，防止XXE攻击
+        this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        try {
+            this.xmlInputFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        } catch (IllegalArgumentException e) {
+            // 部分StAX实现不支持该属性，忽略
+        }
+    }
+
+    /**
+     * 解析Word文档，返回sections结构
+     *
+     * @param inputStream .docx文件输入流
+     * @return 有序的sections映射
+     * @throws IOException 文件不是有效的.docx压缩包或XML格式错误时抛出
+     */
+    public Map<String, Object> parseSections(InputStream inputStream) throws IOException {
+        ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+        ZipEntry entry;
+        while ((entry = zipInputStream.getNextEntry()) != null) {
+            if (DOCUMENT_PART.equals(entry.getName())) {
+                try {
+                    return parseDocumentXml(zipInputStream);
+                } catch (XMLStreamException e) {
+                    throw new IOException("Malformed " + DOCUMENT_PART, e);
+                }
+            }
+        }
+        throw new IOException("Not a valid .docx file: " + DOCUMENT_PART + " not found");
+    }
+
+    private Map<String, Object> parseDocumentXml(InputStream xmlStream) throws XMLStreamException {
+        Map<String, Object> sections = new LinkedHashMap<>();
+        List<List<Map<String, String>>> tables = new ArrayList<>();
+
+        XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(xmlStream);
+        try {
+            // 定位到w:body
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && isW(reader, "body")) {
+                    break;
+                }
+            }
+
+            // 只处理body的直接子元素，与XWPFDocument.getParagraphs()/getTables()保持一致
+            int paragraphIndex = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    break;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+
+                if (isW(reader, "p")) {
+                    ParagraphContent paragraph = readParagraph(reader);
+                    String text = paragraph.text;
+                    if (!text.trim().isEmpty()) {
+                        if (isHeading(paragraph.style)) {
+                            Map<String, Object> headingInfo = new HashMap<>();
+                            headingInfo.put("text", text);
+                            headingInfo.put("level", getHeadingLevel(paragraph.style));
+                            sections.put("heading_" + paragraphIndex, headingInfo);
+                        } else {
+                            sections.put("paragraph_" + paragraphIndex, text);
+                        }
+                    }
+                    paragraphIndex++;
+                } else if (isW(reader, "tbl")) {
+                    tables.add(readTable(reader));
+                } else {
+                    skipElement(reader);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        // 表格统一放在段落之后，与DOM解析方式的输出顺序一致
+        for (int i = 0; i < tables.size(); i++) {
+            sections.put("table_" + i, tables.get(i));
+        }
+        return sections;
+    }
+
+    /**
+     * 读取段落（调用时reader位于w:p的START_ELEMENT，返回时位于对应的END_ELEMENT）
+     */
+    private ParagraphContent readParagraph(XMLStreamReader reader) throws XMLStreamException {
+        ParagraphContent paragraph = new ParagraphContent();
+        StringBuilder text = new StringBuilder();
+
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+                continue;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            if (isW(reader, "pPr")) {
+                paragraph.style = readParagraphStyle(reader);
+            } else if (isW(reader, "r")) {
+                readRun(reader, text);
+            } else if (isW(reader, "p") || isW(reader, "drawing") || isW(reader, "pict")
+                    || "AlternateContent".equals(reader.getLocalName())) {
+                // 文本框等嵌套内容不属于当前段落文本
+                skipElement(reader);
+            } else if (isW(reader, "del")) {
+                // 修订中已删除的内容不计入段落文本
+                skipElement(reader);
+            } else {
+                // hyperlink、ins、sdt、smartTag、fldSimple等容器元素，继续向下查找w:r
+                depth++;
+            }
+        }
+
+        paragraph.text = text.toString();
+        return paragraph;
+    }
+
+    /**
+     * 读取段落样式ID（调用时reader位于w:pPr的START_ELEMENT）
+     */
+    private String readParagraphStyle(XMLStreamReader reader) throws XMLStreamException {
+        String style = null;
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 1 && isW(reader, "pStyle")) {
+                    style = reader.getAttributeValue(W_NS, "val");
+                }
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return style;
+    }
+
+    /**
+     * 读取文本运行，只处理w:r的直接子元素；已删除的文本（w:delText）不计入
+     */
+    private void readRun(XMLStreamReader reader, StringBuilder text) throws XMLStreamException {
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            if (!W_NS.equals(reader.getNamespaceURI())) {
+                skipElement(reader);
+                continue;
+            }
+
+            switch (reader.getLocalName()) {
+                case "t" -> text.append(reader.getElementText());
+                case "tab", "ptab" -> {
+                    text.append('\t');
+                    skipElement(reader);
+                }
+                case "br", "cr" -> {
+                    text.append('\n');
+                    skipElement(reader);
+                }
+                default -> skipElement(reader);
+            }
+        }
+    }
+
+    /**
+     * 读取表格（调用时reader位于w:tbl的START_ELEMENT）
+     * 第一行作为表头，其余行按表头名称映射为键值对
+     */
+    private List<Map<String, String>> readTable(XMLStreamReader reader) throws XMLStreamException {
+        List<Map<String, String>> tableData = new ArrayList<>();
+        List<String> headers = null;
+
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            if (isW(reader, "tr")) {
+                List<String> cells = readRow(reader);
+                if (headers == null) {
+                    headers = cells;
+                    continue;
+                }
+
+                Map<String, String> rowData = new LinkedHashMap<>();
+                for (int j = 0; j < cells.size(); j++) {
+                    String header = j < headers.size() ? headers.get(j) : "Column" + (j + 1);
+                    rowData.put(header, cells.get(j));
+                }
+                tableData.add(rowData);
+            } else {
+                skipElement(reader);
+            }
+        }
+
+        return tableData;
+    }
+
+    /**
+     * 读取表格行，返回各单元格文本（调用时reader位于w:tr的START_ELEMENT）
+     */
+    private List<String> readRow(XMLStreamReader reader) throws XMLStreamException {
+        List<String> cells = new ArrayList<>();
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            if (isW(reader, "tc")) {
+                cells.add(readCell(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * 读取单元格文本：直接子段落文本依次拼接，与XWPFTableCell.getText()一致
+     */
+    private String readCell(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            if (isW(reader, "p")) {
+                text.append(readParagraph(reader).text);
+            } else {
+                skipElement(reader);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * 跳过当前元素及其全部子元素（调用时reader位于START_ELEMENT，返回时位于对应的END_ELEMENT）
+     */
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private boolean isW(XMLStreamReader reader, String localName) {
+        return localName.equals(reader.getLocalName()) && W_NS.equals(reader.getNamespaceURI());
+    }
+
+    private boolean isHeading(String style) {
+        return style != null && style.startsWith("Heading");
+    }
+
+    private int getHeadingLevel(String style) {
+        try {
+            return Integer.parseInt(style.substring("Heading".length()).trim());
+        } catch (NumberFormatException e) {
+            // 默认为1级标题
+            return 1;
+        }
+    }
+
+    /**
+     * 段落解析结果
+     */
+    private static class ParagraphContent {
+        private String style;
+        private String text = "";
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.filing.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.example.filing.constants.TemplateIngestionJobStatus;
+import com.example.filing.dto.response.TemplateAssignmentJob;
+import com.example.filing.entity.SysUser;
+import com.example.filing.repository.SysUserRepository;
+import com.example.filing.repository.TemplateRegistryRepository;
+import com.example.filing.security.UserIdentityResolver;
+import com.example.filing.service.TemplateAssignmentService;
+import com.example.filing.service.UserTemplateService;
+import com.example.filing.util.Result;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 模板批量发送服务实现类
+ * 接收人一次性批量解析，之后按分块调用{@link UserTemplateService#assignTemplateChunk}，每个分块一个事务，
+ * 大批量发送不会长时间占用一个事务；任务状态保存在内存中，完成后保留一段时间供轮询
+ */
+@Service
+@Slf4j
+public class TemplateAssignmentServiceImpl implements TemplateAssignmentService {
+
+    private static final String METRIC_PREFIX = "template.assignment";
+
+    /**
+     * 任务结果中保留的不存在用户个数上限
+     */
+    private static final int MAX_REPORTED_UNKNOWN_USERS = 100;
+
+    private final UserTemplateService userTemplateService;
+    private final TemplateRegistryRepository templateRegistryRepository;
+    private final SysUserRepository sysUserRepository;
+    private final UserIdentityResolver userIdentityResolver;
+
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+    private final Duration jobRetention;
+    private final Map<String, TemplateAssignmentJob> jobs = new ConcurrentHashMap<>();
+    private final Counter rejectedCounter;
+
+    public TemplateAssignmentServiceImpl(UserTemplateService userTemplateService,
+            TemplateRegistryRepository templateRegistryRepository,
+            SysUserRepository sysUserRepository,
+            UserIdentityResolver userIdentityResolver,
+            MeterRegistry meterRegistry,
+            @Value("${template.assignment.chunk-size:500}") int chunkSize,
+            @Value("${template.assignment.pool-size:2}") int poolSize,
+            @Value("${template.assignment.queue-capacity:20}") int queueCapacity,
+            @Value("${template.assignment.job-retention-minutes:60}") long jobRetentionMinutes) {
+        this.userTemplateService = userTemplateService;
+        this.templateRegistryRepository = templateRegistryRepository;
+        this.sysUserRepository = sysUserRepository;
+        this.userIdentityResolver = userIdentityResolver;
+        this.chunkSize = chunkSize;
+        this.jobRetention = Duration.ofMinutes(jobRetentionMinutes);
+
+        // 队列满时直接拒绝，由接口返回503
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("template-assignment-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(executor, METRIC_PREFIX, Tags.empty()).bindTo(meterRegistry);
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("因队列已满被拒绝的模板批量发送任务数")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Result<TemplateAssignmentJob> submitAssignment(String templateId, List<String> userIds,
+            String operatorId) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Result.validateFailed("接收人不能为空");
+        }
+        if (!templateRegistryRepository.existsById(templateId)) {
+            return Result.failed("模板不存在");
+        }
+
+        purgeExpiredJobs();
+
+        List<String> recipients = new ArrayList<>(new LinkedHashSet<>(userIds));
+        recipients.remove(null);
+
+        TemplateAssignmentJob job = new TemplateAssignmentJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setTemplateId(templateId);
+        job.setStatus(TemplateIngestionJobStatus.QUEUED);
+        job.setTotalRecipients(recipients.size());
+        job.setProgress(0);
+        job.setMessage("等待处理");
+        job.setCreateTime(LocalDateTime.now());
+        jobs.put(job.getJobId(), job);
+
+        try {
+            executor.execute(() -> runJob(job, recipients, operatorId));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            jobs.remove(job.getJobId());
+            return Result.failed(HttpStatus.SERVICE_UNAVAILABLE.value(), "发送任务队列已满，请稍后重试");
+        }
+
+        return Result.success("发送任务已提交", job);
+    }
+
+    @Override
+    public Result<TemplateAssignmentJob> getJob(String jobId) {
+        TemplateAssignmentJob job = jobs.get(jobId);
+        if (job == null) {
+            return Result.failed(HttpStatus.NOT_FOUND.value(), "发送任务不存在或已过期");
+        }
+        return Result.success(job);
+    }
+
+    /**
+     * 在工作线程中执行发送：批量解析接收人，按分块创建关系，每个分块完成后更新进度
+     */
+    private void runJob(TemplateAssignmentJob job, List<String> recipients, String operatorId) {
+        job.setStatus(TemplateIngestionJobStatus.RUNNING);
+        job.setMessage("正在解析接收人");
+
+        try {
+            Map<String, String> resolved = userIdentityResolver.resolveUserIds(recipients);
+            Set<String> userIds = new LinkedHashSet<>();
+            for (String recipient : recipients) {
+                String userId = resolved.get(recipient);
+                if (userId != null) {
+                    userIds.add(userId);
+                } else {
+                    addUnknownUser(job, recipient);
+                }
+            }
+            // 不同登录名和ID可能指向同一用户，按去重后的用户计算进度
+            job.setTotalRecipients(job.getUnknownUserCount() + userIds.size());
+            job.setProcessed(job.getUnknownUserCount());
+
+            SysUser operator = sysUserRepository.findById(operatorId).orElse(null);
+            String operatorName = operator != null ? operator.getUserName() : "未知用户";
+
+            List<String> pending = new ArrayList<>(userIds);
+            for (int from = 0; from < pending.size(); from += chunkSize) {
+                List<String> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+
+                // 直接传入的用户ID需要确认用户存在
+                Set<String> existing = new LinkedHashSet<>(sysUserRepository.findExistingIds(chunk));
+                for (String userId : chunk) {
+                    if (!existing.contains(userId)) {
+                        addUnknownUser(job, userId);
+                    }
+                }
+
+                job.setMessage("正在发送模板");
+                Result<Integer> chunkResult = assignChunk(job.getTemplateId(), new ArrayList<>(existing), operatorId,
+                        operatorName);
+                if (chunkResult.getCode() != 200) {
+                    fail(job, chunkResult.getMessage());
+                    return;
+                }
+                int created = chunkResult.getData();
+                job.setCreated(job.getCreated() + created);
+                job.setSkipped(job.getSkipped() + existing.size() - created);
+                job.setProcessed(job.getProcessed() + chunk.size());
+                job.setProgress(job.getProcessed() * 100 / Math.max(job.getTotalRecipients(), 1));
+            }
+
+            job.setProgress(100);
+            job.setMessage("模板发送完成：新发送" + job.getCreated() + "人，已持有跳过" + job.getSkipped()
+                    + "人，用户不存在" + job.getUnknownUserCount() + "人");
+            job.setFinishTime(LocalDateTime.now());
+            job.setStatus(TemplateIngestionJobStatus.SUCCEEDED);
+            log.info("模板批量发送完成: jobId={}, templateId={}, 新发送={}, 跳过={}, 用户不存在={}", job.getJobId(),
+                    job.getTemplateId(), job.getCreated(), job.getSkipped(), job.getUnknownUserCount());
+        } catch (Exception e) {
+            log.error("模板批量发送任务失败: {}", job.getJobId(), e);
+            fail(job, "模板发送失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 提交一个分块；与并发的发送或申请冲突（违反唯一索引）时分块整体回滚，重新排除已持有的用户后重试一次
+     */
+    private Result<Integer> assignChunk(String templateId, List<String> userIds, String operatorId,
+            String operatorName) {
+        try {
+            return userTemplateService.assignTemplateChunk(templateId, userIds, operatorId, operatorName);
+        } catch (DuplicateKeyException e) {
+            log.warn("模板发送分块与并发分配冲突，重试: templateId={}", templateId);
+            return userTemplateService.assignTemplateChunk(templateId, userIds, operatorId, operatorName);
+        }
+    }
+
+    private void addUnknownUser(TemplateAssignmentJob job, String recipient) {
+        job.setUnknownUserCount(job.getUnknownUserCount() + 1);
+        if (job.getUnknownUsers().size() < MAX_REPORTED_UNKNOWN_USERS) {
+            job.getUnknownUsers().add(recipient);
+        }
+    }
+
+    private void fail(TemplateAssignmentJob job, String message) {
+        // 已提交的分块不回滚，失败信息中注明已发送人数
+        job.setMessage(message + "（已发送" + job.getCreated() + "人）");
+        job.setFinishTime(LocalDateTime.now());
+        job.setStatus(TemplateIngestionJobStatus.FAILED);
+    }
+
+    /**
+     * 清理已完成且超过保留时间的任务
+     */
+    private void purgeExpiredJobs() {
+        LocalDateTime expireBefore = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishTime() != null
+                && job.getFinishTime().isBefore(expireBefore));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
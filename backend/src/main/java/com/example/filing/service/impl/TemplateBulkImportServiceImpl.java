@@ -0,0 +1,344 @@
+package com.example.filing.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.filing.cache.ParsedTemplateCache;
+import com.example.filing.dto.request.TemplateRegistryRequest;
+import com.example.filing.dto.response.TemplateBulkImportReport;
+import com.example.filing.entity.TemplateRegistry;
+import com.example.filing.service.FileStorageService;
+import com.example.filing.service.TemplateBulkImportService;
+import com.example.filing.service.TemplateRegistryService;
+import com.example.filing.service.WordDocumentService;
+import com.example.filing.util.Result;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 模板批量导入服务实现类
+ * 文档在独立的ForkJoinPool中并行解析（不占用公共池），解析成功的模板一次性批量插入。
+ * 压缩包条目先解压到临时文件再并行解析，内存占用与条目大小无关；单个条目和全部文件的总大小都有上限。
+ */
+@Service
+@Slf4j
+public class TemplateBulkImportServiceImpl implements TemplateBulkImportService {
+
+    private static final String SUB_DIRECTORY = "templates";
+    private static final String DOCX_EXTENSION = ".docx";
+    private static final String ZIP_EXTENSION = ".zip";
+
+    private final TemplateRegistryService templateRegistryService;
+    private final FileStorageService fileStorageService;
+    private final WordDocumentService wordDocumentService;
+
+    private final ForkJoinPool importPool;
+    private final int maxFiles;
+    private final long maxEntryBytes;
+    private final long maxTotalBytes;
+
+    public TemplateBulkImportServiceImpl(TemplateRegistryService templateRegistryService,
+            FileStorageService fileStorageService,
+            WordDocumentService wordDocumentService,
+            @Value("${template.bulk-import.parallelism:0}") int parallelism,
+            @Value("${template.bulk-import.max-files:200}") int maxFiles,
+            @Value("${template.bulk-import.max-entry-bytes:20971520}") long maxEntryBytes,
+            @Value("${template.bulk-import.max-total-bytes:209715200}") long maxTotalBytes) {
+        this.templateRegistryService = templateRegistryService;
+        this.fileStorageService = fileStorageService;
+        this.wordDocumentService = wordDocumentService;
+        // 并行度默认为CPU核数
+        this.importPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxFiles = maxFiles;
+        this.maxEntryBytes = maxEntryBytes;
+        this.maxTotalBytes = maxTotalBytes;
+    }
+
+    @Override
+    public Result<TemplateBulkImportReport> importTemplates(List<MultipartFile> files, String templateType,
+            String userId) {
+        if (files == null || files.isEmpty()) {
+            return Result.failed("请选择文件上传");
+        }
+
+        long start = System.currentTimeMillis();
+        // 报告按输入顺序排列，待解析文档的位置先留空，解析后填入
+        List<TemplateBulkImportReport.Item> items = new ArrayList<>();
+        List<ImportSource> sources = new ArrayList<>();
+        try {
+            // 展开上传的文件和压缩包，收集待解析的文档
+            long totalBytes = 0;
+            for (MultipartFile file : files) {
+                String originalFilename = file.getOriginalFilename() != null ? file.getOriginalFilename() : "";
+                String lowerCaseFilename = originalFilename.toLowerCase();
+                if (lowerCaseFilename.endsWith(ZIP_EXTENSION)) {
+                    totalBytes = collectZipEntries(file, sources, items, totalBytes);
+                } else if (lowerCaseFilename.endsWith(DOCX_EXTENSION)) {
+                    totalBytes += file.getSize();
+                    sources.add(new ImportSource(originalFilename, items.size(), file, null));
+                    items.add(null);
+                } else {
+                    items.add(failedItem(originalFilename, "仅支持.docx文件或.zip压缩包"));
+                }
+
+                if (sources.size() > maxFiles) {
+                    return Result.failed("单次最多导入" + maxFiles + "个文件");
+                }
+                if (totalBytes > maxTotalBytes) {
+                    return Result.failed("单次导入的文件总大小不能超过" + maxTotalBytes / (1024 * 1024) + "MB");
+                }
+            }
+
+            importSources(sources, items, templateType, userId);
+        } finally {
+            for (ImportSource source : sources) {
+                source.deleteTempFile();
+            }
+        }
+
+        TemplateBulkImportReport report = new TemplateBulkImportReport();
+        report.setItems(items);
+        report.setTotal(items.size());
+        report.setSucceeded((int) items.stream().filter(TemplateBulkImportReport.Item::isSuccess).count());
+        report.setFailed(report.getTotal() - report.getSucceeded());
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+
+        return Result.success("批量导入完成", report);
+    }
+
+    /**
+     * 并行解析并保存文档，批量创建模板记录，结果填入报告中各文档的位置
+     */
+    private void importSources(List<ImportSource> sources, List<TemplateBulkImportReport.Item> items,
+            String templateType, String userId) {
+        // 并行解析并保存文件，结果顺序与输入顺序一致
+        List<ForkJoinTask<ParsedDocument>> tasks = new ArrayList<>(sources.size());
+        for (ImportSource source : sources) {
+            tasks.add(importPool.submit(() -> parseAndStore(source)));
+        }
+        List<ParsedDocument> parsedDocuments = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<ParsedDocument> task : tasks) {
+            parsedDocuments.add(task.join());
+        }
+
+        // 解析成功的文档批量创建模板记录
+        List<ParsedDocument> succeeded = parsedDocuments.stream().filter(ParsedDocument::isSuccess).toList();
+        List<TemplateRegistry> savedTemplates = List.of();
+        String saveError = null;
+        if (!succeeded.isEmpty()) {
+            List<TemplateRegistryRequest> requests = succeeded.stream()
+                    .map(document -> toRequest(document, templateType))
+                    .toList();
+            try {
+                savedTemplates = templateRegistryService.saveTemplateRegistries(requests, userId).getData();
+            } catch (RuntimeException e) {
+                log.error("批量保存模板失败", e);
+                saveError = "保存模板失败: " + e.getMessage();
+                // 模板记录未保存，清理已保存的文件
+                for (ParsedDocument document : succeeded) {
+                    fileStorageService.deleteFile(document.fileName, SUB_DIRECTORY);
+                }
+            }
+        }
+
+        Iterator<TemplateRegistry> savedIterator = savedTemplates.iterator();
+        for (ParsedDocument document : parsedDocuments) {
+            int position = document.source.position;
+            if (!document.isSuccess()) {
+                items.set(position, failedItem(document.source.name, document.error));
+            } else if (saveError != null) {
+                items.set(position, failedItem(document.source.name, saveError));
+            } else {
+                TemplateRegistry template = savedIterator.next();
+                TemplateBulkImportReport.Item item = new TemplateBulkImportReport.Item();
+                item.setOriginalFilename(document.source.name);
+                item.setSuccess(true);
+                item.setMessage("导入成功");
+                item.setTemplateId(template.getId());
+                item.setTemplateCode(template.getTemplateCode());
+                item.setFilePath(template.getFilePath());
+                items.set(position, item);
+            }
+        }
+    }
+
+    /**
+     * 将压缩包中的.docx条目解压到临时文件（在请求线程中进行，供并行解析）
+     *
+     * @return 累计的文件总大小
+     */
+    private long collectZipEntries(MultipartFile zipFile, List<ImportSource> sources,
+            List<TemplateBulkImportReport.Item> items, long totalBytes) {
+        try (ZipInputStream zipInputStream = new ZipInputStream(zipFile.getInputStream())) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null && sources.size() <= maxFiles
+                    && totalBytes <= maxTotalBytes) {
+                String entryName = entry.getName();
+                String baseName = baseName(entryName);
+                // 忽略目录、macOS元数据以及Word生成的临时文件
+                if (entry.isDirectory() || entryName.startsWith("__MACOSX/") || baseName.startsWith(".")
+                        || baseName.startsWith("~$")) {
+                    continue;
+                }
+                if (!baseName.toLowerCase().endsWith(DOCX_EXTENSION)) {
+                    items.add(failedItem(entryName, "仅支持.docx文件"));
+                    continue;
+                }
+
+                Path tempFile = Files.createTempFile("bulk-import-", DOCX_EXTENSION);
+                ImportSource source = new ImportSource(entryName, items.size(), null, tempFile);
+                long size;
+                try {
+                    size = copyLimited(zipInputStream, tempFile);
+                } catch (IOException e) {
+                    source.deleteTempFile();
+                    throw e;
+                }
+                if (size < 0) {
+                    source.deleteTempFile();
+                    items.add(failedItem(entryName, "文件过大"));
+                    continue;
+                }
+                totalBytes += size;
+                sources.add(source);
+                items.add(null);
+            }
+        } catch (IOException e) {
+            items.add(failedItem(zipFile.getOriginalFilename(), "无法读取压缩包: " + e.getMessage()));
+        }
+        return totalBytes;
+    }
+
+    /**
+     * 将当前压缩包条目写入临时文件，超过大小限制时返回-1
+     */
+    private long copyLimited(InputStream inputStream, Path target) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            while ((read = inputStream.read(buffer)) != -1) {
+                total += read;
+                if (total > maxEntryBytes) {
+                    return -1;
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 在导入线程池中执行：先计算内容哈希查询解析缓存，再保存文件，未命中时保存的同时解析文档
+     */
+    private ParsedDocument parseAndStore(ImportSource source) {
+        AtomicReference<String> templateContent = new AtomicReference<>();
+        AtomicReference<RuntimeException> parseError = new AtomicReference<>();
+
+        String fileName;
+        try {
+            String contentHash;
+            try (InputStream inputStream = source.open()) {
+                contentHash = ParsedTemplateCache.sha256Hex(inputStream);
+            }
+            try (InputStream inputStream = source.open()) {
+                fileName = fileStorageService.storeFile(inputStream, baseName(source.name), SUB_DIRECTORY,
+                        stream -> {
+                            try {
+                                templateContent.set(wordDocumentService.parseWordDocument(stream, contentHash));
+                            } catch (RuntimeException e) {
+                                parseError.set(e);
+                            }
+                        });
+            }
+        } catch (IOException | RuntimeException e) {
+            return ParsedDocument.failed(source, "文件保存失败: " + e.getMessage());
+        }
+
+        if (parseError.get() != null) {
+            fileStorageService.deleteFile(fileName, SUB_DIRECTORY);
+            return ParsedDocument.failed(source, "文档解析失败，仅允许上传Word文档(.docx)");
+        }
+        return new ParsedDocument(source, fileName, templateContent.get(), null);
+    }
+
+    private TemplateRegistryRequest toRequest(ParsedDocument document, String templateType) {
+        String baseName = baseName(document.source.name);
+        TemplateRegistryRequest request = new TemplateRegistryRequest();
+        request.setTemplateName(baseName.substring(0, baseName.length() - DOCX_EXTENSION.length()));
+        request.setTemplateType(StringUtils.hasText(templateType) ? templateType : null);
+        request.setTemplateContent(document.templateContent);
+        request.setFilePath(SUB_DIRECTORY + "/" + document.fileName);
+        return request;
+    }
+
+    private TemplateBulkImportReport.Item failedItem(String originalFilename, String message) {
+        TemplateBulkImportReport.Item item = new TemplateBulkImportReport.Item();
+        item.setOriginalFilename(originalFilename);
+        item.setSuccess(false);
+        item.setMessage(message);
+        return item;
+    }
+
+    private static String baseName(String path) {
+        String normalized = path.replace('\\', '/');
+        return normalized.substring(normalized.lastIndexOf('/') + 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importPool.shutdown();
+    }
+
+    /**
+     * 待导入的文档：上传的文件或解压到临时文件的压缩包条目
+     *
+     * @param position 在导入报告中的位置
+     */
+    private record ImportSource(String name, int position, MultipartFile file, Path tempFile) {
+        InputStream open() throws IOException {
+            return file != null ? file.getInputStream() : Files.newInputStream(tempFile);
+        }
+
+        void deleteTempFile() {
+            if (tempFile == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                log.warn("删除批量导入临时文件失败: {}", tempFile, e);
+            }
+        }
+    }
+
+    /**
+     * 文档解析结果
+     */
+    private record ParsedDocument(ImportSource source, String fileName, String templateContent, String error) {
+        static ParsedDocument failed(ImportSource source, String error) {
+            return new ParsedDocument(source, null, null, error);
+        }
+
+        boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
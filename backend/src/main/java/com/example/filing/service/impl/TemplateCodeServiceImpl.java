@@ -0,0 +1,116 @@
+package com.example.filing.service.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.filing.repository.TemplateCodeSequenceRepository;
+import com.example.filing.repository.TemplateRegistryRepository;
+import com.example.filing.service.TemplateCodeService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 模板备案编号分配服务实现类
+ * 每天一行序列记录，分配时对该行加行锁并一次性预留所需数量的序号，
+ * 多个后端节点共享同一数据库时同样保证编号唯一，每次分配只需固定次数的数据库操作。
+ */
+@Service
+@Slf4j
+public class TemplateCodeServiceImpl implements TemplateCodeService {
+
+    private static final String PREFIX = "TPL";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final TemplateCodeSequenceRepository templateCodeSequenceRepository;
+    private final TemplateRegistryRepository templateRegistryRepository;
+
+    /**
+     * 编号分配使用独立事务，行锁在分配完成后立即释放，不会持有到调用方事务结束
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    public TemplateCodeServiceImpl(TemplateCodeSequenceRepository templateCodeSequenceRepository,
+            TemplateRegistryRepository templateRegistryRepository,
+            PlatformTransactionManager transactionManager) {
+        this.templateCodeSequenceRepository = templateCodeSequenceRepository;
+        this.templateRegistryRepository = templateRegistryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public String nextTemplateCode() {
+        return nextTemplateCodes(1).get(0);
+    }
+
+    @Override
+    public List<String> nextTemplateCodes(int count) {
+        List<String> templateCodes = new ArrayList<>(count);
+        if (count <= 0) {
+            return templateCodes;
+        }
+
+        String seqDate = LocalDate.now().format(DATE_FORMATTER);
+        Integer firstValue = reserve(seqDate, count);
+        if (firstValue == null) {
+            // 当天第一次分配，先初始化序列行再重新分配
+            initSequence(seqDate);
+            firstValue = reserve(seqDate, count);
+        }
+
+        for (int i = 0; i < count; i++) {
+            templateCodes.add(PREFIX + seqDate + String.format("%04d", firstValue + i));
+        }
+        return templateCodes;
+    }
+
+    /**
+     * 加行锁预留序号
+     *
+     * @return 预留的第一个序号；当天序列行不存在时返回null
+     */
+    private Integer reserve(String seqDate, int count) {
+        return transactionTemplate.execute(status -> templateCodeSequenceRepository.findForUpdate(seqDate)
+                .map(sequence -> {
+                    int firstValue = sequence.getNextValue();
+                    sequence.setNextValue(firstValue + count);
+                    sequence.setUpdateTime(LocalDateTime.now());
+                    return firstValue;
+                })
+                .orElse(null));
+    }
+
+    /**
+     * 初始化当天的序列行，起始值接在当天已有的最大编号之后（兼容序列表上线前生成的编号）
+     * 多个节点同时初始化时只有一个能插入成功，其余节点忽略主键冲突
+     */
+    private void initSequence(String seqDate) {
+        String prefix = PREFIX + seqDate;
+        int maxSequence = templateRegistryRepository.findTemplateCodesLike(prefix + "%").stream()
+                .mapToInt(code -> {
+                    try {
+                        return Integer.parseInt(code.substring(prefix.length()));
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                })
+                .max()
+                .orElse(0);
+
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> templateCodeSequenceRepository.insertSequence(seqDate, maxSequence + 1));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("备案编号序列 {} 已由其他节点初始化", seqDate);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.filing.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.filing.cache.ParsedTemplateCache;
+import com.example.filing.constants.TemplateIngestionJobStatus;
+import com.example.filing.dto.response.TemplateIngestionJob;
+import com.example.filing.repository.TemplateRegistryRepository;
+import com.example.filing.service.FileStorageService;
+import com.example.filing.service.TemplateIngestionService;
+import com.example.filing.service.TemplateRegistryService;
+import com.example.filing.service.WordDocumentService;
+import com.example.filing.util.Result;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 模板异步导入服务实现类
+ * 使用有界线程池和有界队列执行解析任务，任务状态保存在内存中，完成后保留一段时间供轮询
+ */
+@Service
+@Slf4j
+public class TemplateIngestionServiceImpl implements TemplateIngestionService {
+
+    private static final String SUB_DIRECTORY = "templates";
+    private static final String METRIC_PREFIX = "template.ingestion";
+
+    private final TemplateRegistryService templateRegistryService;
+    private final TemplateRegistryRepository templateRegistryRepository;
+    private final FileStorageService fileStorageService;
+    private final WordDocumentService wordDocumentService;
+
+    private final ThreadPoolExecutor executor;
+    private final Duration jobRetention;
+    private final Map<String, TemplateIngestionJob> jobs = new ConcurrentHashMap<>();
+    private final Counter rejectedCounter;
+
+    public TemplateIngestionServiceImpl(TemplateRegistryService templateRegistryService,
+            TemplateRegistryRepository templateRegistryRepository,
+            FileStorageService fileStorageService,
+            WordDocumentService wordDocumentService,
+            MeterRegistry meterRegistry,
+            @Value("${template.ingestion.pool-size:4}") int poolSize,
+            @Value("${template.ingestion.queue-capacity:100}") int queueCapacity,
+            @Value("${template.ingestion.job-retention-minutes:60}") long jobRetentionMinutes) {
+        this.templateRegistryService = templateRegistryService;
+        this.templateRegistryRepository = templateRegistryRepository;
+        this.fileStorageService = fileStorageService;
+        this.wordDocumentService = wordDocumentService;
+        this.jobRetention = Duration.ofMinutes(jobRetentionMinutes);
+
+        // 队列满时直接拒绝，由接口返回503，避免请求线程被阻塞
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("template-ingestion-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // executor.queued / executor.active / executor.pool.size 等指标，name=template.ingestion
+        new ExecutorServiceMetrics(executor, METRIC_PREFIX, Tags.empty()).bindTo(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".utilization", executor,
+                e -> (double) e.getActiveCount() / e.getMaximumPoolSize())
+                .description("模板导入工作线程利用率")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".jobs", jobs, Map::size)
+                .description("内存中保留的模板导入任务数")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("因队列已满被拒绝的模板导入任务数")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Result<TemplateIngestionJob> submitUploadJob(MultipartFile file, String templateId) {
+        String originalFilename = file.getOriginalFilename();
+        if (originalFilename == null || !originalFilename.toLowerCase().endsWith(".docx")) {
+            return Result.failed("仅允许上传Word文档(.docx)");
+        }
+        if (!templateRegistryRepository.existsById(templateId)) {
+            return Result.failed("模板不存在");
+        }
+
+        purgeExpiredJobs();
+
+        // 上传的临时文件在请求结束后会被清理，因此在请求线程中先保存文件，同时计算内容哈希
+        AtomicReference<String> contentHash = new AtomicReference<>();
+        String fileName;
+        try (InputStream inputStream = file.getInputStream()) {
+            fileName = fileStorageService.storeFile(inputStream, originalFilename, SUB_DIRECTORY, stream -> {
+                try {
+                    contentHash.set(ParsedTemplateCache.sha256Hex(stream));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            return Result.failed("文件保存失败: " + e.getMessage());
+        }
+
+        TemplateIngestionJob job = new TemplateIngestionJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setTemplateId(templateId);
+        job.setOriginalFilename(originalFilename);
+        job.setFileName(fileName);
+        job.setFilePath(SUB_DIRECTORY + "/" + fileName);
+        job.setStatus(TemplateIngestionJobStatus.QUEUED);
+        job.setProgress(0);
+        job.setMessage("等待处理");
+        job.setCreateTime(LocalDateTime.now());
+        jobs.put(job.getJobId(), job);
+
+        try {
+            executor.execute(() -> runJob(job, contentHash.get()));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            jobs.remove(job.getJobId());
+            fileStorageService.deleteFile(fileName, SUB_DIRECTORY);
+            return Result.failed(HttpStatus.SERVICE_UNAVAILABLE.value(), "导入任务队列已满，请稍后重试");
+        }
+
+        return Result.success("导入任务已提交", job);
+    }
+
+    @Override
+    public Result<TemplateIngestionJob> getJob(String jobId) {
+        TemplateIngestionJob job = jobs.get(jobId);
+        if (job == null) {
+            return Result.failed(HttpStatus.NOT_FOUND.value(), "导入任务不存在或已过期");
+        }
+        return Result.success(job);
+    }
+
+    /**
+     * 在工作线程中执行导入：解析文档，在同一事务中更新模板文件路径和模板内容
+     * 任一步骤失败时删除已保存的文件
+     */
+    private void runJob(TemplateIngestionJob job, String contentHash) {
+        job.setStatus(TemplateIngestionJobStatus.RUNNING);
+        job.setProgress(10);
+        job.setMessage("正在解析文档");
+
+        try {
+            String templateContent;
+            try (InputStream inputStream = Files.newInputStream(
+                    fileStorageService.getFilePath(job.getFileName(), SUB_DIRECTORY))) {
+                templateContent = wordDocumentService.parseWordDocument(inputStream, contentHash);
+            } catch (RuntimeException e) {
+                // 文档无法解析，不保留已保存的文件
+                fileStorageService.deleteFile(job.getFileName(), SUB_DIRECTORY);
+                fail(job, "仅允许上传Word文档(.docx)");
+                return;
+            }
+
+            job.setProgress(60);
+            job.setMessage("正在更新模板");
+            Result<String> updateResult = templateRegistryService.updateTemplateFile(job.getTemplateId(),
+                    job.getFilePath(), templateContent);
+            if (updateResult.getCode() != 200) {
+                fileStorageService.deleteFile(job.getFileName(), SUB_DIRECTORY);
+                fail(job, updateResult.getMessage());
+                return;
+            }
+
+            job.setProgress(100);
+            job.setMessage("模板文件上传成功，已更新模板内容");
+            job.setFinishTime(LocalDateTime.now());
+            job.setStatus(TemplateIngestionJobStatus.SUCCEEDED);
+        } catch (Exception e) {
+            log.error("模板导入任务失败: {}", job.getJobId(), e);
+            fileStorageService.deleteFile(job.getFileName(), SUB_DIRECTORY);
+            fail(job, "文件上传失败: " + e.getMessage());
+        }
+    }
+
+    private void fail(TemplateIngestionJob job, String message) {
+        job.setMessage(message);
+        job.setFinishTime(LocalDateTime.now());
+        job.setStatus(TemplateIngestionJobStatus.FAILED);
+    }
+
+    /**
+     * 清理已完成且超过保留时间的任务
+     */
+    private void purgeExpiredJobs() {
+        LocalDateTime expireBefore = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishTime() != null
+                && job.getFinishTime().isBefore(expireBefore));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.example.filing.service.impl;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -13,13 +14,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import com.example.filing.dto.request.TemplateRegistryRequest;
 import com.example.filing.entity.TemplateRegistry;
 import com.example.filing.exception.BusinessException;
 import com.example.filing.repository.TemplateRegistryRepository;
+import com.example.filing.service.TemplateCodeService;
 import com.example.filing.service.TemplateRegistryService;
+import com.example.filing.service.TemplateStatisticsService;
 import com.example.filing.util.Result;
 
 /**
@@ -31,6 +35,12 @@ public class TemplateRegistryServiceImpl implements TemplateRegistryService {
     @Autowired
     private TemplateRegistryRepository templateRegistryRepository;
 
+    @Autowired
+    private TemplateCodeService templateCodeService;
+
+    @Autowired
+    private TemplateStatisticsService templateStatisticsService;
+
     @Override
     public Result<?> findTemplatesByPage(String templateCode, String templateName, String templateType,
             Integer current, Integer pageSize) {
@@ -95,7 +105,7 @@ public class TemplateRegistryServiceImpl implements TemplateRegistryService {
         // 检查templateCode是否为null、空字符串或纯空白字符
         if (isNew && (!StringUtils.hasText(request.getTemplateCode()) ||
                 !StringUtils.hasText(template.getTemplateCode()))) {
-            String generatedCode = generateTemplateCode();
+            String generatedCode = templateCodeService.nextTemplateCode();
             template.setTemplateCode(generatedCode);
             System.out.println("自动生成备案编号: " + generatedCode); // 调试日志
         }
@@ -111,10 +121,54 @@ public class TemplateRegistryServiceImpl implements TemplateRegistryService {
 
         // 保存到数据库
         TemplateRegistry savedTemplate = templateRegistryRepository.save(template);
+        if (isNew) {
+            templateStatisticsService.recordTemplateCountChange(1);
+        }
 
         return Result.success(isNew ? "模板创建成功" : "模板更新成功", savedTemplate);
     }
 
+    @Override
+    @Transactional
+    public Result<List<TemplateRegistry>> saveTemplateRegistries(List<TemplateRegistryRequest> requests,
+            String userId) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BusinessException("请求参数不能为空");
+        }
+
+        // 一次性为未提供备案编号的模板分配连续的编号
+        int codesNeeded = (int) requests.stream()
+                .filter(request -> !StringUtils.hasText(request.getTemplateCode()))
+                .count();
+        var generatedCodes = templateCodeService.nextTemplateCodes(codesNeeded).iterator();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<TemplateRegistry> templates = new ArrayList<>(requests.size());
+        for (TemplateRegistryRequest request : requests) {
+            if (!StringUtils.hasText(request.getTemplateName())) {
+                throw new BusinessException("模板名称不能为空");
+            }
+
+            TemplateRegistry template = new TemplateRegistry();
+            BeanUtils.copyProperties(request, template);
+            // 批量接口只用于新建，忽略请求中的ID
+            template.setId(null);
+            if (!StringUtils.hasText(template.getTemplateCode())) {
+                template.setTemplateCode(generatedCodes.next());
+            }
+            template.setCreateTime(now);
+            template.setCreateBy(userId);
+            template.setUpdateTime(now);
+            template.setUpdateBy(userId);
+            templates.add(template);
+        }
+
+        // 配合hibernate.jdbc.batch_size批量插入
+        List<TemplateRegistry> savedTemplates = templateRegistryRepository.saveAll(templates);
+        templateStatisticsService.recordTemplateCountChange(savedTemplates.size());
+        return Result.success("模板批量创建成功", savedTemplates);
+    }
+
     @Override
     public Result<TemplateRegistry> getTemplateRegistryById(String id) {
         if (!StringUtils.hasText(id)) {
@@ -137,6 +191,7 @@ public class TemplateRegistryServiceImpl implements TemplateRegistryService {
         }
         template.setDeleted(1);
         templateRegistryRepository.save(template);
+        templateStatisticsService.recordTemplateCountChange(-1);
         return Result.success("模板删除成功");
     }
 
@@ -164,47 +219,17 @@ public class TemplateRegistryServiceImpl implements TemplateRegistryService {
         return Result.success("模板内容更新成功");
     }
 
-    /**
-     * 自动生成模板备案编号
-     * 格式：TPL + 年月日 + 4位序号
-     * 例如：TPL202412240001
-     */
-    private String generateTemplateCode() {
-        // 使用Java 17的现代API获取当前日期
-        var dateStr = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        var prefix = "TPL" + dateStr;
-
-        // 查询当天已有的模板编号，以确定下一个序号
-        var todayTemplates = templateRegistryRepository.findAll().stream()
-                .map(TemplateRegistry::getTemplateCode)
-                .filter(code -> code != null && code.startsWith(prefix))
-                .mapToInt(code -> {
-                    try {
-                        return Integer.parseInt(code.substring(prefix.length()));
-                    } catch (NumberFormatException e) {
-                        return 0;
-                    }
-                })
-                .max()
-                .orElse(0);
-
-        // 生成下一个序号
-        var nextSequence = todayTemplates + 1;
-        var templateCode = prefix + String.format("%04d", nextSequence);
-
-        // 双重检查确保唯一性
-        while (isTemplateCodeExists(templateCode)) {
-            nextSequence++;
-            templateCode = prefix + String.format("%04d", nextSequence);
+    @Override
+    @Transactional
+    public Result<String> updateTemplateFile(String id, String filePath, String templateContent) {
+        TemplateRegistry template = templateRegistryRepository.findById(id).orElse(null);
+        if (template == null) {
+            return Result.failed("模板不存在");
         }
-
-        return templateCode;
-    }
-
-    /**
-     * 检查备案编号是否已存在
-     */
-    private boolean isTemplateCodeExists(String templateCode) {
-        return templateRegistryRepository.findByTemplateCode(templateCode).isPresent();
+        template.setFilePath(filePath);
+        template.setTemplateContent(templateContent);
+        template.setUpdateTime(LocalDateTime.now());
+        templateRegistryRepository.save(template);
+        return Result.success("模板文件上传成功，已更新模板内容");
     }
-}
\ No newline at end of file
+}
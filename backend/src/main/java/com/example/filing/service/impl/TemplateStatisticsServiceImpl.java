@@ -0,0 +1,202 @@
+package com.example.filing.service.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.filing.constants.UserTemplateStatus;
+import com.example.filing.repository.TemplateRegistryRepository;
+import com.example.filing.repository.UserTemplateRepository;
+import com.example.filing.service.TemplateStatisticsService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 模板统计服务实现类
+ * 状态变更在事务提交后计入内存计数器，查询统计时直接读取计数器。
+ * 其他节点的变更和计数偏差通过定时对账（两条分组统计SQL）修正。
+ */
+@Service
+@Slf4j
+public class TemplateStatisticsServiceImpl implements TemplateStatisticsService {
+
+    private final UserTemplateRepository userTemplateRepository;
+    private final TemplateRegistryRepository templateRegistryRepository;
+    private final long reconcileIntervalMillis;
+
+    /**
+     * 当前计数，对账时整体替换
+     */
+    private volatile Counters counters;
+    private ScheduledExecutorService scheduler;
+
+    public TemplateStatisticsServiceImpl(UserTemplateRepository userTemplateRepository,
+            TemplateRegistryRepository templateRegistryRepository,
+            @Value("${statistics.reconcile-interval-ms:300000}") long reconcileIntervalMillis) {
+        this.userTemplateRepository = userTemplateRepository;
+        this.templateRegistryRepository = templateRegistryRepository;
+        this.reconcileIntervalMillis = reconcileIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (reconcileIntervalMillis <= 0) {
+            return;
+        }
+        // 首次统计在第一次查询时进行，之后定时对账
+        scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("template-statistics-"));
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileIntervalMillis, reconcileIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public void recordStatusChange(String userId, String templateId, Integer oldStatus, int newStatus) {
+        if (oldStatus != null && oldStatus == newStatus) {
+            return;
+        }
+        applyAfterCommit(() -> {
+            Counters current = counters;
+            if (current == null) {
+                // 尚未统计过，首次查询时从数据库加载
+                return;
+            }
+            if (oldStatus != null) {
+                current.add(userId, templateId, oldStatus, -1);
+            }
+            current.add(userId, templateId, newStatus, 1);
+        });
+    }
+
+    @Override
+    public void recordTemplateCountChange(long delta) {
+        applyAfterCommit(() -> {
+            Counters current = counters;
+            if (current != null) {
+                current.totalTemplates.addAndGet(delta);
+            }
+        });
+    }
+
+    @Override
+    public Map<String, Object> getStatistics(String userId, String templateId) {
+        Counters current = counters;
+        if (current == null) {
+            reconcile();
+            current = counters;
+        }
+
+        Map<Integer, LongAdder> byStatus;
+        if (userId != null) {
+            byStatus = current.byUser.getOrDefault(userId, Map.of());
+        } else if (templateId != null) {
+            byStatus = current.byTemplate.getOrDefault(templateId, Map.of());
+        } else {
+            byStatus = current.global;
+        }
+
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        long totalTasks = 0;
+        for (Map.Entry<Integer, LongAdder> entry : byStatus.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count != 0) {
+                statusCounts.put(entry.getKey(), count);
+                totalTasks += count;
+            }
+        }
+
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("totalTemplates", current.totalTemplates.get());
+        statistics.put("pendingCount", statusCounts.getOrDefault(UserTemplateStatus.PENDING_APPROVAL, 0L));
+        statistics.put("inProgressCount", statusCounts.getOrDefault(UserTemplateStatus.UNDER_REVIEW, 0L));
+        statistics.put("approvedCount", statusCounts.getOrDefault(UserTemplateStatus.REVIEW_APPROVED, 0L));
+        statistics.put("totalTasks", totalTasks);
+        statistics.put("statusCounts", statusCounts);
+        return statistics;
+    }
+
+    @Override
+    public synchronized void reconcile() {
+        Counters reconciled = new Counters();
+        // 全局计数由按用户分组的结果汇总得到
+        for (Object[] row : userTemplateRepository.countGroupByUserIdAndStatus()) {
+            String userId = (String) row[0];
+            int status = ((Number) row[1]).intValue();
+            long count = ((Number) row[2]).longValue();
+            reconciled.byUser.computeIfAbsent(userId, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(status, key -> new LongAdder()).add(count);
+            reconciled.global.computeIfAbsent(status, key -> new LongAdder()).add(count);
+        }
+        for (Object[] row : userTemplateRepository.countGroupByTemplateIdAndStatus()) {
+            String templateId = (String) row[0];
+            int status = ((Number) row[1]).intValue();
+            long count = ((Number) row[2]).longValue();
+            reconciled.byTemplate.computeIfAbsent(templateId, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(status, key -> new LongAdder()).add(count);
+        }
+        reconciled.totalTemplates.set(templateRegistryRepository.countByDeletedFalse());
+
+        // 对账期间提交的变更可能计入旧计数器而丢失，由下次对账修正
+        counters = reconciled;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("模板统计对账失败，保留当前计数", e);
+        }
+    }
+
+    private void applyAfterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * 各维度的状态计数
+     */
+    private static final class Counters {
+        private final Map<Integer, LongAdder> global = new ConcurrentHashMap<>();
+        private final Map<String, Map<Integer, LongAdder>> byUser = new ConcurrentHashMap<>();
+        private final Map<String, Map<Integer, LongAdder>> byTemplate = new ConcurrentHashMap<>();
+        private final AtomicLong totalTemplates = new AtomicLong();
+
+        private void add(String userId, String templateId, int status, long delta) {
+            global.computeIfAbsent(status, key -> new LongAdder()).add(delta);
+            byUser.computeIfAbsent(userId, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(status, key -> new LongAdder()).add(delta);
+            byTemplate.computeIfAbsent(templateId, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(status, key -> new LongAdder()).add(delta);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.filing.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.filing.cache.ParsedTemplateCache;
+import com.example.filing.dto.response.TemplateUploadResult;
+import com.example.filing.service.FileStorageService;
+import com.example.filing.service.TemplateUploadService;
+import com.example.filing.service.WordDocumentService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TemplateUploadServiceImpl implements TemplateUploadService {
+
+    private static final String INVALID_DOCUMENT_MESSAGE = "仅允许上传Word文档(.docx)";
+
+    private final FileStorageService fileStorageService;
+    private final WordDocumentService wordDocumentService;
+
+    @Override
+    public TemplateUploadResult uploadWordTemplate(MultipartFile file, String subDirectory) {
+        // 先检查扩展名，避免读取明显不是.docx的文件
+        String originalFilename = file.getOriginalFilename();
+        if (!isWordFileName(originalFilename)) {
+            return TemplateUploadResult.invalid(INVALID_DOCUMENT_MESSAGE);
+        }
+
+        // 上传文件已缓冲，先计算内容哈希，相同内容再次上传时直接使用缓存的解析结果
+        String contentHash;
+        try (InputStream inputStream = file.getInputStream()) {
+            contentHash = ParsedTemplateCache.sha256Hex(inputStream);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read uploaded file " + originalFilename, e);
+        }
+
+        try (InputStream inputStream = file.getInputStream()) {
+            return storeAndParse(inputStream, originalFilename, subDirectory,
+                    stream -> wordDocumentService.parseWordDocument(stream, contentHash));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read uploaded file " + originalFilename, e);
+        }
+    }
+
+    @Override
+    public TemplateUploadResult uploadWordTemplate(InputStream inputStream, String originalFilename,
+            String subDirectory) {
+        if (!isWordFileName(originalFilename)) {
+            return TemplateUploadResult.invalid(INVALID_DOCUMENT_MESSAGE);
+        }
+        // 流式上传固定使用StAX解析，DOM引擎会把整个文档加载到内存
+        return storeAndParse(inputStream, originalFilename, subDirectory,
+                wordDocumentService::parseAndCacheWordDocumentStreaming);
+    }
+
+    /**
+     * 写入存储、计算内容哈希与解析共用同一次读取，解析成功即说明文档有效；解析失败时删除已写入的文件
+     */
+    private TemplateUploadResult storeAndParse(InputStream inputStream, String originalFilename,
+            String subDirectory, Function<InputStream, String> parser) {
+        AtomicReference<String> templateContent = new AtomicReference<>();
+        AtomicReference<RuntimeException> parseError = new AtomicReference<>();
+
+        String fileName = fileStorageService.storeFile(inputStream, originalFilename, subDirectory, stream -> {
+            try {
+                templateContent.set(parser.apply(stream));
+            } catch (RuntimeException e) {
+                parseError.set(e);
+            }
+        });
+
+        if (parseError.get() != null) {
+            log.warn("Word文档解析失败: {}", originalFilename, parseError.get());
+            fileStorageService.deleteFile(fileName, subDirectory);
+            return TemplateUploadResult.invalid(INVALID_DOCUMENT_MESSAGE);
+        }
+
+        TemplateUploadResult result = new TemplateUploadResult();
+        result.setValid(true);
+        result.setFileName(fileName);
+        result.setFilePath(subDirectory + "/" + fileName);
+        result.setTemplateContent(templateContent.get());
+        return result;
+    }
+
+    private static boolean isWordFileName(String originalFilename) {
+        return originalFilename != null && originalFilename.toLowerCase().endsWith(".docx");
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import com.example.filing.cache.PrincipalCache;
 import com.example.filing.dto.AuthenticationRequest;
 import com.example.filing.dto.AuthenticationResponse;
 import com.example.filing.dto.request.ResetPasswordRequest;
@@ -41,6 +42,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Override
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
         SysUser user = userRepository.findByLoginName(request.getLoginName());
@@ -190,7 +194,10 @@ public class UserServiceImpl implements UserService {
 
         user.setUpdateTime(LocalDateTime.now());
 
-        return userRepository.save(user);
+        SysUser saved = userRepository.save(user);
+        // 角色、状态变更需要立即生效
+        principalCache.invalidate(user.getLoginName());
+        return saved;
     }
 
     @Override
@@ -201,6 +208,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.deleteById(id);
+        principalCache.invalidate(optionalUser.get().getLoginName());
     }
 
     @Override
@@ -215,5 +223,6 @@ public class UserServiceImpl implements UserService {
         user.setUpdateTime(LocalDateTime.now());
 
         userRepository.save(user);
+        principalCache.invalidate(user.getLoginName());
     }
 }
\ No newline at end of file
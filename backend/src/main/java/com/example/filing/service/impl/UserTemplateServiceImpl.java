@@ -1,28 +1,60 @@
 package com.example.filing.service.impl;
 
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import com.example.filing.constants.MetricNames;
 import com.example.filing.constants.UserTemplateStatus;
+import com.example.filing.dto.response.BatchReviewResult;
+import com.example.filing.dto.response.CursorPage;
+import com.example.filing.dto.response.UserTemplateDTO;
+import com.example.filing.dto.response.UserTemplateUpdateResult;
 import com.example.filing.entity.AuditLog;
 import com.example.filing.entity.SysUser;
 import com.example.filing.entity.TemplateRegistry;
 import com.example.filing.entity.UserTemplate;
+import com.example.filing.event.TemplateEventBus;
+import com.example.filing.event.TemplateStatusEvent;
 import com.example.filing.repository.AuditLogRepository;
 import com.example.filing.repository.SysUserRepository;
 import com.example.filing.repository.TemplateRegistryRepository;
 import com.example.filing.repository.UserTemplateRepository;
+import com.example.filing.security.UserIdentityResolver;
+import com.example.filing.service.AuditLogWriter;
+import com.example.filing.service.NotificationService;
+import com.example.filing.service.TemplateStatisticsService;
 import com.example.filing.service.UserTemplateService;
+import com.example.filing.util.JsonPatchUtil;
+import com.example.filing.util.PageCursor;
 import com.example.filing.util.Result;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,26 +66,48 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class UserTemplateServiceImpl implements UserTemplateService {
 
+    /**
+     * 批量审核的状态更新语句，版本号作为更新条件，被并发修改的记录更新行数为0
+     */
+    private static final String BATCH_STATUS_UPDATE_SQL = "UPDATE user_template SET status = ?, remarks = ?, "
+            + "version = version + 1, update_time = ? WHERE id = ? AND version = ?";
+
+    /**
+     * 读取用户模板版本号（批量更新前加锁读取，用于确认驱动未返回行数的更新结果）
+     */
+    private static final String VERSION_QUERY_SQL = "SELECT id, version FROM user_template WHERE id IN (%s)";
+
+    /**
+     * 批量发送模板的关系插入语句
+     */
+    private static final String BATCH_RELATION_INSERT_SQL = "INSERT INTO user_template (id, user_id, template_id, "
+            + "status, remarks, version, create_time, update_time) VALUES (?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private static final int BATCH_UPDATE_SIZE = 200;
+
+    private static final String ADMIN_ASSIGN_REMARKS = "管理员发送模板";
+
     private final UserTemplateRepository userTemplateRepository;
     private final TemplateRegistryRepository templateRegistryRepository;
     private final SysUserRepository sysUserRepository;
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final UserIdentityResolver userIdentityResolver;
+    private final TemplateStatisticsService templateStatisticsService;
+    private final TemplateEventBus templateEventBus;
+    private final NotificationService notificationService;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public Result<Page<UserTemplate>> getUserTemplateList(String userId, Integer current, Integer pageSize) {
         try {
             // 如果用户ID是loginName而不是UUID，先转换
-            String userUUID = userId;
-            if (!userId.matches("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}")) {
-                log.debug("userId不是UUID格式，尝试按loginName查找用户: {}", userId);
-                SysUser user = sysUserRepository.findByLoginName(userId);
-                if (user != null) {
-                    userUUID = user.getId();
-                    log.debug("找到用户，转换userId为UUID: loginName={}, UUID={}", userId, userUUID);
-                } else {
-                    log.error("无法找到用户: loginName={}", userId);
-                    return Result.failed("用户不存在");
-                }
+            String userUUID = userIdentityResolver.resolveUserId(userId);
+            if (userUUID == null) {
+                log.error("无法找到用户: loginName={}", userId);
+                return Result.failed("用户不存在");
             }
 
             PageRequest pageRequest = PageRequest.of(
@@ -69,6 +123,46 @@ public class UserTemplateServiceImpl implements UserTemplateService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Result<CursorPage<UserTemplateDTO>> getUserTemplateCursorPage(String userId, String templateName,
+            String templateCode, Integer status, String cursor, int pageSize, boolean withTotal) {
+        PageCursor pageCursor;
+        try {
+            pageCursor = PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return Result.validateFailed("无效的分页游标");
+        }
+
+        try {
+            // 多查询一条用于判断是否还有下一页
+            PageRequest limit = PageRequest.of(0, pageSize + 1);
+            List<UserTemplateDTO> rows = userId == null
+                    ? userTemplateRepository.findAllWithTemplateInfoAfter(pageCursor.createTime(), pageCursor.id(),
+                            templateName, templateCode, status, limit)
+                    : userTemplateRepository.findByUserIdWithTemplateInfoAfter(userId, pageCursor.createTime(),
+                            pageCursor.id(), templateName, templateCode, status, limit);
+
+            CursorPage<UserTemplateDTO> page = new CursorPage<>();
+            page.setHasMore(rows.size() > pageSize);
+            page.setItems(page.isHasMore() ? new ArrayList<>(rows.subList(0, pageSize)) : rows);
+            if (page.isHasMore()) {
+                UserTemplateDTO last = page.getItems().get(pageSize - 1);
+                page.setNextCursor(new PageCursor(last.getCreateTime(), last.getId()).encode());
+            }
+            if (withTotal) {
+                page.setTotal(userId == null
+                        ? userTemplateRepository.countAllWithTemplateInfoFilters(templateName, templateCode, status)
+                        : userTemplateRepository.countByUserIdWithTemplateInfoFilters(userId, templateName,
+                                templateCode, status));
+            }
+            return Result.success(page);
+        } catch (Exception e) {
+            log.error("获取用户模板列表失败", e);
+            return Result.failed("获取用户模板列表失败: " + e.getMessage());
+        }
+    }
+
     @Override
     @Transactional
     public Result<List<String>> applyTemplate(String templateId, List<String> userIds, String operatorId,
@@ -86,22 +180,14 @@ public class UserTemplateServiceImpl implements UserTemplateService {
                 userIds.add(operatorId);
             }
 
-            // 先处理userIds中的登录名，转换为UUID
-            List<String> processedUserIds = new ArrayList<>();
+            // 先处理userIds中的登录名，转换为UUID（登录名用一次IN查询批量解析）
+            Map<String, String> resolvedUserIds = userIdentityResolver.resolveUserIds(userIds);
+            Set<String> processedUserIds = new LinkedHashSet<>();
             for (String userId : userIds) {
-                String userUUID = userId;
-                // 如果不是UUID格式，尝试按loginName查找用户
-                if (!userId.matches("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}")) {
-                    log.debug("userIds中的ID不是UUID格式，尝试按loginName查找用户: {}", userId);
-                    SysUser user = sysUserRepository.findByLoginName(userId);
-                    if (user != null) {
-                        userUUID = user.getId();
-                        log.debug("找到用户，转换userId为UUID: loginName={}, UUID={}", userId, userUUID);
-                    } else {
-                        // 如果没找到用户，记录错误并继续
-                        log.error("在userIds中无法找到用户: loginName={}", userId);
-                        return Result.failed("用户 " + userId + " 不存在");
-                    }
+                String userUUID = resolvedUserIds.get(userId);
+                if (userUUID == null) {
+                    log.error("在userIds中无法找到用户: loginName={}", userId);
+                    return Result.failed("用户 " + userId + " 不存在");
                 }
                 processedUserIds.add(userUUID);
             }
@@ -113,20 +199,20 @@ public class UserTemplateServiceImpl implements UserTemplateService {
             }
 
             // 如果操作人ID是loginName而不是UUID，先转换
-            String operatorUUID = operatorId;
-            if (!operatorId.matches("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}")) {
-                log.debug("操作人ID不是UUID格式，尝试按loginName查找用户: {}", operatorId);
-                SysUser user = sysUserRepository.findByLoginName(operatorId);
-                if (user != null) {
-                    operatorUUID = user.getId();
-                    log.debug("找到操作人，转换operatorId为UUID: loginName={}, UUID={}", operatorId, operatorUUID);
-                }
-            }
+            String resolvedOperatorId = userIdentityResolver.resolveUserId(operatorId);
+            String operatorUUID = resolvedOperatorId != null ? resolvedOperatorId : operatorId;
 
             // 获取操作人信息
             SysUser operator = sysUserRepository.findById(operatorUUID).orElse(null);
             String operatorName = operator != null ? operator.getUserName() : "未知用户";
 
+            // 一次查询跳过已持有该模板的用户，重复发送或重试不会产生重复关系
+            List<String> assignedUserIds = userTemplateRepository.findAssignedUserIds(templateId, processedUserIds);
+            processedUserIds.removeAll(assignedUserIds);
+            if (processedUserIds.isEmpty()) {
+                return Result.success(isAdmin ? "用户均已持有该模板" : "已申请过该模板", new ArrayList<>());
+            }
+
             List<UserTemplate> newRelations = new ArrayList<>();
 
             // 创建用户模板关系，使用处理后的UUID列表
@@ -139,7 +225,7 @@ public class UserTemplateServiceImpl implements UserTemplateService {
                 if (isAdmin) {
                     // 管理员发送模板：设置为待填写(3)
                     userTemplate.setStatus(UserTemplateStatus.PENDING_FILL);
-                    userTemplate.setRemarks("管理员发送模板");
+                    userTemplate.setRemarks(ADMIN_ASSIGN_REMARKS);
                 } else {
                     // 用户申请模板：设置为待审核(0)
                     userTemplate.setStatus(UserTemplateStatus.PENDING_APPROVAL);
@@ -151,6 +237,11 @@ public class UserTemplateServiceImpl implements UserTemplateService {
 
             // 批量保存关系
             List<UserTemplate> savedRelations = userTemplateRepository.saveAll(newRelations);
+            for (UserTemplate userTemplate : savedRelations) {
+                templateStatisticsService.recordStatusChange(userTemplate.getUserId(), userTemplate.getTemplateId(),
+                        null, userTemplate.getStatus());
+                sendStatusChangeNotification(userTemplate, null, userTemplate.getStatus(), operatorUUID);
+            }
 
             // 记录审核日志
             for (UserTemplate userTemplate : savedRelations) {
@@ -182,6 +273,13 @@ public class UserTemplateServiceImpl implements UserTemplateService {
     @Transactional
     public Result<String> updateTemplateStatus(String id, Integer status, String remarks, String userId,
             boolean isAdmin) {
+        return toMessageResult(updateTemplateStatus(id, status, remarks, null, userId, isAdmin));
+    }
+
+    @Override
+    @Transactional
+    public Result<UserTemplateUpdateResult> updateTemplateStatus(String id, Integer status, String remarks,
+            Long expectedVersion, String userId, boolean isAdmin) {
         try {
             // 验证用户模板关系是否存在
             Optional<UserTemplate> userTemplateOpt = userTemplateRepository.findById(id);
@@ -197,17 +295,10 @@ public class UserTemplateServiceImpl implements UserTemplateService {
             }
 
             // 如果用户ID是loginName而不是UUID，先转换
-            String userUUID = userId;
-            if (!isAdmin && !userId.matches("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}")) {
-                log.debug("userId不是UUID格式，尝试按loginName查找用户: {}", userId);
-                SysUser user = sysUserRepository.findByLoginName(userId);
-                if (user != null) {
-                    userUUID = user.getId();
-                    log.debug("找到用户，转换userId为UUID: loginName={}, UUID={}", userId, userUUID);
-                } else {
-                    log.error("无法找到用户: loginName={}", userId);
-                    return Result.failed("用户不存在");
-                }
+            String userUUID = isAdmin ? userId : userIdentityResolver.resolveUserId(userId);
+            if (userUUID == null) {
+                log.error("无法找到用户: loginName={}", userId);
+                return Result.failed("用户不存在");
             }
 
             // 验证普通用户只能操作自己的模板
@@ -215,6 +306,11 @@ public class UserTemplateServiceImpl implements UserTemplateService {
                 return Result.failed("无权操作他人的模板");
             }
 
+            // 版本号不一致说明已被其他请求修改
+            if (expectedVersion != null && !expectedVersion.equals(userTemplate.getVersion())) {
+                return versionConflict(userTemplate, "status");
+            }
+
             // 记录转换前的旧状态，用于审核记录
             int oldStatus = userTemplate.getStatus();
 
@@ -222,46 +318,13 @@ public class UserTemplateServiceImpl implements UserTemplateService {
             userTemplate.setStatus(status);
 
             // 构建备注信息，包含状态变更信息和用户提供的备注
-            StringBuilder remarkBuilder = new StringBuilder();
-
-            // 添加状态变更信息
-            remarkBuilder.append("状态从【").append(getStatusDescription(oldStatus))
-                    .append("】变更为【").append(getStatusDescription(status)).append("】");
-
-            // 添加操作者信息
-            if (isAdmin) {
-                remarkBuilder.append("，管理员操作");
-
-                // 补充不同审核状态下的默认说明
-                if (status == UserTemplateStatus.REVIEW_APPROVED) {
-                    remarkBuilder.append("，审核通过");
-                } else if (status == UserTemplateStatus.RETURNED) {
-                    remarkBuilder.append("，退回修改");
-                } else if (status == UserTemplateStatus.APPLICATION_APPROVED) {
-                    remarkBuilder.append("，申请通过");
-                } else if (status == UserTemplateStatus.APPLICATION_REJECTED) {
-                    remarkBuilder.append("，拒绝申请");
-                }
-            } else {
-                remarkBuilder.append("，用户操作");
-
-                // 如果是用户提交审核
-                if (oldStatus == UserTemplateStatus.FILLING && status == UserTemplateStatus.UNDER_REVIEW) {
-                    remarkBuilder.append("，提交审核");
-                }
-            }
-
-            // 添加用户提供的具体备注信息
-            if (remarks != null && !remarks.isEmpty()) {
-                remarkBuilder.append("，备注：").append(remarks);
-            }
-
-            // 设置完整的备注信息
-            String fullRemarks = remarkBuilder.toString();
+            String fullRemarks = buildStatusRemarks(oldStatus, status, remarks, isAdmin);
             userTemplate.setRemarks(fullRemarks);
 
-            // 保存更新
-            userTemplateRepository.save(userTemplate);
+            // 保存更新，并发修改时抛出乐观锁异常
+            userTemplateRepository.saveAndFlush(userTemplate);
+            templateStatisticsService.recordStatusChange(userTemplate.getUserId(), userTemplate.getTemplateId(),
+                    oldStatus, status);
 
             // 获取操作人信息
             SysUser operator = sysUserRepository.findById(userUUID).orElse(null);
@@ -280,15 +343,215 @@ public class UserTemplateServiceImpl implements UserTemplateService {
                     isAdmin);
 
             // 如果需要，可以在这里添加发送通知的逻辑
-            sendStatusChangeNotification(userTemplate, oldStatus, status);
+            sendStatusChangeNotification(userTemplate, oldStatus, status, userUUID);
 
-            return Result.success("状态更新成功");
+            return Result.success("状态更新成功", updateResult(userTemplate, true));
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (Exception e) {
             log.error("更新模板状态失败", e);
             return Result.failed("更新模板状态失败: " + e.getMessage());
         }
     }
 
+    @Override
+    @Transactional
+    public Result<BatchReviewResult> batchReviewTemplates(List<String> ids, int status, String remarks,
+            String adminId) {
+        // 去重并保持请求顺序，一次查询加载全部记录
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<String, UserTemplate> loaded = userTemplateRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(UserTemplate::getId, Function.identity()));
+
+        List<UserTemplate> candidates = new ArrayList<>();
+        for (String id : distinctIds) {
+            UserTemplate userTemplate = loaded.get(id);
+            if (userTemplate != null
+                    && UserTemplateStatus.isStatusTransitionAllowed(userTemplate.getStatus(), status, true)) {
+                candidates.add(userTemplate);
+            }
+        }
+
+        // 更新前锁定候选记录并读取当前版本号，提交前其他事务无法修改
+        Map<String, Long> lockedVersions = readVersions(candidates, true);
+
+        // 按批次执行状态更新，记录的旧状态、备注和版本号逐条绑定
+        LocalDateTime now = LocalDateTime.now();
+        int[][] updateCounts = jdbcTemplate.batchUpdate(BATCH_STATUS_UPDATE_SQL, candidates, BATCH_UPDATE_SIZE,
+                (ps, userTemplate) -> {
+                    ps.setInt(1, status);
+                    ps.setString(2, buildStatusRemarks(userTemplate.getStatus(), status, remarks, true));
+                    ps.setTimestamp(3, Timestamp.valueOf(now));
+                    ps.setString(4, userTemplate.getId());
+                    ps.setLong(5, userTemplate.getVersion());
+                });
+        Map<String, Boolean> updated = new HashMap<>();
+        List<UserTemplate> unknown = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                UserTemplate candidate = candidates.get(index++);
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    unknown.add(candidate);
+                } else {
+                    updated.put(candidate.getId(), count > 0);
+                }
+            }
+        }
+        // 驱动未返回影响行数时重新读取版本号：加锁时版本号未变且更新后恰好加一才算更新成功
+        if (!unknown.isEmpty()) {
+            Map<String, Long> currentVersions = readVersions(unknown, false);
+            for (UserTemplate userTemplate : unknown) {
+                Long locked = lockedVersions.get(userTemplate.getId());
+                Long current = currentVersions.get(userTemplate.getId());
+                updated.put(userTemplate.getId(), userTemplate.getVersion().equals(locked) && current != null
+                        && current == locked + 1);
+            }
+        }
+
+        SysUser operator = sysUserRepository.findById(adminId).orElse(null);
+        String operatorName = operator != null ? operator.getUserName() : "未知用户";
+
+        BatchReviewResult result = new BatchReviewResult();
+        for (String id : distinctIds) {
+            UserTemplate userTemplate = loaded.get(id);
+            if (userTemplate == null) {
+                result.addFailure(id, "用户模板关系不存在", null, null);
+                continue;
+            }
+            int oldStatus = userTemplate.getStatus();
+            Boolean success = updated.get(id);
+            if (success == null) {
+                result.addFailure(id, "当前状态不允许变更为目标状态", oldStatus, userTemplate.getVersion());
+            } else if (!success) {
+                meterRegistry.counter(MetricNames.USER_TEMPLATE_VERSION_CONFLICTS, "operation", "batchReview").increment();
+                result.addFailure(id, "已被其他请求修改，请刷新后重试", oldStatus, userTemplate.getVersion());
+            } else {
+                templateStatisticsService.recordStatusChange(userTemplate.getUserId(), userTemplate.getTemplateId(),
+                        oldStatus, status);
+                createAuditLog("user_template", id, "状态变更", oldStatus, status,
+                        buildStatusRemarks(oldStatus, status, remarks, true), adminId, operatorName, true);
+                sendStatusChangeNotification(userTemplate, oldStatus, status, adminId);
+                result.addSuccess(id, status, userTemplate.getVersion() + 1);
+            }
+        }
+
+        log.info("批量审核完成: 目标状态={}, 成功={}, 失败={}", UserTemplateStatus.getDescription(status),
+                result.getSucceeded(), result.getFailed());
+        return Result.success(result);
+    }
+
+    /**
+     * 按批次读取用户模板的当前版本号
+     *
+     * @param forUpdate 是否加行锁
+     * @return 记录ID到版本号的映射，已删除的记录不在其中
+     */
+    private Map<String, Long> readVersions(List<UserTemplate> userTemplates, boolean forUpdate) {
+        Map<String, Long> versions = new HashMap<>();
+        for (int from = 0; from < userTemplates.size(); from += BATCH_UPDATE_SIZE) {
+            List<UserTemplate> chunk = userTemplates.subList(from,
+                    Math.min(from + BATCH_UPDATE_SIZE, userTemplates.size()));
+            String sql = String.format(VERSION_QUERY_SQL, String.join(",", Collections.nCopies(chunk.size(), "?")))
+                    + (forUpdate ? " FOR UPDATE" : "");
+            for (Map<String, Object> row : jdbcTemplate.queryForList(sql,
+                    chunk.stream().map(UserTemplate::getId).toArray())) {
+                versions.put((String) row.get("id"), ((Number) row.get("version")).longValue());
+            }
+        }
+        return versions;
+    }
+
+    @Override
+    @Transactional
+    public Result<Integer> assignTemplateChunk(String templateId, List<String> userIds, String operatorId,
+            String operatorName) {
+        // 一次查询排除已持有该模板的用户，重复出现的用户只创建一条关系
+        LinkedHashSet<String> recipients = new LinkedHashSet<>(userIds);
+        recipients.removeAll(userTemplateRepository.findAssignedUserIds(templateId, recipients));
+        if (recipients.isEmpty()) {
+            return Result.success(0);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UserTemplate> relations = new ArrayList<>(recipients.size());
+        for (String userId : recipients) {
+            UserTemplate userTemplate = new UserTemplate();
+            userTemplate.setId(UUID.randomUUID().toString());
+            userTemplate.setUserId(userId);
+            userTemplate.setTemplateId(templateId);
+            userTemplate.setStatus(UserTemplateStatus.PENDING_FILL);
+            userTemplate.setRemarks(ADMIN_ASSIGN_REMARKS);
+            userTemplate.setCreateTime(now);
+            userTemplate.setUpdateTime(now);
+            relations.add(userTemplate);
+        }
+
+        // 绕过持久化上下文直接批量插入，避免逐条生成主键和刷新；
+        // 与并发分配冲突时唯一索引拒绝插入，整个分块回滚，由调用方重试
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(BATCH_RELATION_INSERT_SQL, relations, BATCH_UPDATE_SIZE, (ps, userTemplate) -> {
+            ps.setString(1, userTemplate.getId());
+            ps.setString(2, userTemplate.getUserId());
+            ps.setString(3, userTemplate.getTemplateId());
+            ps.setInt(4, userTemplate.getStatus());
+            ps.setString(5, userTemplate.getRemarks());
+            ps.setTimestamp(6, timestamp);
+            ps.setTimestamp(7, timestamp);
+        });
+
+        // 审核日志由审核日志写入器在事务提交后批量写入
+        for (UserTemplate userTemplate : relations) {
+            templateStatisticsService.recordStatusChange(userTemplate.getUserId(), templateId, null,
+                    UserTemplateStatus.PENDING_FILL);
+            createAuditLog("user_template", userTemplate.getId(), "创建关系", null, UserTemplateStatus.PENDING_FILL,
+                    ADMIN_ASSIGN_REMARKS, operatorId, operatorName, true);
+            sendStatusChangeNotification(userTemplate, null, UserTemplateStatus.PENDING_FILL, operatorId);
+        }
+        return Result.success(relations.size());
+    }
+
+    /**
+     * 构建状态变更备注，包含状态变更信息、操作者类型和用户提供的备注
+     */
+    private String buildStatusRemarks(int oldStatus, int status, String remarks, boolean isAdmin) {
+        StringBuilder remarkBuilder = new StringBuilder();
+
+        // 添加状态变更信息
+        remarkBuilder.append("状态从【").append(UserTemplateStatus.getDescription(oldStatus))
+                .append("】变更为【").append(UserTemplateStatus.getDescription(status)).append("】");
+
+        // 添加操作者信息
+        if (isAdmin) {
+            remarkBuilder.append("，管理员操作");
+
+            // 补充不同审核状态下的默认说明
+            if (status == UserTemplateStatus.REVIEW_APPROVED) {
+                remarkBuilder.append("，审核通过");
+            } else if (status == UserTemplateStatus.RETURNED) {
+                remarkBuilder.append("，退回修改");
+            } else if (status == UserTemplateStatus.APPLICATION_APPROVED) {
+                remarkBuilder.append("，申请通过");
+            } else if (status == UserTemplateStatus.APPLICATION_REJECTED) {
+                remarkBuilder.append("，拒绝申请");
+            }
+        } else {
+            remarkBuilder.append("，用户操作");
+
+            // 如果是用户提交审核
+            if (oldStatus == UserTemplateStatus.FILLING && status == UserTemplateStatus.UNDER_REVIEW) {
+                remarkBuilder.append("，提交审核");
+            }
+        }
+
+        // 添加用户提供的具体备注信息
+        if (remarks != null && !remarks.isEmpty()) {
+            remarkBuilder.append("，备注：").append(remarks);
+        }
+
+        return remarkBuilder.toString();
+    }
+
     /**
      * 创建审核日志
      */
@@ -306,62 +569,34 @@ public class UserTemplateServiceImpl implements UserTemplateService {
             log.setOperatorId(operatorId);
             log.setOperatorName(operatorName);
             log.setAdmin(isAdmin);
-            auditLogRepository.save(log);
+            auditLogWriter.write(log);
         } catch (Exception e) {
             // 记录日志失败不应影响主要业务流程，仅记录错误
             log.error("记录审核日志失败", e);
         }
     }
 
-    /**
-     * 获取状态描述文本
-     * 
-     * @param status 状态码
-     * @return 状态描述
-     */
-    private String getStatusDescription(int status) {
-        switch (status) {
-            case UserTemplateStatus.PENDING_APPROVAL:
-                return "待审核";
-            case UserTemplateStatus.APPLICATION_APPROVED:
-                return "申请通过";
-            case UserTemplateStatus.APPLICATION_REJECTED:
-                return "拒绝申请";
-            case UserTemplateStatus.PENDING_FILL:
-                return "待填写";
-            case UserTemplateStatus.FILLING:
-                return "填写中";
-            case UserTemplateStatus.UNDER_REVIEW:
-                return "审核中";
-            case UserTemplateStatus.REVIEW_APPROVED:
-                return "审核通过";
-            case UserTemplateStatus.RETURNED:
-                return "退回";
-            default:
-                return "未知状态";
-        }
-    }
-
     /**
      * 发送状态变更通知
-     * 
+     * 通过事件总线推送给模板所属用户和管理员的订阅连接，事务提交后才会推送；
+     * 他人（管理员）做出的变更同时通过站内消息和邮件通知模板所属用户
+     *
      * @param userTemplate 用户模板关系
-     * @param oldStatus    旧状态
+     * @param oldStatus    旧状态，新建关系时为null
      * @param newStatus    新状态
+     * @param operatorId   操作人ID
      */
-    private void sendStatusChangeNotification(UserTemplate userTemplate, int oldStatus, int newStatus) {
-        // 这里实现通知逻辑，可以是邮件、短信或站内消息等
+    private void sendStatusChangeNotification(UserTemplate userTemplate, Integer oldStatus, int newStatus,
+            String operatorId) {
         log.info("模板状态变更通知: 用户ID={}, 模板ID={}, 旧状态={}, 新状态={}",
                 userTemplate.getUserId(), userTemplate.getTemplateId(),
-                getStatusDescription(oldStatus), getStatusDescription(newStatus));
-
-        // TODO: 实现实际的通知发送逻辑
-        // 例如：如果状态变更为审核通过或退回，可以通知用户
-        if (newStatus == UserTemplateStatus.REVIEW_APPROVED || newStatus == UserTemplateStatus.RETURNED) {
-            // notificationService.notifyUser(userTemplate.getUserId(), "模板审核结果通知",
-            // "您的模板已" + (newStatus == UserTemplateStatus.REVIEW_APPROVED ? "审核通过" :
-            // "被退回，请修改"));
-        }
+                oldStatus != null ? UserTemplateStatus.getDescription(oldStatus) : "无",
+                UserTemplateStatus.getDescription(newStatus));
+
+        templateEventBus.publish(new TemplateStatusEvent(userTemplate.getId(), userTemplate.getUserId(),
+                userTemplate.getTemplateId(), oldStatus, newStatus, operatorId, LocalDateTime.now()));
+        // 站内消息、邮件等通知写入发件箱，随当前事务提交后由后台线程投递
+        notificationService.notifyStatusChange(userTemplate, oldStatus, newStatus, operatorId);
     }
 
     @Override
@@ -400,6 +635,13 @@ public class UserTemplateServiceImpl implements UserTemplateService {
     @Override
     @Transactional
     public Result<String> saveTemplateContent(String id, String content, String userId) {
+        return toMessageResult(saveTemplateContent(id, content, null, userId));
+    }
+
+    @Override
+    @Transactional
+    public Result<UserTemplateUpdateResult> saveTemplateContent(String id, String content, Long expectedVersion,
+            String userId) {
         try {
             log.debug("开始保存模板内容: id={}, userId={}, content={}", id, userId, content);
 
@@ -416,17 +658,10 @@ public class UserTemplateServiceImpl implements UserTemplateService {
 
             // 验证用户只能操作自己的模板
             // 首先检查传入的userId是否是loginName而不是UUID
-            String userUUID = userId;
-            if (!userId.matches("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}")) {
-                log.debug("userId不是UUID格式，尝试按loginName查找用户: {}", userId);
-                SysUser user = sysUserRepository.findByLoginName(userId);
-                if (user != null) {
-                    userUUID = user.getId();
-                    log.debug("找到用户，转换userId为UUID: loginName={}, UUID={}", userId, userUUID);
-                } else {
-                    log.error("无法找到用户: loginName={}", userId);
-                    return Result.failed("用户不存在");
-                }
+            String userUUID = userIdentityResolver.resolveUserId(userId);
+            if (userUUID == null) {
+                log.error("无法找到用户: loginName={}", userId);
+                return Result.failed("用户不存在");
             }
 
             if (!userTemplate.getUserId().equals(userUUID)) {
@@ -434,9 +669,15 @@ public class UserTemplateServiceImpl implements UserTemplateService {
                 return Result.failed("无权操作他人的模板");
             }
 
+            // 版本号不一致说明已被其他请求修改
+            if (expectedVersion != null && !expectedVersion.equals(userTemplate.getVersion())) {
+                return versionConflict(userTemplate, "content");
+            }
+
             // 记录旧状态
             int oldStatus = userTemplate.getStatus();
             boolean statusChanged = false;
+            boolean contentChanged = !Objects.equals(userTemplate.getContent(), content);
 
             // 更新内容
             try {
@@ -454,10 +695,23 @@ public class UserTemplateServiceImpl implements UserTemplateService {
                 statusChanged = true;
             }
 
-            // 保存更新
+            // 内容和状态均未变化时不写入数据库
+            if (!contentChanged && !statusChanged) {
+                log.debug("模板内容未变化，跳过保存");
+                return Result.success("内容保存成功", updateResult(userTemplate, false));
+            }
+
+            // 保存更新，并发修改时抛出乐观锁异常
             try {
-                userTemplateRepository.save(userTemplate);
+                userTemplateRepository.saveAndFlush(userTemplate);
                 log.debug("成功保存用户模板");
+                templateStatisticsService.recordStatusChange(userTemplate.getUserId(), userTemplate.getTemplateId(),
+                        oldStatus, userTemplate.getStatus());
+                if (statusChanged) {
+                    sendStatusChangeNotification(userTemplate, oldStatus, userTemplate.getStatus(), userUUID);
+                }
+            } catch (OptimisticLockingFailureException e) {
+                throw e;
             } catch (Exception e) {
                 log.error("保存到数据库失败: {}", e.getMessage(), e);
                 return Result.failed("保存到数据库失败: " + e.getMessage());
@@ -485,13 +739,135 @@ public class UserTemplateServiceImpl implements UserTemplateService {
             }
 
             log.debug("模板内容保存成功");
-            return Result.success("内容保存成功");
+            return Result.success("内容保存成功", updateResult(userTemplate, true));
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (Exception e) {
             log.error("保存模板内容失败: {}", e.getMessage(), e);
             return Result.failed("保存模板内容失败: " + e.getMessage());
         }
     }
 
+    @Override
+    @Transactional
+    public Result<UserTemplateUpdateResult> patchTemplateContent(String id, String patch, boolean mergePatch,
+            Long expectedVersion, String userId) {
+        if (expectedVersion == null) {
+            return Result.validateFailed("缺少内容版本号");
+        }
+
+        try {
+            Optional<UserTemplate> userTemplateOpt = userTemplateRepository.findById(id);
+            if (!userTemplateOpt.isPresent()) {
+                return Result.failed("用户模板关系不存在");
+            }
+            UserTemplate userTemplate = userTemplateOpt.get();
+
+            // 验证用户只能操作自己的模板
+            String userUUID = userIdentityResolver.resolveUserId(userId);
+            if (userUUID == null) {
+                return Result.failed("用户不存在");
+            }
+            if (!userTemplate.getUserId().equals(userUUID)) {
+                return Result.failed("无权操作他人的模板");
+            }
+
+            if (!expectedVersion.equals(userTemplate.getVersion())) {
+                return versionConflict(userTemplate, "patch");
+            }
+
+            // 在当前内容上应用补丁
+            JsonNode current = StringUtils.hasText(userTemplate.getContent())
+                    ? objectMapper.readTree(userTemplate.getContent())
+                    : objectMapper.createObjectNode();
+            JsonNode patchNode = objectMapper.readTree(patch);
+            JsonNode patched;
+            try {
+                patched = mergePatch
+                        ? JsonPatchUtil.applyMergePatch(current, patchNode)
+                        : JsonPatchUtil.applyJsonPatch(current, patchNode);
+            } catch (IllegalArgumentException e) {
+                return Result.validateFailed("补丁无法应用: " + e.getMessage());
+            }
+
+            // 内容未变化时不写入数据库
+            if (patched.equals(current)) {
+                return Result.success("内容未变化", updateResult(userTemplate, false));
+            }
+
+            // 如果当前状态为待填写(3)，自动变更为填写中(4)
+            int oldStatus = userTemplate.getStatus();
+            int newStatus = oldStatus == UserTemplateStatus.PENDING_FILL ? UserTemplateStatus.FILLING : oldStatus;
+
+            // 版本号作为更新条件，防止并发修改互相覆盖
+            int updated = userTemplateRepository.updateContentIfVersionMatches(id,
+                    objectMapper.writeValueAsString(patched), newStatus, expectedVersion, LocalDateTime.now());
+            if (updated == 0) {
+                return versionConflict(userTemplateRepository.findById(id).orElse(userTemplate), "patch");
+            }
+            templateStatisticsService.recordStatusChange(userTemplate.getUserId(), userTemplate.getTemplateId(),
+                    oldStatus, newStatus);
+            if (newStatus != oldStatus) {
+                sendStatusChangeNotification(userTemplate, oldStatus, newStatus, userUUID);
+            }
+
+            // 获取操作人信息
+            SysUser operator = sysUserRepository.findById(userUUID).orElse(null);
+            createAuditLog(
+                    "user_template",
+                    id,
+                    "内容更新",
+                    oldStatus,
+                    newStatus,
+                    newStatus != oldStatus ? "内容增量更新并状态变更为填写中" : "内容增量更新",
+                    userUUID,
+                    operator != null ? operator.getUserName() : "未知用户",
+                    false);
+
+            UserTemplateUpdateResult result = new UserTemplateUpdateResult();
+            result.setId(id);
+            result.setVersion(expectedVersion + 1);
+            result.setStatus(newStatus);
+            result.setChanged(true);
+            return Result.success("内容保存成功", result);
+        } catch (JsonProcessingException e) {
+            return Result.validateFailed("JSON格式不正确: " + e.getOriginalMessage());
+        } catch (Exception e) {
+            log.error("增量保存模板内容失败: {}", e.getMessage(), e);
+            return Result.failed("保存模板内容失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 版本冲突结果，返回服务端当前版本号，并记录冲突次数
+     *
+     * @param operation 发生冲突的操作（content、status、patch）
+     */
+    private Result<UserTemplateUpdateResult> versionConflict(UserTemplate userTemplate, String operation) {
+        meterRegistry.counter(MetricNames.USER_TEMPLATE_VERSION_CONFLICTS, "operation", operation).increment();
+        return Result.failed(HttpStatus.CONFLICT.value(), "内容已被修改，请基于最新版本重试",
+                updateResult(userTemplate, false));
+    }
+
+    private UserTemplateUpdateResult updateResult(UserTemplate userTemplate, boolean changed) {
+        UserTemplateUpdateResult result = new UserTemplateUpdateResult();
+        result.setId(userTemplate.getId());
+        result.setVersion(userTemplate.getVersion());
+        result.setStatus(userTemplate.getStatus());
+        result.setChanged(changed);
+        return result;
+    }
+
+    /**
+     * 转换为仅包含提示信息的结果（兼容不带版本号的接口）
+     */
+    private Result<String> toMessageResult(Result<UserTemplateUpdateResult> result) {
+        if (result.getCode() == 200) {
+            return Result.success(result.getMessage());
+        }
+        return Result.failed(result.getCode(), result.getMessage());
+    }
+
     /**
      * 获取模板审核历史
      *
@@ -1,46 +1,173 @@
 package com.example.filing.service.impl;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.filing.cache.ParsedTemplateCache;
 import com.example.filing.service.WordDocumentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 public class WordDocumentServiceImpl implements WordDocumentService {
 
+    /**
+     * DOM解析引擎：使用XWPFDocument加载整个文档
+     */
+    public static final String ENGINE_DOM = "dom";
+
+    /**
+     * 流式解析引擎：使用StAX直接读取word/document.xml
+     */
+    public static final String ENGINE_STAX = "stax";
+
     private final ObjectMapper objectMapper;
+    private final String parserEngine;
+    private final StreamingWordDocumentParser streamingParser = new StreamingWordDocumentParser();
+
+    /**
+     * 解析结果缓存，为null时不使用缓存
+     */
+    private final ParsedTemplateCache parsedTemplateCache;
 
     public WordDocumentServiceImpl(ObjectMapper objectMapper) {
+        this(objectMapper, ENGINE_DOM);
+    }
+
+    public WordDocumentServiceImpl(ObjectMapper objectMapper, String parserEngine) {
+        this(objectMapper, parserEngine, null);
+    }
+
+    @Autowired
+    public WordDocumentServiceImpl(ObjectMapper objectMapper,
+            @Value("${word.parser.engine:" + ENGINE_DOM + "}") String parserEngine,
+            ParsedTemplateCache parsedTemplateCache) {
+        if (!ENGINE_DOM.equalsIgnoreCase(parserEngine) && !ENGINE_STAX.equalsIgnoreCase(parserEngine)) {
+            throw new IllegalArgumentException("Unsupported word.parser.engine: " + parserEngine);
+        }
         this.objectMapper = objectMapper;
+        this.parserEngine = parserEngine.toLowerCase();
+        this.parsedTemplateCache = parsedTemplateCache;
     }
 
     @Override
     public String parseWordDocument(MultipartFile file) {
         try {
-            return parseWordDocument(file.getInputStream());
+            if (parsedTemplateCache == null) {
+                try (InputStream inputStream = file.getInputStream()) {
+                    return parseWordDocument(inputStream);
+                }
+            }
+
+            // 上传文件已缓冲在内存或临时文件中，先计算哈希查询缓存（相比POI解析开销很小），未命中时才解析
+            String contentHash;
+            try (InputStream inputStream = file.getInputStream()) {
+                contentHash = ParsedTemplateCache.sha256Hex(inputStream);
+            }
+            try (InputStream inputStream = file.getInputStream()) {
+                return parseWordDocument(inputStream, contentHash);
+            }
         } catch (IOException e) {
             throw new RuntimeException("Failed to parse Word document", e);
         }
     }
 
+    @Override
+    public String parseWordDocument(InputStream inputStream, String contentHash) {
+        if (parsedTemplateCache == null || contentHash == null) {
+            return parseWordDocument(inputStream);
+        }
+
+        String cached = parsedTemplateCache.get(contentHash);
+        if (cached != null) {
+            return cached;
+        }
+
+        String templateContent = parseWordDocument(inputStream);
+        parsedTemplateCache.put(contentHash, templateContent);
+        return templateContent;
+    }
+
+    @Override
+    public String parseAndCacheWordDocument(InputStream inputStream) {
+        return parseAndCache(inputStream, parserEngine);
+    }
+
+    @Override
+    public String parseAndCacheWordDocumentStreaming(InputStream inputStream) {
+        return parseAndCache(inputStream, ENGINE_STAX);
+    }
+
+    private String parseAndCache(InputStream inputStream, String engine) {
+        if (parsedTemplateCache == null) {
+            return parse(inputStream, engine);
+        }
+
+        // 内容哈希在解析读取的同时计算，读完之前无法查询缓存
+        MessageDigest digest = ParsedTemplateCache.newSha256Digest();
+        DigestInputStream digestStream = new DigestInputStream(inputStream, digest);
+        // 外层缓冲流承接解析器的mark/reset，避免回退重读的字节被重复计入哈希；
+        // 屏蔽解析器对流的关闭：解析器可能不读到流末尾（如流式解析只读取到word/document.xml），
+        // 解析后读完剩余内容才能得到完整哈希
+        String templateContent = parse(CloseShieldInputStream.wrap(new BufferedInputStream(digestStream)), engine);
+        try {
+            IOUtils.consume(digestStream);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse Word document", e);
+        }
+        parsedTemplateCache.put(HexFormat.of().formatHex(digest.digest()), templateContent);
+        return templateContent;
+    }
+
     @Override
     public String parseWordDocument(InputStream inputStream) {
-        try (XWPFDocument document = new XWPFDocument(inputStream)) {
+        return parse(inputStream, parserEngine);
+    }
+
+    private String parse(InputStream inputStream, String engine) {
+        try {
+            Map<String, Object> sections = ENGINE_STAX.equals(engine)
+                    ? streamingParser.parseSections(inputStream)
+                    : parseSectionsWithDom(inputStream);
+
             Map<String, Object> result = new LinkedHashMap<>();
+            result.put("sections", sections);
+
+            // 将结果转换为JSON字符串
+            return objectMapper.writeValueAsString(result);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to parse Word document", e);
+        }
+    }
+
+    /**
+     * 使用XWPFDocument（DOM方式）解析文档
+     *
+     * @param inputStream Word文档输入流
+     * @return 有序的sections映射
+     */
+    private Map<String, Object> parseSectionsWithDom(InputStream inputStream) throws IOException {
+        try (XWPFDocument document = new XWPFDocument(inputStream)) {
             Map<String, Object> sections = new LinkedHashMap<>();
 
             // 解析段落
@@ -72,12 +199,7 @@ public class WordDocumentServiceImpl implements WordDocumentService {
                 tableIndex++;
             }
 
-            result.put("sections", sections);
-
-            // 将结果转换为JSON字符串
-            return objectMapper.writeValueAsString(result);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to parse Word document", e);
+            return sections;
         }
     }
 
@@ -0,0 +1,220 @@
+package com.example.filing.storage;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 按内容寻址的文件块存储
+ * 文件内容按SHA-256保存在分片目录（.blobs/sha256/ab/cd/{sha256}）下，对外的文件名是指向该文件块的硬链接，
+ * 内容相同的上传只占用一份磁盘空间。文件块的引用计数即硬链接数减一，删除文件只删除对应的链接，
+ * 无引用的文件块由垃圾回收清理；文件名本身也持有内容，回收与上传并发时不会丢失数据。
+ * 文件系统不支持硬链接时不做去重，直接保存为普通文件。
+ */
+@Slf4j
+public class ContentAddressedBlobStore {
+
+    private static final String BLOB_DIRECTORY = ".blobs";
+    private static final int MAX_COMMIT_ATTEMPTS = 3;
+
+    private final Path blobRoot;
+    private final Path tempDirectory;
+    private final boolean linksSupported;
+
+    /**
+     * 垃圾回收结果
+     *
+     * @param deletedBlobs   删除的文件块数（包括残留的临时文件）
+     * @param reclaimedBytes 释放的字节数
+     */
+    public record GcResult(int deletedBlobs, long reclaimedBytes) {
+    }
+
+    public ContentAddressedBlobStore(Path storageRoot) {
+        this.blobRoot = storageRoot.resolve(BLOB_DIRECTORY).resolve("sha256");
+        this.tempDirectory = storageRoot.resolve(BLOB_DIRECTORY).resolve("tmp");
+        try {
+            Files.createDirectories(blobRoot);
+            Files.createDirectories(tempDirectory);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create blob directory " + blobRoot, ex);
+        }
+        this.linksSupported = probeLinkSupport();
+        if (!linksSupported) {
+            log.warn("存储目录不支持硬链接或链接计数，上传文件不做去重: {}", storageRoot);
+        }
+    }
+
+    /**
+     * 创建写入上传内容的临时文件，与文件块位于同一文件系统，写完后可原子移动
+     *
+     * @return 临时文件路径
+     */
+    public Path newTempFile() {
+        return tempDirectory.resolve(UUID.randomUUID() + ".tmp");
+    }
+
+    /**
+     * 将已写完的临时文件提交为文件块，并在目标位置创建指向它的链接
+     * 相同内容的文件块已存在时直接链接并删除临时文件
+     *
+     * @param tempFile 临时文件（提交后不再存在）
+     * @param sha256   临时文件内容的SHA-256（十六进制）
+     * @param target   对外的文件路径
+     * @return 是否与已有文件块去重
+     * @throws IOException 文件操作失败时抛出
+     */
+    public boolean commit(Path tempFile, String sha256, Path target) throws IOException {
+        if (!linksSupported) {
+            Files.move(tempFile, target);
+            return false;
+        }
+
+        Path blob = blobPath(sha256);
+        for (int attempt = 0; attempt < MAX_COMMIT_ATTEMPTS; attempt++) {
+            if (Files.exists(blob) && link(target, blob)) {
+                Files.deleteIfExists(tempFile);
+                return true;
+            }
+            Files.createDirectories(blob.getParent());
+            try {
+                Files.move(tempFile, blob);
+            } catch (FileAlreadyExistsException e) {
+                // 并发上传了相同内容，改为链接已有的文件块
+                continue;
+            }
+            if (link(target, blob)) {
+                return false;
+            }
+            // 刚写入的文件块在宽限期内不会被回收，此时链接失败说明存储目录被外部修改
+            throw new NoSuchFileException(blob.toString());
+        }
+        // 反复与回收冲突时不做去重
+        Files.move(tempFile, target);
+        return false;
+    }
+
+    /**
+     * 查询文件块的引用计数
+     *
+     * @param sha256 内容SHA-256
+     * @return 引用该文件块的文件数，文件块不存在时返回0，无法获取时返回-1
+     */
+    public int referenceCount(String sha256) {
+        Path blob = blobPath(sha256);
+        if (!Files.exists(blob)) {
+            return 0;
+        }
+        int links = linkCount(blob);
+        return links < 0 ? -1 : links - 1;
+    }
+
+    /**
+     * 删除无引用且超过宽限期的文件块，以及超过宽限期的残留临时文件
+     * 宽限期避免回收刚移动到位、尚未创建链接的文件块
+     *
+     * @param gracePeriod 宽限期
+     * @return 回收结果
+     */
+    public GcResult collectGarbage(Duration gracePeriod) {
+        Instant expireBefore = Instant.now().minus(gracePeriod);
+        int deleted = 0;
+        long reclaimed = 0;
+        for (Path directory : new Path[] { blobRoot, tempDirectory }) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    BasicFileAttributes attributes = readAttributes(file);
+                    if (attributes == null || !attributes.isRegularFile()
+                            || !attributes.lastModifiedTime().toInstant().isBefore(expireBefore)) {
+                        continue;
+                    }
+                    boolean orphan = directory == tempDirectory || (linksSupported && linkCount(file) == 1);
+                    if (orphan && Files.deleteIfExists(file)) {
+                        deleted++;
+                        reclaimed += attributes.size();
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("文件块垃圾回收失败: {}", directory, e);
+            }
+        }
+        if (deleted > 0) {
+            log.info("文件块垃圾回收完成: 删除{}个, 释放{}字节", deleted, reclaimed);
+        }
+        return new GcResult(deleted, reclaimed);
+    }
+
+    public boolean isDeduplicating() {
+        return linksSupported;
+    }
+
+    private Path blobPath(String sha256) {
+        return blobRoot.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    /**
+     * 创建链接；文件块在此期间被回收时返回false
+     */
+    private boolean link(Path target, Path blob) throws IOException {
+        try {
+            Files.createLink(target, blob);
+            return true;
+        } catch (NoSuchFileException e) {
+            if (Files.exists(blob)) {
+                throw e;
+            }
+            return false;
+        }
+    }
+
+    private int linkCount(Path file) {
+        try {
+            return ((Number) Files.getAttribute(file, "unix:nlink")).intValue();
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private BasicFileAttributes readAttributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 检测存储目录是否支持硬链接和链接计数（回收依赖链接计数判断文件块是否仍被引用）
+     */
+    private boolean probeLinkSupport() {
+        Path probe = newTempFile();
+        Path link = newTempFile();
+        try {
+            Files.createFile(probe);
+            Files.createLink(link, probe);
+            return linkCount(probe) == 2;
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        } finally {
+            deleteQuietly(link);
+            deleteQuietly(probe);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // 探测文件清理失败不影响存储
+        }
+    }
+}
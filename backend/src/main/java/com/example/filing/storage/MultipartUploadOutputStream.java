@@ -0,0 +1,113 @@
+package com.example.filing.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分块上传输出流
+ * 写入的内容缓冲到一个分块大小，缓冲区满时立即上传该分块，内存占用不随对象大小增长。
+ * 内容不足一个分块时在关闭时一次上传；close完成上传，写入失败时应调用abort放弃上传。
+ */
+@Slf4j
+public class MultipartUploadOutputStream extends OutputStream {
+
+    private final ObjectStorageClient client;
+    private final String key;
+    private final String contentType;
+    private final byte[] buffer;
+    private final List<String> partETags = new ArrayList<>();
+
+    private int position;
+    private String uploadId;
+    private boolean closed;
+
+    /**
+     * @param client      对象存储客户端
+     * @param key         对象键
+     * @param contentType 内容类型，可为null
+     * @param partSize    分块大小（S3要求除最后一块外不小于5MB）
+     */
+    public MultipartUploadOutputStream(ObjectStorageClient client, String key, String contentType, int partSize) {
+        this.client = client;
+        this.key = key;
+        this.contentType = contentType;
+        this.buffer = new byte[partSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        buffer[position++] = (byte) b;
+        if (position == buffer.length) {
+            flushPart();
+        }
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            int count = Math.min(length, buffer.length - position);
+            System.arraycopy(data, offset, buffer, position, count);
+            position += count;
+            offset += count;
+            length -= count;
+            if (position == buffer.length) {
+                flushPart();
+            }
+        }
+    }
+
+    /**
+     * 上传剩余内容并完成上传
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (uploadId == null) {
+            client.putObject(key, buffer, position, contentType);
+            return;
+        }
+        if (position > 0) {
+            partETags.add(client.uploadPart(key, uploadId, partETags.size() + 1, buffer, position));
+        }
+        client.completeMultipartUpload(key, uploadId, partETags);
+    }
+
+    /**
+     * 放弃上传，已上传的分块由对象存储释放
+     */
+    public void abort() {
+        closed = true;
+        if (uploadId == null) {
+            return;
+        }
+        try {
+            client.abortMultipartUpload(key, uploadId);
+        } catch (IOException e) {
+            // 未释放的分块可由存储桶生命周期规则清理
+            log.warn("放弃分块上传失败: key={}, uploadId={}", key, uploadId, e);
+        }
+    }
+
+    private void flushPart() throws IOException {
+        if (uploadId == null) {
+            uploadId = client.createMultipartUpload(key, contentType);
+        }
+        partETags.add(client.uploadPart(key, uploadId, partETags.size() + 1, buffer, position));
+        position = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
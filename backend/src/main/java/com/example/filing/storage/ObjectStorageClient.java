@@ -0,0 +1,95 @@
+package com.example.filing.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * S3兼容对象存储客户端
+ * 对象键为"子目录/文件名"；对象不存在时读取操作抛出{@link java.nio.file.NoSuchFileException}
+ */
+public interface ObjectStorageClient {
+
+    /**
+     * 上传小对象（一次请求）
+     *
+     * @param key         对象键
+     * @param data        内容缓冲区
+     * @param length      内容长度
+     * @param contentType 内容类型，可为null
+     * @throws IOException 请求失败时抛出
+     */
+    void putObject(String key, byte[] data, int length, String contentType) throws IOException;
+
+    /**
+     * 开始分块上传
+     *
+     * @param key         对象键
+     * @param contentType 内容类型，可为null
+     * @return 上传ID
+     * @throws IOException 请求失败时抛出
+     */
+    String createMultipartUpload(String key, String contentType) throws IOException;
+
+    /**
+     * 上传一个分块
+     *
+     * @param key        对象键
+     * @param uploadId   上传ID
+     * @param partNumber 分块序号（从1开始）
+     * @param data       分块内容缓冲区
+     * @param length     分块长度
+     * @return 分块ETag，完成上传时使用
+     * @throws IOException 请求失败时抛出
+     */
+    String uploadPart(String key, String uploadId, int partNumber, byte[] data, int length) throws IOException;
+
+    /**
+     * 完成分块上传
+     *
+     * @param key       对象键
+     * @param uploadId  上传ID
+     * @param partETags 按分块序号排列的分块ETag
+     * @throws IOException 请求失败时抛出
+     */
+    void completeMultipartUpload(String key, String uploadId, List<String> partETags) throws IOException;
+
+    /**
+     * 放弃分块上传，释放已上传的分块
+     *
+     * @param key      对象键
+     * @param uploadId 上传ID
+     * @throws IOException 请求失败时抛出
+     */
+    void abortMultipartUpload(String key, String uploadId) throws IOException;
+
+    /**
+     * 读取对象内容
+     *
+     * @param key 对象键
+     * @return 内容输入流（由调用方关闭）
+     * @throws IOException 对象不存在或请求失败时抛出
+     */
+    InputStream getObject(String key) throws IOException;
+
+    /**
+     * 删除对象
+     *
+     * @param key 对象键
+     * @return 对象删除前是否存在
+     * @throws IOException 请求失败时抛出
+     */
+    boolean deleteObject(String key) throws IOException;
+
+    /**
+     * 生成对象的预签名下载地址，客户端直接从对象存储下载
+     *
+     * @param key              对象键
+     * @param expiry           有效期
+     * @param downloadFilename 下载时的文件名（Content-Disposition），可为null
+     * @return 预签名URL
+     */
+    URI presignGetObject(String key, Duration expiry, String downloadFilename);
+}
@@ -0,0 +1,305 @@
+package com.example.filing.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 基于JDK HttpClient的S3兼容对象存储客户端
+ * 请求使用AWS Signature Version 4签名，支持路径风格（MinIO等）和虚拟主机风格的访问地址。
+ */
+public class S3ObjectStorageClient implements ObjectStorageClient {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+    private static final Pattern UPLOAD_ID_PATTERN = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+
+    private final String scheme;
+    private final String host;
+    private final String pathPrefix;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final Clock clock;
+    private final HttpClient httpClient;
+
+    /**
+     * @param endpoint        对象存储地址，如http://localhost:9000
+     * @param region          区域
+     * @param bucket          存储桶
+     * @param accessKey       访问密钥ID
+     * @param secretKey       访问密钥
+     * @param pathStyleAccess 是否使用路径风格地址（endpoint/bucket/key），否则使用bucket.endpoint/key
+     * @param clock           签名使用的时钟
+     */
+    public S3ObjectStorageClient(URI endpoint, String region, String bucket, String accessKey, String secretKey,
+            boolean pathStyleAccess, Clock clock) {
+        String endpointHost = endpoint.getPort() == -1 ? endpoint.getHost()
+                : endpoint.getHost() + ":" + endpoint.getPort();
+        this.scheme = endpoint.getScheme();
+        this.host = pathStyleAccess ? endpointHost : bucket + "." + endpointHost;
+        this.pathPrefix = pathStyleAccess ? "/" + encode(bucket, true) : "";
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.clock = clock;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @Override
+    public void putObject(String key, byte[] data, int length, String contentType) throws IOException {
+        send("PUT", key, Map.of(), data, length, contentType).close();
+    }
+
+    @Override
+    public String createMultipartUpload(String key, String contentType) throws IOException {
+        String response = readBody(send("POST", key, Map.of("uploads", ""), null, 0, contentType));
+        Matcher matcher = UPLOAD_ID_PATTERN.matcher(response);
+        if (!matcher.find()) {
+            throw new IOException("Invalid CreateMultipartUpload response for " + key);
+        }
+        return matcher.group(1);
+    }
+
+    @Override
+    public String uploadPart(String key, String uploadId, int partNumber, byte[] data, int length)
+            throws IOException {
+        HttpResponse<InputStream> response = sendForResponse("PUT", key,
+                Map.of("partNumber", String.valueOf(partNumber), "uploadId", uploadId), data, length, null);
+        response.body().close();
+        return response.headers().firstValue("ETag")
+                .orElseThrow(() -> new IOException("Missing ETag for part " + partNumber + " of " + key));
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String uploadId, List<String> partETags) throws IOException {
+        StringBuilder body = new StringBuilder("<CompleteMultipartUpload>");
+        for (int i = 0; i < partETags.size(); i++) {
+            body.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                    .append(partETags.get(i).replace("\"", "&quot;")).append("</ETag></Part>");
+        }
+        body.append("</CompleteMultipartUpload>");
+        byte[] content = body.toString().getBytes(StandardCharsets.UTF_8);
+        // 完成请求可能返回200但响应体中包含错误
+        String response = readBody(send("POST", key, Map.of("uploadId", uploadId), content, content.length,
+                "application/xml"));
+        if (response.contains("<Error>")) {
+            throw new IOException("CompleteMultipartUpload failed for " + key + ": " + response);
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) throws IOException {
+        send("DELETE", key, Map.of("uploadId", uploadId), null, 0, null).close();
+    }
+
+    @Override
+    public InputStream getObject(String key) throws IOException {
+        return send("GET", key, Map.of(), null, 0, null);
+    }
+
+    @Override
+    public boolean deleteObject(String key) throws IOException {
+        // DELETE对不存在的对象同样返回204，先用HEAD确认是否存在
+        try {
+            send("HEAD", key, Map.of(), null, 0, null).close();
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        send("DELETE", key, Map.of(), null, 0, null).close();
+        return true;
+    }
+
+    @Override
+    public URI presignGetObject(String key, Duration expiry, String downloadFilename) {
+        Instant now = clock.instant();
+        String amzDate = AMZ_DATE.format(now);
+        String scope = scope(now);
+
+        Map<String, String> query = new TreeMap<>();
+        query.put("X-Amz-Algorithm", ALGORITHM);
+        query.put("X-Amz-Credential", accessKey + "/" + scope);
+        query.put("X-Amz-Date", amzDate);
+        query.put("X-Amz-Expires", String.valueOf(expiry.toSeconds()));
+        query.put("X-Amz-SignedHeaders", "host");
+        if (downloadFilename != null) {
+            query.put("response-content-disposition", "attachment; filename=\"" + downloadFilename + "\"");
+        }
+
+        String path = canonicalPath(key);
+        String canonicalQuery = canonicalQuery(query);
+        String signature = sign("GET", path, canonicalQuery, Map.of("host", host), UNSIGNED_PAYLOAD, now);
+        return URI.create(scheme + "://" + host + path + "?" + canonicalQuery + "&X-Amz-Signature=" + signature);
+    }
+
+    /**
+     * 发送签名请求，返回响应体
+     */
+    private InputStream send(String method, String key, Map<String, String> query, byte[] body, int length,
+            String contentType) throws IOException {
+        return sendForResponse(method, key, query, body, length, contentType).body();
+    }
+
+    private HttpResponse<InputStream> sendForResponse(String method, String key, Map<String, String> query,
+            byte[] body, int length, String contentType) throws IOException {
+        Instant now = clock.instant();
+        String payloadHash = sha256Hex(body != null ? body : new byte[0], body != null ? length : 0);
+        String path = canonicalPath(key);
+        String canonicalQuery = canonicalQuery(query);
+
+        Map<String, String> signedHeaders = new TreeMap<>();
+        signedHeaders.put("host", host);
+        signedHeaders.put("x-amz-content-sha256", payloadHash);
+        signedHeaders.put("x-amz-date", AMZ_DATE.format(now));
+        String signature = sign(method, path, canonicalQuery, signedHeaders, payloadHash, now);
+
+        HttpRequest.Builder request = HttpRequest
+                .newBuilder(URI.create(scheme + "://" + host + path + (query.isEmpty() ? "" : "?" + canonicalQuery)))
+                .timeout(REQUEST_TIMEOUT)
+                .header("x-amz-content-sha256", payloadHash)
+                .header("x-amz-date", AMZ_DATE.format(now))
+                .header("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope(now)
+                        + ", SignedHeaders=" + String.join(";", signedHeaders.keySet())
+                        + ", Signature=" + signature)
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofByteArray(body, 0, length)
+                        : HttpRequest.BodyPublishers.noBody());
+        if (contentType != null) {
+            request.header("Content-Type", contentType);
+        }
+
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calling object storage", e);
+        }
+
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            return response;
+        }
+        String error = readBody(response.body());
+        if (status == 404) {
+            throw new NoSuchFileException(key);
+        }
+        throw new IOException(method + " " + key + " failed with status " + status + ": " + error);
+    }
+
+    /**
+     * 计算签名（Signature Version 4）
+     */
+    private String sign(String method, String path, String canonicalQuery, Map<String, String> headers,
+            String payloadHash, Instant now) {
+        StringBuilder canonicalHeaders = new StringBuilder();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            canonicalHeaders.append(header.getKey()).append(':').append(header.getValue().trim()).append('\n');
+        }
+        String canonicalRequest = method + "\n" + path + "\n" + canonicalQuery + "\n" + canonicalHeaders + "\n"
+                + String.join(";", headers.keySet()) + "\n" + payloadHash;
+
+        byte[] canonicalBytes = canonicalRequest.getBytes(StandardCharsets.UTF_8);
+        String stringToSign = ALGORITHM + "\n" + AMZ_DATE.format(now) + "\n" + scope(now) + "\n"
+                + sha256Hex(canonicalBytes, canonicalBytes.length);
+
+        String date = AMZ_DATE.format(now).substring(0, 8);
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, SERVICE);
+        signingKey = hmac(signingKey, "aws4_request");
+        return HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+    }
+
+    private String scope(Instant now) {
+        return AMZ_DATE.format(now).substring(0, 8) + "/" + region + "/" + SERVICE + "/aws4_request";
+    }
+
+    private String canonicalPath(String key) {
+        return pathPrefix + "/" + encode(key, false);
+    }
+
+    private static String canonicalQuery(Map<String, String> query) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> parameter : new TreeMap<>(query).entrySet()) {
+            if (builder.length() > 0) {
+                builder.append('&');
+            }
+            builder.append(encode(parameter.getKey(), true)).append('=').append(encode(parameter.getValue(), true));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * URI编码（RFC 3986），只保留非保留字符
+     */
+    private static String encode(String value, boolean encodeSlash) {
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(HexFormat.of().withUpperCase().toHexDigits(b));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static String readBody(InputStream body) throws IOException {
+        try (InputStream inputStream = body) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String sha256Hex(byte[] data, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data, 0, length);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // 所有JRE都必须支持SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
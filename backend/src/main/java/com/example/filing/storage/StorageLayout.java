@@ -0,0 +1,182 @@
+package com.example.filing.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 存储目录布局
+ * 子目录在首次使用时创建并缓存，之后解析路径不再访问文件系统；解析结果限制在存储根目录内。
+ * 新文件按文件名前缀分散到分片目录（如templates/3f/3f2a...docx），避免单个目录下文件过多，
+ * 对外的文件名和"子目录/文件名"形式的路径不变；启用分片前保存的文件仍按原路径读取，
+ * 这些文件在首次访问所在子目录时列目录一次并缓存，之后定位文件不再访问文件系统。
+ */
+public class StorageLayout {
+
+    /**
+     * 每级分片使用的文件名字符数（十六进制前缀，每级最多256个目录）
+     */
+    private static final int SHARD_WIDTH = 2;
+
+    private final Path root;
+    private final int shardLevels;
+
+    /**
+     * 已创建的目录，键为相对存储根目录的路径
+     */
+    private final Map<String, Path> directories = new ConcurrentHashMap<>();
+
+    /**
+     * 启用分片前保存在子目录下、按文件名本应分片的文件，键为子目录
+     */
+    private final Map<String, Set<String>> legacyFiles = new ConcurrentHashMap<>();
+
+    /**
+     * @param root        存储根目录
+     * @param shardLevels 分片层数，0表示不分片
+     */
+    public StorageLayout(Path root, int shardLevels) {
+        this.root = root.toAbsolutePath().normalize();
+        this.shardLevels = Math.max(shardLevels, 0);
+    }
+
+    /**
+     * 新文件的保存路径，所在目录已创建
+     *
+     * @param subDirectory 子目录，可为空
+     * @param fileName     文件名
+     * @return 文件路径
+     */
+    public Path newFilePath(String subDirectory, String fileName) {
+        Set<String> legacy = legacyFiles.get(normalizeSubDirectory(subDirectory));
+        if (legacy != null) {
+            // 同名文件重新保存到分片路径后不再按原路径读取
+            legacy.remove(fileName);
+        }
+        return directory(shardDirectory(subDirectory, fileName)).resolve(fileName).normalize();
+    }
+
+    /**
+     * 已有文件的路径，不创建目录
+     * 启用分片前保存的文件返回原路径，其他文件返回分片路径
+     *
+     * @param subDirectory 子目录，可为空
+     * @param fileName     文件名
+     * @return 文件路径
+     */
+    public Path locate(String subDirectory, String fileName) {
+        String directory = normalizeSubDirectory(subDirectory);
+        String shardDirectory = shardDirectory(subDirectory, fileName);
+        if (!shardDirectory.equals(directory) && legacyFiles(directory).contains(fileName)) {
+            return confine(join(directory, fileName));
+        }
+        return confine(join(shardDirectory, fileName));
+    }
+
+    /**
+     * 获取子目录，首次使用时创建
+     *
+     * @param relativePath 相对存储根目录的路径，可为空
+     * @return 目录路径
+     */
+    public Path directory(String relativePath) {
+        Path directory = directories.get(relativePath);
+        if (directory != null) {
+            return directory;
+        }
+        return directories.computeIfAbsent(relativePath, key -> {
+            Path path = confine(key);
+            try {
+                return Files.createDirectories(path);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not create directory " + key, ex);
+            }
+        });
+    }
+
+    /**
+     * 子目录下启用分片前保存的文件，首次调用时列目录一次
+     */
+    private Set<String> legacyFiles(String subDirectory) {
+        Set<String> files = legacyFiles.get(subDirectory);
+        if (files != null) {
+            return files;
+        }
+        return legacyFiles.computeIfAbsent(subDirectory, key -> {
+            Set<String> result = ConcurrentHashMap.newKeySet();
+            Path directory = confine(key);
+            if (!Files.isDirectory(directory)) {
+                return result;
+            }
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    String fileName = entry.getFileName().toString();
+                    // 分片目录名不超过分片前缀长度，不会被当作文件
+                    if (!shardDirectory(key, fileName).equals(key)) {
+                        result.add(fileName);
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not list directory " + key, ex);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 文件所在的分片目录（相对存储根目录）
+     */
+    private String shardDirectory(String subDirectory, String fileName) {
+        String directory = normalizeSubDirectory(subDirectory);
+        if (fileName.length() <= shardLevels * SHARD_WIDTH) {
+            return directory;
+        }
+        StringBuilder builder = new StringBuilder(directory);
+        for (int level = 0; level < shardLevels; level++) {
+            String shard = fileName.substring(level * SHARD_WIDTH, (level + 1) * SHARD_WIDTH).toLowerCase();
+            if (!isShardName(shard)) {
+                // 非UUID生成的文件名不分片
+                return directory;
+            }
+            if (builder.length() > 0) {
+                builder.append('/');
+            }
+            builder.append(shard);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 解析相对路径，结果不在存储根目录内时抛出异常
+     */
+    private Path confine(String relativePath) {
+        Path path = root.resolve(relativePath).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Path is outside the storage root: " + relativePath);
+        }
+        return path;
+    }
+
+    private static String normalizeSubDirectory(String subDirectory) {
+        return subDirectory != null ? subDirectory : "";
+    }
+
+    private static String join(String directory, String fileName) {
+        return directory.isEmpty() ? fileName : directory + "/" + fileName;
+    }
+
+    private static boolean isShardName(String shard) {
+        for (int i = 0; i < shard.length(); i++) {
+            char c = shard.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
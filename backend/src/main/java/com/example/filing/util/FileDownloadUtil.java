@@ -0,0 +1,144 @@
+package com.example.filing.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 文件下载工具类
+ * 解析单个字节范围请求（RFC 9110），按扩展名确定内容类型，并以零拷贝方式发送文件内容：
+ * 容器支持sendfile（Tomcat NIO/NIO2/APR）时交由容器直接从文件发送到套接字，否则使用FileChannel.transferTo。
+ */
+public final class FileDownloadUtil {
+
+    /**
+     * Tomcat的sendfile请求属性
+     */
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * 小于该大小的文件直接写出，sendfile的系统调用开销不划算（与Tomcat DefaultServlet一致）
+     */
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private FileDownloadUtil() {
+    }
+
+    /**
+     * 字节范围（包含两端）
+     */
+    public record ByteRange(long start, long end) {
+
+        public long length() {
+            return end - start + 1;
+        }
+    }
+
+    /**
+     * 按扩展名确定内容类型，未知类型返回application/octet-stream
+     *
+     * @param fileName 文件名
+     * @return 内容类型
+     */
+    public static MediaType contentType(String fileName) {
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    /**
+     * 解析Range请求头，只支持单个范围；多个范围或格式不合法时忽略（返回完整内容）
+     *
+     * @param rangeHeader Range请求头
+     * @param length      文件长度
+     * @return 请求的字节范围，忽略Range时返回null
+     * @throws IllegalArgumentException 范围不可满足（起始位置超出文件长度）时抛出，应返回416
+     */
+    public static ByteRange parseRange(String rangeHeader, long length) {
+        if (rangeHeader == null || !rangeHeader.startsWith("bytes=") || rangeHeader.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = rangeHeader.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        long start;
+        long end;
+        try {
+            if (dash == 0) {
+                // bytes=-N：最后N个字节
+                long suffixLength = Long.parseLong(spec.substring(1));
+                if (suffixLength <= 0) {
+                    throw new IllegalArgumentException("不可满足的范围: " + rangeHeader);
+                }
+                start = Math.max(length - suffixLength, 0);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? length - 1
+                        : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+                if (end < start && start < length) {
+                    return null;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        if (start >= length || length == 0) {
+            throw new IllegalArgumentException("不可满足的范围: " + rangeHeader);
+        }
+        return new ByteRange(start, end);
+    }
+
+    /**
+     * 发送文件的一段内容，调用前需已设置状态码和响应头（包括Content-Length）
+     *
+     * @param file     文件路径
+     * @param start    起始位置
+     * @param length   发送的字节数
+     * @param request  请求
+     * @param response 响应
+     * @throws IOException 读取文件或写出响应失败时抛出
+     */
+    public static void transfer(Path file, long start, long length, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if (length >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            // 由容器在请求处理结束后用sendfile发送，不经过用户态缓冲
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, start + length);
+            return;
+        }
+
+        OutputStream outputStream = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    // 文件在发送过程中被截断
+                    throw new IOException("文件长度小于预期: " + file);
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+        outputStream.flush();
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.filing.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * JSON补丁工具类
+ * 支持RFC 6902 JSON Patch（add、remove、replace、move、copy、test）和RFC 7386 JSON Merge Patch。
+ * 补丁不合法或无法应用时抛出IllegalArgumentException，原文档不会被修改。
+ */
+public final class JsonPatchUtil {
+
+    private JsonPatchUtil() {
+    }
+
+    /**
+     * 应用JSON Patch
+     *
+     * @param target 原文档
+     * @param patch  补丁（操作数组）
+     * @return 应用补丁后的新文档
+     */
+    public static JsonNode applyJsonPatch(JsonNode target, JsonNode patch) {
+        if (patch == null || !patch.isArray()) {
+            throw new IllegalArgumentException("JSON Patch必须是操作数组");
+        }
+
+        JsonNode result = target.deepCopy();
+        for (JsonNode operation : patch) {
+            String op = requiredText(operation, "op");
+            String path = requiredText(operation, "path");
+            switch (op) {
+                case "add" -> result = add(result, path, requiredValue(operation));
+                case "remove" -> result = remove(result, path);
+                case "replace" -> result = replace(result, path, requiredValue(operation));
+                case "move" -> {
+                    String from = requiredText(operation, "from");
+                    if (path.startsWith(from + "/")) {
+                        throw new IllegalArgumentException("不能将节点移动到其子节点: " + from + " -> " + path);
+                    }
+                    JsonNode value = get(result, from);
+                    result = add(remove(result, from), path, value);
+                }
+                case "copy" -> result = add(result, path, get(result, requiredText(operation, "from")).deepCopy());
+                case "test" -> {
+                    if (!get(result, path).equals(requiredValue(operation))) {
+                        throw new IllegalArgumentException("test操作失败: " + path);
+                    }
+                }
+                default -> throw new IllegalArgumentException("不支持的JSON Patch操作: " + op);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 应用JSON Merge Patch
+     *
+     * @param target 原文档
+     * @param patch  合并补丁，值为null的字段表示删除
+     * @return 应用补丁后的新文档
+     */
+    public static JsonNode applyMergePatch(JsonNode target, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            return patch == null ? JsonNodeFactory.instance.nullNode() : patch.deepCopy();
+        }
+
+        ObjectNode result = target != null && target.isObject()
+                ? ((ObjectNode) target).deepCopy()
+                : JsonNodeFactory.instance.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), applyMergePatch(result.get(field.getKey()), field.getValue()));
+            }
+        }
+        return result;
+    }
+
+    private static JsonNode add(JsonNode root, String path, JsonNode value) {
+        List<String> tokens = parsePointer(path);
+        if (tokens.isEmpty()) {
+            return value.deepCopy();
+        }
+
+        JsonNode parent = resolve(root, tokens.subList(0, tokens.size() - 1), path);
+        String key = tokens.get(tokens.size() - 1);
+        if (parent.isObject()) {
+            ((ObjectNode) parent).set(key, value.deepCopy());
+        } else if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            if ("-".equals(key)) {
+                array.add(value.deepCopy());
+            } else {
+                array.insert(arrayIndex(key, array.size() + 1, path), value.deepCopy());
+            }
+        } else {
+            throw new IllegalArgumentException("路径不存在: " + path);
+        }
+        return root;
+    }
+
+    private static JsonNode remove(JsonNode root, String path) {
+        List<String> tokens = parsePointer(path);
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("不能删除根节点");
+        }
+
+        JsonNode parent = resolve(root, tokens.subList(0, tokens.size() - 1), path);
+        String key = tokens.get(tokens.size() - 1);
+        if (parent.isObject() && parent.has(key)) {
+            ((ObjectNode) parent).remove(key);
+        } else if (parent.isArray()) {
+            ((ArrayNode) parent).remove(arrayIndex(key, parent.size(), path));
+        } else {
+            throw new IllegalArgumentException("路径不存在: " + path);
+        }
+        return root;
+    }
+
+    private static JsonNode replace(JsonNode root, String path, JsonNode value) {
+        List<String> tokens = parsePointer(path);
+        if (tokens.isEmpty()) {
+            return value.deepCopy();
+        }
+
+        JsonNode parent = resolve(root, tokens.subList(0, tokens.size() - 1), path);
+        String key = tokens.get(tokens.size() - 1);
+        if (parent.isObject() && parent.has(key)) {
+            ((ObjectNode) parent).set(key, value.deepCopy());
+        } else if (parent.isArray()) {
+            ((ArrayNode) parent).set(arrayIndex(key, parent.size(), path), value.deepCopy());
+        } else {
+            throw new IllegalArgumentException("路径不存在: " + path);
+        }
+        return root;
+    }
+
+    private static JsonNode get(JsonNode root, String path) {
+        return resolve(root, parsePointer(path), path);
+    }
+
+    private static JsonNode resolve(JsonNode root, List<String> tokens, String path) {
+        JsonNode current = root;
+        for (String token : tokens) {
+            if (current.isObject() && current.has(token)) {
+                current = current.get(token);
+            } else if (current.isArray()) {
+                current = current.get(arrayIndex(token, current.size(), path));
+            } else {
+                throw new IllegalArgumentException("路径不存在: " + path);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 解析JSON Pointer（RFC 6901），空字符串表示根节点
+     */
+    private static List<String> parsePointer(String path) {
+        List<String> tokens = new ArrayList<>();
+        if (path.isEmpty()) {
+            return tokens;
+        }
+        if (!path.startsWith("/")) {
+            throw new IllegalArgumentException("路径必须以/开头: " + path);
+        }
+        for (String token : path.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static int arrayIndex(String token, int upperBound, String path) {
+        if (!token.matches("0|[1-9][0-9]*")) {
+            throw new IllegalArgumentException("数组下标不合法: " + path);
+        }
+        int index;
+        try {
+            index = Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("数组下标不合法: " + path);
+        }
+        if (index >= upperBound) {
+            throw new IllegalArgumentException("数组下标越界: " + path);
+        }
+        return index;
+    }
+
+    private static String requiredText(JsonNode operation, String field) {
+        JsonNode value = operation.get(field);
+        if (value == null || !value.isTextual()) {
+            throw new IllegalArgumentException("JSON Patch操作缺少" + field + "字段");
+        }
+        return value.asText();
+    }
+
+    private static JsonNode requiredValue(JsonNode operation) {
+        if (!operation.has("value")) {
+            throw new IllegalArgumentException("JSON Patch操作缺少value字段");
+        }
+        return operation.get("value");
+    }
+}
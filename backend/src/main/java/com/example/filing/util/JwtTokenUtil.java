@@ -2,8 +2,14 @@ package com.example.filing.util;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -13,6 +19,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -29,6 +36,29 @@ public class JwtTokenUtil {
     @Autowired(required = false)
     private Key injectedSecretKey;
 
+    /**
+     * 已验证令牌缓存的最大条目数，为0时不缓存
+     */
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private int claimsCacheMaxEntries = 10000;
+
+    /**
+     * 已验证令牌的声明，以令牌的SHA-256作为键，按访问顺序LRU淘汰
+     */
+    private final LinkedHashMap<String, TokenClaims> verifiedTokens = new LinkedHashMap<>(16, 0.75f, true);
+
+    private volatile JwtParser parser;
+
+    /**
+     * 令牌中的声明
+     *
+     * @param username  用户名（subject）
+     * @param role      角色
+     * @param expiresAt 过期时间
+     */
+    public record TokenClaims(String username, Integer role, Instant expiresAt) {
+    }
+
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         return createToken(claims, userDetails.getUsername());
@@ -69,17 +99,57 @@ public class JwtTokenUtil {
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
 
+    /**
+     * 验证令牌并一次性返回用户名、角色和过期时间
+     * 同一令牌验证通过后在过期前直接返回缓存结果，不再重复验证签名和解析
+     *
+     * @param token JWT令牌
+     * @return 令牌声明
+     * @throws io.jsonwebtoken.JwtException 令牌无效或已过期
+     */
+    public TokenClaims parseToken(String token) {
+        String key = claimsCacheMaxEntries > 0 ? sha256Hex(token) : null;
+        if (key != null) {
+            TokenClaims cached;
+            synchronized (verifiedTokens) {
+                cached = verifiedTokens.get(key);
+                if (cached != null && !cached.expiresAt().isAfter(Instant.now())) {
+                    verifiedTokens.remove(key);
+                    cached = null;
+                }
+            }
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // 过期令牌在此处抛出ExpiredJwtException
+        Claims claims = extractAllClaims(token);
+        TokenClaims tokenClaims = new TokenClaims(claims.getSubject(), claims.get("role", Integer.class),
+                claims.getExpiration().toInstant());
+        if (key != null) {
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(key, tokenClaims);
+                Iterator<String> iterator = verifiedTokens.keySet().iterator();
+                while (verifiedTokens.size() > claimsCacheMaxEntries && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+        return tokenClaims;
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).username();
     }
 
     public Integer extractRole(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("role", Integer.class);
+        return parseToken(token).role();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return Date.from(parseToken(token).expiresAt());
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -88,12 +158,29 @@ public class JwtTokenUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        Key key = getSecretKey();
-        return Jwts.parser()
-                .verifyWith((javax.crypto.SecretKey) key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return getParser().parseSignedClaims(token).getPayload();
+    }
+
+    private JwtParser getParser() {
+        // 密钥在启动后不变，解析器只创建一次
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parser()
+                    .verifyWith((javax.crypto.SecretKey) getSecretKey())
+                    .build();
+            parser = current;
+        }
+        return current;
+    }
+
+    private static String sha256Hex(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // 所有JRE都必须支持SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     private Boolean isTokenExpired(String token) {
@@ -0,0 +1,56 @@
+package com.example.filing.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.input.ProxyInputStream;
+
+/**
+ * 限制读取字节数的输入流，超过上限时抛出{@link LimitExceededException}
+ * 用于没有Content-Length（分块传输）的请求体
+ */
+public class LimitedInputStream extends ProxyInputStream {
+
+    private final long maxBytes;
+    private long count;
+
+    /**
+     * 读取的字节数超过上限
+     */
+    public static class LimitExceededException extends IOException {
+
+        public LimitExceededException(long maxBytes) {
+            super("Input exceeds the maximum size of " + maxBytes + " bytes");
+        }
+    }
+
+    public LimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    protected void afterRead(int n) throws IOException {
+        if (n > 0) {
+            count += n;
+            if (count > maxBytes) {
+                throw new LimitExceededException(maxBytes);
+            }
+        }
+    }
+
+    /**
+     * 判断异常（或其原因）是否由超过上限引起
+     *
+     * @param e 异常
+     * @return 是否超过上限
+     */
+    public static boolean isLimitExceeded(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof LimitExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
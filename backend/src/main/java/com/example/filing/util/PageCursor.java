@@ -0,0 +1,56 @@
+package com.example.filing.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 游标分页的游标，由最后一条记录的创建时间和ID组成
+ * 对外以不透明的Base64URL字符串传递，客户端只需原样回传
+ *
+ * @param createTime 创建时间
+ * @param id         记录ID，创建时间相同时用于确定次序
+ */
+public record PageCursor(LocalDateTime createTime, String id) {
+
+    /**
+     * 第一页使用的游标，位于所有记录之前
+     */
+    public static final PageCursor FIRST = new PageCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), "");
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 编码为不透明字符串
+     *
+     * @return 游标字符串
+     */
+    public String encode() {
+        String raw = createTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串，为空时返回第一页游标
+     *
+     * @param cursor 游标字符串
+     * @return 游标
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+}
@@ -57,6 +57,19 @@ public class Result<T> {
         return new Result<>(code, message, null);
     }
 
+    /**
+     * 失败返回结果
+     *
+     * @param code    错误码
+     * @param message 错误信息
+     * @param data    返回数据
+     * @param <T>     数据类型
+     * @return 失败结果
+     */
+    public static <T> Result<T> failed(Integer code, String message, T data) {
+        return new Result<>(code, message, data);
+    }
+
     /**
      * 失败返回结果
      *
@@ -0,0 +1,57 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * 为用户模板关系添加(user_id, template_id)唯一索引，同一用户同一模板只能有一条关系。
+ * 已存在重复分配时不自动清理（重复记录可能已提交、已审核或已填写内容，且被审核日志引用），
+ * 迁移失败并列出全部重复记录，由管理员手工合并或删除后重新执行迁移。
+ */
+public class V11__Add_User_Template_Unique_Assignment extends BaseJavaMigration {
+
+    private static final String DUPLICATE_QUERY = "SELECT user_id, template_id, "
+            + "GROUP_CONCAT(CONCAT(id, '(status=', status, ', version=', version, ', update_time=', "
+            + "COALESCE(update_time, create_time), ')') ORDER BY id SEPARATOR ', ') AS relations "
+            + "FROM user_template GROUP BY user_id, template_id HAVING COUNT(*) > 1 ORDER BY user_id, template_id";
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        List<String> duplicates = findDuplicates(connection);
+        if (!duplicates.isEmpty()) {
+            throw new FlywayException("user_template存在" + duplicates.size()
+                    + "组重复分配（同一用户同一模板多条关系），请手工合并或删除多余记录"
+                    + "（注意audit_log.entity_id对这些记录的引用）后重新执行迁移：\n" + String.join("\n", duplicates));
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            // 唯一索引以user_id开头，可替代原user_id单列索引
+            statement.execute("ALTER TABLE user_template ADD UNIQUE KEY uk_user_template (user_id, template_id)");
+            statement.execute("ALTER TABLE user_template DROP INDEX idx_user_id");
+        }
+    }
+
+    private List<String> findDuplicates(Connection connection) throws SQLException {
+        List<String> duplicates = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            // 默认group_concat_max_len只有1024，避免关系列表被截断
+            statement.execute("SET SESSION group_concat_max_len = 1048576");
+            try (ResultSet resultSet = statement.executeQuery(DUPLICATE_QUERY)) {
+                while (resultSet.next()) {
+                    duplicates.add("user_id=" + resultSet.getString("user_id") + ", template_id="
+                            + resultSet.getString("template_id") + ": " + resultSet.getString("relations"));
+                }
+            }
+        }
+        return duplicates;
+    }
+}
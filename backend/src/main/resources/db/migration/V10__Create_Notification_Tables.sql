@@ -0,0 +1,32 @@
+-- 通知发件箱：与状态变更在同一事务中写入，由后台线程按渠道投递
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id VARCHAR(36) PRIMARY KEY,
+    channel VARCHAR(20) NOT NULL COMMENT '投递渠道（in-app、email）',
+    user_id VARCHAR(36) NOT NULL COMMENT '接收用户ID',
+    user_template_id VARCHAR(36) NOT NULL COMMENT '用户模板关系ID',
+    template_id VARCHAR(36) NOT NULL COMMENT '模板ID',
+    old_status INT COMMENT '旧状态',
+    new_status INT NOT NULL COMMENT '新状态',
+    status VARCHAR(20) NOT NULL COMMENT '投递状态（PENDING、SENT、FAILED）',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '已投递次数',
+    next_attempt_time DATETIME NOT NULL COMMENT '下次投递时间',
+    claim_token VARCHAR(36) COMMENT '领取批次标识',
+    last_error VARCHAR(500) COMMENT '最近一次投递失败原因',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    sent_time DATETIME COMMENT '投递成功时间',
+    KEY idx_status_next_attempt (status, next_attempt_time),
+    KEY idx_claim_token (claim_token)
+);
+
+-- 站内消息
+CREATE TABLE IF NOT EXISTS user_message (
+    id VARCHAR(36) PRIMARY KEY,
+    user_id VARCHAR(36) NOT NULL COMMENT '接收用户ID',
+    title VARCHAR(200) NOT NULL COMMENT '标题',
+    content TEXT COMMENT '内容',
+    related_id VARCHAR(36) COMMENT '关联的用户模板关系ID',
+    is_read BOOLEAN NOT NULL DEFAULT FALSE COMMENT '是否已读',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    read_time DATETIME COMMENT '阅读时间',
+    KEY idx_user_create_time (user_id, create_time)
+);
@@ -0,0 +1,9 @@
+-- 创建模板备案编号序列表（每天一行，行锁保证多节点下编号唯一）
+CREATE TABLE IF NOT EXISTS template_code_sequence (
+    seq_date VARCHAR(8) PRIMARY KEY COMMENT '日期（yyyyMMdd）',
+    next_value INT NOT NULL COMMENT '下一个可分配的序号',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+);
+
+-- 备案编号前缀查询（初始化当天序号时使用）
+CREATE INDEX idx_template_code ON template_registry(template_code);
@@ -0,0 +1,2 @@
+-- 用户模板内容版本号（内容增量保存时校验，拒绝基于旧版本的修改）
+ALTER TABLE user_template ADD COLUMN version BIGINT NOT NULL DEFAULT 0 COMMENT '内容版本号';
@@ -0,0 +1,3 @@
+-- 用户模板列表游标分页索引（按创建时间倒序，ID作为同一时间内的次序）
+CREATE INDEX idx_create_time_id ON user_template(create_time, id);
+CREATE INDEX idx_user_create_time_id ON user_template(user_id, create_time, id);
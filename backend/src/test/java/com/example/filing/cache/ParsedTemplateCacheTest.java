@@ -0,0 +1,127 @@
+package com.example.filing.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.input.CountingInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.example.filing.service.impl.WordDocumentServiceImpl;
+import com.example.filing.util.TestDocumentGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ParsedTemplateCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testHitMissAndMetrics() {
+        ParsedTemplateCache cache = new ParsedTemplateCache(meterRegistry, 10, 1024 * 1024);
+
+        assertNull(cache.get("a"));
+        cache.put("a", "{\"sections\":{}}");
+        assertEquals("{\"sections\":{}}", cache.get("a"));
+
+        assertEquals(1.0, meterRegistry.get("word.template.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("word.template.cache.requests").tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("word.template.cache.size").gauge().value());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedByEntries() {
+        ParsedTemplateCache cache = new ParsedTemplateCache(meterRegistry, 2, 1024 * 1024);
+        cache.put("a", "A");
+        cache.put("b", "B");
+
+        // 访问a后，b成为最久未访问的条目
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1.0, meterRegistry.get("word.template.cache.evictions").counter().count());
+    }
+
+    @Test
+    public void testEvictsByBytesAndSkipsOversizedEntries() {
+        String content = "x".repeat(1000);
+        // 每个条目约 256 + 2 * 1001 字节，容量只够两个
+        ParsedTemplateCache cache = new ParsedTemplateCache(meterRegistry, 100, 5000);
+        cache.put("a", content);
+        cache.put("b", content);
+        cache.put("c", content);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("a"));
+
+        cache.put("big", "y".repeat(10_000));
+        assertNull(cache.get("big"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testSha256Hex() throws IOException {
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824",
+                ParsedTemplateCache.sha256Hex(new ByteArrayInputStream("hello".getBytes())));
+    }
+
+    @Test
+    public void testWordDocumentServiceUsesCache() throws IOException {
+        ParsedTemplateCache cache = new ParsedTemplateCache(meterRegistry, 10, 1024 * 1024);
+        WordDocumentServiceImpl service = new WordDocumentServiceImpl(new ObjectMapper(),
+                WordDocumentServiceImpl.ENGINE_DOM, cache);
+        MockMultipartFile file = new MockMultipartFile("file", "template.docx", null,
+                TestDocumentGenerator.createBasicFormDocument());
+
+        // 解析时同时计算哈希并写入缓存，文件只读取一次
+        CountingInputStream inputStream = new CountingInputStream(file.getInputStream());
+        String first = service.parseAndCacheWordDocument(inputStream);
+        assertEquals(file.getSize(), inputStream.getByteCount());
+        assertEquals(1, cache.size());
+
+        // 已知哈希时命中缓存，不读取输入流
+        String hash;
+        try (InputStream in = file.getInputStream()) {
+            hash = ParsedTemplateCache.sha256Hex(in);
+        }
+        assertEquals(first, service.parseWordDocument(InputStream.nullInputStream(), hash));
+        assertEquals(1.0, meterRegistry.get("word.template.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    public void testRepeatedMultipartParseHitsCache() throws IOException {
+        ParsedTemplateCache cache = new ParsedTemplateCache(meterRegistry, 10, 1024 * 1024);
+        WordDocumentServiceImpl service = spy(new WordDocumentServiceImpl(new ObjectMapper(),
+                WordDocumentServiceImpl.ENGINE_DOM, cache));
+        MockMultipartFile file = new MockMultipartFile("file", "template.docx", null,
+                TestDocumentGenerator.createBasicFormDocument());
+
+        String first = service.parseWordDocument(file);
+        String second = service.parseWordDocument(file);
+
+        // 第二次预览命中缓存，只解析一次
+        assertEquals(first, second);
+        assertEquals(1.0, meterRegistry.get("word.template.cache.requests").tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("word.template.cache.requests").tag("result", "hit").counter().count());
+        verify(service, times(1)).parseWordDocument(any(InputStream.class));
+    }
+}
@@ -5,6 +5,8 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.time.Instant;
+
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
@@ -57,6 +59,17 @@ public class TestMockJwtUtil {
             return null;
         });
 
+        // 模拟一次性解析令牌
+        when(mockUtil.parseToken(anyString())).thenAnswer(invocation -> {
+            String token = invocation.getArgument(0);
+            if ("mock-admin-jwt-token".equals(token)) {
+                return new JwtTokenUtil.TokenClaims("admin", 1, Instant.now().plusSeconds(3600));
+            } else if ("mock-user-jwt-token".equals(token)) {
+                return new JwtTokenUtil.TokenClaims("user", 2, Instant.now().plusSeconds(3600));
+            }
+            return null;
+        });
+
         System.out.println("已创建模拟JWT工具类，用于测试环境");
         return mockUtil;
     }
@@ -1,20 +1,26 @@
 package com.example.filing.controller;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
 import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,8 +46,10 @@ import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.filing.config.TestSecurityConfig;
+import com.example.filing.dto.response.TemplateUploadResult;
 import com.example.filing.security.JwtAuthenticationFilter;
 import com.example.filing.service.FileStorageService;
+import com.example.filing.service.TemplateUploadService;
 import com.example.filing.service.WordDocumentService;
 import com.example.filing.util.JwtTokenUtil;
 import com.example.filing.util.Result;
@@ -53,7 +61,8 @@ import jakarta.annotation.PostConstruct;
 @Import(TestSecurityConfig.class)
 @TestPropertySource(properties = {
                 "spring.flyway.enabled=false",
-                "spring.jpa.hibernate.ddl-auto=create-drop"
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "file.upload.stream-max-bytes=64"
 })
 @SuppressWarnings({ "unchecked", "rawtypes" })
 public class FileControllerTest {
@@ -63,8 +72,9 @@ public class FileControllerTest {
                 @Bean
                 public FileController fileController(
                                 FileStorageService fileStorageService,
-                                WordDocumentService wordDocumentService) {
-                        return new FileController(fileStorageService, wordDocumentService) {
+                                WordDocumentService wordDocumentService,
+                                TemplateUploadService templateUploadService) {
+                        return new FileController(fileStorageService, templateUploadService) {
                                 // Override methods to ensure proper content type and fix return types
                                 @Override
                                 public ResponseEntity<Result<Map<String, String>>> uploadTemplate(MultipartFile file) {
@@ -134,6 +144,9 @@ public class FileControllerTest {
         @MockBean
         private WordDocumentService wordDocumentService;
 
+        @MockBean
+        private TemplateUploadService templateUploadService;
+
         @MockBean
         private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -228,6 +241,76 @@ public class FileControllerTest {
                                                                 .containsString("attachment; filename=\"test.docx\"")));
         }
 
+        @Test
+        public void testDownloadFile_ConditionalAndRangeRequests() throws Exception {
+                String etag = mockMvc.perform(get("/api/file/download/templates/test.docx"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Content-Type",
+                                                "application/vnd.openxmlformats-officedocument.wordprocessingml.document"))
+                                .andExpect(header().string("Accept-Ranges", "bytes"))
+                                .andExpect(header().exists("Last-Modified"))
+                                .andExpect(content().string("Test document content"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                // 强ETag，内容未变化时返回304
+                assertTrue(etag.matches("\"[0-9a-f]{64}\""));
+                mockMvc.perform(get("/api/file/download/templates/test.docx").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                mockMvc.perform(get("/api/file/download/templates/test.docx").header("Range", "bytes=5-12"))
+                                .andExpect(status().isPartialContent())
+                                .andExpect(header().string("Content-Range", "bytes 5-12/21"))
+                                .andExpect(content().string("document"));
+                mockMvc.perform(get("/api/file/download/templates/test.docx").header("Range", "bytes=-7"))
+                                .andExpect(status().isPartialContent())
+                                .andExpect(content().string("content"));
+
+                // If-Range与当前ETag不一致时返回完整内容
+                mockMvc.perform(get("/api/file/download/templates/test.docx").header("Range", "bytes=5-12")
+                                .header("If-Range", "\"stale\""))
+                                .andExpect(status().isOk())
+                                .andExpect(content().string("Test document content"));
+
+                mockMvc.perform(get("/api/file/download/templates/test.docx").header("Range", "bytes=100-"))
+                                .andExpect(status().isRequestedRangeNotSatisfiable())
+                                .andExpect(header().string("Content-Range", "bytes */21"));
+        }
+
+        @Test
+        @WithMockUser(username = "admin", authorities = { "ROLE_ADMIN" })
+        public void testUploadTemplateStream() throws Exception {
+                TemplateUploadResult uploadResult = new TemplateUploadResult();
+                uploadResult.setValid(true);
+                uploadResult.setFileName("uuid-test.docx");
+                uploadResult.setTemplateContent("{}");
+                when(templateUploadService.uploadWordTemplate(any(InputStream.class), eq("test.docx"),
+                                eq("templates"))).thenReturn(uploadResult);
+
+                mockMvc.perform(post("/api/file/uploadTemplate/stream").param("fileName", "test.docx")
+                                .contentType(MediaType.APPLICATION_OCTET_STREAM).content("docx content")
+                                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.data.fileName").value("uuid-test.docx"));
+
+                // 超过大小上限
+                mockMvc.perform(post("/api/file/uploadTemplate/stream").param("fileName", "test.docx")
+                                .contentType(MediaType.APPLICATION_OCTET_STREAM).content(new byte[65])
+                                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+                                .andExpect(status().isPayloadTooLarge());
+        }
+
+        @Test
+        public void testDownloadFile_RedirectsToPresignedUrl() throws Exception {
+                when(fileStorageService.getDownloadUrl(eq("test.docx"), eq("templates")))
+                                .thenReturn(Optional.of(URI.create("http://storage.test/templates/test.docx?sig=1")));
+
+                mockMvc.perform(get("/api/file/download/templates/test.docx"))
+                                .andExpect(status().isFound())
+                                .andExpect(header().string("Location",
+                                                "http://storage.test/templates/test.docx?sig=1"));
+        }
+
         @Test
         @WithMockUser(username = "admin", authorities = { "ROLE_ADMIN" })
         public void testDeleteFile_Success() throws Exception {
@@ -51,7 +51,9 @@ import com.example.filing.entity.TemplateRegistry;
 import com.example.filing.security.JwtAuthenticationFilter;
 import com.example.filing.security.UserDetailsImpl;
 import com.example.filing.service.FileStorageService;
+import com.example.filing.service.TemplateIngestionService;
 import com.example.filing.service.TemplateRegistryService;
+import com.example.filing.service.TemplateUploadService;
 import com.example.filing.service.WordDocumentService;
 import com.example.filing.util.JwtTokenUtil;
 import com.example.filing.util.Result;
@@ -78,10 +80,13 @@ public class TemplateRegistryControllerTest {
                                 TemplateRegistryService templateRegistryService,
                                 FileStorageService fileStorageService,
                                 WordDocumentService wordDocumentService,
+                                TemplateUploadService templateUploadService,
+                                TemplateIngestionService templateIngestionService,
                                 ObjectMapper objectMapper) {
 
                         return new TemplateRegistryController(templateRegistryService,
-                                        fileStorageService, wordDocumentService, objectMapper) {
+                                        fileStorageService, wordDocumentService, templateUploadService, templateIngestionService,
+                                        objectMapper) {
 
                                 @Override
                                 public ResponseEntity<Result<?>> saveTemplateRegistry(
@@ -231,6 +236,12 @@ public class TemplateRegistryControllerTest {
         @MockBean
         private WordDocumentService wordDocumentService;
 
+        @MockBean
+        private TemplateUploadService templateUploadService;
+
+        @MockBean
+        private TemplateIngestionService templateIngestionService;
+
         @MockBean
         private JwtAuthenticationFilter jwtAuthenticationFilter;
 
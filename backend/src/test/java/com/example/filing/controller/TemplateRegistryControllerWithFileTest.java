@@ -37,7 +37,9 @@ import com.example.filing.config.TestSecurityConfig;
 import com.example.filing.dto.request.TemplateRegistryRequest;
 import com.example.filing.security.JwtAuthenticationFilter;
 import com.example.filing.service.FileStorageService;
+import com.example.filing.service.TemplateIngestionService;
 import com.example.filing.service.TemplateRegistryService;
+import com.example.filing.service.TemplateUploadService;
 import com.example.filing.service.WordDocumentService;
 import com.example.filing.util.JwtTokenUtil;
 import com.example.filing.util.Result;
@@ -61,10 +63,13 @@ public class TemplateRegistryControllerWithFileTest {
                                 TemplateRegistryService templateRegistryService,
                                 FileStorageService fileStorageService,
                                 WordDocumentService wordDocumentService,
+                                TemplateUploadService templateUploadService,
+                                TemplateIngestionService templateIngestionService,
                                 ObjectMapper objectMapper) {
 
                         return new TemplateRegistryController(templateRegistryService,
-                                        fileStorageService, wordDocumentService, objectMapper) {
+                                        fileStorageService, wordDocumentService, templateUploadService, templateIngestionService,
+                                        objectMapper) {
 
                                 @Override
                                 public ResponseEntity<Result<?>> saveTemplateRegistry(
@@ -177,6 +182,12 @@ public class TemplateRegistryControllerWithFileTest {
         @MockBean
         private WordDocumentService wordDocumentService;
 
+        @MockBean
+        private TemplateUploadService templateUploadService;
+
+        @MockBean
+        private TemplateIngestionService templateIngestionService;
+
         @MockBean
         private JwtAuthenticationFilter jwtAuthenticationFilter;
 
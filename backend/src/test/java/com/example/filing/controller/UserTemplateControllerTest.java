@@ -40,7 +40,10 @@ import com.example.filing.constants.UserTemplateStatus;
 import com.example.filing.dto.request.ApplyTemplateRequest;
 import com.example.filing.entity.AuditLog;
 import com.example.filing.entity.UserTemplate;
+import com.example.filing.event.TemplateEventBus;
 import com.example.filing.repository.UserTemplateRepository;
+import com.example.filing.service.TemplateAssignmentService;
+import com.example.filing.service.TemplateStatisticsService;
 import com.example.filing.service.UserTemplateService;
 import com.example.filing.util.Result;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -72,6 +75,15 @@ class UserTemplateControllerTest {
         @MockBean
         private UserTemplateService userTemplateService;
 
+        @MockBean
+        private TemplateStatisticsService templateStatisticsService;
+
+        @MockBean
+        private TemplateEventBus templateEventBus;
+
+        @MockBean
+        private TemplateAssignmentService templateAssignmentService;
+
         /**
          * 测试前的准备工作
          */
@@ -0,0 +1,211 @@
+package com.example.filing.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.filing.constants.UserTemplateStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TemplateEventBusTest {
+
+    private TemplateEventBus eventBus;
+
+    @BeforeEach
+    public void setup() {
+        // 心跳间隔足够长，测试中只有连接建立时的一次心跳
+        eventBus = new TemplateEventBus(new SimpleMeterRegistry(), 4, 2, 3_600_000, 10_000);
+        eventBus.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        eventBus.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testUsersReceiveOwnEventsAndAdminsReceiveAll() throws Exception {
+        RecordingSink owner = new RecordingSink();
+        RecordingSink other = new RecordingSink();
+        RecordingSink admin = new RecordingSink();
+        eventBus.subscribe("user-1", false, owner);
+        eventBus.subscribe("user-2", false, other);
+        eventBus.subscribe("admin-1", true, admin);
+
+        eventBus.publish(event("relation-1", "user-1"));
+        eventBus.publish(event("relation-2", "user-2"));
+
+        owner.awaitEvents(1);
+        other.awaitEvents(1);
+        admin.awaitEvents(2);
+        assertEquals(List.of("relation-1"), owner.relationIds());
+        assertEquals(List.of("relation-2"), other.relationIds());
+        assertEquals(List.of("relation-1", "relation-2"), admin.relationIds());
+    }
+
+    @Test
+    public void testSlowSubscriberDropsOldestEventsAndIsToldToResync() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void send(String name, String id, Object data) throws IOException {
+                if (TemplateEventBus.HEARTBEAT_EVENT.equals(name)) {
+                    // 阻塞在第一次心跳上，模拟网络缓慢的客户端
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.send(name, id, data);
+            }
+        };
+        RecordingSink fast = new RecordingSink();
+        eventBus.subscribe("admin-1", true, slow);
+        eventBus.subscribe("user-1", false, fast);
+        Thread.sleep(100);
+
+        for (int i = 1; i <= 10; i++) {
+            eventBus.publish(event("relation-" + i, "user-1"));
+            // 慢速客户端不影响其他订阅者
+            fast.awaitEvents(i);
+        }
+        release.countDown();
+
+        slow.awaitEvents(4);
+        assertEquals(List.of(TemplateEventBus.HEARTBEAT_EVENT, TemplateEventBus.RESYNC_EVENT),
+                slow.names.subList(0, 2));
+        assertEquals(6L, slow.data.get(1));
+        assertEquals(List.of("relation-7", "relation-8", "relation-9", "relation-10"), slow.relationIds());
+    }
+
+    @Test
+    public void testStalledSubscribersAreCancelledWithoutBlockingOthers() throws Exception {
+        eventBus.shutdown();
+        eventBus = new TemplateEventBus(new SimpleMeterRegistry(), 16, 2, 3_600_000, 200);
+        eventBus.start();
+
+        // 卡住的客户端多于发送线程数
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(4);
+        for (int i = 1; i <= 4; i++) {
+            eventBus.subscribe("admin-" + i, true, new TemplateEventBus.EventSink() {
+                @Override
+                public void send(String name, String id, Object data) throws IOException {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException("interrupted");
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled.countDown();
+                }
+            });
+        }
+        RecordingSink healthy = new RecordingSink();
+        eventBus.subscribe("user-1", false, healthy);
+
+        try {
+            // 连续发布，不等待每条事件送达
+            for (int i = 1; i <= 5; i++) {
+                eventBus.publish(event("relation-" + i, "user-1"));
+            }
+
+            healthy.awaitEvents(5);
+            assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+            assertEquals(1, eventBus.subscriberCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testPublishesOnlyAfterCommit() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        eventBus.subscribe("user-1", false, sink);
+
+        TransactionSynchronizationManager.initSynchronization();
+        eventBus.publish(event("rolled-back", "user-1"));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        eventBus.publish(event("committed", "user-1"));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        sink.awaitEvents(1);
+        assertEquals(List.of("committed"), sink.relationIds());
+    }
+
+    @Test
+    public void testFailedSendCancelsSubscription() throws Exception {
+        CountDownLatch failed = new CountDownLatch(1);
+        eventBus.subscribe("user-1", false, (name, id, data) -> {
+            failed.countDown();
+            throw new IOException("connection reset");
+        });
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (eventBus.subscriberCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, eventBus.subscriberCount());
+    }
+
+    private TemplateStatusEvent event(String relationId, String userId) {
+        return new TemplateStatusEvent(relationId, userId, "template-1", UserTemplateStatus.FILLING,
+                UserTemplateStatus.UNDER_REVIEW, userId, LocalDateTime.now());
+    }
+
+    /**
+     * 记录收到的事件
+     */
+    private static class RecordingSink implements TemplateEventBus.EventSink {
+
+        final List<String> names = new CopyOnWriteArrayList<>();
+        final List<Object> data = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(String name, String id, Object data) throws IOException {
+            names.add(name);
+            this.data.add(data);
+        }
+
+        List<String> relationIds() {
+            return data.stream()
+                    .filter(TemplateStatusEvent.class::isInstance)
+                    .map(event -> ((TemplateStatusEvent) event).userTemplateId())
+                    .toList();
+        }
+
+        void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (relationIds().size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(count, relationIds().size());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.filing.integration;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -39,6 +40,7 @@ import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilde
 
 import com.example.filing.config.TestConfig;
 import com.example.filing.config.TestSecurityConfig;
+import com.example.filing.constants.TemplateIngestionJobStatus;
 import com.example.filing.dto.request.TemplateRegistryRequest;
 import com.example.filing.security.UserDetailsImpl;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -144,12 +146,28 @@ public class FileTemplateIntegrationTest {
                                 .with(SecurityMockMvcRequestPostProcessors.csrf())
                                 .accept(MediaType.APPLICATION_JSON);
 
-                mockMvc.perform(uploadRequest)
+                MvcResult uploadResult = mockMvc.perform(uploadRequest)
                                 .andDo(print())
-                                .andExpect(status().isOk())
+                                .andExpect(status().isAccepted())
                                 .andExpect(jsonPath("$.code").value(200))
                                 .andExpect(jsonPath("$.data.fileName").exists())
-                                .andExpect(jsonPath("$.data.templateContent").exists());
+                                .andExpect(jsonPath("$.data.jobId").exists())
+                                .andReturn();
+                String jobId = objectMapper.readTree(uploadResult.getResponse().getContentAsString())
+                                .path("data").path("jobId").asText();
+
+                // 等待后台导入任务完成
+                String jobStatus = null;
+                for (int attempt = 0; attempt < 100 && !TemplateIngestionJobStatus.SUCCEEDED.equals(jobStatus); attempt++) {
+                        MvcResult jobResult = mockMvc.perform(get("/api/templateRegistry/ingestion/jobs/" + jobId)
+                                        .accept(MediaType.APPLICATION_JSON))
+                                        .andExpect(status().isOk())
+                                        .andReturn();
+                        jobStatus = objectMapper.readTree(jobResult.getResponse().getContentAsString())
+                                        .path("data").path("status").asText();
+                        Thread.sleep(100);
+                }
+                assertEquals(TemplateIngestionJobStatus.SUCCEEDED, jobStatus, "模板导入任务应执行成功");
 
                 // 步骤3: 获取更新后的模板详情
                 mockMvc.perform(get("/api/templateRegistry/getTemplateRegistryById")
@@ -0,0 +1,63 @@
+package com.example.filing.security;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.filing.util.JwtTokenUtil;
+
+/**
+ * 每个请求的令牌验证开销对比：分别提取用户名和角色（两次验证签名）与一次解析并缓存
+ * 默认不执行，运行方式：mvn test -Dtest=JwtAuthenticationBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class JwtAuthenticationBenchmarkTest {
+
+    private static final String SECRET_KEY = "benchmarksecretkeybenchmarksecretkeybenchmarksecretkey";
+    private static final int ACTIVE_USERS = 500;
+    private static final int WARMUP_REQUESTS = 200_000;
+    private static final int MEASURE_REQUESTS = 1_000_000;
+
+    @Test
+    public void compareUncachedAndCachedVerification() {
+        JwtTokenUtil uncached = createTokenUtil(0);
+        JwtTokenUtil cached = createTokenUtil(10_000);
+
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < ACTIVE_USERS; i++) {
+            tokens.add(cached.generateToken("user" + i, i % 2 + 1));
+        }
+
+        long before = measure(tokens, token -> {
+            uncached.extractUsername(token);
+            uncached.extractRole(token);
+        });
+        long after = measure(tokens, cached::parseToken);
+
+        System.out.printf("活跃令牌数: %d, 请求数: %d%n", ACTIVE_USERS, MEASURE_REQUESTS);
+        System.out.printf("两次验证: 平均 %6d ns/请求%n", before);
+        System.out.printf("缓存验证: 平均 %6d ns/请求%n", after);
+    }
+
+    private long measure(List<String> tokens, java.util.function.Consumer<String> authenticate) {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            authenticate.accept(tokens.get(i % tokens.size()));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_REQUESTS; i++) {
+            authenticate.accept(tokens.get(i % tokens.size()));
+        }
+        return (System.nanoTime() - start) / MEASURE_REQUESTS;
+    }
+
+    private JwtTokenUtil createTokenUtil(int cacheEntries) {
+        JwtTokenUtil jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtTokenUtil, "claimsCacheMaxEntries", cacheEntries);
+        return jwtTokenUtil;
+    }
+}
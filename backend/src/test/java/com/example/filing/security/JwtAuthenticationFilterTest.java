@@ -1,5 +1,7 @@
 package com.example.filing.security;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -7,6 +9,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,15 +17,19 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import com.example.filing.cache.PrincipalCache;
 import com.example.filing.entity.SysUser;
 import com.example.filing.repository.SysUserRepository;
 import com.example.filing.util.JwtTokenUtil;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.ServletException;
 
 public class JwtAuthenticationFilterTest {
@@ -33,6 +40,9 @@ public class JwtAuthenticationFilterTest {
     @Mock
     private SysUserRepository userRepository;
 
+    @Spy
+    private PrincipalCache principalCache = new PrincipalCache(new SimpleMeterRegistry(), 60_000, 100);
+
     @InjectMocks
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -94,7 +104,7 @@ public class JwtAuthenticationFilterTest {
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(jwtTokenUtil, never()).extractUsername(anyString());
+        verify(jwtTokenUtil, never()).parseToken(anyString());
         verify(userRepository, never()).findByLoginName(anyString());
     }
 
@@ -104,16 +114,14 @@ public class JwtAuthenticationFilterTest {
         String token = "valid.jwt.token";
         request.addHeader("Authorization", "Bearer " + token);
 
-        when(jwtTokenUtil.extractUsername(token)).thenReturn("user");
-        when(jwtTokenUtil.extractRole(token)).thenReturn(2);
+        when(jwtTokenUtil.parseToken(token)).thenReturn(claims("user", 2));
         when(userRepository.findByLoginName("user")).thenReturn(regularUser);
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(jwtTokenUtil, times(1)).extractUsername(token);
-        verify(jwtTokenUtil, times(1)).extractRole(token);
+        verify(jwtTokenUtil, times(1)).parseToken(token);
         verify(userRepository, times(1)).findByLoginName("user");
         assert SecurityContextHolder.getContext().getAuthentication() != null;
         assert SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
@@ -126,16 +134,14 @@ public class JwtAuthenticationFilterTest {
         String token = "valid.admin.token";
         request.addHeader("Authorization", "Bearer " + token);
 
-        when(jwtTokenUtil.extractUsername(token)).thenReturn("admin");
-        when(jwtTokenUtil.extractRole(token)).thenReturn(1);
+        when(jwtTokenUtil.parseToken(token)).thenReturn(claims("admin", 1));
         when(userRepository.findByLoginName("admin")).thenReturn(adminUser);
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(jwtTokenUtil, times(1)).extractUsername(token);
-        verify(jwtTokenUtil, times(1)).extractRole(token);
+        verify(jwtTokenUtil, times(1)).parseToken(token);
         verify(userRepository, times(1)).findByLoginName("admin");
         assert SecurityContextHolder.getContext().getAuthentication() != null;
         assert SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
@@ -148,15 +154,14 @@ public class JwtAuthenticationFilterTest {
         String token = "disabled.user.token";
         request.addHeader("Authorization", "Bearer " + token);
 
-        when(jwtTokenUtil.extractUsername(token)).thenReturn("disabled");
-        when(jwtTokenUtil.extractRole(token)).thenReturn(2);
+        when(jwtTokenUtil.parseToken(token)).thenReturn(claims("disabled", 2));
         when(userRepository.findByLoginName("disabled")).thenReturn(disabledUser);
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(jwtTokenUtil, times(1)).extractUsername(token);
+        verify(jwtTokenUtil, times(1)).parseToken(token);
         verify(userRepository, times(1)).findByLoginName("disabled");
         assert SecurityContextHolder.getContext().getAuthentication() == null;
     }
@@ -167,15 +172,14 @@ public class JwtAuthenticationFilterTest {
         String token = "unknown.user.token";
         request.addHeader("Authorization", "Bearer " + token);
 
-        when(jwtTokenUtil.extractUsername(token)).thenReturn("unknown");
-        when(jwtTokenUtil.extractRole(token)).thenReturn(2);
+        when(jwtTokenUtil.parseToken(token)).thenReturn(claims("unknown", 2));
         when(userRepository.findByLoginName("unknown")).thenReturn(null);
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(jwtTokenUtil, times(1)).extractUsername(token);
+        verify(jwtTokenUtil, times(1)).parseToken(token);
         verify(userRepository, times(1)).findByLoginName("unknown");
         assert SecurityContextHolder.getContext().getAuthentication() == null;
     }
@@ -186,14 +190,61 @@ public class JwtAuthenticationFilterTest {
         String token = "invalid.token";
         request.addHeader("Authorization", "Bearer " + token);
 
-        when(jwtTokenUtil.extractUsername(token)).thenThrow(new RuntimeException("Invalid token"));
+        when(jwtTokenUtil.parseToken(token)).thenThrow(new RuntimeException("Invalid token"));
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(jwtTokenUtil, times(1)).extractUsername(token);
+        verify(jwtTokenUtil, times(1)).parseToken(token);
         verify(userRepository, never()).findByLoginName(anyString());
         assert SecurityContextHolder.getContext().getAuthentication() == null;
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDoFilterInternal_CachedPrincipalCarriesUserId() throws ServletException, IOException {
+        // Arrange
+        String token = "valid.jwt.token";
+        when(jwtTokenUtil.parseToken(token)).thenReturn(claims("user", 2));
+        when(userRepository.findByLoginName("user")).thenReturn(regularUser);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            SecurityContextHolder.clearContext();
+            MockHttpServletRequest repeatedRequest = new MockHttpServletRequest();
+            repeatedRequest.addHeader("Authorization", "Bearer " + token);
+            jwtAuthenticationFilter.doFilterInternal(repeatedRequest, response, new MockFilterChain());
+        }
+
+        // Assert
+        verify(userRepository, times(1)).findByLoginName("user");
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl principal = (UserDetailsImpl) authentication.getPrincipal();
+        assertEquals("user-id-1", principal.getId());
+        assertEquals("user", authentication.getName());
+    }
+
+    @Test
+    public void testDoFilterInternal_InvalidatedPrincipalIsReloaded() throws ServletException, IOException {
+        // Arrange
+        String token = "valid.jwt.token";
+        request.addHeader("Authorization", "Bearer " + token);
+        when(jwtTokenUtil.parseToken(token)).thenReturn(claims("user", 2));
+        when(userRepository.findByLoginName("user")).thenReturn(regularUser);
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Act: 用户被禁用后清除缓存
+        regularUser.setStatus(0);
+        principalCache.invalidate("user");
+        SecurityContextHolder.clearContext();
+        jwtAuthenticationFilter.doFilterInternal(request, response, new MockFilterChain());
+
+        // Assert
+        verify(userRepository, times(2)).findByLoginName("user");
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private JwtTokenUtil.TokenClaims claims(String username, int role) {
+        return new JwtTokenUtil.TokenClaims(username, role, Instant.now().plusSeconds(3600));
+    }
+}
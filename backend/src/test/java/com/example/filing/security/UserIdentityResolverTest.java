@@ -0,0 +1,153 @@
+package com.example.filing.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.filing.cache.PrincipalCache;
+import com.example.filing.entity.SysUser;
+import com.example.filing.repository.SysUserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UserIdentityResolverTest {
+
+    private static final String USER_ID = "0a1b2c3d-0000-4000-8000-000000000001";
+
+    private SysUserRepository sysUserRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache principalCache;
+    private UserIdentityResolver resolver;
+    private SysUser user;
+
+    @BeforeEach
+    public void setup() {
+        sysUserRepository = mock(SysUserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(meterRegistry, 60_000, 100);
+        resolver = new UserIdentityResolver(sysUserRepository, principalCache);
+
+        user = new SysUser();
+        user.setId(USER_ID);
+        user.setLoginName("user");
+        user.setUserName("Regular User");
+        user.setPassword("encoded-password");
+        user.setRole(2);
+        user.setStatus(1);
+        when(sysUserRepository.findByLoginName("user")).thenReturn(user);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testUserIdIsReturnedWithoutLookup() {
+        assertTrue(UserIdentityResolver.isUserId(USER_ID));
+        assertFalse(UserIdentityResolver.isUserId("user"));
+
+        assertEquals(USER_ID, resolver.resolveUserId(USER_ID));
+        verify(sysUserRepository, never()).findByLoginName(anyString());
+    }
+
+    @Test
+    public void testCurrentPrincipalIsUsed() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(UserDetailsImpl.build(user), null, List.of()));
+
+        assertEquals(USER_ID, resolver.resolveUserId("user"));
+        verify(sysUserRepository, never()).findByLoginName(anyString());
+    }
+
+    @Test
+    public void testCachedPrincipalIsUsed() {
+        principalCache.get("user", loginName -> UserDetailsImpl.build(user));
+
+        assertEquals(USER_ID, resolver.resolveUserId("user"));
+        verify(sysUserRepository, never()).findByLoginName(anyString());
+    }
+
+    @Test
+    public void testDatabaseLookupWarmsCacheWithoutTouchingMetrics() {
+        assertEquals(USER_ID, resolver.resolveUserId("user"));
+        assertEquals(USER_ID, principalCache.peek("user").getId());
+
+        // 认证时直接命中解析时写入的缓存
+        assertEquals(USER_ID, principalCache.get("user", loginName -> null).getId());
+        assertEquals(1.0, requestCount("hit"));
+        assertEquals(0.0, requestCount("miss"));
+        verify(sysUserRepository, times(1)).findByLoginName("user");
+    }
+
+    @Test
+    public void testDisabledUserIsResolvedButNotCached() {
+        user.setStatus(0);
+
+        assertEquals(USER_ID, resolver.resolveUserId("user"));
+        assertNull(principalCache.peek("user"));
+    }
+
+    @Test
+    public void testInvalidationDuringLookupSkipsCache() {
+        when(sysUserRepository.findByLoginName("user")).thenAnswer(invocation -> {
+            principalCache.invalidate("user");
+            return user;
+        });
+
+        assertEquals(USER_ID, resolver.resolveUserId("user"));
+        assertNull(principalCache.peek("user"));
+    }
+
+    @Test
+    public void testLookupIsMemoizedWithinRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertEquals(USER_ID, resolver.resolveUserId("user"));
+        assertEquals(USER_ID, resolver.resolveUserId("user"));
+        assertNull(resolver.resolveUserId("unknown"));
+
+        verify(sysUserRepository, times(1)).findByLoginName("user");
+    }
+
+    @Test
+    public void testBulkResolutionUsesSingleInQuery() {
+        String otherId = "0a1b2c3d-0000-4000-8000-000000000002";
+        String directId = "0a1b2c3d-0000-4000-8000-000000000003";
+        principalCache.put("user", UserDetailsImpl.build(user), principalCache.generation());
+        when(sysUserRepository.findIdsByLoginNameIn(List.of("other", "unknown")))
+                .thenReturn(List.<Object[]>of(new Object[] { "other", otherId }));
+
+        Map<String, String> resolved = resolver.resolveUserIds(List.of("user", "other", directId, "unknown", "other"));
+
+        assertEquals(Map.of("user", USER_ID, "other", otherId, directId, directId), resolved);
+        verify(sysUserRepository, times(1)).findIdsByLoginNameIn(anyCollection());
+        verify(sysUserRepository, never()).findByLoginName(anyString());
+        assertEquals(0.0, requestCount("hit") + requestCount("miss"));
+    }
+
+    private double requestCount(String result) {
+        return meterRegistry.get("security.principal.cache.requests").tag("result", result).counter().count();
+    }
+}
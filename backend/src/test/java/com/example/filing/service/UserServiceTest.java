@@ -29,6 +29,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import com.example.filing.cache.PrincipalCache;
 import com.example.filing.dto.request.ResetPasswordRequest;
 import com.example.filing.dto.request.UserRegistrationRequest;
 import com.example.filing.dto.request.UserUpdateRequest;
@@ -45,6 +46,9 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalCache principalCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -209,6 +213,7 @@ public class UserServiceTest {
         assertEquals(1, updatedUser.getStatus());
         verify(userRepository, times(1)).findById("user-id-1");
         verify(userRepository, times(1)).save(any(SysUser.class));
+        verify(principalCache, times(1)).invalidate("user");
     }
 
     @Test
@@ -235,6 +240,7 @@ public class UserServiceTest {
         // Assert
         verify(userRepository, times(1)).findById("user-id-1");
         verify(userRepository, times(1)).deleteById("user-id-1");
+        verify(principalCache, times(1)).invalidate("user");
     }
 
     @Test
@@ -265,6 +271,7 @@ public class UserServiceTest {
         verify(userRepository, times(1)).findById("user-id-1");
         verify(passwordEncoder, times(1)).encode("newpassword123");
         verify(userRepository, times(1)).save(eq(regularUser));
+        verify(principalCache, times(1)).invalidate("user");
     }
 
     @Test
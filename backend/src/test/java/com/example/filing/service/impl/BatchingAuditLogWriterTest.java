@@ -0,0 +1,275 @@
+package com.example.filing.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.filing.entity.AuditLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class BatchingAuditLogWriterTest {
+
+    @TempDir
+    Path spoolDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private BatchingAuditLogWriter writer;
+
+    /**
+     * 模拟写入数据库的审核日志
+     */
+    private final List<AuditLog> inserted = new ArrayList<>();
+    private boolean databaseDown;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                    if (databaseDown) {
+                        throw new DataAccessResourceFailureException("database is down");
+                    }
+                    inserted.addAll(invocation.<Collection<AuditLog>>getArgument(1));
+                    return new int[0][];
+                });
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                .thenAnswer(invocation -> inserted.stream().map(AuditLog::getId).toList());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    public void testFlushInsertsBatchAndRemovesSpool() throws Exception {
+        writer = createWriter();
+
+        writer.write(auditLog("template-1"));
+        writer.write(auditLog("template-2"));
+        assertTrue(inserted.isEmpty());
+        assertEquals(1, spoolFiles().size());
+
+        writer.flush();
+
+        assertEquals(List.of("template-1", "template-2"), inserted.stream().map(AuditLog::getEntityId).toList());
+        assertTrue(inserted.stream().allMatch(auditLog -> auditLog.getId() != null));
+        // 已写入数据库的记录不再保留在缓冲文件中
+        for (Path spool : spoolFiles()) {
+            assertEquals(0, Files.size(spool));
+        }
+    }
+
+    @Test
+    public void testFailedBatchIsReplayedAfterRestartWithoutDuplicates() throws Exception {
+        writer = createWriter();
+        databaseDown = true;
+        writer.write(auditLog("template-1"));
+        writer.write(auditLog("template-2"));
+        writer.flush();
+        assertTrue(inserted.isEmpty());
+
+        // 数据库恢复前进程重启：其中一条记录在崩溃前已写入数据库
+        AuditLog alreadyInserted = objectMapper.readValue(
+                Files.readAllLines(pendingSpools().get(0)).get(0), AuditLog.class);
+        inserted.add(alreadyInserted);
+        writer.shutdown();
+        databaseDown = false;
+        writer = createWriter();
+
+        assertEquals(List.of("template-1", "template-2"), inserted.stream().map(AuditLog::getEntityId).toList());
+        assertTrue(pendingSpools().isEmpty());
+    }
+
+    @Test
+    public void testWritesInsideTransaction() throws Exception {
+        writer = createWriter();
+        beginTransaction();
+
+        writer.write(auditLog("committed-1"));
+        writer.write(auditLog("committed-2"));
+        assertTrue(inserted.isEmpty());
+
+        // 提交前只写入缓冲文件，不在请求线程上访问数据库
+        beforeCommit();
+        assertTrue(inserted.isEmpty());
+        assertEquals(2, Files.readAllLines(spoolDir.resolve("audit-active.spool")).size());
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertTrue(inserted.isEmpty());
+
+        // 事务回滚时日志不写入
+        beginTransaction();
+        writer.write(auditLog("rolled-back"));
+        beforeCommit();
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        writer.flush();
+        assertEquals(List.of("committed-1", "committed-2"), inserted.stream().map(AuditLog::getEntityId).toList());
+        assertTrue(pendingSpools().isEmpty());
+    }
+
+    @Test
+    public void testRolledBackTransactionIsNotReplayed() throws Exception {
+        writer = createWriter();
+        databaseDown = true;
+
+        beginTransaction();
+        writer.write(auditLog("committed"));
+        beforeCommit();
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        // 已写入缓冲文件后提交失败，事务回滚
+        beginTransaction();
+        writer.write(auditLog("rolled-back"));
+        beforeCommit();
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        writer.flush();
+        assertTrue(inserted.isEmpty());
+
+        // 重启后只重放已提交事务的日志
+        writer.shutdown();
+        databaseDown = false;
+        writer = createWriter();
+
+        assertEquals(List.of("committed"), inserted.stream().map(AuditLog::getEntityId).toList());
+        assertTrue(pendingSpools().isEmpty());
+    }
+
+    @Test
+    public void testTransactionInsertsBeforeCommitWithoutSpool() throws Exception {
+        // 缓冲目录不可用（路径是普通文件）
+        Path notADirectory = Files.createFile(spoolDir.resolve("not-a-directory"));
+        writer = new BatchingAuditLogWriter(jdbcTemplate, objectMapper, true, 200, 3_600_000,
+                notADirectory.toString());
+        writer.start();
+        beginTransaction();
+
+        writer.write(auditLog("committed"));
+        beforeCommit();
+        assertEquals(List.of("committed"), inserted.stream().map(AuditLog::getEntityId).toList());
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        // 已在事务内插入，刷新时不再重复写入
+        writer.flush();
+        assertEquals(1, inserted.size());
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedFromMemoryWithoutSpool() throws Exception {
+        // 缓冲目录不可用（路径是普通文件）
+        Path notADirectory = Files.createFile(spoolDir.resolve("not-a-directory"));
+        writer = new BatchingAuditLogWriter(jdbcTemplate, objectMapper, true, 200, 3_600_000,
+                notADirectory.toString());
+        writer.start();
+        databaseDown = true;
+
+        writer.write(auditLog("template-1"));
+        writer.flush();
+        writer.write(auditLog("template-2"));
+        writer.flush();
+        assertTrue(inserted.isEmpty());
+
+        // 数据库恢复后按原顺序写入，记录不丢失
+        databaseDown = false;
+        writer.flush();
+        assertEquals(List.of("template-1", "template-2"), inserted.stream().map(AuditLog::getEntityId).toList());
+    }
+
+    @Test
+    public void testSynchronousModeWritesImmediately() {
+        writer = new BatchingAuditLogWriter(jdbcTemplate, objectMapper, false, 200, 60_000, spoolDir.toString());
+        writer.start();
+
+        writer.write(auditLog("template-1"));
+
+        assertEquals(1, inserted.size());
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(Object[].class));
+        assertFalse(Files.exists(spoolDir.resolve("audit-active.spool")));
+    }
+
+    private void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    private void beforeCommit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+    }
+
+    private void completeTransaction(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private BatchingAuditLogWriter createWriter() {
+        // 定时刷新间隔足够长，由测试显式调用flush
+        BatchingAuditLogWriter auditLogWriter = new BatchingAuditLogWriter(jdbcTemplate, objectMapper, true, 200,
+                3_600_000, spoolDir.toString());
+        auditLogWriter.start();
+        return auditLogWriter;
+    }
+
+    private AuditLog auditLog(String entityId) {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setEntityType("user_template");
+        auditLog.setEntityId(entityId);
+        auditLog.setOperationType("STATUS_CHANGE");
+        auditLog.setOldStatus(1);
+        auditLog.setNewStatus(2);
+        auditLog.setOperatorId("admin");
+        auditLog.setAdmin(true);
+        return auditLog;
+    }
+
+    private List<Path> spoolFiles() throws Exception {
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            return files.toList();
+        }
+    }
+
+    private List<Path> pendingSpools() throws Exception {
+        return spoolFiles().stream()
+                .filter(file -> file.getFileName().toString().startsWith("audit-pending-"))
+                .sorted()
+                .toList();
+    }
+}
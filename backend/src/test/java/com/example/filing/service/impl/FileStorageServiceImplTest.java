@@ -6,19 +6,24 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.springframework.core.io.Resource;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.filing.cache.ParsedTemplateCache;
 import com.example.filing.service.FileStorageService;
+import com.example.filing.storage.ContentAddressedBlobStore;
 
 public class FileStorageServiceImplTest {
 
@@ -116,4 +121,111 @@ public class FileStorageServiceImplTest {
             fileStorageService.loadFileAsResource("non-existent.txt", "test");
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStoreStreamWithReader() throws IOException {
+        byte[] content = "Hello, Stream!".getBytes();
+        byte[] readBuffer = new byte[5];
+
+        // 读取方只读取部分内容，剩余内容也应写入文件
+        String fileName = fileStorageService.storeFile(new ByteArrayInputStream(content), "test.txt", "test",
+                stream -> {
+                    try {
+                        stream.read(readBuffer);
+                        stream.close();
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+
+        assertTrue(fileName.endsWith(".txt"));
+        assertEquals("Hello", new String(readBuffer));
+        Path targetPath = tempDir.resolve(Paths.get("test", fileName));
+        assertEquals("Hello, Stream!", Files.readString(targetPath));
+    }
+
+    @Test
+    public void testStoreStreamDeletesFileWhenReaderFails() throws IOException {
+        assertThrows(IllegalStateException.class, () -> {
+            fileStorageService.storeFile(new ByteArrayInputStream("broken".getBytes()), "test.txt", "test",
+                    stream -> {
+                        throw new IllegalStateException("reader failed");
+                    });
+        });
+
+        // 读取方失败时不应留下文件
+        try (var files = Files.list(tempDir.resolve("test"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void testShardedLayoutKeepsLegacyFilesReadable() throws IOException {
+        Files.createDirectories(tempDir.resolve("test"));
+        Files.writeString(tempDir.resolve("test/legacy.txt"), "legacy");
+        FileStorageServiceImpl shardedService = new FileStorageServiceImpl(tempDir);
+        ReflectionTestUtils.setField(shardedService, "shardLevels", 1);
+
+        String fileName = shardedService.storeFile(testFile, "test");
+
+        Path stored = tempDir.resolve(Paths.get("test", fileName.substring(0, 2), fileName));
+        assertTrue(Files.exists(stored));
+        assertEquals(stored, shardedService.getFilePath(fileName, "test"));
+        assertTrue(shardedService.loadFileAsResource("legacy.txt", "test").exists());
+        assertTrue(shardedService.deleteFile(fileName, "test"));
+        assertThrows(RuntimeException.class, () -> shardedService.getFilePath("../secret.txt", ".."));
+    }
+
+    @Test
+    public void testIdenticalContentIsStoredOnce() throws IOException {
+        String first = fileStorageService.storeFile(testFile, "test");
+        String second = fileStorageService.storeFile(new ByteArrayInputStream("Hello, World!".getBytes()),
+                "copy.txt", "templates", null);
+        String other = fileStorageService.storeFile(new ByteArrayInputStream("Other".getBytes()), "other.txt",
+                "test", null);
+
+        // 不同文件名指向同一份内容
+        Path firstPath = fileStorageService.getFilePath(first, "test");
+        Path secondPath = fileStorageService.getFilePath(second, "templates");
+        assertTrue(Files.isSameFile(firstPath, secondPath));
+        assertFalse(Files.isSameFile(firstPath, fileStorageService.getFilePath(other, "test")));
+        assertEquals("Hello, World!", Files.readString(secondPath));
+        assertEquals(2, blobStore().referenceCount(sha256("Hello, World!")));
+        try (var files = Files.list(tempDir.resolve(".blobs").resolve("tmp"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void testUnreferencedBlobsAreCollected() throws IOException {
+        String first = fileStorageService.storeFile(testFile, "test");
+        String second = fileStorageService.storeFile(testFile, "test");
+        ContentAddressedBlobStore blobStore = blobStore();
+
+        // 仍有引用或处于宽限期内的文件块不回收
+        fileStorageService.deleteFile(first, "test");
+        assertEquals(1, blobStore.referenceCount(sha256("Hello, World!")));
+        assertEquals(0, blobStore.collectGarbage(Duration.ofMinutes(-1)).deletedBlobs());
+        fileStorageService.deleteFile(second, "test");
+        assertEquals(0, blobStore.collectGarbage(Duration.ofHours(1)).deletedBlobs());
+
+        ContentAddressedBlobStore.GcResult result = blobStore.collectGarbage(Duration.ofMinutes(-1));
+        assertEquals(1, result.deletedBlobs());
+        assertEquals(13, result.reclaimedBytes());
+        assertEquals(0, blobStore.referenceCount(sha256("Hello, World!")));
+
+        // 回收后再次上传相同内容重新创建文件块
+        String third = fileStorageService.storeFile(testFile, "test");
+        assertEquals("Hello, World!", Files.readString(fileStorageService.getFilePath(third, "test")));
+        assertEquals(1, blobStore.referenceCount(sha256("Hello, World!")));
+    }
+
+    private ContentAddressedBlobStore blobStore() {
+        // 与服务使用同一存储目录
+        return new ContentAddressedBlobStore(tempDir);
+    }
+
+    private static String sha256(String content) throws IOException {
+        return ParsedTemplateCache.sha256Hex(new ByteArrayInputStream(content.getBytes()));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.filing.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.filing.storage.InMemoryObjectStorageClient;
+
+public class ObjectStorageFileStorageServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private InMemoryObjectStorageClient client;
+    private ObjectStorageFileStorageService storageService;
+
+    @BeforeEach
+    public void setup() {
+        client = new InMemoryObjectStorageClient();
+        storageService = new ObjectStorageFileStorageService(client, tempDir, 1, 8, 32, Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void testStoreFileUploadsInPartsAndCachesLocally() throws IOException {
+        byte[] content = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+        StringBuilder read = new StringBuilder();
+
+        String fileName = storageService.storeFile(new ByteArrayInputStream(content), "a.docx", "templates",
+                in -> {
+                    try {
+                        read.append(new String(in.readNBytes(4), StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+        // 20字节按8字节分块：两个整块加一个末尾块
+        assertEquals("0123", read.toString());
+        assertEquals(3, client.partCount.get());
+        assertArrayEquals(content, client.content("templates/" + fileName));
+
+        // 上传时已写入本地缓存，读取不再下载
+        Path path = storageService.getFilePath(fileName, "templates");
+        assertArrayEquals(content, Files.readAllBytes(path));
+        assertEquals(0, client.getCount.get());
+    }
+
+    @Test
+    public void testReadThroughCacheEvictsLeastRecentlyUsed() throws IOException {
+        String first = storageService.storeFile(new ByteArrayInputStream(new byte[20]), "a.bin", "files", null);
+        String second = storageService.storeFile(new ByteArrayInputStream(new byte[20]), "b.bin", "files", null);
+
+        // 容量32字节，第一个文件已被淘汰
+        assertEquals(20, storageService.cachedBytes());
+        assertFalse(Files.exists(cachedPath(first)));
+
+        assertTrue(storageService.loadFileAsResource(first, "files").exists());
+        assertEquals(1, client.getCount.get());
+        assertFalse(Files.exists(cachedPath(second)));
+
+        storageService.getFilePath(first, "files");
+        assertEquals(1, client.getCount.get());
+    }
+
+    @Test
+    public void testFailedReaderAbortsUpload() {
+        assertThrows(IllegalStateException.class,
+                () -> storageService.storeFile(new ByteArrayInputStream(new byte[20]), "a.docx", "templates",
+                        in -> {
+                            // 读取超过一个分块后失败，已上传的分块需要放弃
+                            try {
+                                in.readNBytes(12);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            throw new IllegalStateException("解析失败");
+                        }));
+
+        assertTrue(client.partCount.get() > 0);
+        assertEquals(1, client.abortCount.get());
+        assertEquals(0, client.pendingUploads());
+    }
+
+    @Test
+    public void testDeleteAndPresignedDownload() {
+        String fileName = storageService.storeFile(new ByteArrayInputStream(new byte[4]), "a.txt", "files", null);
+
+        assertTrue(storageService.getDownloadUrl(fileName, "files").orElseThrow().toString()
+                .startsWith("http://storage.test/files/" + fileName));
+        assertTrue(storageService.deleteFile(fileName, "files"));
+        assertFalse(storageService.deleteFile(fileName, "files"));
+        assertFalse(Files.exists(storageService.getFilePath(fileName, "files")));
+        assertThrows(RuntimeException.class, () -> storageService.loadFileAsResource(fileName, "files"));
+    }
+
+    private Path cachedPath(String fileName) {
+        return tempDir.resolve("files").resolve(fileName.substring(0, 2)).resolve(fileName);
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.filing.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.example.filing.constants.NotificationOutboxStatus;
+import com.example.filing.constants.UserTemplateStatus;
+import com.example.filing.entity.NotificationOutbox;
+import com.example.filing.entity.SysUser;
+import com.example.filing.entity.TemplateRegistry;
+import com.example.filing.entity.UserTemplate;
+import com.example.filing.notification.Notification;
+import com.example.filing.notification.NotificationChannel;
+import com.example.filing.repository.NotificationOutboxRepository;
+import com.example.filing.repository.SysUserRepository;
+import com.example.filing.repository.TemplateRegistryRepository;
+
+public class OutboxNotificationServiceTest {
+
+    private static final String USER_ID = "user-1";
+
+    private NotificationOutboxRepository outboxRepository;
+    private SysUserRepository sysUserRepository;
+    private TemplateRegistryRepository templateRegistryRepository;
+    private OutboxNotificationService notificationService;
+
+    /**
+     * 模拟的发件箱表
+     */
+    private final List<NotificationOutbox> outbox = new ArrayList<>();
+    private final List<Notification> delivered = new ArrayList<>();
+    private boolean channelDown;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        outboxRepository = mock(NotificationOutboxRepository.class);
+        sysUserRepository = mock(SysUserRepository.class);
+        templateRegistryRepository = mock(TemplateRegistryRepository.class);
+
+        when(outboxRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            for (NotificationOutbox entry : invocation.<Iterable<NotificationOutbox>>getArgument(0)) {
+                if (entry.getId() == null) {
+                    entry.setId("outbox-" + (outbox.size() + 1));
+                    outbox.add(entry);
+                }
+            }
+            return null;
+        });
+        when(outboxRepository.findDueIds(eq(NotificationOutboxStatus.PENDING), any(), any()))
+                .thenAnswer(invocation -> outbox.stream()
+                        .filter(entry -> NotificationOutboxStatus.PENDING.equals(entry.getStatus()))
+                        .filter(entry -> !entry.getNextAttemptTime().isAfter(invocation.getArgument(1)))
+                        .map(NotificationOutbox::getId)
+                        .toList());
+        when(outboxRepository.claim(anyCollection(), eq(NotificationOutboxStatus.PENDING), any(), anyString(), any()))
+                .thenAnswer(invocation -> {
+                    int claimed = 0;
+                    for (NotificationOutbox entry : outbox) {
+                        if (invocation.<List<String>>getArgument(0).contains(entry.getId())) {
+                            entry.setClaimToken(invocation.getArgument(3));
+                            entry.setNextAttemptTime(invocation.getArgument(4));
+                            claimed++;
+                        }
+                    }
+                    return claimed;
+                });
+        when(outboxRepository.findByClaimToken(anyString())).thenAnswer(invocation -> outbox.stream()
+                .filter(entry -> invocation.getArgument(0).equals(entry.getClaimToken()))
+                .toList());
+
+        SysUser user = new SysUser();
+        user.setId(USER_ID);
+        user.setLoginName("zhangsan");
+        user.setUserName("张三");
+        when(sysUserRepository.findAllById(anyIterable())).thenReturn(List.of(user));
+        TemplateRegistry template = new TemplateRegistry();
+        template.setId("template-1");
+        template.setTemplateName("年度报告");
+        when(templateRegistryRepository.findAllById(anyIterable())).thenReturn(List.of(template));
+
+        NotificationChannel channel = new NotificationChannel() {
+            @Override
+            public String getName() {
+                return "in-app";
+            }
+
+            @Override
+            public void send(Notification notification) {
+                if (channelDown) {
+                    throw new IllegalStateException("channel is down");
+                }
+                delivered.add(notification);
+            }
+        };
+        // 定时投递关闭，由测试显式调用dispatchPending
+        notificationService = new OutboxNotificationService(outboxRepository, sysUserRepository,
+                templateRegistryRepository, List.of(channel), List.of("in-app"), 100, 0, 3, 1000, 5000, 60_000);
+        notificationService.start();
+    }
+
+    @Test
+    public void testStatusChangeIsWrittenToOutboxAndDelivered() {
+        notificationService.notifyStatusChange(userTemplate(), UserTemplateStatus.UNDER_REVIEW,
+                UserTemplateStatus.RETURNED, "admin-1");
+
+        // 写入发件箱时不投递
+        assertEquals(1, outbox.size());
+        assertTrue(delivered.isEmpty());
+
+        assertEquals(1, notificationService.dispatchPending());
+
+        NotificationOutbox entry = outbox.get(0);
+        assertEquals(NotificationOutboxStatus.SENT, entry.getStatus());
+        assertEquals(1, entry.getAttempts());
+        assertNotNull(entry.getSentTime());
+        assertNull(entry.getClaimToken());
+        assertEquals(1, delivered.size());
+        assertEquals("outbox-1", delivered.get(0).id());
+        assertEquals("【年度报告】退回", delivered.get(0).title());
+        assertTrue(delivered.get(0).content().contains("请修改后重新提交"));
+
+        // 已投递的记录不再重复投递
+        assertEquals(0, notificationService.dispatchPending());
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    public void testOwnChangesAreNotNotified() {
+        notificationService.notifyStatusChange(userTemplate(), UserTemplateStatus.FILLING,
+                UserTemplateStatus.UNDER_REVIEW, USER_ID);
+
+        assertTrue(outbox.isEmpty());
+        verify(outboxRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    public void testFailedDeliveryIsRetriedWithBackoffThenMarkedFailed() {
+        notificationService.notifyStatusChange(userTemplate(), UserTemplateStatus.UNDER_REVIEW,
+                UserTemplateStatus.REVIEW_APPROVED, "admin-1");
+        NotificationOutbox entry = outbox.get(0);
+        channelDown = true;
+
+        LocalDateTime beforeDispatch = LocalDateTime.now();
+        notificationService.dispatchPending();
+        assertEquals(NotificationOutboxStatus.PENDING, entry.getStatus());
+        assertEquals(1, entry.getAttempts());
+        assertTrue(entry.getLastError().contains("channel is down"));
+        assertTrue(!entry.getNextAttemptTime().isBefore(beforeDispatch.plusSeconds(1)));
+        // 退避期间不重试
+        assertEquals(0, notificationService.dispatchPending());
+
+        entry.setNextAttemptTime(LocalDateTime.now());
+        notificationService.dispatchPending();
+        entry.setNextAttemptTime(LocalDateTime.now());
+        notificationService.dispatchPending();
+        assertEquals(NotificationOutboxStatus.FAILED, entry.getStatus());
+        assertEquals(3, entry.getAttempts());
+
+        entry.setNextAttemptTime(LocalDateTime.now());
+        assertEquals(0, notificationService.dispatchPending());
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void testBackoffDoublesUpToMaximum() {
+        assertEquals(1000, notificationService.backoffMillis(1));
+        assertEquals(2000, notificationService.backoffMillis(2));
+        assertEquals(4000, notificationService.backoffMillis(3));
+        assertEquals(5000, notificationService.backoffMillis(4));
+        assertEquals(5000, notificationService.backoffMillis(40));
+    }
+
+    @Test
+    public void testEntryPerEnabledChannel() {
+        NotificationChannel email = mock(NotificationChannel.class);
+        when(email.getName()).thenReturn("email");
+        NotificationChannel inApp = mock(NotificationChannel.class);
+        when(inApp.getName()).thenReturn("in-app");
+        OutboxNotificationService service = new OutboxNotificationService(outboxRepository, sysUserRepository,
+                templateRegistryRepository, List.of(inApp, email), List.of("in-app", " email"), 100, 0, 3, 1000,
+                5000, 60_000);
+
+        service.notifyStatusChange(userTemplate(), null, UserTemplateStatus.PENDING_FILL, "admin-1");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<NotificationOutbox>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(outboxRepository).saveAll(captor.capture());
+        List<String> channels = new ArrayList<>();
+        captor.getValue().forEach(entry -> channels.add(entry.getChannel()));
+        assertEquals(List.of("in-app", "email"), channels);
+    }
+
+    private UserTemplate userTemplate() {
+        UserTemplate userTemplate = new UserTemplate();
+        userTemplate.setId("relation-1");
+        userTemplate.setUserId(USER_ID);
+        userTemplate.setTemplateId("template-1");
+        return userTemplate;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.filing.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
+
+import com.example.filing.service.WordDocumentService;
+import com.example.filing.util.TestDocumentGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class StreamingWordDocumentParserTest {
+
+    private ObjectMapper objectMapper;
+    private WordDocumentService domService;
+    private WordDocumentService staxService;
+
+    @BeforeEach
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        domService = new WordDocumentServiceImpl(objectMapper, WordDocumentServiceImpl.ENGINE_DOM);
+        staxService = new WordDocumentServiceImpl(objectMapper, WordDocumentServiceImpl.ENGINE_STAX);
+    }
+
+    @Test
+    public void testSameOutputAsDomForGeneratedTemplates() throws Exception {
+        assertSameOutput(TestDocumentGenerator.createBasicFormDocument());
+        assertSameOutput(TestDocumentGenerator.createTableFormDocument());
+        assertSameOutput(TestDocumentGenerator.createMixedFieldsDocument());
+    }
+
+    @Test
+    public void testSameOutputForRunsTablesAndEmptyParagraphs() throws Exception {
+        byte[] docx;
+        try (XWPFDocument document = new XWPFDocument()) {
+            XWPFParagraph heading = document.createParagraph();
+            heading.setStyle("Heading2");
+            heading.createRun().setText("二级标题");
+
+            // 空段落同样占用段落序号
+            document.createParagraph();
+
+            XWPFParagraph paragraph = document.createParagraph();
+            XWPFRun run = paragraph.createRun();
+            run.setText("第一部分");
+            run.addTab();
+            run.setText("第二部分");
+            run.addBreak();
+            paragraph.createRun().setText("第三部分");
+
+            XWPFTable table = document.createTable(3, 3);
+            table.getRow(0).getCell(0).setText("名称");
+            table.getRow(0).getCell(1).setText("数量");
+            table.getRow(1).getCell(0).setText("${item_name}");
+            table.getRow(1).getCell(1).setText("${item_count}");
+            table.getRow(1).getCell(2).addParagraph().createRun().setText("多段落单元格");
+            table.getRow(2).getCell(0).setText("合计");
+
+            XWPFParagraph customHeading = document.createParagraph();
+            customHeading.setStyle("HeadingCustom");
+            customHeading.createRun().setText("无法识别级别的标题");
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.write(out);
+            docx = out.toByteArray();
+        }
+
+        assertSameOutput(docx);
+
+        JsonNode sections = objectMapper.readTree(staxService.parseWordDocument(new ByteArrayInputStream(docx)))
+                .get("sections");
+        assertEquals(2, sections.get("heading_0").get("level").asInt());
+        assertEquals("第一部分\t第二部分\n第三部分", sections.get("paragraph_2").asText());
+        assertEquals(1, sections.get("heading_3").get("level").asInt());
+        assertTrue(sections.has("table_0"));
+    }
+
+    @Test
+    public void testSameOutputForTrackedChanges() throws Exception {
+        byte[] docx;
+        try (XWPFDocument document = new XWPFDocument()) {
+            XWPFParagraph paragraph = document.createParagraph();
+            CTP ctp = paragraph.getCTP();
+            ctp.addNewR().addNewT().setStringValue("保留");
+            ctp.addNewIns().addNewR().addNewT().setStringValue("插入");
+            CTR deletedRun = ctp.addNewDel().addNewR();
+            deletedRun.addNewDelText().setStringValue("删除");
+            // rsidDel只是修订会话标识，带有该属性的普通运行仍然是正文
+            CTR run = ctp.addNewR();
+            run.setRsidDel(new byte[] { 0, 1, 2, 3 });
+            run.addNewT().setStringValue("正文");
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.write(out);
+            docx = out.toByteArray();
+        }
+
+        assertSameOutput(docx);
+
+        JsonNode sections = objectMapper.readTree(staxService.parseWordDocument(new ByteArrayInputStream(docx)))
+                .get("sections");
+        assertEquals("保留插入正文", sections.get("paragraph_0").asText());
+    }
+
+    @Test
+    public void testParseInvalidDocument() {
+        StreamingWordDocumentParser parser = new StreamingWordDocumentParser();
+        assertThrows(IOException.class,
+                () -> parser.parseSections(new ByteArrayInputStream("not a docx".getBytes())));
+    }
+
+    @Test
+    public void testUnsupportedEngine() {
+        assertThrows(IllegalArgumentException.class, () -> new WordDocumentServiceImpl(objectMapper, "sax"));
+    }
+
+    private void assertSameOutput(byte[] docx) throws Exception {
+        JsonNode domResult = objectMapper.readTree(domService.parseWordDocument(new ByteArrayInputStream(docx)));
+        JsonNode staxResult = objectMapper.readTree(staxService.parseWordDocument(new ByteArrayInputStream(docx)));
+        assertEquals(domResult, staxResult);
+    }
+}
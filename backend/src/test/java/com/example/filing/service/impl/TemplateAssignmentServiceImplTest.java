@@ -0,0 +1,154 @@
+package com.example.filing.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.filing.cache.PrincipalCache;
+import com.example.filing.constants.TemplateIngestionJobStatus;
+import com.example.filing.dto.response.TemplateAssignmentJob;
+import com.example.filing.repository.SysUserRepository;
+import com.example.filing.repository.TemplateRegistryRepository;
+import com.example.filing.security.UserIdentityResolver;
+import com.example.filing.service.UserTemplateService;
+import com.example.filing.util.Result;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TemplateAssignmentServiceImplTest {
+
+    private static final String TEMPLATE_ID = "template-1";
+    private static final String ADMIN_ID = "0a1b2c3d-0000-4000-8000-0000000000ad";
+    private static final String USER_ID_PREFIX = "0a1b2c3d-0000-4000-8000-";
+
+    private UserTemplateService userTemplateService;
+    private TemplateRegistryRepository templateRegistryRepository;
+    private SysUserRepository sysUserRepository;
+    private TemplateAssignmentServiceImpl assignmentService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        userTemplateService = mock(UserTemplateService.class);
+        templateRegistryRepository = mock(TemplateRegistryRepository.class);
+        sysUserRepository = mock(SysUserRepository.class);
+        when(templateRegistryRepository.existsById(TEMPLATE_ID)).thenReturn(true);
+        when(sysUserRepository.findById(ADMIN_ID)).thenReturn(Optional.empty());
+
+        // 登录名user0001~user0999对应用户ID，user0000和直接传入的未知ID不存在
+        when(sysUserRepository.findIdsByLoginNameIn(any())).thenAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (String loginName : invocation.<Collection<String>>getArgument(0)) {
+                if (!"user0000".equals(loginName)) {
+                    rows.add(new Object[] { loginName, userId(Integer.parseInt(loginName.substring(4))) });
+                }
+            }
+            return rows;
+        });
+        when(sysUserRepository.findExistingIds(any())).thenAnswer(invocation -> invocation
+                .<Collection<String>>getArgument(0).stream().filter(id -> !id.endsWith("ffffffffffff")).toList());
+        // 每个分块中的第一个用户已持有该模板
+        when(userTemplateService.assignTemplateChunk(eq(TEMPLATE_ID), anyList(), eq(ADMIN_ID), anyString()))
+                .thenAnswer(invocation -> Result.success(invocation.<List<String>>getArgument(1).size() - 1));
+
+        UserIdentityResolver resolver = new UserIdentityResolver(sysUserRepository,
+                new PrincipalCache(new SimpleMeterRegistry(), 60_000, 100));
+        assignmentService = new TemplateAssignmentServiceImpl(userTemplateService, templateRegistryRepository,
+                sysUserRepository, resolver, new SimpleMeterRegistry(), 100, 1, 10, 60);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        assignmentService.shutdown();
+    }
+
+    @Test
+    public void testAssignsInChunksAndReportsProgress() throws Exception {
+        List<String> recipients = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            recipients.add(String.format("user%04d", i));
+        }
+        recipients.add("user0001");
+        String unknownId = USER_ID_PREFIX + "ffffffffffff";
+        recipients.add(unknownId);
+
+        Result<TemplateAssignmentJob> submitted = assignmentService.submitAssignment(TEMPLATE_ID, recipients,
+                ADMIN_ID);
+        assertEquals(200, submitted.getCode());
+
+        TemplateAssignmentJob job = awaitFinished(submitted.getData().getJobId());
+        assertEquals(TemplateIngestionJobStatus.SUCCEEDED, job.getStatus());
+        assertEquals(100, job.getProgress());
+        assertEquals(251, job.getTotalRecipients());
+        assertEquals(251, job.getProcessed());
+        // 249个存在的用户分为100、100、49三个分块，每块跳过一个
+        assertEquals(246, job.getCreated());
+        assertEquals(3, job.getSkipped());
+        assertEquals(2, job.getUnknownUserCount());
+        assertTrue(job.getUnknownUsers().containsAll(List.of("user0000", unknownId)));
+
+        // 登录名只查询一次，每个分块一次存在性校验和一次提交
+        verify(sysUserRepository, times(1)).findIdsByLoginNameIn(any());
+        verify(sysUserRepository, times(3)).findExistingIds(any());
+        verify(userTemplateService, times(3)).assignTemplateChunk(eq(TEMPLATE_ID), anyList(), eq(ADMIN_ID),
+                anyString());
+    }
+
+    @Test
+    public void testFailedChunkFailsJob() throws Exception {
+        when(userTemplateService.assignTemplateChunk(eq(TEMPLATE_ID), anyList(), eq(ADMIN_ID), anyString()))
+                .thenReturn(Result.success(100))
+                .thenReturn(Result.failed("数据库错误"));
+        List<String> recipients = new ArrayList<>();
+        for (int i = 1; i <= 300; i++) {
+            recipients.add(userId(i));
+        }
+
+        Result<TemplateAssignmentJob> submitted = assignmentService.submitAssignment(TEMPLATE_ID, recipients,
+                ADMIN_ID);
+        TemplateAssignmentJob job = awaitFinished(submitted.getData().getJobId());
+
+        assertEquals(TemplateIngestionJobStatus.FAILED, job.getStatus());
+        assertEquals(100, job.getCreated());
+        assertTrue(job.getMessage().contains("数据库错误"));
+    }
+
+    @Test
+    public void testRejectsUnknownTemplateAndEmptyRecipients() {
+        assertEquals(500, assignmentService.submitAssignment("missing", List.of("user0001"), ADMIN_ID).getCode());
+        assertEquals(400, assignmentService.submitAssignment(TEMPLATE_ID, List.of(), ADMIN_ID).getCode());
+        assertEquals(404, assignmentService.getJob("missing").getCode());
+    }
+
+    private static String userId(int index) {
+        return USER_ID_PREFIX + String.format("%012d", index);
+    }
+
+    private TemplateAssignmentJob awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            TemplateAssignmentJob job = assignmentService.getJob(jobId).getData();
+            if (job.isFinished()) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("发送任务未在预期时间内完成: " + jobId);
+    }
+}
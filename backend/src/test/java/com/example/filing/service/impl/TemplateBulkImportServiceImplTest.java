@@ -0,0 +1,161 @@
+package com.example.filing.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.filing.dto.request.TemplateRegistryRequest;
+import com.example.filing.dto.response.TemplateBulkImportReport;
+import com.example.filing.entity.TemplateRegistry;
+import com.example.filing.service.TemplateRegistryService;
+import com.example.filing.util.Result;
+import com.example.filing.util.TestDocumentGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TemplateBulkImportServiceImplTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TemplateRegistryService templateRegistryService;
+    private TemplateBulkImportServiceImpl bulkImportService;
+
+    @BeforeEach
+    public void setup() {
+        templateRegistryService = mock(TemplateRegistryService.class);
+        bulkImportService = new TemplateBulkImportServiceImpl(templateRegistryService,
+                new FileStorageServiceImpl(tempDir), new WordDocumentServiceImpl(new ObjectMapper()), 4, 10,
+                1024 * 1024, 4 * 1024 * 1024);
+
+        // 模拟批量保存：按请求顺序生成ID和备案编号
+        when(templateRegistryService.saveTemplateRegistries(anyList(), eq("admin"))).thenAnswer(invocation -> {
+            List<TemplateRegistryRequest> requests = invocation.getArgument(0);
+            List<TemplateRegistry> saved = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                TemplateRegistry template = new TemplateRegistry();
+                template.setId("id-" + i);
+                template.setTemplateCode("TPL" + i);
+                template.setTemplateName(requests.get(i).getTemplateName());
+                template.setFilePath(requests.get(i).getFilePath());
+                saved.add(template);
+            }
+            return Result.success(saved);
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bulkImportService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportFilesAndZip() throws Exception {
+        byte[] zip = createZip(
+                "forms/basic.docx", TestDocumentGenerator.createBasicFormDocument(),
+                "forms/readme.txt", "text".getBytes(),
+                "__MACOSX/forms/._basic.docx", new byte[] { 0 },
+                "forms/broken.docx", "not a docx".getBytes());
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "table.docx", null, TestDocumentGenerator.createTableFormDocument()),
+                new MockMultipartFile("files", "bundle.zip", null, zip));
+
+        Result<TemplateBulkImportReport> result = bulkImportService.importTemplates(files, "备案", "admin");
+        TemplateBulkImportReport report = result.getData();
+
+        assertEquals(200, result.getCode());
+        assertEquals(4, report.getTotal());
+        assertEquals(2, report.getSucceeded());
+        assertEquals(2, report.getFailed());
+
+        // 一次批量保存两个模板，模板名称取自文件名
+        ArgumentCaptor<List<TemplateRegistryRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(templateRegistryService).saveTemplateRegistries(captor.capture(), eq("admin"));
+        List<TemplateRegistryRequest> requests = captor.getValue();
+        assertEquals(List.of("table", "basic"), requests.stream().map(TemplateRegistryRequest::getTemplateName).toList());
+        assertTrue(requests.stream().allMatch(request -> "备案".equals(request.getTemplateType())));
+        assertTrue(requests.stream().allMatch(request -> request.getTemplateContent().contains("sections")));
+
+        TemplateBulkImportReport.Item table = findItem(report, "table.docx");
+        assertTrue(table.isSuccess());
+        assertEquals("id-0", table.getTemplateId());
+        assertTrue(Files.exists(tempDir.resolve(table.getFilePath())));
+        assertTrue(findItem(report, "forms/basic.docx").isSuccess());
+        assertFalse(findItem(report, "forms/readme.txt").isSuccess());
+        assertFalse(findItem(report, "forms/broken.docx").isSuccess());
+
+        // 报告按输入顺序排列，失败项不前置
+        assertEquals(List.of("table.docx", "forms/basic.docx", "forms/readme.txt", "forms/broken.docx"),
+                report.getItems().stream().map(TemplateBulkImportReport.Item::getOriginalFilename).toList());
+
+        // 解析失败的文件不保留
+        try (var stored = Files.list(tempDir.resolve("templates"))) {
+            assertEquals(2, stored.count());
+        }
+    }
+
+    @Test
+    public void testRejectsTooManyFiles() throws IOException {
+        byte[] docx = TestDocumentGenerator.createBasicFormDocument();
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            files.add(new MockMultipartFile("files", "t" + i + ".docx", null, docx));
+        }
+
+        assertEquals(500, bulkImportService.importTemplates(files, null, "admin").getCode());
+    }
+
+    @Test
+    public void testRejectsTooLargeTotalSize() throws IOException {
+        // 单个条目未超限，但压缩包展开后的总大小超过上限
+        byte[] padding = new byte[900 * 1024];
+        byte[] zip = createZip("a.docx", padding, "b.docx", padding, "c.docx", padding, "d.docx", padding,
+                "e.docx", padding);
+        List<MultipartFile> files = List.of(new MockMultipartFile("files", "bundle.zip", null, zip));
+
+        assertEquals(500, bulkImportService.importTemplates(files, null, "admin").getCode());
+        // 解压的临时文件已清理，未保存任何文件
+        assertFalse(Files.exists(tempDir.resolve("templates")));
+    }
+
+    private TemplateBulkImportReport.Item findItem(TemplateBulkImportReport report, String name) {
+        return report.getItems().stream()
+                .filter(item -> name.equals(item.getOriginalFilename()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private byte[] createZip(Object... entries) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(out)) {
+            for (int i = 0; i < entries.length; i += 2) {
+                zipOutputStream.putNextEntry(new ZipEntry((String) entries[i]));
+                zipOutputStream.write((byte[]) entries[i + 1]);
+                zipOutputStream.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+}
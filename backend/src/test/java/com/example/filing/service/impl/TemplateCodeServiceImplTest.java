@@ -0,0 +1,106 @@
+package com.example.filing.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import com.example.filing.entity.TemplateCodeSequence;
+import com.example.filing.repository.TemplateCodeSequenceRepository;
+import com.example.filing.repository.TemplateRegistryRepository;
+
+public class TemplateCodeServiceImplTest {
+
+    private final String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+
+    private TemplateCodeSequenceRepository sequenceRepository;
+    private TemplateRegistryRepository templateRegistryRepository;
+    private TemplateCodeServiceImpl templateCodeService;
+
+    /**
+     * 模拟数据库中的序列表
+     */
+    private final Map<String, TemplateCodeSequence> sequences = new HashMap<>();
+
+    @BeforeEach
+    public void setup() {
+        sequenceRepository = mock(TemplateCodeSequenceRepository.class);
+        templateRegistryRepository = mock(TemplateRegistryRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+
+        when(sequenceRepository.findForUpdate(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(sequences.get(invocation.<String>getArgument(0))));
+        when(sequenceRepository.insertSequence(anyString(), anyInt())).thenAnswer(invocation -> {
+            String seqDate = invocation.getArgument(0);
+            if (sequences.containsKey(seqDate)) {
+                throw new DataIntegrityViolationException("Duplicate entry " + seqDate);
+            }
+            TemplateCodeSequence sequence = new TemplateCodeSequence();
+            sequence.setSeqDate(seqDate);
+            sequence.setNextValue(invocation.getArgument(1));
+            sequences.put(seqDate, sequence);
+            return 1;
+        });
+
+        templateCodeService = new TemplateCodeServiceImpl(sequenceRepository, templateRegistryRepository,
+                transactionManager);
+    }
+
+    @Test
+    public void testFirstCodeOfDayContinuesAfterExistingCodes() {
+        when(templateRegistryRepository.findTemplateCodesLike("TPL" + today + "%"))
+                .thenReturn(List.of("TPL" + today + "0003", "TPL" + today + "0012", "TPL" + today + "bad"));
+
+        assertEquals("TPL" + today + "0013", templateCodeService.nextTemplateCode());
+        assertEquals("TPL" + today + "0014", templateCodeService.nextTemplateCode());
+
+        // 序列行初始化后不再扫描模板表
+        verify(templateRegistryRepository).findTemplateCodesLike(anyString());
+    }
+
+    @Test
+    public void testReservesConsecutiveBlock() {
+        TemplateCodeSequence sequence = new TemplateCodeSequence();
+        sequence.setSeqDate(today);
+        sequence.setNextValue(5);
+        sequences.put(today, sequence);
+
+        List<String> codes = templateCodeService.nextTemplateCodes(3);
+
+        assertEquals(List.of("TPL" + today + "0005", "TPL" + today + "0006", "TPL" + today + "0007"), codes);
+        assertEquals(8, sequence.getNextValue());
+        verify(sequenceRepository, never()).insertSequence(anyString(), anyInt());
+    }
+
+    @Test
+    public void testConcurrentInitializationIsIgnored() {
+        when(templateRegistryRepository.findTemplateCodesLike(anyString())).thenAnswer(invocation -> {
+            // 模拟另一个节点在本节点扫描之后抢先初始化了序列行
+            TemplateCodeSequence sequence = new TemplateCodeSequence();
+            sequence.setSeqDate(today);
+            sequence.setNextValue(42);
+            sequences.put(today, sequence);
+            return List.of();
+        });
+
+        assertEquals("TPL" + today + "0042", templateCodeService.nextTemplateCode());
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.filing.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.example.filing.constants.TemplateIngestionJobStatus;
+import com.example.filing.dto.response.TemplateIngestionJob;
+import com.example.filing.repository.TemplateRegistryRepository;
+import com.example.filing.service.TemplateRegistryService;
+import com.example.filing.service.WordDocumentService;
+import com.example.filing.util.Result;
+import com.example.filing.util.TestDocumentGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TemplateIngestionServiceImplTest {
+
+    private static final String TEMPLATE_ID = "template-1";
+
+    @TempDir
+    Path tempDir;
+
+    private TemplateRegistryService templateRegistryService;
+    private TemplateRegistryRepository templateRegistryRepository;
+    private WordDocumentService wordDocumentService;
+    private SimpleMeterRegistry meterRegistry;
+    private TemplateIngestionServiceImpl ingestionService;
+
+    @BeforeEach
+    public void setup() {
+        templateRegistryService = mock(TemplateRegistryService.class);
+        templateRegistryRepository = mock(TemplateRegistryRepository.class);
+        wordDocumentService = new WordDocumentServiceImpl(new ObjectMapper());
+        meterRegistry = new SimpleMeterRegistry();
+        when(templateRegistryRepository.existsById(TEMPLATE_ID)).thenReturn(true);
+        when(templateRegistryService.updateTemplateFile(eq(TEMPLATE_ID), anyString(), anyString()))
+                .thenReturn(Result.success("模板文件上传成功，已更新模板内容"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (ingestionService != null) {
+            ingestionService.shutdown();
+        }
+    }
+
+    @Test
+    public void testJobCompletesInBackground() throws Exception {
+        ingestionService = createService(2, 10);
+        byte[] docx = TestDocumentGenerator.createBasicFormDocument();
+
+        Result<TemplateIngestionJob> submitted = ingestionService.submitUploadJob(
+                new MockMultipartFile("file", "template.docx", null, docx), TEMPLATE_ID);
+        assertEquals(200, submitted.getCode());
+        String jobId = submitted.getData().getJobId();
+
+        TemplateIngestionJob job = awaitFinished(jobId);
+        assertEquals(TemplateIngestionJobStatus.SUCCEEDED, job.getStatus());
+        assertEquals(100, job.getProgress());
+        assertNotNull(job.getFinishTime());
+
+        verify(templateRegistryService).updateTemplateFile(TEMPLATE_ID, job.getFilePath(),
+                wordDocumentService.parseWordDocument(new ByteArrayInputStream(docx)));
+        assertTrue(Files.exists(tempDir.resolve(job.getFilePath())));
+    }
+
+    @Test
+    public void testFailedTemplateUpdateRemovesFile() throws Exception {
+        ingestionService = createService(1, 10);
+        when(templateRegistryService.updateTemplateFile(eq(TEMPLATE_ID), anyString(), anyString()))
+                .thenReturn(Result.failed("模板不存在"));
+
+        Result<TemplateIngestionJob> submitted = ingestionService.submitUploadJob(
+                new MockMultipartFile("file", "template.docx", null, TestDocumentGenerator.createBasicFormDocument()),
+                TEMPLATE_ID);
+        TemplateIngestionJob job = awaitFinished(submitted.getData().getJobId());
+
+        assertEquals(TemplateIngestionJobStatus.FAILED, job.getStatus());
+        assertEquals("模板不存在", job.getMessage());
+        assertFalse(Files.exists(tempDir.resolve(job.getFilePath())));
+    }
+
+    @Test
+    public void testInvalidDocumentFailsJobAndRemovesFile() throws Exception {
+        ingestionService = createService(1, 10);
+
+        Result<TemplateIngestionJob> submitted = ingestionService.submitUploadJob(
+                new MockMultipartFile("file", "broken.docx", null, "not a docx".getBytes()), TEMPLATE_ID);
+        TemplateIngestionJob job = awaitFinished(submitted.getData().getJobId());
+
+        assertEquals(TemplateIngestionJobStatus.FAILED, job.getStatus());
+        assertFalse(Files.exists(tempDir.resolve(job.getFilePath())));
+        verify(templateRegistryService, never()).updateTemplateFile(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() throws Exception {
+        ingestionService = createService(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(templateRegistryService.updateTemplateFile(eq(TEMPLATE_ID), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return Result.success("模板文件上传成功，已更新模板内容");
+                });
+        byte[] docx = TestDocumentGenerator.createBasicFormDocument();
+
+        // 第一个任务占用唯一的工作线程，第二个任务进入队列，第三个任务被拒绝
+        ingestionService.submitUploadJob(new MockMultipartFile("file", "a.docx", null, docx), TEMPLATE_ID);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        ingestionService.submitUploadJob(new MockMultipartFile("file", "b.docx", null, docx), TEMPLATE_ID);
+        Result<TemplateIngestionJob> rejected = ingestionService.submitUploadJob(
+                new MockMultipartFile("file", "c.docx", null, docx), TEMPLATE_ID);
+
+        assertEquals(503, rejected.getCode());
+        assertEquals(1.0, meterRegistry.get("template.ingestion.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("executor.queued").tag("name", "template.ingestion").gauge().value());
+        assertEquals(1.0, meterRegistry.get("template.ingestion.utilization").gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    public void testRejectsUnknownTemplateAndUnknownJob() {
+        ingestionService = createService(1, 1);
+
+        Result<TemplateIngestionJob> result = ingestionService.submitUploadJob(
+                new MockMultipartFile("file", "a.docx", null, new byte[] { 1 }), "missing");
+        assertEquals(500, result.getCode());
+        assertEquals(404, ingestionService.getJob("missing").getCode());
+    }
+
+    private TemplateIngestionServiceImpl createService(int poolSize, int queueCapacity) {
+        return new TemplateIngestionServiceImpl(templateRegistryService, templateRegistryRepository,
+                new FileStorageServiceImpl(tempDir), wordDocumentService, meterRegistry, poolSize, queueCapacity, 60);
+    }
+
+    private TemplateIngestionJob awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            TemplateIngestionJob job = ingestionService.getJob(jobId).getData();
+            if (job.isFinished()) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("导入任务未在预期时间内完成: " + jobId);
+    }
+}
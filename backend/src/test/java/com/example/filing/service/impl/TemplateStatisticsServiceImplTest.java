@@ -0,0 +1,115 @@
+package com.example.filing.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.filing.constants.UserTemplateStatus;
+import com.example.filing.repository.TemplateRegistryRepository;
+import com.example.filing.repository.UserTemplateRepository;
+
+public class TemplateStatisticsServiceImplTest {
+
+    private UserTemplateRepository userTemplateRepository;
+    private TemplateRegistryRepository templateRegistryRepository;
+    private TemplateStatisticsServiceImpl statisticsService;
+
+    @BeforeEach
+    public void setup() {
+        userTemplateRepository = mock(UserTemplateRepository.class);
+        templateRegistryRepository = mock(TemplateRegistryRepository.class);
+        when(userTemplateRepository.countGroupByUserIdAndStatus()).thenReturn(List.of(
+                new Object[] { "user-1", UserTemplateStatus.PENDING_APPROVAL, 2L },
+                new Object[] { "user-1", UserTemplateStatus.UNDER_REVIEW, 1L },
+                new Object[] { "user-2", UserTemplateStatus.UNDER_REVIEW, 3L }));
+        when(userTemplateRepository.countGroupByTemplateIdAndStatus()).thenReturn(List.of(
+                new Object[] { "template-1", UserTemplateStatus.PENDING_APPROVAL, 2L },
+                new Object[] { "template-1", UserTemplateStatus.UNDER_REVIEW, 4L }));
+        when(templateRegistryRepository.countByDeletedFalse()).thenReturn(5L);
+
+        // 不启动定时对账
+        statisticsService = new TemplateStatisticsServiceImpl(userTemplateRepository, templateRegistryRepository, 0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testStatisticsAreLoadedOnceAndServedFromMemory() {
+        Map<String, Object> statistics = statisticsService.getStatistics(null, null);
+        statisticsService.getStatistics(null, null);
+
+        assertEquals(5L, statistics.get("totalTemplates"));
+        assertEquals(2L, statistics.get("pendingCount"));
+        assertEquals(4L, statistics.get("inProgressCount"));
+        assertEquals(0L, statistics.get("approvedCount"));
+        assertEquals(6L, statistics.get("totalTasks"));
+        verify(userTemplateRepository, times(1)).countGroupByUserIdAndStatus();
+
+        Map<String, Object> userStatistics = statisticsService.getStatistics("user-1", null);
+        assertEquals(3L, userStatistics.get("totalTasks"));
+        assertEquals(Map.of(UserTemplateStatus.PENDING_APPROVAL, 2L, UserTemplateStatus.UNDER_REVIEW, 1L),
+                userStatistics.get("statusCounts"));
+        assertEquals(6L, statisticsService.getStatistics(null, "template-1").get("totalTasks"));
+        assertEquals(0L, statisticsService.getStatistics("unknown", null).get("totalTasks"));
+    }
+
+    @Test
+    public void testStatusChangesAreCountedAfterCommit() {
+        statisticsService.getStatistics(null, null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        statisticsService.recordStatusChange("user-1", "template-1", UserTemplateStatus.UNDER_REVIEW,
+                UserTemplateStatus.REVIEW_APPROVED);
+        statisticsService.recordStatusChange("user-3", "template-2", null, UserTemplateStatus.PENDING_APPROVAL);
+        assertEquals(0L, statisticsService.getStatistics(null, null).get("approvedCount"));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // 事务回滚时不执行afterCommit回调，不计入
+        TransactionSynchronizationManager.initSynchronization();
+        statisticsService.recordStatusChange("user-2", "template-1", UserTemplateStatus.UNDER_REVIEW,
+                UserTemplateStatus.RETURNED);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        Map<String, Object> statistics = statisticsService.getStatistics(null, null);
+        assertEquals(3L, statistics.get("pendingCount"));
+        assertEquals(3L, statistics.get("inProgressCount"));
+        assertEquals(1L, statistics.get("approvedCount"));
+        assertEquals(7L, statistics.get("totalTasks"));
+        assertEquals(1L, statisticsService.getStatistics("user-3", null).get("totalTasks"));
+        assertEquals(1L, statisticsService.getStatistics(null, "template-2").get("pendingCount"));
+    }
+
+    @Test
+    public void testReconcileReplacesDriftedCounts() {
+        statisticsService.getStatistics(null, null);
+        statisticsService.recordStatusChange("user-1", "template-1", null, UserTemplateStatus.FILLING);
+        statisticsService.recordTemplateCountChange(1);
+        assertEquals(7L, statisticsService.getStatistics(null, null).get("totalTasks"));
+        assertEquals(6L, statisticsService.getStatistics(null, null).get("totalTemplates"));
+
+        // 数据库中并没有这条记录（例如写入后被其他节点删除），对账后恢复一致
+        statisticsService.reconcile();
+
+        assertEquals(6L, statisticsService.getStatistics(null, null).get("totalTasks"));
+        assertEquals(5L, statisticsService.getStatistics(null, null).get("totalTemplates"));
+    }
+}
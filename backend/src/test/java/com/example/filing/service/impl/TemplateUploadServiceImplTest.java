@@ -0,0 +1,132 @@
+package com.example.filing.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.io.input.CountingInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.filing.cache.ParsedTemplateCache;
+import com.example.filing.dto.response.TemplateUploadResult;
+import com.example.filing.service.WordDocumentService;
+import com.example.filing.util.TestDocumentGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TemplateUploadServiceImplTest {
+
+    private static final String DOCX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    @TempDir
+    Path tempDir;
+
+    private WordDocumentService wordDocumentService;
+    private TemplateUploadServiceImpl templateUploadService;
+
+    @BeforeEach
+    public void setup() {
+        wordDocumentService = spy(new WordDocumentServiceImpl(new ObjectMapper()));
+        templateUploadService = new TemplateUploadServiceImpl(new FileStorageServiceImpl(tempDir),
+                wordDocumentService);
+    }
+
+    @Test
+    public void testUploadValidDocument() throws Exception {
+        byte[] docx = TestDocumentGenerator.createBasicFormDocument();
+        MockMultipartFile file = new MockMultipartFile("file", "template.docx", DOCX_CONTENT_TYPE, docx);
+
+        TemplateUploadResult result = templateUploadService.uploadWordTemplate(file, "templates");
+
+        assertTrue(result.isValid());
+        assertEquals("templates/" + result.getFileName(), result.getFilePath());
+        assertEquals(wordDocumentService.parseWordDocument(file), result.getTemplateContent());
+
+        // 保存的文件与上传内容一致
+        assertNotNull(result.getFileName());
+        assertEquals(docx.length, Files.size(tempDir.resolve(result.getFilePath())));
+
+        // 上传过程中不再单独进行格式校验和基于MultipartFile的二次解析
+        verify(wordDocumentService, never()).isValidWordDocument(any());
+    }
+
+    @Test
+    public void testRepeatedUploadUsesCachedParse() throws Exception {
+        ParsedTemplateCache cache = new ParsedTemplateCache(new SimpleMeterRegistry(), 10, 1024 * 1024);
+        WordDocumentService cachingService = spy(new WordDocumentServiceImpl(new ObjectMapper(),
+                WordDocumentServiceImpl.ENGINE_DOM, cache));
+        TemplateUploadServiceImpl service = new TemplateUploadServiceImpl(new FileStorageServiceImpl(tempDir),
+                cachingService);
+        MockMultipartFile file = new MockMultipartFile("file", "template.docx", DOCX_CONTENT_TYPE,
+                TestDocumentGenerator.createBasicFormDocument());
+
+        TemplateUploadResult first = service.uploadWordTemplate(file, "templates");
+        TemplateUploadResult second = service.uploadWordTemplate(file, "templates");
+
+        // 相同内容再次上传时命中解析缓存，文件仍然保存
+        assertEquals(first.getTemplateContent(), second.getTemplateContent());
+        assertTrue(Files.exists(tempDir.resolve(second.getFilePath())));
+        verify(cachingService, times(1)).parseWordDocument(any(InputStream.class));
+    }
+
+    @Test
+    public void testUploadInvalidDocumentRemovesFile() throws IOException {
+        MultipartFile file = new MockMultipartFile("file", "broken.docx", DOCX_CONTENT_TYPE,
+                "not a docx".getBytes());
+
+        TemplateUploadResult result = templateUploadService.uploadWordTemplate(file, "templates");
+
+        assertFalse(result.isValid());
+        assertNotNull(result.getMessage());
+        try (var files = Files.list(tempDir.resolve("templates"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void testUploadWrongExtension() {
+        MultipartFile file = new MockMultipartFile("file", "template.txt", "text/plain", "text".getBytes());
+
+        TemplateUploadResult result = templateUploadService.uploadWordTemplate(file, "templates");
+
+        assertFalse(result.isValid());
+        assertFalse(Files.exists(tempDir.resolve("templates")));
+    }
+
+    @Test
+    public void testUploadFromStreamReadsContentOnce() throws Exception {
+        byte[] docx = TestDocumentGenerator.createBasicFormDocument();
+        CountingInputStream inputStream = new CountingInputStream(new ByteArrayInputStream(docx));
+
+        TemplateUploadResult result = templateUploadService.uploadWordTemplate(inputStream, "template.docx",
+                "templates");
+
+        assertTrue(result.isValid());
+        assertEquals(wordDocumentService.parseWordDocument(new ByteArrayInputStream(docx)),
+                result.getTemplateContent());
+        assertArrayEquals(docx, Files.readAllBytes(tempDir.resolve(result.getFilePath())));
+        // 写入和解析共用一次读取
+        assertEquals(docx.length, inputStream.getByteCount());
+        // 流式上传不受配置的DOM引擎影响，使用流式解析
+        verify(wordDocumentService).parseAndCacheWordDocumentStreaming(any());
+        verify(wordDocumentService, never()).parseAndCacheWordDocument(any());
+    }
+}
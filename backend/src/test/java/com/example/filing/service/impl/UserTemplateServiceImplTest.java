@@ -3,32 +3,70 @@ package com.example.filing.service.impl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.Statement;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
 
+import com.example.filing.cache.PrincipalCache;
+import com.example.filing.constants.MetricNames;
 import com.example.filing.constants.UserTemplateStatus;
+import com.example.filing.dto.response.BatchReviewResult;
+import com.example.filing.dto.response.CursorPage;
+import com.example.filing.dto.response.UserTemplateDTO;
+import com.example.filing.dto.response.UserTemplateUpdateResult;
 import com.example.filing.entity.SysUser;
 import com.example.filing.entity.TemplateRegistry;
 import com.example.filing.entity.UserTemplate;
+import com.example.filing.event.TemplateEventBus;
+import com.example.filing.event.TemplateStatusEvent;
 import com.example.filing.repository.SysUserRepository;
 import com.example.filing.repository.TemplateRegistryRepository;
 import com.example.filing.repository.UserTemplateRepository;
+import com.example.filing.security.UserIdentityResolver;
+import com.example.filing.service.AuditLogWriter;
+import com.example.filing.service.NotificationService;
+import com.example.filing.service.TemplateStatisticsService;
+import com.example.filing.util.PageCursor;
 import com.example.filing.util.Result;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class UserTemplateServiceImplTest {
 
+    private static final String PATCH_TEMPLATE_ID = "template-relation-patch";
+    private static final String PATCH_USER_ID = "0a1b2c3d-0000-4000-8000-000000000001";
+
     @Mock
     private UserTemplateRepository userTemplateRepository;
 
@@ -38,12 +76,44 @@ class UserTemplateServiceImplTest {
     @Mock
     private SysUserRepository sysUserRepository;
 
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private UserIdentityResolver userIdentityResolver;
+
+    @Mock
+    private TemplateStatisticsService templateStatisticsService;
+
+    @Mock
+    private TemplateEventBus templateEventBus;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     @InjectMocks
     private UserTemplateServiceImpl userTemplateService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+
+        // 使用真实的解析逻辑，查询委托给模拟的用户仓库
+        UserIdentityResolver resolver = new UserIdentityResolver(sysUserRepository,
+                new PrincipalCache(new SimpleMeterRegistry(), 60_000, 100));
+        when(userIdentityResolver.resolveUserId(any()))
+                .thenAnswer(invocation -> resolver.resolveUserId(invocation.getArgument(0)));
+        when(userIdentityResolver.resolveUserIds(any()))
+                .thenAnswer(invocation -> resolver.resolveUserIds(invocation.getArgument(0)));
     }
 
     @Test
@@ -135,6 +205,48 @@ class UserTemplateServiceImplTest {
         assertTrue(result.getMessage().contains("发送成功"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testApplyTemplate_SkipsAlreadyAssignedUsers() {
+        String templateId = "template-123";
+        String assignedId = "0a1b2c3d-0000-4000-8000-000000000001";
+        String newId = "0a1b2c3d-0000-4000-8000-000000000002";
+        String adminId = "0a1b2c3d-0000-4000-8000-0000000000ad";
+        TemplateRegistry template = new TemplateRegistry();
+        template.setId(templateId);
+        when(templateRegistryRepository.findById(templateId)).thenReturn(Optional.of(template));
+        SysUser assignedUser = new SysUser();
+        assignedUser.setId(assignedId);
+        SysUser newUser = new SysUser();
+        newUser.setId(newId);
+        when(sysUserRepository.findAllById(any())).thenReturn(Arrays.asList(assignedUser, newUser));
+        when(userTemplateRepository.findAssignedUserIds(eq(templateId), any())).thenReturn(List.of(assignedId));
+        when(userTemplateRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<UserTemplate> relations = invocation.getArgument(0);
+            relations.forEach(relation -> relation.setId("relation-" + relation.getUserId()));
+            return relations;
+        });
+
+        // 重复出现的用户只算一次，已持有的用户跳过
+        Result<List<String>> result = userTemplateService.applyTemplate(templateId,
+                Arrays.asList(assignedId, newId, newId), adminId, true);
+
+        assertEquals(200, result.getCode());
+        assertEquals(List.of("relation-" + newId), result.getData());
+        ArgumentCaptor<List<UserTemplate>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userTemplateRepository).saveAll(saved.capture());
+        assertEquals(List.of(newId), saved.getValue().stream().map(UserTemplate::getUserId).toList());
+
+        // 全部已持有时不写入任何关系
+        when(userTemplateRepository.findAssignedUserIds(eq(templateId), any()))
+                .thenReturn(List.of(assignedId, newId));
+        Result<List<String>> retried = userTemplateService.applyTemplate(templateId,
+                Arrays.asList(assignedId, newId), adminId, true);
+        assertEquals(200, retried.getCode());
+        assertTrue(retried.getData().isEmpty());
+        verify(userTemplateRepository, times(1)).saveAll(anyList());
+    }
+
     @Test
     void testApplyTemplate_TemplateNotFound() {
         // 准备测试数据
@@ -310,4 +422,299 @@ class UserTemplateServiceImplTest {
         assertEquals(500, result.getCode());
         assertTrue(result.getMessage().contains("无权操作他人的模板"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPatchTemplateContent_JsonPatch() throws Exception {
+        UserTemplate userTemplate = patchableTemplate();
+        when(userTemplateRepository.updateContentIfVersionMatches(eq(PATCH_TEMPLATE_ID), anyString(),
+                eq(UserTemplateStatus.FILLING), eq(3L), any())).thenReturn(1);
+
+        Result<UserTemplateUpdateResult> result = userTemplateService.patchTemplateContent(PATCH_TEMPLATE_ID,
+                "[{\"op\":\"replace\",\"path\":\"/formData/field1\",\"value\":\"new\"},"
+                        + "{\"op\":\"add\",\"path\":\"/formData/rows/-\",\"value\":3}]",
+                false, 3L, PATCH_USER_ID);
+
+        assertEquals(200, result.getCode());
+        assertTrue(result.getData().isChanged());
+        assertEquals(4L, result.getData().getVersion());
+        assertEquals(UserTemplateStatus.FILLING, result.getData().getStatus());
+        verify(userTemplateRepository).updateContentIfVersionMatches(eq(PATCH_TEMPLATE_ID),
+                eq("{\"formData\":{\"field1\":\"new\",\"rows\":[1,2,3]}}"), eq(UserTemplateStatus.FILLING),
+                eq(3L), any());
+        verify(templateStatisticsService).recordStatusChange(PATCH_USER_ID, "template-123",
+                UserTemplateStatus.PENDING_FILL, UserTemplateStatus.FILLING);
+        verify(templateEventBus).publish(argThat((TemplateStatusEvent event) -> PATCH_TEMPLATE_ID
+                .equals(event.userTemplateId()) && event.newStatus() == UserTemplateStatus.FILLING));
+        verify(notificationService).notifyStatusChange(any(UserTemplate.class), eq(UserTemplateStatus.PENDING_FILL),
+                eq(UserTemplateStatus.FILLING), eq(PATCH_USER_ID));
+    }
+
+    @Test
+    void testPatchTemplateContent_UnchangedContentIsNotWritten() {
+        patchableTemplate();
+
+        Result<UserTemplateUpdateResult> result = userTemplateService.patchTemplateContent(PATCH_TEMPLATE_ID,
+                "{\"formData\":{\"field1\":\"old\"}}", true, 3L, PATCH_USER_ID);
+
+        assertEquals(200, result.getCode());
+        assertFalse(result.getData().isChanged());
+        assertEquals(3L, result.getData().getVersion());
+        verify(userTemplateRepository, never()).updateContentIfVersionMatches(anyString(), anyString(), any(),
+                anyLong(), any());
+    }
+
+    @Test
+    void testPatchTemplateContent_StaleVersionIsRejected() {
+        patchableTemplate();
+
+        Result<UserTemplateUpdateResult> result = userTemplateService.patchTemplateContent(PATCH_TEMPLATE_ID,
+                "{\"formData\":{\"field1\":\"new\"}}", true, 2L, PATCH_USER_ID);
+
+        assertEquals(409, result.getCode());
+        assertEquals(3L, result.getData().getVersion());
+        verify(userTemplateRepository, never()).updateContentIfVersionMatches(anyString(), anyString(), any(),
+                anyLong(), any());
+        assertEquals(1.0, meterRegistry.get(MetricNames.USER_TEMPLATE_VERSION_CONFLICTS)
+                .tag("operation", "patch").counter().count());
+    }
+
+    @Test
+    void testSaveTemplateContent_StaleVersionIsRejected() {
+        UserTemplate userTemplate = patchableTemplate();
+
+        Result<UserTemplateUpdateResult> result = userTemplateService.saveTemplateContent(PATCH_TEMPLATE_ID,
+                "{\"formData\":{\"field1\":\"new\"}}", 2L, PATCH_USER_ID);
+
+        assertEquals(409, result.getCode());
+        assertEquals(3L, result.getData().getVersion());
+        assertEquals("{\"formData\":{\"field1\":\"old\",\"rows\":[1,2]}}", userTemplate.getContent());
+        verify(userTemplateRepository, never()).saveAndFlush(any());
+        assertEquals(1.0, meterRegistry.get(MetricNames.USER_TEMPLATE_VERSION_CONFLICTS)
+                .tag("operation", "content").counter().count());
+    }
+
+    @Test
+    void testSaveTemplateContent_UnchangedContentIsNotWritten() {
+        UserTemplate userTemplate = patchableTemplate();
+        userTemplate.setStatus(UserTemplateStatus.FILLING);
+
+        Result<UserTemplateUpdateResult> result = userTemplateService.saveTemplateContent(PATCH_TEMPLATE_ID,
+                userTemplate.getContent(), 3L, PATCH_USER_ID);
+
+        assertEquals(200, result.getCode());
+        assertFalse(result.getData().isChanged());
+        verify(userTemplateRepository, never()).saveAndFlush(any());
+        verify(auditLogWriter, never()).write(any());
+    }
+
+    @Test
+    void testUpdateTemplateStatus_StaleVersionIsRejected() {
+        UserTemplate userTemplate = patchableTemplate();
+        userTemplate.setStatus(UserTemplateStatus.FILLING);
+
+        Result<UserTemplateUpdateResult> result = userTemplateService.updateTemplateStatus(PATCH_TEMPLATE_ID,
+                UserTemplateStatus.UNDER_REVIEW, null, 1L, PATCH_USER_ID, false);
+
+        assertEquals(409, result.getCode());
+        assertEquals(UserTemplateStatus.FILLING, userTemplate.getStatus());
+        verify(userTemplateRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testPatchTemplateContent_ConcurrentUpdateIsRejected() {
+        patchableTemplate();
+        // 读取之后、写入之前被其他请求修改
+        when(userTemplateRepository.updateContentIfVersionMatches(anyString(), anyString(), any(), anyLong(), any()))
+                .thenReturn(0);
+
+        Result<UserTemplateUpdateResult> result = userTemplateService.patchTemplateContent(PATCH_TEMPLATE_ID,
+                "{\"formData\":{\"field1\":\"new\"}}", true, 3L, PATCH_USER_ID);
+
+        assertEquals(409, result.getCode());
+    }
+
+    @Test
+    void testGetUserTemplateCursorPage_ReturnsNextCursorWhenMoreRows() {
+        LocalDateTime time = LocalDateTime.of(2024, 5, 1, 10, 0);
+        List<UserTemplateDTO> rows = List.of(listItem("c", time), listItem("b", time), listItem("a", time));
+        when(userTemplateRepository.findByUserIdWithTemplateInfoAfter(eq(PATCH_USER_ID), any(), anyString(),
+                any(), any(), any(), eq(PageRequest.of(0, 3)))).thenReturn(rows);
+
+        Result<CursorPage<UserTemplateDTO>> result = userTemplateService.getUserTemplateCursorPage(PATCH_USER_ID,
+                null, null, null, null, 2, false);
+
+        assertEquals(200, result.getCode());
+        CursorPage<UserTemplateDTO> page = result.getData();
+        assertEquals(List.of("c", "b"), page.getItems().stream().map(UserTemplateDTO::getId).toList());
+        assertTrue(page.isHasMore());
+        assertEquals(new PageCursor(time, "b"), PageCursor.decode(page.getNextCursor()));
+        // 未请求总数时不执行count查询
+        assertNull(page.getTotal());
+        verify(userTemplateRepository, never()).countByUserIdWithTemplateInfoFilters(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetUserTemplateCursorPage_SeeksFromCursor() {
+        LocalDateTime time = LocalDateTime.of(2024, 5, 1, 10, 0);
+        when(userTemplateRepository.findAllWithTemplateInfoAfter(any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(listItem("a", time)));
+        when(userTemplateRepository.countAllWithTemplateInfoFilters("报表", null, null)).thenReturn(3L);
+
+        Result<CursorPage<UserTemplateDTO>> result = userTemplateService.getUserTemplateCursorPage(null, "报表",
+                null, null, new PageCursor(time, "b").encode(), 2, true);
+
+        verify(userTemplateRepository).findAllWithTemplateInfoAfter(time, "b", "报表", null, null,
+                PageRequest.of(0, 3));
+        assertFalse(result.getData().isHasMore());
+        assertNull(result.getData().getNextCursor());
+        assertEquals(3L, result.getData().getTotal());
+    }
+
+    @Test
+    void testGetUserTemplateCursorPage_InvalidCursorIsRejected() {
+        Result<CursorPage<UserTemplateDTO>> result = userTemplateService.getUserTemplateCursorPage(null, null, null,
+                null, "not-a-cursor", 20, false);
+
+        assertEquals(400, result.getCode());
+        verify(userTemplateRepository, never()).findAllWithTemplateInfoAfter(any(), any(), any(), any(), any(),
+                any());
+    }
+
+    private UserTemplateDTO listItem(String id, LocalDateTime createTime) {
+        UserTemplateDTO dto = new UserTemplateDTO();
+        dto.setId(id);
+        dto.setUserId(PATCH_USER_ID);
+        dto.setCreateTime(createTime);
+        return dto;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchReviewTemplates_PerIdOutcomes() {
+        String adminId = "0a1b2c3d-0000-4000-8000-0000000000ad";
+        UserTemplate approvable = reviewTemplate("relation-ok", UserTemplateStatus.UNDER_REVIEW, 5L);
+        UserTemplate conflicting = reviewTemplate("relation-conflict", UserTemplateStatus.UNDER_REVIEW, 2L);
+        UserTemplate pending = reviewTemplate("relation-pending", UserTemplateStatus.PENDING_APPROVAL, 1L);
+        when(userTemplateRepository.findAllById(anyList()))
+                .thenReturn(List.of(pending, conflicting, approvable));
+        // 第二条记录在加载后被并发修改，条件更新行数为0
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenReturn(new int[][] { { 1, 0 } });
+        SysUser admin = new SysUser();
+        admin.setId(adminId);
+        admin.setUserName("管理员");
+        when(sysUserRepository.findById(adminId)).thenReturn(Optional.of(admin));
+
+        Result<BatchReviewResult> result = userTemplateService.batchReviewTemplates(
+                Arrays.asList("relation-ok", "relation-missing", "relation-conflict", "relation-pending",
+                        "relation-ok"),
+                UserTemplateStatus.REVIEW_APPROVED, "批量通过", adminId);
+
+        assertEquals(200, result.getCode());
+        BatchReviewResult batch = result.getData();
+        assertEquals(1, batch.getSucceeded());
+        assertEquals(3, batch.getFailed());
+        List<BatchReviewResult.Item> items = batch.getItems();
+        assertEquals(Arrays.asList("relation-ok", "relation-missing", "relation-conflict", "relation-pending"),
+                items.stream().map(BatchReviewResult.Item::getId).toList());
+        assertTrue(items.get(0).isSuccess());
+        assertEquals(6L, items.get(0).getVersion());
+        assertEquals("用户模板关系不存在", items.get(1).getMessage());
+        assertTrue(items.get(2).getMessage().contains("已被其他请求修改"));
+        assertEquals("当前状态不允许变更为目标状态", items.get(3).getMessage());
+
+        // 只有允许转换的记录参与批量更新，后续处理只针对更新成功的记录
+        ArgumentCaptor<List<UserTemplate>> candidates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), candidates.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(Arrays.asList("relation-ok", "relation-conflict"),
+                candidates.getValue().stream().map(UserTemplate::getId).toList());
+        verify(userTemplateRepository, never()).saveAndFlush(any());
+        verify(templateStatisticsService).recordStatusChange(PATCH_USER_ID, "template-123",
+                UserTemplateStatus.UNDER_REVIEW, UserTemplateStatus.REVIEW_APPROVED);
+        verify(auditLogWriter).write(any());
+        verify(notificationService).notifyStatusChange(approvable, UserTemplateStatus.UNDER_REVIEW,
+                UserTemplateStatus.REVIEW_APPROVED, adminId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchReviewTemplates_UnknownUpdateCountsAreConfirmedByVersion() {
+        String adminId = "0a1b2c3d-0000-4000-8000-0000000000ad";
+        UserTemplate updated = reviewTemplate("relation-updated", UserTemplateStatus.UNDER_REVIEW, 5L);
+        UserTemplate stale = reviewTemplate("relation-stale", UserTemplateStatus.UNDER_REVIEW, 2L);
+        when(userTemplateRepository.findAllById(anyList())).thenReturn(List.of(updated, stale));
+        // 驱动未返回影响行数
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][] { { Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO } });
+        // 第二条记录在加载后、加锁前已被并发修改，更新后版本号与第一条一样是加载时的版本号加一
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), any(Object[].class))).thenReturn(List.of(
+                Map.of("id", "relation-updated", "version", 5L), Map.of("id", "relation-stale", "version", 3L)));
+        when(jdbcTemplate.queryForList(not(contains("FOR UPDATE")), any(Object[].class))).thenReturn(List.of(
+                Map.of("id", "relation-updated", "version", 6L), Map.of("id", "relation-stale", "version", 3L)));
+
+        Result<BatchReviewResult> result = userTemplateService.batchReviewTemplates(
+                List.of("relation-updated", "relation-stale"), UserTemplateStatus.REVIEW_APPROVED, null, adminId);
+
+        BatchReviewResult batch = result.getData();
+        assertEquals(1, batch.getSucceeded());
+        assertTrue(batch.getItems().get(0).isSuccess());
+        assertTrue(batch.getItems().get(1).getMessage().contains("已被其他请求修改"));
+        // 未确认更新的记录不发布统计、审核日志和通知
+        verify(templateStatisticsService).recordStatusChange(PATCH_USER_ID, "template-123",
+                UserTemplateStatus.UNDER_REVIEW, UserTemplateStatus.REVIEW_APPROVED);
+        verify(auditLogWriter).write(any());
+        verify(notificationService).notifyStatusChange(updated, UserTemplateStatus.UNDER_REVIEW,
+                UserTemplateStatus.REVIEW_APPROVED, adminId);
+        verify(notificationService, never()).notifyStatusChange(eq(stale), any(), anyInt(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAssignTemplateChunk_SkipsAssignedUsersAndBatchInserts() {
+        String adminId = "0a1b2c3d-0000-4000-8000-0000000000ad";
+        when(userTemplateRepository.findAssignedUserIds(eq("template-123"), any()))
+                .thenReturn(List.of("user-assigned"));
+
+        Result<Integer> result = userTemplateService.assignTemplateChunk("template-123",
+                Arrays.asList("user-1", "user-assigned", "user-2", "user-1"), adminId, "管理员");
+
+        assertEquals(200, result.getCode());
+        assertEquals(2, result.getData());
+        // 关系通过JDBC批量插入，不经过持久化上下文
+        ArgumentCaptor<List<UserTemplate>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), inserted.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(Arrays.asList("user-1", "user-2"),
+                inserted.getValue().stream().map(UserTemplate::getUserId).toList());
+        assertTrue(inserted.getValue().stream().allMatch(userTemplate -> userTemplate.getId() != null
+                && userTemplate.getStatus() == UserTemplateStatus.PENDING_FILL));
+        verify(userTemplateRepository, never()).saveAll(any());
+        verify(auditLogWriter, times(2)).write(any());
+        verify(templateStatisticsService).recordStatusChange("user-2", "template-123", null,
+                UserTemplateStatus.PENDING_FILL);
+    }
+
+    private UserTemplate reviewTemplate(String id, int status, long version) {
+        UserTemplate userTemplate = new UserTemplate();
+        userTemplate.setId(id);
+        userTemplate.setUserId(PATCH_USER_ID);
+        userTemplate.setTemplateId("template-123");
+        userTemplate.setStatus(status);
+        userTemplate.setVersion(version);
+        return userTemplate;
+    }
+
+    private UserTemplate patchableTemplate() {
+        UserTemplate userTemplate = new UserTemplate();
+        userTemplate.setId(PATCH_TEMPLATE_ID);
+        userTemplate.setUserId(PATCH_USER_ID);
+        userTemplate.setTemplateId("template-123");
+        userTemplate.setContent("{\"formData\":{\"field1\":\"old\",\"rows\":[1,2]}}");
+        userTemplate.setStatus(UserTemplateStatus.PENDING_FILL);
+        userTemplate.setVersion(3L);
+        when(userTemplateRepository.findById(PATCH_TEMPLATE_ID)).thenReturn(Optional.of(userTemplate));
+        return userTemplate;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.filing.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * DOM与StAX解析引擎的内存与耗时对比
+ * 默认不执行，运行方式：mvn test -Dtest=WordDocumentParserBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class WordDocumentParserBenchmarkTest {
+
+    private static final int PARAGRAPHS = 40_000;
+    private static final int TABLES = 200;
+    private static final int TABLE_ROWS = 20;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 5;
+
+    @Test
+    public void compareDomAndStax() throws Exception {
+        byte[] docx = createLargeDocument();
+        ObjectMapper objectMapper = new ObjectMapper();
+        WordDocumentServiceImpl dom = new WordDocumentServiceImpl(objectMapper, WordDocumentServiceImpl.ENGINE_DOM);
+        WordDocumentServiceImpl stax = new WordDocumentServiceImpl(objectMapper, WordDocumentServiceImpl.ENGINE_STAX);
+
+        assertEquals(objectMapper.readTree(dom.parseWordDocument(new ByteArrayInputStream(docx))),
+                objectMapper.readTree(stax.parseWordDocument(new ByteArrayInputStream(docx))));
+
+        Measurement domResult = measure(dom, docx);
+        Measurement staxResult = measure(stax, docx);
+
+        System.out.printf("文档大小: %.1f MB (%d段落, %d表格)%n", docx.length / 1024.0 / 1024.0, PARAGRAPHS, TABLES);
+        System.out.printf("dom : 平均耗时 %6d ms, 平均分配 %8.1f MB%n", domResult.millis, domResult.allocatedMb);
+        System.out.printf("stax: 平均耗时 %6d ms, 平均分配 %8.1f MB%n", staxResult.millis, staxResult.allocatedMb);
+    }
+
+    private Measurement measure(WordDocumentServiceImpl service, byte[] docx) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            service.parseWordDocument(new ByteArrayInputStream(docx));
+        }
+
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            service.parseWordDocument(new ByteArrayInputStream(docx));
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Measurement(elapsed / 1_000_000 / MEASURE_ROUNDS,
+                allocated / 1024.0 / 1024.0 / MEASURE_ROUNDS);
+    }
+
+    private byte[] createLargeDocument() throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            for (int i = 0; i < PARAGRAPHS; i++) {
+                XWPFParagraph paragraph = document.createParagraph();
+                if (i % 50 == 0) {
+                    paragraph.setStyle("Heading" + (i % 3 + 1));
+                }
+                paragraph.createRun().setText("第" + i + "条 申报事项说明文字：${field_" + i + "}，请按要求如实填写。");
+            }
+            for (int t = 0; t < TABLES; t++) {
+                XWPFTable table = document.createTable(TABLE_ROWS, 4);
+                for (int r = 0; r < TABLE_ROWS; r++) {
+                    for (int c = 0; c < 4; c++) {
+                        table.getRow(r).getCell(c).setText(r == 0 ? "列" + c : "${t" + t + "_r" + r + "_c" + c + "}");
+                    }
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private record Measurement(long millis, double allocatedMb) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.filing.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内对象存储（测试用），记录分块上传和下载次数
+ */
+public class InMemoryObjectStorageClient implements ObjectStorageClient {
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+
+    public final AtomicInteger putCount = new AtomicInteger();
+    public final AtomicInteger partCount = new AtomicInteger();
+    public final AtomicInteger getCount = new AtomicInteger();
+    public final AtomicInteger abortCount = new AtomicInteger();
+
+    @Override
+    public void putObject(String key, byte[] data, int length, String contentType) {
+        putCount.incrementAndGet();
+        objects.put(key, Arrays.copyOf(data, length));
+    }
+
+    @Override
+    public String createMultipartUpload(String key, String contentType) {
+        String uploadId = UUID.randomUUID().toString();
+        uploads.put(uploadId, new TreeMap<>());
+        return uploadId;
+    }
+
+    @Override
+    public String uploadPart(String key, String uploadId, int partNumber, byte[] data, int length)
+            throws IOException {
+        partCount.incrementAndGet();
+        upload(uploadId).put(partNumber, Arrays.copyOf(data, length));
+        return "\"etag-" + partNumber + "\"";
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String uploadId, List<String> partETags) throws IOException {
+        Map<Integer, byte[]> parts = uploads.remove(uploadId);
+        if (parts == null || parts.size() != partETags.size()) {
+            throw new IOException("Invalid part list for " + uploadId);
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (byte[] part : parts.values()) {
+            content.writeBytes(part);
+        }
+        objects.put(key, content.toByteArray());
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) {
+        abortCount.incrementAndGet();
+        uploads.remove(uploadId);
+    }
+
+    @Override
+    public InputStream getObject(String key) throws IOException {
+        getCount.incrementAndGet();
+        byte[] content = objects.get(key);
+        if (content == null) {
+            throw new NoSuchFileException(key);
+        }
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public boolean deleteObject(String key) {
+        return objects.remove(key) != null;
+    }
+
+    @Override
+    public URI presignGetObject(String key, Duration expiry, String downloadFilename) {
+        return URI.create("http://storage.test/" + key + "?expires=" + expiry.toSeconds());
+    }
+
+    public byte[] content(String key) {
+        return objects.get(key);
+    }
+
+    public int pendingUploads() {
+        return uploads.size();
+    }
+
+    private Map<Integer, byte[]> upload(String uploadId) throws IOException {
+        Map<Integer, byte[]> parts = uploads.get(uploadId);
+        if (parts == null) {
+            throw new IOException("No such upload " + uploadId);
+        }
+        return parts;
+    }
+}
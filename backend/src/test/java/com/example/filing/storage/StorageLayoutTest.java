@@ -0,0 +1,79 @@
+package com.example.filing.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StorageLayoutTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testNewFilesAreShardedByNamePrefix() {
+        StorageLayout layout = new StorageLayout(tempDir, 2);
+
+        Path path = layout.newFilePath("templates", "3f2a9c10-aaaa.docx");
+
+        assertEquals(tempDir.resolve("templates/3f/2a/3f2a9c10-aaaa.docx"), path);
+        assertTrue(Files.isDirectory(path.getParent()));
+        // 非十六进制前缀的文件名不分片
+        assertEquals(tempDir.resolve("templates/readme.txt"), layout.newFilePath("templates", "readme.txt"));
+    }
+
+    @Test
+    public void testDirectoriesAreCreatedOnce() throws IOException {
+        StorageLayout layout = new StorageLayout(tempDir, 1);
+        Path directory = layout.directory("templates");
+
+        // 缓存命中后不再访问文件系统，即使目录已被删除
+        Files.delete(directory);
+        assertSame(directory, layout.directory("templates"));
+    }
+
+    @Test
+    public void testLocateFallsBackToFlatLayout() throws IOException {
+        StorageLayout layout = new StorageLayout(tempDir, 1);
+        Files.createDirectories(tempDir.resolve("templates"));
+        Path legacy = Files.writeString(tempDir.resolve("templates/ab12.docx"), "legacy");
+
+        assertEquals(legacy, layout.locate("templates", "ab12.docx"));
+        assertEquals(tempDir.resolve("templates/cd/cd34.docx"), layout.locate("templates", "cd34.docx"));
+    }
+
+    @Test
+    public void testLegacyFilesAreListedOnce() throws IOException {
+        StorageLayout layout = new StorageLayout(tempDir, 1);
+        Files.createDirectories(tempDir.resolve("templates"));
+        Path legacy = Files.writeString(tempDir.resolve("templates/ab12.docx"), "legacy");
+        assertEquals(legacy, layout.locate("templates", "ab12.docx"));
+
+        // 之后定位不再访问文件系统：原路径文件被删除后仍返回原路径，新出现的原路径文件不会被发现
+        Files.delete(legacy);
+        Files.writeString(tempDir.resolve("templates/cd34.docx"), "late");
+        assertEquals(legacy, layout.locate("templates", "ab12.docx"));
+        assertEquals(tempDir.resolve("templates/cd/cd34.docx"), layout.locate("templates", "cd34.docx"));
+
+        // 同名文件重新保存后按分片路径读取
+        Path resaved = layout.newFilePath("templates", "ab12.docx");
+        assertEquals(tempDir.resolve("templates/ab/ab12.docx"), resaved);
+        assertEquals(resaved, layout.locate("templates", "ab12.docx"));
+    }
+
+    @Test
+    public void testPathsAreConfinedToRoot() {
+        StorageLayout layout = new StorageLayout(tempDir, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> layout.locate("templates", "../../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> layout.locate("../outside", "file.txt"));
+        assertThrows(IllegalArgumentException.class, () -> layout.directory("/tmp"));
+    }
+}
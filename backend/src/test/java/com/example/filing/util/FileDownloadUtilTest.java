@@ -0,0 +1,78 @@
+package com.example.filing.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class FileDownloadUtilTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testParseRange() {
+        assertEquals(new FileDownloadUtil.ByteRange(0, 99), FileDownloadUtil.parseRange("bytes=0-99", 1000));
+        assertEquals(new FileDownloadUtil.ByteRange(900, 999), FileDownloadUtil.parseRange("bytes=900-", 1000));
+        assertEquals(new FileDownloadUtil.ByteRange(900, 999), FileDownloadUtil.parseRange("bytes=-100", 1000));
+        assertEquals(new FileDownloadUtil.ByteRange(0, 999), FileDownloadUtil.parseRange("bytes=-5000", 1000));
+        assertEquals(new FileDownloadUtil.ByteRange(990, 999), FileDownloadUtil.parseRange("bytes=990-5000", 1000));
+
+        // 不合法或多个范围时忽略Range，返回完整内容
+        assertNull(FileDownloadUtil.parseRange(null, 1000));
+        assertNull(FileDownloadUtil.parseRange("items=0-1", 1000));
+        assertNull(FileDownloadUtil.parseRange("bytes=0-1,5-6", 1000));
+        assertNull(FileDownloadUtil.parseRange("bytes=abc", 1000));
+        assertNull(FileDownloadUtil.parseRange("bytes=10-5", 1000));
+
+        assertThrows(IllegalArgumentException.class, () -> FileDownloadUtil.parseRange("bytes=1000-", 1000));
+        assertThrows(IllegalArgumentException.class, () -> FileDownloadUtil.parseRange("bytes=-0", 1000));
+    }
+
+    @Test
+    public void testContentType() {
+        assertEquals("application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+                FileDownloadUtil.contentType("6f1c.docx").toString());
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM, FileDownloadUtil.contentType("unknown.bin123"));
+    }
+
+    @Test
+    public void testTransferWritesRequestedRegion() throws Exception {
+        byte[] content = new byte[100_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Path file = Files.write(tempDir.resolve("data.bin"), content);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileDownloadUtil.transfer(file, 1000, 60_000, new MockHttpServletRequest(), response);
+
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 61_000), response.getContentAsByteArray());
+    }
+
+    @Test
+    public void testTransferDelegatesToSendfileWhenSupported() throws Exception {
+        Path file = Files.write(tempDir.resolve("data.bin"), new byte[100_000]);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileDownloadUtil.transfer(file, 10, 50_000, request, response);
+
+        // 由容器发送，响应体不经过应用写出；结束位置不包含
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(50_010L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.filing.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class JsonPatchUtilTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testJsonPatchOperations() throws Exception {
+        JsonNode target = json("{\"a\":{\"b\":1},\"list\":[\"x\",\"y\"],\"k~/\":0}");
+
+        JsonNode result = JsonPatchUtil.applyJsonPatch(target, json("["
+                + "{\"op\":\"add\",\"path\":\"/a/c\",\"value\":[1]},"
+                + "{\"op\":\"add\",\"path\":\"/list/1\",\"value\":\"z\"},"
+                + "{\"op\":\"remove\",\"path\":\"/list/0\"},"
+                + "{\"op\":\"replace\",\"path\":\"/k~0~1\",\"value\":5},"
+                + "{\"op\":\"copy\",\"from\":\"/a/b\",\"path\":\"/copied\"},"
+                + "{\"op\":\"move\",\"from\":\"/a/c\",\"path\":\"/moved\"},"
+                + "{\"op\":\"test\",\"path\":\"/list\",\"value\":[\"z\",\"y\"]}]"));
+
+        assertEquals(json("{\"a\":{\"b\":1},\"list\":[\"z\",\"y\"],\"k~/\":5,\"copied\":1,\"moved\":[1]}"), result);
+        // 原文档不被修改
+        assertEquals(json("{\"a\":{\"b\":1},\"list\":[\"x\",\"y\"],\"k~/\":0}"), target);
+    }
+
+    @Test
+    public void testJsonPatchRejectsInvalidOperations() throws Exception {
+        JsonNode target = json("{\"a\":1,\"list\":[1]}");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatchUtil.applyJsonPatch(target, json("[{\"op\":\"remove\",\"path\":\"/missing\"}]")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatchUtil.applyJsonPatch(target, json("[{\"op\":\"replace\",\"path\":\"/list/1\",\"value\":2}]")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatchUtil.applyJsonPatch(target, json("[{\"op\":\"test\",\"path\":\"/a\",\"value\":2}]")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatchUtil.applyJsonPatch(target, json("[{\"op\":\"add\",\"path\":\"/a\"}]")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatchUtil.applyJsonPatch(target, json("{\"op\":\"add\"}")));
+    }
+
+    @Test
+    public void testMergePatch() throws Exception {
+        JsonNode target = json("{\"a\":\"b\",\"c\":{\"d\":\"e\",\"f\":\"g\"},\"list\":[1,2]}");
+
+        JsonNode result = JsonPatchUtil.applyMergePatch(target,
+                json("{\"a\":\"z\",\"c\":{\"f\":null},\"list\":[3],\"n\":{\"x\":1}}"));
+
+        assertEquals(json("{\"a\":\"z\",\"c\":{\"d\":\"e\"},\"list\":[3],\"n\":{\"x\":1}}"), result);
+    }
+
+    private JsonNode json(String value) throws Exception {
+        return objectMapper.readTree(value);
+    }
+}
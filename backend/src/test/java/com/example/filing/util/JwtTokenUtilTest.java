@@ -3,8 +3,11 @@ package com.example.filing.util;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Instant;
 import java.util.Collections;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +16,8 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import io.jsonwebtoken.JwtException;
+
 public class JwtTokenUtilTest {
 
     private JwtTokenUtil jwtTokenUtil;
@@ -111,4 +116,32 @@ public class JwtTokenUtilTest {
         assertEquals(Integer.valueOf(role), jwtTokenUtil.extractRole(token));
         assertNotNull(jwtTokenUtil.extractExpiration(token));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParseToken_ReturnsCachedClaims() {
+        // Arrange
+        String token = jwtTokenUtil.generateToken("testuser", 2);
+
+        // Act
+        JwtTokenUtil.TokenClaims first = jwtTokenUtil.parseToken(token);
+        JwtTokenUtil.TokenClaims second = jwtTokenUtil.parseToken(token);
+
+        // Assert
+        assertEquals("testuser", first.username());
+        assertEquals(Integer.valueOf(2), first.role());
+        assertTrue(first.expiresAt().isAfter(Instant.now()));
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testParseToken_TamperedTokenIsRejected() {
+        // Arrange
+        String token = jwtTokenUtil.generateToken("testuser", 2);
+        jwtTokenUtil.parseToken(token);
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert: 缓存以完整令牌为键，签名被篡改的令牌不会命中
+        assertThrows(JwtException.class, () -> jwtTokenUtil.parseToken(tampered));
+    }
+}
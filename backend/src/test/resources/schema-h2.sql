@@ -35,6 +35,15 @@ CREATE TABLE template_registry (
     deleted INT DEFAULT 0
 );
 
+-- 创建模板备案编号序列表
+DROP TABLE IF EXISTS template_code_sequence;
+
+CREATE TABLE template_code_sequence (
+    seq_date VARCHAR(8) PRIMARY KEY,
+    next_value INT NOT NULL,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 -- 创建用户模板关系表
 DROP TABLE IF EXISTS user_template;
 
@@ -44,6 +53,7 @@ CREATE TABLE user_template (
     template_id VARCHAR(36) NOT NULL,
     content CLOB,
     status INT DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
     remarks CLOB,
     create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
@@ -53,6 +63,8 @@ CREATE TABLE user_template (
 CREATE INDEX idx_user_id ON user_template(user_id);
 CREATE INDEX idx_template_id ON user_template(template_id);
 CREATE INDEX idx_status ON user_template(status);
+CREATE INDEX idx_create_time_id ON user_template(create_time, id);
+CREATE INDEX idx_user_create_time_id ON user_template(user_id, create_time, id);
 
 -- 创建Flyway历史表
 DROP TABLE IF EXISTS flyway_schema_history;
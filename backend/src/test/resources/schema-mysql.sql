@@ -32,6 +32,15 @@ CREATE TABLE `template_registry` (
     `deleted` INT DEFAULT 0 COMMENT '删除标志：0-未删除，1-已删除'
 );
 
+-- 创建模板备案编号序列表
+DROP TABLE IF EXISTS `template_code_sequence`;
+
+CREATE TABLE `template_code_sequence` (
+    `seq_date` VARCHAR(8) PRIMARY KEY COMMENT '日期（yyyyMMdd）',
+    `next_value` INT NOT NULL COMMENT '下一个可分配的序号',
+    `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
 -- 创建用户模板关系表
 DROP TABLE IF EXISTS `user_template`;
 
@@ -41,12 +50,15 @@ CREATE TABLE `user_template` (
     `template_id` VARCHAR(36) NOT NULL COMMENT '模板ID',
     `content` LONGTEXT COMMENT '填写内容（JSON格式）',
     `status` INT DEFAULT 0 COMMENT '状态：0-待审核，1-申请通过，2-拒绝申请，3-待填写，4-填写中，5-审核中，6-审核通过，7-退回',
+    `version` BIGINT NOT NULL DEFAULT 0 COMMENT '内容版本号',
     `remarks` TEXT COMMENT '备注',
     `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP,
     `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    KEY `idx_user_id` (`user_id`),
+    UNIQUE KEY `uk_user_template` (`user_id`, `template_id`),
     KEY `idx_template_id` (`template_id`),
-    KEY `idx_status` (`status`)
+    KEY `idx_status` (`status`),
+    KEY `idx_create_time_id` (`create_time`, `id`),
+    KEY `idx_user_create_time_id` (`user_id`, `create_time`, `id`)
 );
 
 -- 创建操作日志表
@@ -78,4 +90,40 @@ CREATE TABLE `audit_log` (
     `new_status` INT COMMENT '新状态',
     `is_admin` BOOLEAN COMMENT '是否是管理员操作',
     `operation_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '操作时间'
-); 
\ No newline at end of file
+); 
+-- 创建通知发件箱表
+DROP TABLE IF EXISTS `notification_outbox`;
+
+CREATE TABLE `notification_outbox` (
+    `id` VARCHAR(36) PRIMARY KEY,
+    `channel` VARCHAR(20) NOT NULL COMMENT '投递渠道',
+    `user_id` VARCHAR(36) NOT NULL COMMENT '接收用户ID',
+    `user_template_id` VARCHAR(36) NOT NULL COMMENT '用户模板关系ID',
+    `template_id` VARCHAR(36) NOT NULL COMMENT '模板ID',
+    `old_status` INT COMMENT '旧状态',
+    `new_status` INT NOT NULL COMMENT '新状态',
+    `status` VARCHAR(20) NOT NULL COMMENT '投递状态',
+    `attempts` INT NOT NULL DEFAULT 0 COMMENT '已投递次数',
+    `next_attempt_time` DATETIME NOT NULL COMMENT '下次投递时间',
+    `claim_token` VARCHAR(36) COMMENT '领取批次标识',
+    `last_error` VARCHAR(500) COMMENT '最近一次投递失败原因',
+    `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `sent_time` DATETIME COMMENT '投递成功时间',
+    KEY `idx_status_next_attempt` (`status`, `next_attempt_time`),
+    KEY `idx_claim_token` (`claim_token`)
+);
+
+-- 创建站内消息表
+DROP TABLE IF EXISTS `user_message`;
+
+CREATE TABLE `user_message` (
+    `id` VARCHAR(36) PRIMARY KEY,
+    `user_id` VARCHAR(36) NOT NULL COMMENT '接收用户ID',
+    `title` VARCHAR(200) NOT NULL COMMENT '标题',
+    `content` TEXT COMMENT '内容',
+    `related_id` VARCHAR(36) COMMENT '关联的用户模板关系ID',
+    `is_read` BOOLEAN NOT NULL DEFAULT FALSE COMMENT '是否已读',
+    `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `read_time` DATETIME COMMENT '阅读时间',
+    KEY `idx_user_create_time` (`user_id`, `create_time`)
+);
@@ -31,6 +31,15 @@ CREATE TABLE `template_registry` (
     `deleted` INT DEFAULT 0
 );
 
+-- 创建模板备案编号序列表
+DROP TABLE IF EXISTS `template_code_sequence`;
+
+CREATE TABLE `template_code_sequence` (
+    `seq_date` VARCHAR(8) PRIMARY KEY,
+    `next_value` INT NOT NULL,
+    `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
 -- 创建用户模板关系表
 DROP TABLE IF EXISTS `user_template`;
 
@@ -40,6 +49,7 @@ CREATE TABLE `user_template` (
     `template_id` VARCHAR(36) NOT NULL,
     `content` LONGTEXT,
     `status` INT DEFAULT 0,
+    `version` BIGINT NOT NULL DEFAULT 0,
     `remarks` TEXT,
     `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP,
     `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP
@@ -49,6 +59,8 @@ CREATE TABLE `user_template` (
 CREATE INDEX `idx_user_id` ON `user_template`(`user_id`);
 CREATE INDEX `idx_template_id` ON `user_template`(`template_id`);
 CREATE INDEX `idx_status` ON `user_template`(`status`);
+CREATE INDEX `idx_create_time_id` ON `user_template`(`create_time`, `id`);
+CREATE INDEX `idx_user_create_time_id` ON `user_template`(`user_id`, `create_time`, `id`);
 
 -- 创建Flyway历史表，防止Flyway尝试进行迁移
 DROP TABLE IF EXISTS `flyway_schema_history`;